@@ -0,0 +1,337 @@
+package com.spiddekauga.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Binary delta between two versions of a byte array. The delta consists of copy instructions of
+ * blocks that exist in the base version and insert instructions of new bytes; it's small when only
+ * parts of the data have been changed, inserted or removed. Checksums of the base and target are
+ * stored in the delta so that applying it to the wrong base or applying a corrupt delta fails instead
+ * of creating wrong bytes.
+ */
+public class BinaryDelta {
+/** Minimum number of bytes that are copied from the base, shorter matches are inserted */
+private static final int BLOCK_SIZE = 16;
+/** Multiplier of the rolling hash */
+private static final int HASH_PRIME = 0x01000193;
+/** Maximum number of base blocks with the same hash to try at each position */
+private static final int CANDIDATES_MAX = 8;
+/** Copy instruction: base offset, length */
+private static final int OP_COPY = 0;
+/** Insert instruction: length, bytes */
+private static final int OP_INSERT = 1;
+/** HASH_PRIME^(BLOCK_SIZE - 1), used for removing the outgoing byte from the rolling hash */
+private static final int HASH_PRIME_OUT;
+
+static {
+	int primeOut = 1;
+	for (int i = 0; i < BLOCK_SIZE - 1; ++i) {
+		primeOut *= HASH_PRIME;
+	}
+	HASH_PRIME_OUT = primeOut;
+}
+
+/**
+ * Private constructor to enforce static usage
+ */
+private BinaryDelta() {
+	// Does nothing
+}
+
+/**
+ * Creates a delta that transforms base into target
+ * @param base the old version
+ * @param target the new version
+ * @return delta from base to target, use {@link #apply(byte[], byte[])} to recreate target
+ */
+public static byte[] create(byte[] base, byte[] target) {
+	ByteArrayOutputStream delta = new ByteArrayOutputStream(Math.max(64, target.length / 8));
+	writeVarInt(delta, base.length);
+	writeVarInt(delta, target.length);
+	writeInt(delta, checksum(base));
+	writeInt(delta, checksum(target));
+
+	BlockIndex index = new BlockIndex(base);
+	int insertStart = 0;
+	int targetPos = 0;
+	int hash = targetPos + BLOCK_SIZE <= target.length ? hash(target, 0) : 0;
+
+	while (targetPos + BLOCK_SIZE <= target.length) {
+		int matchLength = 0;
+		int matchOffset = 0;
+
+		// Find longest match of the base blocks with the same hash
+		int slot = index.getSlot(hash);
+		int candidates = 0;
+		while (index.mPositions[slot] != 0 && candidates < CANDIDATES_MAX) {
+			if (index.mHashes[slot] == hash) {
+				int baseOffset = index.mPositions[slot] - 1;
+				int length = matchLength(base, baseOffset, target, targetPos);
+				if (length > matchLength) {
+					matchLength = length;
+					matchOffset = baseOffset;
+				}
+				candidates++;
+			}
+			slot = (slot + 1) & index.mMask;
+		}
+
+		if (matchLength >= BLOCK_SIZE) {
+			// Extend backwards into bytes that would've been inserted
+			while (targetPos > insertStart && matchOffset > 0 && base[matchOffset - 1] == target[targetPos - 1]) {
+				targetPos--;
+				matchOffset--;
+				matchLength++;
+			}
+
+			writeInsert(delta, target, insertStart, targetPos);
+			delta.write(OP_COPY);
+			writeVarInt(delta, matchOffset);
+			writeVarInt(delta, matchLength);
+
+			targetPos += matchLength;
+			insertStart = targetPos;
+			if (targetPos + BLOCK_SIZE <= target.length) {
+				hash = hash(target, targetPos);
+			}
+		} else {
+			// Roll the hash one byte forward
+			if (targetPos + BLOCK_SIZE < target.length) {
+				hash = (hash - (target[targetPos] & 0xff) * HASH_PRIME_OUT) * HASH_PRIME + (target[targetPos + BLOCK_SIZE] & 0xff);
+			}
+			targetPos++;
+		}
+	}
+
+	writeInsert(delta, target, insertStart, target.length);
+
+	return delta.toByteArray();
+}
+
+/**
+ * Recreates the target from the base and a delta
+ * @param base the old version, the same that was used to create the delta
+ * @param delta delta created by {@link #create(byte[], byte[])}
+ * @return the recreated target
+ * @throws IllegalArgumentException if the delta wasn't created from this base or is corrupt
+ */
+public static byte[] apply(byte[] base, byte[] delta) {
+	int[] pos = new int[] { 0 };
+	int baseLength = readVarInt(delta, pos);
+	int targetLength = readVarInt(delta, pos);
+	if (baseLength != base.length) {
+		throw new IllegalArgumentException("Delta base length " + baseLength + " doesn't match " + base.length);
+	}
+	int baseChecksum = readInt(delta, pos);
+	int targetChecksum = readInt(delta, pos);
+	if (baseChecksum != checksum(base)) {
+		throw new IllegalArgumentException("Delta wasn't created from this base");
+	}
+
+	byte[] target = new byte[targetLength];
+	int targetPos = 0;
+	while (pos[0] < delta.length) {
+		int op = delta[pos[0]++];
+		if (op == OP_COPY) {
+			int offset = readVarInt(delta, pos);
+			int length = readVarInt(delta, pos);
+			checkRange(offset, length, base.length);
+			checkRange(targetPos, length, targetLength);
+			System.arraycopy(base, offset, target, targetPos, length);
+			targetPos += length;
+		} else if (op == OP_INSERT) {
+			int length = readVarInt(delta, pos);
+			checkRange(pos[0], length, delta.length);
+			checkRange(targetPos, length, targetLength);
+			System.arraycopy(delta, pos[0], target, targetPos, length);
+			pos[0] += length;
+			targetPos += length;
+		} else {
+			throw new IllegalArgumentException("Invalid delta instruction: " + op);
+		}
+	}
+
+	if (targetPos != targetLength) {
+		throw new IllegalArgumentException("Delta is missing " + (targetLength - targetPos) + " bytes");
+	}
+	if (targetChecksum != checksum(target)) {
+		throw new IllegalArgumentException("Delta is corrupt");
+	}
+
+	return target;
+}
+
+/**
+ * Throws an exception if the range isn't within the array
+ * @param offset start of the range
+ * @param length length of the range
+ * @param arrayLength length of the array
+ */
+private static void checkRange(int offset, int length, int arrayLength) {
+	if (offset < 0 || length < 0 || offset + length > arrayLength) {
+		throw new IllegalArgumentException("Delta range out of bounds");
+	}
+}
+
+/**
+ * @param bytes the bytes to calculate the checksum of
+ * @return CRC32 checksum of the bytes
+ */
+private static int checksum(byte[] bytes) {
+	CRC32 crc = new CRC32();
+	crc.update(bytes, 0, bytes.length);
+	return (int) crc.getValue();
+}
+
+/**
+ * Calculate the hash of one block
+ * @param bytes the bytes to hash
+ * @param offset start of the block
+ * @return hash of the block
+ */
+private static int hash(byte[] bytes, int offset) {
+	int hash = 0;
+	for (int i = offset; i < offset + BLOCK_SIZE; ++i) {
+		hash = hash * HASH_PRIME + (bytes[i] & 0xff);
+	}
+	return hash;
+}
+
+/**
+ * @param base the base bytes
+ * @param baseOffset where to start in the base
+ * @param target the target bytes
+ * @param targetOffset where to start in the target
+ * @return number of equal bytes from the offsets
+ */
+private static int matchLength(byte[] base, int baseOffset, byte[] target, int targetOffset) {
+	int length = 0;
+	int lengthMax = Math.min(base.length - baseOffset, target.length - targetOffset);
+	while (length < lengthMax && base[baseOffset + length] == target[targetOffset + length]) {
+		length++;
+	}
+	return length;
+}
+
+/**
+ * Write an insert instruction if the range isn't empty
+ * @param delta where to write the instruction
+ * @param target bytes to insert
+ * @param from start of the range
+ * @param to end of the range (exclusive)
+ */
+private static void writeInsert(ByteArrayOutputStream delta, byte[] target, int from, int to) {
+	if (to > from) {
+		delta.write(OP_INSERT);
+		writeVarInt(delta, to - from);
+		delta.write(target, from, to - from);
+	}
+}
+
+/**
+ * Write a positive int using as few bytes as possible
+ * @param out where to write the int
+ * @param value the value to write
+ */
+private static void writeVarInt(ByteArrayOutputStream out, int value) {
+	while ((value & ~0x7f) != 0) {
+		out.write((value & 0x7f) | 0x80);
+		value >>>= 7;
+	}
+	out.write(value);
+}
+
+/**
+ * Write an int as four bytes, most significant byte first
+ * @param out where to write the int
+ * @param value the value to write
+ */
+private static void writeInt(ByteArrayOutputStream out, int value) {
+	out.write(value >>> 24);
+	out.write(value >>> 16);
+	out.write(value >>> 8);
+	out.write(value);
+}
+
+/**
+ * Read an int written by {@link #writeInt(ByteArrayOutputStream, int)}
+ * @param bytes the bytes to read from
+ * @param pos current position, is updated
+ * @return the read int
+ */
+private static int readInt(byte[] bytes, int[] pos) {
+	if (pos[0] + 4 > bytes.length) {
+		throw new IllegalArgumentException("Invalid delta");
+	}
+	int value = 0;
+	for (int i = 0; i < 4; ++i) {
+		value = (value << 8) | (bytes[pos[0]++] & 0xff);
+	}
+	return value;
+}
+
+/**
+ * Read an int written by {@link #writeVarInt(ByteArrayOutputStream, int)}
+ * @param bytes the bytes to read from
+ * @param pos current position, is updated
+ * @return the read int
+ */
+private static int readVarInt(byte[] bytes, int[] pos) {
+	int value = 0;
+	int shift = 0;
+	while (true) {
+		if (pos[0] >= bytes.length || shift > 28) {
+			throw new IllegalArgumentException("Invalid delta");
+		}
+		int b = bytes[pos[0]++];
+		value |= (b & 0x7f) << shift;
+		if ((b & 0x80) == 0) {
+			return value;
+		}
+		shift += 7;
+	}
+}
+
+/**
+ * Hash table of the blocks in the base, open addressing with linear probing
+ */
+private static class BlockIndex {
+	/** Block position + 1 in each slot, 0 if empty */
+	private int[] mPositions;
+	/** Block hash in each slot */
+	private int[] mHashes;
+	/** Table size - 1 */
+	private int mMask;
+
+	/**
+	 * Index all non-overlapping blocks of the base
+	 * @param base the bytes to index
+	 */
+	private BlockIndex(byte[] base) {
+		int blockCount = base.length / BLOCK_SIZE;
+		int size = Integer.highestOneBit(Math.max(blockCount, 8) * 2) * 2;
+		mPositions = new int[size];
+		mHashes = new int[size];
+		mMask = size - 1;
+
+		for (int offset = 0; offset + BLOCK_SIZE <= base.length; offset += BLOCK_SIZE) {
+			int hash = hash(base, offset);
+			int slot = getSlot(hash);
+			while (mPositions[slot] != 0) {
+				slot = (slot + 1) & mMask;
+			}
+			mPositions[slot] = offset + 1;
+			mHashes[slot] = hash;
+		}
+	}
+
+	/**
+	 * @param hash block hash
+	 * @return first slot to probe for the hash
+	 */
+	private int getSlot(int hash) {
+		return (hash ^ (hash >>> 16)) & mMask;
+	}
+}
+}
@@ -0,0 +1,287 @@
+package com.spiddekauga.utils;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.NumberUtils;
+import com.spiddekauga.utils.ShapeRendererEx.ShapeType;
+
+import java.util.Arrays;
+
+/**
+ * Interleaved position and color vertices of points, lines and triangles. Vertices are kept in one
+ * buffer per {@link ShapeType} and rendered in runs, one draw call per run. Shapes are rendered in
+ * the order they were added, except that an opaque shape is added to the previous run of its type
+ * when its depth differs from all shapes added after that run; the depth test then renders it the
+ * same way. A dynamic batch is uploaded and cleared every time it's rendered; a static batch is
+ * uploaded once to its own VBOs with {@link #build()} and can then be rendered any number of times.
+ */
+public class ShapeBatch implements Disposable {
+/** Number of floats per vertex: x, y, z and packed color */
+private static final int VERTEX_SIZE = 4;
+/** Uniform name of the combined projection and transformation matrix */
+private static final String PROJ_MODEL_VIEW_UNIFORM = "u_projModelView";
+/** Vertices of each shape type */
+private float[][] mVertices = new float[ShapeType.values().length][];
+/** Number of vertices of each shape type */
+private int[] mVertexCounts = new int[ShapeType.values().length];
+/** Mesh of each shape type */
+private Mesh[] mMeshes = new Mesh[ShapeType.values().length];
+/** Shape type of each run */
+private ShapeType[] mRunTypes = new ShapeType[16];
+/** First vertex of each run in the vertices of its shape type */
+private int[] mRunStarts = new int[16];
+/** Number of vertices of each run */
+private int[] mRunCounts = new int[16];
+/** Minimum depth of the shapes in each run */
+private float[] mRunDepthMins = new float[16];
+/** Maximum depth of the shapes in each run */
+private float[] mRunDepthMaxs = new float[16];
+/** Number of runs */
+private int mRunCount = 0;
+/** Last run of each shape type, -1 if the type has no run */
+private int[] mLastRuns = new int[ShapeType.values().length];
+/** Maximum number of vertices of each shape type, static batches grow instead */
+private int mMaxVertices;
+/** True if the vertices are uploaded once */
+private boolean mStatic;
+/** True if a static batch has been uploaded */
+private boolean mBuilt = false;
+
+/**
+ * Creates a batch. Requires a GL context.
+ * @param maxVertices maximum number of vertices of each shape type for dynamic batches, initial
+ *        capacity for static batches
+ * @param isStatic true if the vertices shall be uploaded once with {@link #build()}
+ */
+public ShapeBatch(int maxVertices, boolean isStatic) {
+	mMaxVertices = maxVertices;
+	mStatic = isStatic;
+
+	for (int i = 0; i < mVertices.length; ++i) {
+		mVertices[i] = new float[maxVertices * VERTEX_SIZE];
+		mLastRuns[i] = -1;
+	}
+
+	if (!isStatic) {
+		for (int i = 0; i < mMeshes.length; ++i) {
+			mMeshes[i] = createMesh(false, maxVertices);
+		}
+	}
+}
+
+/**
+ * Add a vertex
+ * @param shapeType type of shape the vertex belongs to
+ * @param x
+ * @param y
+ * @param z
+ * @param color packed color of the vertex
+ */
+void vertex(ShapeType shapeType, float x, float y, float z, float color) {
+	int typeIndex = shapeType.ordinal();
+	float[] vertices = mVertices[typeIndex];
+	int index = mVertexCounts[typeIndex] * VERTEX_SIZE;
+
+	if (index + VERTEX_SIZE > vertices.length) {
+		float[] newVertices = new float[vertices.length * 2];
+		System.arraycopy(vertices, 0, newVertices, 0, vertices.length);
+		vertices = newVertices;
+		mVertices[typeIndex] = vertices;
+	}
+
+	// First vertex of a primitive decides which run the primitive is added to
+	if (mVertexCounts[typeIndex] % getPrimitiveSize(shapeType) == 0) {
+		addPrimitiveToRun(shapeType, z, isOpaque(color));
+	}
+
+	vertices[index] = x;
+	vertices[index + 1] = y;
+	vertices[index + 2] = z;
+	vertices[index + 3] = color;
+	mVertexCounts[typeIndex]++;
+	mRunCounts[mLastRuns[typeIndex]]++;
+}
+
+/**
+ * Add a new primitive to the last run of its type or start a new run. The primitive is only added
+ * to the last run of its type if that doesn't change how it's rendered, i.e. it's opaque and has a
+ * different depth than all runs after that run.
+ * @param shapeType type of the primitive
+ * @param depth depth of the primitive
+ * @param opaque true if the primitive is opaque
+ */
+private void addPrimitiveToRun(ShapeType shapeType, float depth, boolean opaque) {
+	int typeIndex = shapeType.ordinal();
+	int run = mLastRuns[typeIndex];
+
+	if (run != -1 && run != mRunCount - 1) {
+		if (opaque) {
+			for (int i = run + 1; i < mRunCount; ++i) {
+				if (depth >= mRunDepthMins[i] && depth <= mRunDepthMaxs[i]) {
+					run = -1;
+					break;
+				}
+			}
+		} else {
+			run = -1;
+		}
+	}
+
+	// New run
+	if (run == -1) {
+		if (mRunCount == mRunTypes.length) {
+			int newLength = mRunCount * 2;
+			mRunTypes = Arrays.copyOf(mRunTypes, newLength);
+			mRunStarts = Arrays.copyOf(mRunStarts, newLength);
+			mRunCounts = Arrays.copyOf(mRunCounts, newLength);
+			mRunDepthMins = Arrays.copyOf(mRunDepthMins, newLength);
+			mRunDepthMaxs = Arrays.copyOf(mRunDepthMaxs, newLength);
+		}
+
+		run = mRunCount;
+		mRunCount++;
+		mRunTypes[run] = shapeType;
+		mRunStarts[run] = mVertexCounts[typeIndex];
+		mRunCounts[run] = 0;
+		mRunDepthMins[run] = depth;
+		mRunDepthMaxs[run] = depth;
+		mLastRuns[typeIndex] = run;
+	} else {
+		mRunDepthMins[run] = Math.min(mRunDepthMins[run], depth);
+		mRunDepthMaxs[run] = Math.max(mRunDepthMaxs[run], depth);
+	}
+}
+
+/**
+ * @param color packed color
+ * @return true if the color is opaque
+ */
+private static boolean isOpaque(float color) {
+	// Packed colors store alpha in the highest 7 bits
+	return (NumberUtils.floatToRawIntBits(color) >>> 24) >= 0xfe;
+}
+
+/**
+ * @param shapeType the shape type
+ * @return number of vertices of one primitive of the shape type
+ */
+private static int getPrimitiveSize(ShapeType shapeType) {
+	switch (shapeType) {
+	case Filled:
+		return 3;
+	case Line:
+		return 2;
+	default:
+		return 1;
+	}
+}
+
+/**
+ * Check if there's room for more vertices in a dynamic batch. Static batches always have room.
+ * @param shapeType type of shape the vertices belong to
+ * @param newVertices number of vertices to add
+ * @return true if the vertices can be added without rendering the batch first
+ */
+boolean hasRoom(ShapeType shapeType, int newVertices) {
+	return mStatic || mMaxVertices - mVertexCounts[shapeType.ordinal()] >= newVertices;
+}
+
+/**
+ * @return true if the batch doesn't contain any vertices
+ */
+public boolean isEmpty() {
+	for (int vertexCount : mVertexCounts) {
+		if (vertexCount > 0) {
+			return false;
+		}
+	}
+	return true;
+}
+
+/**
+ * Upload the vertices of a static batch to the GPU. No vertices can be added after this.
+ */
+public void build() {
+	if (!mStatic || mBuilt) {
+		return;
+	}
+
+	for (int i = 0; i < mVertices.length; ++i) {
+		if (mVertexCounts[i] > 0) {
+			mMeshes[i] = createMesh(true, mVertexCounts[i]);
+			mMeshes[i].setVertices(mVertices[i], 0, mVertexCounts[i] * VERTEX_SIZE);
+		}
+		mVertices[i] = null;
+	}
+	mBuilt = true;
+}
+
+/**
+ * Render all vertices, one draw call for each run. Dynamic batches are cleared.
+ * @param shader shader to render with
+ * @param projModelView combined projection and transformation matrix
+ */
+public void render(ShaderProgram shader, Matrix4 projModelView) {
+	if (isEmpty()) {
+		return;
+	}
+	build();
+
+	// Upload
+	if (!mStatic) {
+		for (int i = 0; i < mMeshes.length; ++i) {
+			if (mVertexCounts[i] > 0) {
+				mMeshes[i].setVertices(mVertices[i], 0, mVertexCounts[i] * VERTEX_SIZE);
+			}
+		}
+	}
+
+	shader.begin();
+	shader.setUniformMatrix(PROJ_MODEL_VIEW_UNIFORM, projModelView);
+	for (int run = 0; run < mRunCount; ++run) {
+		ShapeType shapeType = mRunTypes[run];
+		mMeshes[shapeType.ordinal()].render(shader, shapeType.getGlType(), mRunStarts[run], mRunCounts[run]);
+	}
+	shader.end();
+
+	if (!mStatic) {
+		clear();
+	}
+}
+
+/**
+ * Remove all vertices and runs of a dynamic batch
+ */
+private void clear() {
+	for (int i = 0; i < mVertexCounts.length; ++i) {
+		mVertexCounts[i] = 0;
+		mLastRuns[i] = -1;
+	}
+	mRunCount = 0;
+}
+
+/**
+ * Create a mesh with position and color attributes
+ * @param isStatic true if the vertices are only set once
+ * @param maxVertices maximum number of vertices
+ * @return new mesh
+ */
+private static Mesh createMesh(boolean isStatic, int maxVertices) {
+	return new Mesh(isStatic, maxVertices, 0, new VertexAttribute(Usage.Position, 3, ShaderProgram.POSITION_ATTRIBUTE), new VertexAttribute(
+			Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE));
+}
+
+@Override
+public void dispose() {
+	for (int i = 0; i < mMeshes.length; ++i) {
+		if (mMeshes[i] != null) {
+			mMeshes[i].dispose();
+			mMeshes[i] = null;
+		}
+	}
+}
+}
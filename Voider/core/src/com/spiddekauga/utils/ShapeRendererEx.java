@@ -4,7 +4,6 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer;
 import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.MathUtils;
@@ -13,7 +12,6 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
-import com.spiddekauga.voider.utils.Pool;
 
 import java.util.List;
 import java.util.Stack;
@@ -71,8 +69,16 @@ import java.util.Stack;
 public class ShapeRendererEx implements Disposable {
 /** If the matrix is dirty */
 boolean mMatrixDirty = false;
-/** Renderer */
-private ImmediateModeRenderer mRenderer;
+/** Batched vertices, rendered when flushed or when the last shape type is popped */
+private ShapeBatch mBatch = null;
+/** Static batch that vertices are added to instead, see {@link #beginCache()} */
+private ShapeBatch mCacheBatch = null;
+/** Shader to render with */
+private ShaderProgram mShader = null;
+/** If {@link #mShader} was created by this renderer */
+private boolean mOwnsShader = false;
+/** Maximum number of vertices of each shape type before flushing */
+private int mMaxVertices;
 /**
  * Translation coordinates, uses this so we don't have to flush every time we translate :)
  */
@@ -87,10 +93,12 @@ private Matrix4 mCombined = new Matrix4();
 private Color mColor = new Color(1, 1, 1, 1);
 /** Float bits color */
 private float mColorFloat = mColor.toFloatBits();
+/** Color of the next vertex */
+private float mVertexColor = mColorFloat;
 /** Stack of shape type */
 private Stack<ShapeType> mCurrentType = new Stack<ShapeRendererEx.ShapeType>();
-/** Pool for vector */
-private Pool<Vector2> mVectorPool = new Pool<>(Vector2.class, 3, 10);
+/** Temporary vertices of one triangle */
+private Vector2[] mLocalVertices = {new Vector2(), new Vector2(), new Vector2()};
 
 // -----------------------
 // Old stuff
@@ -104,11 +112,14 @@ public ShapeRendererEx() {
 }
 
 /**
- * @param maxVertices
+ * @param maxVertices maximum number of vertices of each shape type before the shapes are flushed
  */
 public ShapeRendererEx(int maxVertices) {
+	mMaxVertices = maxVertices;
 	if (Gdx.graphics != null) {
-		mRenderer = new ImmediateModeRenderer20(maxVertices, false, true, 0);
+		mBatch = new ShapeBatch(maxVertices, false);
+		mShader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
+		mOwnsShader = true;
 		mProjView.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 		mMatrixDirty = true;
 	}
@@ -119,9 +130,56 @@ public ShapeRendererEx(int maxVertices) {
  * @param shaderProgram shader to be used for rendering shapes
  */
 public void setShader(ShaderProgram shaderProgram) {
-	if (mRenderer instanceof ImmediateModeRenderer20) {
-		((ImmediateModeRenderer20) mRenderer).setShader(shaderProgram);
+	if (mShader == shaderProgram) {
+		return;
+	}
+
+	if (mBatch != null && !mBatch.isEmpty()) {
+		flush();
+	}
+	if (mOwnsShader) {
+		mShader.dispose();
+	}
+	mShader = shaderProgram;
+	mOwnsShader = false;
+}
+
+/**
+ * Add all shapes to a new static batch instead of rendering them until {@link #endCache()} is
+ * called. Use for shapes that never move, the batch is uploaded once and can then be rendered
+ * every frame with {@link #render(ShapeBatch)}.
+ */
+public void beginCache() {
+	if (mCacheBatch != null) {
+		throw new GdxRuntimeException("Call endCache() before beginning a new cache");
+	}
+	mCacheBatch = new ShapeBatch(mMaxVertices / 10, true);
+}
+
+/**
+ * Stop adding shapes to the static batch
+ * @return the static batch with all shapes added since {@link #beginCache()}. Dispose it when it's
+ *         not used any longer.
+ */
+public ShapeBatch endCache() {
+	if (mCacheBatch == null) {
+		throw new GdxRuntimeException("Call beginCache() before endCache()");
 	}
+	ShapeBatch cacheBatch = mCacheBatch;
+	mCacheBatch = null;
+	cacheBatch.build();
+	return cacheBatch;
+}
+
+/**
+ * Render a static batch created with {@link #beginCache()} and {@link #endCache()} using the
+ * current projection and transformation matrix. The vertices already contains the translation they
+ * were added with.
+ * @param cacheBatch the static batch to render
+ */
+public void render(ShapeBatch cacheBatch) {
+	checkDirty();
+	cacheBatch.render(mShader, mCombined);
 }
 
 /**
@@ -205,7 +263,7 @@ public void triangles(final List<Vector2> triangles, final Vector2 positionOffse
 		throw new IllegalArgumentException("triangles must have a pair of 3 vertices.");
 	}
 
-	Vector2[] localVertices = mVectorPool.obtain(new Vector2[3]);
+	Vector2[] localVertices = mLocalVertices;
 
 	for (int triangleIndex = 0; triangleIndex < triangles.size() - 2; triangleIndex += 3) {
 		for (int localIndex = 0; localIndex < localVertices.length; ++localIndex) {
@@ -213,8 +271,41 @@ public void triangles(final List<Vector2> triangles, final Vector2 positionOffse
 		}
 		triangle(localVertices);
 	}
+}
+
+/**
+ * Draws all triangles of a packed mesh rotated around (0,0) and then translated
+ * @param mesh triangle vertices packed as x,y pairs, three vertices per triangle
+ * @param offsetX translation of the mesh
+ * @param offsetY translation of the mesh
+ * @param angle rotation of the mesh in radians
+ */
+public void triangles(final float[] mesh, float offsetX, float offsetY, float angle) {
+	if (mesh == null || mesh.length % 6 != 0) {
+		throw new IllegalArgumentException("mesh must have a pair of 3 vertices.");
+	}
 
-	mVectorPool.freeAll(localVertices);
+	if (angle == 0) {
+		for (int i = 0; i < mesh.length; i += 6) {
+			triangle(offsetX + mesh[i], offsetY + mesh[i + 1], offsetX + mesh[i + 2], offsetY + mesh[i + 3], offsetX + mesh[i + 4], offsetY
+					+ mesh[i + 5]);
+		}
+	} else {
+		float cos = MathUtils.cos(angle);
+		float sin = MathUtils.sin(angle);
+
+		for (int i = 0; i < mesh.length; i += 6) {
+			float x1 = mesh[i];
+			float y1 = mesh[i + 1];
+			float x2 = mesh[i + 2];
+			float y2 = mesh[i + 3];
+			float x3 = mesh[i + 4];
+			float y3 = mesh[i + 5];
+
+			triangle(offsetX + x1 * cos - y1 * sin, offsetY + x1 * sin + y1 * cos, offsetX + x2 * cos - y2 * sin, offsetY + x2 * sin + y2 * cos,
+					offsetX + x3 * cos - y3 * sin, offsetY + x3 * sin + y3 * cos);
+		}
+	}
 }
 
 /**
@@ -652,38 +743,38 @@ public void rect(float x, float y, float width, float height, Color col1, Color
 	checkFlush(8);
 
 	if (mCurrentType.peek() == ShapeType.Line) {
-		mRenderer.color(col1.r, col1.g, col1.b, col1.a);
+		color(col1);
 		vertex(x, y, 0);
-		mRenderer.color(col2.r, col2.g, col2.b, col2.a);
+		color(col2);
 		vertex(x + width, y, 0);
 
-		mRenderer.color(col2.r, col2.g, col2.b, col2.a);
+		color(col2);
 		vertex(x + width, y, 0);
-		mRenderer.color(col3.r, col3.g, col3.b, col3.a);
+		color(col3);
 		vertex(x + width, y + height, 0);
 
-		mRenderer.color(col3.r, col3.g, col3.b, col3.a);
+		color(col3);
 		vertex(x + width, y + height, 0);
-		mRenderer.color(col4.r, col4.g, col4.b, col4.a);
+		color(col4);
 		vertex(x, y + height, 0);
 
-		mRenderer.color(col4.r, col4.g, col4.b, col4.a);
+		color(col4);
 		vertex(x, y + height, 0);
-		mRenderer.color(col1.r, col1.g, col1.b, col1.a);
+		color(col1);
 		vertex(x, y, 0);
 	} else {
-		mRenderer.color(col1.r, col1.g, col1.b, col1.a);
+		color(col1);
 		vertex(x, y, 0);
-		mRenderer.color(col2.r, col2.g, col2.b, col2.a);
+		color(col2);
 		vertex(x + width, y, 0);
-		mRenderer.color(col3.r, col3.g, col3.b, col3.a);
+		color(col3);
 		vertex(x + width, y + height, 0);
 
-		mRenderer.color(col3.r, col3.g, col3.b, col3.a);
+		color(col3);
 		vertex(x + width, y + height, 0);
-		mRenderer.color(col4.r, col4.g, col4.b, col4.a);
+		color(col4);
 		vertex(x, y + height, 0);
-		mRenderer.color(col1.r, col1.g, col1.b, col1.a);
+		color(col1);
 		vertex(x, y, 0);
 	}
 }
@@ -1021,17 +1112,19 @@ protected void checkDirty() {
  * @param newVertices
  */
 protected void checkFlush(int newVertices) {
-	if (mRenderer.getMaxVertices() - mRenderer.getNumVertices() >= newVertices) {
+	if (mCacheBatch != null || mBatch.hasRoom(mCurrentType.peek(), newVertices)) {
 		return;
 	}
 	flush();
 }
 
 /**
- * Flushes the shapes to OpenGL. Equivalent to end(); and begin(type);
+ * Flushes the shapes to OpenGL. Shapes are rendered in the order they were added, consecutive
+ * shapes of the same type and opaque shapes at a different depth share a draw call, see
+ * {@link ShapeBatch}.
  */
 public void flush() {
-	mRenderer.end();
+	mBatch.render(mShader, mCombined);
 	begin();
 }
 
@@ -1048,19 +1141,26 @@ public ShapeType getCurrentType() {
 
 @Override
 public void dispose() {
-	mRenderer.dispose();
+	if (mBatch != null) {
+		mBatch.dispose();
+	}
+	if (mCacheBatch != null) {
+		mCacheBatch.dispose();
+		mCacheBatch = null;
+	}
+	if (mOwnsShader && mShader != null) {
+		mShader.dispose();
+	}
 }
 
 /**
- * Pushes the shape type, i.e. will end current rendering type and start to draw using this one.
- * {@link #pop()} will return to the previous rendering type
+ * Pushes the shape type, i.e. future shapes will be drawn using this type. {@link #pop()} will
+ * return to the previous rendering type. Changing type doesn't flush the shapes as each type is
+ * batched separately.
  * @param shapeType the new shape type to use for future drawing.
  */
 public void push(ShapeType shapeType) {
-	if (mCurrentType.isEmpty() || mCurrentType.peek() != shapeType) {
-		if (!mCurrentType.isEmpty()) {
-			mRenderer.end();
-		}
+	if (mCurrentType.isEmpty()) {
 		mCurrentType.push(shapeType);
 		begin();
 	} else {
@@ -1069,9 +1169,8 @@ public void push(ShapeType shapeType) {
 }
 
 /**
- * Starts a new batch of shapes. All shapes within the batch have to have the type specified. E.g.
- * if {@link ShapeType#Point} is specified, only call #point(). In case OpenGL ES 1.x is used, the
- * projection and modelview matrix will be modified.
+ * Starts a new batch of shapes. Updates the projection and transformation matrix that the shapes
+ * will be rendered with.
  */
 private void begin() {
 	if (mCurrentType.isEmpty()) {
@@ -1082,24 +1181,20 @@ private void begin() {
 		Matrix4.mul(mCombined.val, mTransform.val);
 		mMatrixDirty = false;
 	}
-	mRenderer.begin(mCombined, mCurrentType.peek().getGlType());
 }
 
 /**
- * Pops the current rendering type and start to draw the previous one. If no previous rendering type
- * exist.
+ * Pops the current rendering type and start to draw the previous one. All shapes are flushed when
+ * the last type is popped.
  */
 public void pop() {
 	if (mCurrentType.isEmpty()) {
 		throw new GdxRuntimeException("Called pop() more times than push()!");
 	}
 
-	ShapeType poppedType = mCurrentType.pop();
-	if (mCurrentType.isEmpty() || mCurrentType.peek() != poppedType) {
-		mRenderer.end();
-	}
-	if (!mCurrentType.isEmpty()) {
-		begin();
+	mCurrentType.pop();
+	if (mCurrentType.isEmpty()) {
+		mBatch.render(mShader, mCombined);
 	}
 }
 
@@ -1107,7 +1202,15 @@ public void pop() {
  * Wrapper for setting the color of the next vertex. Uses the specified color
  */
 private void color() {
-	mRenderer.color(mColorFloat);
+	mVertexColor = mColorFloat;
+}
+
+/**
+ * Wrapper for setting the color of the next vertex
+ * @param color color of the next vertex
+ */
+private void color(Color color) {
+	mVertexColor = color.toFloatBits();
 }
 
 /**
@@ -1117,7 +1220,8 @@ private void color() {
  * @param z
  */
 private void vertex(float x, float y, float z) {
-	mRenderer.vertex(x + mTranslate.x, y + mTranslate.y, z + mTranslate.z);
+	ShapeBatch batch = mCacheBatch != null ? mCacheBatch : mBatch;
+	batch.vertex(mCurrentType.peek(), x + mTranslate.x, y + mTranslate.y, z + mTranslate.z, mVertexColor);
 }
 /**
  * Shape types to be used with {@link #push(ShapeType)}.
@@ -37,4 +37,13 @@ public boolean undo() {
 
 	return true;
 }
+
+@Override
+public int getSize() {
+	int size = SIZE_DEFAULT;
+	for (Command command : mCommands) {
+		size += command.getSize();
+	}
+	return size;
+}
 }
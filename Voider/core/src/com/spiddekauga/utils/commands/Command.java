@@ -6,6 +6,12 @@ import com.badlogic.gdx.utils.Disposable;
  * Common interface for commands that can be passed as argument and executed later.
  */
 public abstract class Command implements Disposable {
+/** Approximate size of a command that doesn't store any lists, in bytes */
+protected static final int SIZE_DEFAULT = 64;
+/** Approximate size of a stored Vector2 including the reference to it, in bytes */
+protected static final int SIZE_VECTOR = 32;
+/** Size of the command when it was added to the invoker */
+long mInvokerSize = 0;
 /** True if the command shall be chanied, just as SequenceCommand */
 private boolean mChained = false;
 
@@ -26,6 +32,15 @@ public void dispose() {
 	// Does nothing
 }
 
+/**
+ * Approximate memory retained by this command. Used by {@link Invoker} to limit the size of the
+ * undo history. Commands that store vertices or removed resources should override this.
+ * @return approximate size of this command, in bytes
+ */
+public int getSize() {
+	return SIZE_DEFAULT;
+}
+
 /**
  * Sets the command as chained
  */
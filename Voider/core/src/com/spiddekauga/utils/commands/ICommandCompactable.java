@@ -0,0 +1,16 @@
+package com.spiddekauga.utils.commands;
+
+/**
+ * Interface for a command that can be compacted with the next command of the same type when the
+ * undo history grows too large. Unlike {@link ICommandCombinable} both commands have already been
+ * executed, they're only merged so that they're undone and redone as one command—e.g. several
+ * moves of the same resource.
+ */
+public interface ICommandCompactable {
+/**
+ * Compacts the next command into this command. Doesn't execute any of the commands.
+ * @param nextCommand command of the same type that was executed directly after this command
+ * @return true if nextCommand was compacted into this command and can be disposed
+ */
+boolean compact(ICommandCompactable nextCommand);
+}
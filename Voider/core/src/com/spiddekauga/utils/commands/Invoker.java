@@ -6,7 +6,10 @@ import java.util.Iterator;
 import java.util.LinkedList;
 
 /**
- * Invokes commands, can undo/redo commands as they are stored in a list
+ * Invokes commands, can undo/redo commands as they are stored in a list. The undo history can be
+ * limited to an approximate memory size, see {@link Command#getSize()}. When the history grows
+ * larger than the limit the oldest commands are first compacted, see {@link ICommandCompactable},
+ * and then removed.
  */
 public class Invoker implements Disposable {
 
@@ -14,6 +17,25 @@ public class Invoker implements Disposable {
 private LinkedList<Command> mUndoCommands = new LinkedList<Command>();
 /** Stack with redo commands */
 private LinkedList<Command> mRedoCommands = new LinkedList<Command>();
+/** Approximate size of all undo and redo commands, in bytes */
+private long mSize = 0;
+/** Maximum size of the undo and redo commands, in bytes */
+private long mSizeMax;
+
+/**
+ * Creates an invoker without a size limit
+ */
+public Invoker() {
+	this(Long.MAX_VALUE);
+}
+
+/**
+ * Creates an invoker that limits the size of the undo history
+ * @param sizeMax approximate maximum size of all undo and redo commands, in bytes
+ */
+public Invoker(long sizeMax) {
+	mSizeMax = sizeMax;
+}
 
 /**
  * Can be used as a clear command.
@@ -29,7 +51,7 @@ public void dispose() {
  */
 private void disposeRedo() {
 	for (Command command : mRedoCommands) {
-		command.dispose();
+		disposeCommand(command);
 	}
 	mRedoCommands.clear();
 }
@@ -39,11 +61,130 @@ private void disposeRedo() {
  */
 private void disposeUndo() {
 	for (Command command : mUndoCommands) {
-		command.dispose();
+		disposeCommand(command);
 	}
 	mUndoCommands.clear();
 }
 
+/**
+ * Disposes a command that has been removed from the undo or redo stack
+ * @param command the removed command
+ */
+private void disposeCommand(Command command) {
+	mSize -= command.mInvokerSize;
+	command.mInvokerSize = 0;
+	command.dispose();
+}
+
+/**
+ * Push a command onto the undo stack
+ * @param command the command to push
+ */
+private void pushUndo(Command command) {
+	command.mInvokerSize = command.getSize();
+	mSize += command.mInvokerSize;
+	mUndoCommands.push(command);
+}
+
+/**
+ * Update the size of a command already on a stack, e.g. after it has been combined
+ * @param command the command to update the size of
+ */
+private void updateSize(Command command) {
+	long size = command.getSize();
+	mSize += size - command.mInvokerSize;
+	command.mInvokerSize = size;
+}
+
+/**
+ * Compacts and removes the oldest undo commands until the history is within its maximum size. The
+ * last undo step is never compacted or removed.
+ */
+private void limitSize() {
+	if (mSize > mSizeMax) {
+		compactOldest();
+	}
+	if (mSize > mSizeMax) {
+		removeOldest();
+	}
+}
+
+/**
+ * Compacts the oldest undo commands with the command executed directly after it, until the history
+ * is within its maximum size
+ */
+private void compactOldest() {
+	Command lastStep = getLastUndoStep();
+	Iterator<Command> iterator = mUndoCommands.descendingIterator();
+	Command older = iterator.hasNext() ? iterator.next() : null;
+	while (iterator.hasNext() && mSize > mSizeMax) {
+		Command newer = iterator.next();
+		if (newer == lastStep) {
+			break;
+		}
+
+		boolean compacted = false;
+		if (older instanceof ICommandCompactable && older.getClass() == newer.getClass()) {
+			compacted = ((ICommandCompactable) older).compact((ICommandCompactable) newer);
+		}
+
+		if (compacted) {
+			iterator.remove();
+			disposeCommand(newer);
+			updateSize(older);
+		} else {
+			older = newer;
+		}
+	}
+}
+
+/**
+ * @return first command of the last undo step, i.e. the newest command that isn't chained. Null if
+ *         no such command exists
+ */
+private Command getLastUndoStep() {
+	for (Command command : mUndoCommands) {
+		if (!command.isChained()) {
+			return command;
+		}
+	}
+	return null;
+}
+
+/**
+ * Removes the oldest undo commands until the history is within its maximum size. Commands chained
+ * to a removed command are also removed. Delimiters are kept as they're used to undo to a specific
+ * point.
+ */
+private void removeOldest() {
+	Command lastStep = getLastUndoStep();
+	Iterator<Command> iterator = mUndoCommands.descendingIterator();
+	boolean removeChained = false;
+	while (iterator.hasNext()) {
+		Command command = iterator.next();
+		if (command == lastStep) {
+			break;
+		}
+
+		if (command instanceof CDelimiter) {
+			continue;
+		}
+
+		// Only stop between undo steps
+		if (!command.isChained()) {
+			if (mSize <= mSizeMax) {
+				break;
+			}
+			removeChained = true;
+		}
+
+		if (removeChained) {
+			iterator.remove();
+			disposeCommand(command);
+		}
+	}
+}
+
 /**
  * Execute all the specified commands
  * @param commands all commands to be executed
@@ -72,11 +213,11 @@ public void execute(Iterable<Command> commands, boolean chained, boolean firstCh
 public boolean execute(Command command, boolean chained) {
 	// Same command type and combinable?
 	boolean combined = false;
+	Command combinedCommand = null;
 	if (command instanceof ICommandCombinable && !mUndoCommands.isEmpty()) {
 		// Try last command, continue if last command is chained
 		boolean lastChained = true;
 		Iterator<Command> iterator = mUndoCommands.iterator();
-		Command combinedCommand = null;
 		while (iterator.hasNext() && lastChained && !combined) {
 			combinedCommand = iterator.next();
 
@@ -95,14 +236,18 @@ public boolean execute(Command command, boolean chained) {
 
 	boolean success = combined;
 
-	if (!combined) {
+	if (combined) {
+		updateSize(combinedCommand);
+		limitSize();
+	} else {
 		success = command.execute();
 		if (success) {
 			if (chained) {
 				command.setAsChanied();
 			}
-			mUndoCommands.push(command);
+			pushUndo(command);
 			disposeRedo();
+			limitSize();
 		} else {
 			command.dispose();
 		}
@@ -126,7 +271,7 @@ public boolean execute(Command command) {
  * Push a delimiter onto the execute (undo) stack
  */
 public void pushDelimiter() {
-	mUndoCommands.push(new CDelimiter());
+	pushUndo(new CDelimiter());
 }
 
 /**
@@ -134,7 +279,7 @@ public void pushDelimiter() {
  * @param name the name of the delimiter. Useful when undoing to a specific delimiter using
  */
 public void pushDelimiter(String name) {
-	mUndoCommands.push(new CDelimiter(name));
+	pushUndo(new CDelimiter(name));
 }
 
 /**
@@ -160,7 +305,7 @@ public void undoToDelimiter(String name, boolean addToRedoStack) {
 		if (addToRedoStack && success) {
 			mRedoCommands.push(undoCommand);
 		} else {
-			undoCommand.dispose();
+			disposeCommand(undoCommand);
 		}
 
 		// Check if found
@@ -200,7 +345,7 @@ public void undo(boolean addToRedoStack) {
 		if (addToRedoStack && success) {
 			mRedoCommands.push(undoCommand);
 		} else {
-			undoCommand.dispose();
+			disposeCommand(undoCommand);
 		}
 	}
 }
@@ -246,4 +391,42 @@ public void clearRedo() {
 public Command getLastExecuted() {
 	return mUndoCommands.peek();
 }
+
+/**
+ * @return number of commands that can be undone, including delimiters
+ */
+public int getUndoCount() {
+	return mUndoCommands.size();
+}
+
+/**
+ * @return number of commands that can be redone, including delimiters
+ */
+public int getRedoCount() {
+	return mRedoCommands.size();
+}
+
+/**
+ * @return approximate size of all undo and redo commands, in bytes
+ */
+public long getSize() {
+	return mSize;
+}
+
+/**
+ * @return approximate maximum size of all undo and redo commands, in bytes
+ */
+public long getSizeMax() {
+	return mSizeMax;
+}
+
+/**
+ * Sets the approximate maximum size of all undo and redo commands. Removes the oldest commands if
+ * the history is larger than the new size.
+ * @param sizeMax maximum size in bytes
+ */
+public void setSizeMax(long sizeMax) {
+	mSizeMax = sizeMax;
+	limitSize();
+}
 }
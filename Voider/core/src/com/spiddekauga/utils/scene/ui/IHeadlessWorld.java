@@ -0,0 +1,41 @@
+package com.spiddekauga.utils.scene.ui;
+
+import com.badlogic.gdx.math.Vector2;
+import com.spiddekauga.utils.GameTime;
+import com.spiddekauga.voider.game.BulletDestroyer;
+
+/**
+ * A world that is simulated without any scene, i.e. without a GL context. When set in
+ * {@link SceneSwitcher#setHeadlessWorld(IHeadlessWorld)} it's used instead of the active scene.
+ */
+public interface IHeadlessWorld {
+/**
+ * @return game time of the world
+ */
+GameTime getGameTime();
+
+/**
+ * @return bullet destroyer of the world
+ */
+BulletDestroyer getBulletDestroyer();
+
+/**
+ * @return width of the visible part of the world
+ */
+float getWorldWidth();
+
+/**
+ * @return height of the visible part of the world
+ */
+float getWorldHeight();
+
+/**
+ * @return lower left corner of the visible part of the world
+ */
+Vector2 getWorldMinCoordinates();
+
+/**
+ * @return upper right corner of the visible part of the world
+ */
+Vector2 getWorldMaxCoordinates();
+}
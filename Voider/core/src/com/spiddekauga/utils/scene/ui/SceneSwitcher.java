@@ -18,6 +18,9 @@ import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.repo.resource.ResourceCorruptException;
 import com.spiddekauga.voider.repo.resource.ResourceNotFoundException;
 import com.spiddekauga.voider.scene.ui.UiFactory;
+import com.spiddekauga.voider.sound.MusicPlayer;
+import com.spiddekauga.voider.sound.SoundPlayer;
+import com.spiddekauga.voider.utils.ScratchArena;
 import com.spiddekauga.voider.utils.event.EventDispatcher;
 import com.spiddekauga.voider.utils.event.EventTypes;
 import com.spiddekauga.voider.utils.event.GameEvent;
@@ -40,6 +43,8 @@ private static ArrayList<Scene> mScenesNeedUnloading = new ArrayList<>();
 private static Outcomes mOutcome = Outcomes.NOT_APPLICAPLE;
 /** Message from the last outcome */
 private static Object mOutcomeMessage = null;
+/** World that is simulated without a scene, used instead of the active scene when set */
+private static IHeadlessWorld mHeadlessWorld = null;
 
 static {
 	EventDispatcher.getInstance().connect(EventTypes.USER_LOGGING_OUT, new ForceUnloadListener());
@@ -228,12 +233,23 @@ public static void resize(int width, int height) {
 	}
 }
 
+/**
+ * Simulate a world without any scene. While set, the game time, bullet destroyer and world
+ * dimensions are taken from the headless world instead of the active scene.
+ * @param headlessWorld the world to simulate, null to use the active scene again
+ */
+public static void setHeadlessWorld(IHeadlessWorld headlessWorld) {
+	mHeadlessWorld = headlessWorld;
+}
+
 /**
  * Gets the GameTime object from the scene at the top of the stack.
  * @return game time object, null if no scene exists
  */
 public static GameTime getGameTime() {
-	if (mScenes.isEmpty()) {
+	if (mHeadlessWorld != null) {
+		return mHeadlessWorld.getGameTime();
+	} else if (mScenes.isEmpty()) {
 		return null;
 	} else {
 		return mScenes.peek().getGameTime();
@@ -246,7 +262,9 @@ public static GameTime getGameTime() {
  * the stack.
  */
 public static BulletDestroyer getBulletDestroyer() {
-	if (mScenes.isEmpty()) {
+	if (mHeadlessWorld != null) {
+		return mHeadlessWorld.getBulletDestroyer();
+	} else if (mScenes.isEmpty()) {
 		return null;
 	} else {
 		return mScenes.peek().getBulletDestroyer();
@@ -299,7 +317,9 @@ public static boolean isActiveScene(Class<?> clazz) {
  * @return screen height in world coordinates, if scene is not a world it return 0.
  */
 public static float getWorldHeight() {
-	if (mScenes.isEmpty()) {
+	if (mHeadlessWorld != null) {
+		return mHeadlessWorld.getWorldHeight();
+	} else if (mScenes.isEmpty()) {
 		return 0;
 	} else {
 		return mScenes.peek().getWorldHeight();
@@ -311,7 +331,9 @@ public static float getWorldHeight() {
  * to free the returned vector with Pools.vector2.free(returnedVector);
  */
 public static Vector2 getWorldMinCoordinates() {
-	if (mScenes.isEmpty()) {
+	if (mHeadlessWorld != null) {
+		return mHeadlessWorld.getWorldMinCoordinates();
+	} else if (mScenes.isEmpty()) {
 		return null;
 	} else {
 		return mScenes.peek().getWorldMinCoordinates();
@@ -323,7 +345,9 @@ public static Vector2 getWorldMinCoordinates() {
  * scene. Remember to free the returned vector with Pools.vector2.free(returnedVector);
  */
 public static Vector2 getWorldMaxCoordinates() {
-	if (mScenes.isEmpty()) {
+	if (mHeadlessWorld != null) {
+		return mHeadlessWorld.getWorldMaxCoordinates();
+	} else if (mScenes.isEmpty()) {
 		return null;
 	} else {
 		return mScenes.peek().getWorldMaxCoordinates();
@@ -352,7 +376,9 @@ public static float getWorldScreenRatio() {
  * @return screen width in world coordinates, if scene is not a world it return 0.
  */
 public static float getWorldWidth() {
-	if (mScenes.isEmpty()) {
+	if (mHeadlessWorld != null) {
+		return mHeadlessWorld.getWorldWidth();
+	} else if (mScenes.isEmpty()) {
 		return 0;
 	} else {
 		return mScenes.peek().getWorldWidth();
@@ -455,6 +481,10 @@ public static void removeListener(InputProcessor processor) {
  * Updates (and renders) the scene switcher and the current scene.
  */
 public static void update() {
+	ScratchArena.reset();
+	SoundPlayer.getInstance().update();
+	MusicPlayer.getInstance().update();
+
 	if (mScenes.isEmpty()) {
 		return;
 	}
@@ -16,6 +16,7 @@ import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
 import com.spiddekauga.utils.Collections;
+import com.spiddekauga.utils.GameTime;
 import com.spiddekauga.utils.Maths;
 import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.game.BulletDestroyer;
@@ -105,14 +106,84 @@ public abstract class WorldScene extends Scene {
 	@Override
 	protected void update(float deltaTime) {
 		super.update(deltaTime);
-		mWorld.step(1 / 60f, 6, 2);
+
+		// Run as many fixed steps as fit in the elapsed time
+		float stepTime = getStepTime();
+		mStepAccumulator += deltaTime;
+		int cSteps = 0;
+		while (mStepAccumulator >= stepTime && cSteps < Config.Game.STEPS_PER_FRAME_MAX) {
+			mStepGameTime.update(stepTime);
+			fixedUpdate(stepTime);
+			mStepAccumulator -= stepTime;
+			cSteps++;
+		}
+
+		// Too far behind, skip the steps we didn't have time for
+		if (mStepAccumulator >= stepTime) {
+			mStepAccumulator %= stepTime;
+		}
+
+		if (isInterpolated()) {
+			Actor.setRenderInterpolation(mStepAccumulator / stepTime);
+		} else {
+			Actor.setRenderInterpolation(1);
+		}
 
 		// Remove unwanted bullets
 		updateBoundingBox();
-		mBulletDestroyer.update(deltaTime);
 		mBulletDestroyer.removeOutOfBondsBullets(getBoundingBoxWorld());
 	}
 
+	/**
+	 * Update the physics world and game logic one fixed step. Called zero or more times each frame
+	 * from {@link #update(float)} depending on how much time has elapsed; game logic that should
+	 * behave the same regardless of frame rate belongs here.
+	 * @param stepTime time of one step, in seconds
+	 */
+	protected void fixedUpdate(float stepTime) {
+		mWorld.step(stepTime, 6, 2);
+		mBulletDestroyer.update(stepTime);
+	}
+
+	/**
+	 * Game time of world scenes is advanced one step at a time so that everything using it during
+	 * {@link #fixedUpdate(float)} gets the same time regardless of frame rate
+	 * @return game time of the fixed steps
+	 */
+	@Override
+	protected GameTime getGameTime() {
+		return mStepGameTime;
+	}
+
+	@Override
+	protected void setGameTime(GameTime gameTime) {
+		mStepGameTime = gameTime;
+	}
+
+	/**
+	 * @return time of one fixed step, in seconds
+	 */
+	protected float getStepTime() {
+		return 1f / Config.Game.STEPS_PER_SECOND;
+	}
+
+	/**
+	 * @return how far between the last two fixed steps the current frame is, [0,1). Use to
+	 *         interpolate positions of things that only move during {@link #fixedUpdate(float)}.
+	 */
+	protected float getStepInterpolation() {
+		return mStepAccumulator / getStepTime();
+	}
+
+	/**
+	 * If actors should be rendered interpolated between their last two fixed step positions.
+	 * Should be false for scenes that move actors outside {@link #fixedUpdate(float)}.
+	 * @return true if actors should be rendered interpolated. Default is false.
+	 */
+	protected boolean isInterpolated() {
+		return false;
+	}
+
 	/**
 	 * Synchronize collision border
 	 * @param border the border to synchronize
@@ -264,6 +335,15 @@ public abstract class WorldScene extends Scene {
 	 * @return new fixture definition from the vertices
 	 */
 	protected FixtureDef createBorderFixture(Vector2[] vertices) {
+		return createBorderFixtureDef(vertices);
+	}
+
+	/**
+	 * Create border fixture
+	 * @param vertices all the vertices for a fixture, should be of length 4
+	 * @return new fixture definition from the vertices, dispose the shape when done
+	 */
+	public static FixtureDef createBorderFixtureDef(Vector2[] vertices) {
 		if (vertices.length != 4) {
 			throw new IllegalArgumentException("vertices not of length 4");
 		}
@@ -287,8 +367,6 @@ public abstract class WorldScene extends Scene {
 	 * @return all 4 border corners/vertices
 	 */
 	protected Vector2[][] getBorderBoxes() {
-		Vector2[][] boxes = new Vector2[4][4];
-
 		updateBoundingBox();
 		BoundingBox boundingBox = getBoundingBoxWorld();
 		Vector2 cameraPos = getCameraPos();
@@ -298,6 +376,20 @@ public abstract class WorldScene extends Scene {
 		float top = boundingBox.getTop() - cameraPos.y;
 		float bottom = boundingBox.getBottom() - cameraPos.y;
 
+		return createBorderBoxes(left, right, bottom, top);
+	}
+
+	/**
+	 * Create the border boxes around a screen
+	 * @param left left side of the screen, relative to the border body
+	 * @param right right side of the screen, relative to the border body
+	 * @param bottom bottom of the screen, relative to the border body
+	 * @param top top of the screen, relative to the border body
+	 * @return all 4 border corners/vertices
+	 */
+	public static Vector2[][] createBorderBoxes(float left, float right, float bottom, float top) {
+		Vector2[][] boxes = new Vector2[4][4];
+
 		float width = 10;
 
 		// Left side
@@ -400,6 +492,10 @@ public abstract class WorldScene extends Scene {
 		return new Vector2(mCamera.position.x, mCamera.position.y);
 	}
 
+	/** Time that hasn't been simulated yet, less than one step */
+	private float mStepAccumulator = 0;
+	/** Game time advanced one fixed step at a time */
+	private GameTime mStepGameTime = new GameTime();
 	/** Window bounding box */
 	private BoundingBox mWindowBox = new BoundingBox();
 	/** Physics world */
@@ -66,8 +66,6 @@ public static class Actor {
 	 * Bullet
 	 */
 	public static class Bullet {
-		/** How often to check if the bullet is out of bounds */
-		public final static float CHECK_OUT_OF_BOUNDS_TIME = 1;
 		/** Linear damping of the bullet */
 		public final static float FRICTION = 0.025f;
 	}
@@ -102,6 +100,8 @@ public static class Actor {
 	public static class Terrain {
 		/** Default size of terrain circle */
 		public final static float DEFAULT_CIRCLE_RADIUS = 3f;
+		/** Terrain far outside the screen is only updated every this number of frames */
+		public final static int FAR_UPDATE_INTERVAL = 8;
 	}
 
 	/**
@@ -125,6 +125,10 @@ public static class Cache {
 	public static final int HIGHSCORE_TIME = 45;
 	/** Comment cache, in seconds */
 	public static final int COMMENT_TIME = 180;
+	/** Maximum size of the thumbnail disk cache, in bytes */
+	public static final long THUMBNAIL_DISK_SIZE_MAX = 16 * 1024 * 1024;
+	/** Size of each thumbnail texture atlas page, in pixels */
+	public static final int THUMBNAIL_ATLAS_PAGE_SIZE = 2048;
 }
 
 /**
@@ -327,7 +331,8 @@ public static class Debug {
  * Editor options
  */
 public static class Editor {
-
+	/** Approximate maximum size of the undo history, in bytes */
+	public final static long UNDO_SIZE_MAX = 2 * 1024 * 1024;
 	/**
 	 * When to only show 10ths of coordinates. True when pixels per world coordinate is below this
 	 * value
@@ -541,6 +546,13 @@ public static class File {
 		return mUserStorage + "screenshots/";
 	}
 
+	/**
+	 * @return thumbnail cache path, shared between all users
+	 */
+	public static String getThumbnailStorage() {
+		return STORAGE + "thumbnails/";
+	}
+
 	/**
 	 * Set the user paths
 	 * @param username username of the user to get the path
@@ -569,6 +581,13 @@ public static class Game {
 	public final static double SCORE_MAX = 10000000;
 	/** Max multiplier for a level, calculated from the maximum score */
 	public final static double MULTIPLIER_MAX = -0.5 + Math.sqrt(0.25 + SCORE_MAX * 2);
+	/** Number of fixed physics and game logic steps per second */
+	public final static int STEPS_PER_SECOND = 60;
+	/**
+	 * Maximum number of steps in one frame. If a frame takes longer the game slows down instead of
+	 * spending even more time catching up
+	 */
+	public final static int STEPS_PER_FRAME_MAX = 5;
 }
 
 /**
@@ -838,6 +857,8 @@ public static class Level {
 	 * How much offset from the last resource inside the level the x-coordinate should appear
 	 */
 	public final static float END_COORD_OFFSET = Graphics.WIDTH_DEFAULT * Graphics.WORLD_SCALE;
+	/** How far outside the screen actors are updated every frame */
+	public final static float UPDATE_MARGIN = Graphics.WIDTH_DEFAULT * Graphics.WORLD_SCALE;
 	/** Screenshot texture width */
 	public final static int SAVE_TEXTURE_WIDTH = 512;
 	/** Screenshot ratio */
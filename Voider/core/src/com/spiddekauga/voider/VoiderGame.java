@@ -27,10 +27,10 @@ import com.spiddekauga.voider.settings.SettingRepo;
 import com.spiddekauga.voider.settings.SettingRepo.SettingDisplayRepo;
 import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.repo.resource.ResourceChecker;
+import com.spiddekauga.voider.repo.resource.ResourceLocalRepo;
 import com.spiddekauga.voider.repo.user.User;
 import com.spiddekauga.voider.scene.ui.InfoDisplayer;
 import com.spiddekauga.voider.server.ServerMessageReciever;
-import com.spiddekauga.voider.sound.MusicPlayer;
 import com.spiddekauga.voider.utils.Synchronizer;
 import com.squareup.otto.ThreadEnforcer;
 
@@ -51,7 +51,6 @@ private IResponseListener mAnalyticsResponseListener = new IResponseListener() {
 		mAnalyticsSyncSemaphore.release();
 	}
 };
-private MusicPlayer mMusicPlayer = null;
 
 /**
  * @return true if the current thread is the main thread
@@ -94,7 +93,6 @@ public void create() {
 		showSplashScreen();
 	}
 
-	mMusicPlayer = MusicPlayer.getInstance();
 	AnalyticsRepo.getInstance().newSession();
 }
 
@@ -144,7 +142,6 @@ public void render() {
 	try {
 		Gdx.gl.glEnable(GL20.GL_TEXTURE_2D);
 		SceneSwitcher.update();
-		mMusicPlayer.update();
 	} catch (RuntimeException e) {
 		// Print where in the serialization it failed
 		if (Gdx.app.getType() == ApplicationType.Desktop && Config.Debug.isBuildOrAbove(Builds.NIGHTLY_DEV)) {
@@ -177,6 +174,7 @@ public void render() {
 
 @Override
 public void pause() {
+	ResourceLocalRepo.finishSaving();
 	if (Gdx.app.getType() == ApplicationType.Android || Gdx.app.getType() == ApplicationType.iOS) {
 		AnalyticsRepo.getInstance().endSession();
 		syncAnalytics();
@@ -203,6 +201,7 @@ public void dispose() {
 	ServerMessageReciever.getInstance().disconnect();
 
 	SceneSwitcher.dispose();
+	ResourceLocalRepo.finishSaving();
 	ResourceCacheFacade.unload((Scene) null);
 	ResourceCacheFacade.dispose();
 	Config.dispose();
@@ -39,6 +39,10 @@ public class IC_Effect extends IniClass {
 	protected float fadeTime;
 	protected float lowHealthTime;
 	protected float lowHealthPercent;
+	protected int voicesMax;
+	protected int voicesMaxTotal;
+	protected float voiceTime;
+	protected float duplicateVolumeIncrease;
 
 	private IC_Effect(Ini ini, Section classSection) {
 		super(ini, classSection);
@@ -58,5 +62,24 @@ public class IC_Effect extends IniClass {
 	public float getLowHealthPercent() {
 		return lowHealthPercent;
 	}
+
+	public int getVoicesMax() {
+		return voicesMax;
+	}
+
+	public int getVoicesMaxTotal() {
+		return voicesMaxTotal;
+	}
+
+	public float getVoiceTime() {
+		return voiceTime;
+	}
+
+	/**
+	 * @return [0, 1] range
+	 */
+	public float getDuplicateVolumeIncrease() {
+		return duplicateVolumeIncrease;
+	}
 }
 }
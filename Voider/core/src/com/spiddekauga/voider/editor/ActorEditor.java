@@ -41,7 +41,6 @@ import com.spiddekauga.voider.resources.Def;
 import com.spiddekauga.voider.resources.IResource;
 import com.spiddekauga.voider.utils.Geometry.PolygonAreaTooSmallException;
 import com.spiddekauga.voider.utils.Geometry.PolygonComplexException;
-import com.spiddekauga.voider.utils.Messages;
 
 import java.lang.reflect.Constructor;
 
@@ -360,9 +359,7 @@ private void deactivateCurrentTool() {
 protected void saveToFile() {
 	int oldRevision = mActorDef.getRevision();
 
-	mResourceRepo.save(this, mActorDef);
-	mNotification.showSuccess(Messages.Info.SAVED);
-	showSyncMessage();
+	mResourceRepo.save(this, createSaveListener(1), mActorDef);
 
 	// Saved first time? Then load it and use the loaded gameVersion
 	if (!ResourceCacheFacade.isLoaded(mActorDef.getId())) {
@@ -372,8 +369,8 @@ protected void saveToFile() {
 		setActorDef((ActorDef) ResourceCacheFacade.get(mActorDef.getId()));
 	}
 
-	// Update latest loaded resource
-	if (oldRevision != mActorDef.getRevision() - 1) {
+	// Update latest loaded resource if revision was changed by more than one
+	if (mActorDef.getRevision() > oldRevision + 1) {
 		ResourceCacheFacade.setLatestResource(mActorDef, oldRevision);
 	}
 
@@ -41,6 +41,7 @@ import com.spiddekauga.voider.network.entities.IMethodEntity;
 import com.spiddekauga.voider.network.resource.PublishResponse;
 import com.spiddekauga.voider.repo.IResponseListener;
 import com.spiddekauga.voider.repo.WebWrapper;
+import com.spiddekauga.voider.repo.resource.ISaveListener;
 import com.spiddekauga.voider.repo.resource.InternalNames;
 import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.repo.resource.ResourceLocalRepo;
@@ -52,6 +53,7 @@ import com.spiddekauga.voider.resources.IResource;
 import com.spiddekauga.voider.resources.InternalDeps;
 import com.spiddekauga.voider.sound.MusicInterpolations;
 import com.spiddekauga.voider.utils.Graphics;
+import com.spiddekauga.voider.utils.Messages;
 import com.spiddekauga.voider.utils.event.EventDispatcher;
 import com.spiddekauga.voider.utils.event.EventTypes;
 import com.spiddekauga.voider.utils.event.IEventListener;
@@ -71,7 +73,7 @@ public abstract class Editor extends WorldScene
 private static final int COLOR_TRANSPARENT = 0x00000000;
 private static final int COLOR_BLACK = 0x000000FF;
 protected ResourceRepo mResourceRepo = ResourceRepo.getInstance();
-protected Invoker mInvoker = new Invoker();
+protected Invoker mInvoker = new Invoker(Config.Editor.UNDO_SIZE_MAX);
 protected SpriteBatch mSpriteBatch = new SpriteBatch();
 private boolean mSaved = false;
 private boolean mSaving = false;
@@ -570,6 +572,37 @@ public void handleWrite(long mcWrittenBytes, long mcTotalBytes) {
 	ProgressBar.updateProgress(percentage);
 }
 
+/**
+ * Creates a listener that shows whether the resources were saved once all of them have been
+ * written. The editor is set as unsaved again if any resource couldn't be written.
+ * @param resourceCount number of resources that are saved with the listener
+ * @return listener to save the resources with
+ */
+protected ISaveListener createSaveListener(final int resourceCount) {
+	return new ISaveListener() {
+		/** Number of resources that haven't been written yet */
+		private int mSaveCount = resourceCount;
+		/** If all resources were written */
+		private boolean mSuccess = true;
+
+		@Override
+		public void onSaved(IResource resource, boolean success) {
+			mSuccess &= success;
+			mSaveCount--;
+
+			if (mSaveCount == 0) {
+				if (mSuccess) {
+					mNotification.show(NotificationTypes.SUCCESS, Messages.Info.SAVED);
+					showSyncMessage();
+				} else {
+					mNotification.showError(Messages.Error.SAVE_FAILED);
+					setUnsaved();
+				}
+			}
+		}
+	};
+}
+
 /**
  * Shows syncing message
  */
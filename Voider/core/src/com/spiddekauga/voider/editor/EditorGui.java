@@ -102,6 +102,10 @@ private AlignTable mEditMenu = new AlignTable();
 private AlignTable mNameTable = new AlignTable();
 /** Name label */
 private Label mNameLabel = null;
+/** Debug table with undo history and heap information (lower left) */
+private AlignTable mDebugTable = new AlignTable();
+/** Undo history and heap information, only in debug builds */
+private Label mDebugLabel = null;
 /** All UI-bodies for collision */
 private ArrayList<Body> mBodies = new ArrayList<>();
 
@@ -153,6 +157,7 @@ public void onDestroy() {
 	mToolMenu.dispose();
 	mEditMenu.dispose();
 	mNameTable.dispose();
+	mDebugTable.dispose();
 
 	if (mSettingTabs != null) {
 		mSettingTabs.remove();
@@ -214,6 +219,7 @@ public void onCreate() {
 	initEditMenu();
 	initFileMenu();
 	initNameTable();
+	initDebugTable();
 
 	float marginOuter = mUiFactory.getStyles().vars.paddingOuter;
 	float marginTop = mUiFactory.getStyles().vars.barUpperLowerHeight * 2 + marginOuter;
@@ -290,6 +296,34 @@ private void initNameTable() {
 	mNameTable.add(mNameLabel).setFillHeight(true);
 }
 
+/**
+ * Initializes the debug table with undo history and heap information
+ */
+private void initDebugTable() {
+	if (Config.Debug.isBuildOrBelow(Builds.NIGHTLY_RELEASE)) {
+		float margin = mUiFactory.getStyles().vars.paddingOuter;
+		mDebugTable.setMargin(margin, margin, getTopBottomPadding() + margin, margin);
+		mDebugTable.setAlignTable(Horizontal.LEFT, Vertical.BOTTOM);
+		mDebugTable.setTouchable(Touchable.disabled);
+		getStage().addActor(mDebugTable);
+
+		mDebugLabel = mUiFactory.text.add("", mDebugTable, LabelStyles.INFO_EXTRA);
+	}
+}
+
+@Override
+public void update() {
+	super.update();
+
+	if (mDebugLabel != null && mInvoker != null) {
+		long heapKb = Gdx.app.getJavaHeap() / 1024;
+		long undoKb = mInvoker.getSize() / 1024;
+		long undoMaxKb = mInvoker.getSizeMax() / 1024;
+		mDebugLabel.setText("Undo: " + mInvoker.getUndoCount() + ", Redo: " + mInvoker.getRedoCount() + ", History: " + undoKb + "/" + undoMaxKb
+				+ " KB, Heap: " + heapKb + " KB");
+	}
+}
+
 /**
  * Shows the first time menu
  */
@@ -216,6 +216,7 @@ protected void onResume(Outcomes outcome, Object message, Outcomes loadingOutcom
 @Override
 protected void update(float deltaTime) {
 	super.update(deltaTime);
+	mCollisionResolver.resolveContacts();
 
 	if (mDef == null) {
 		return;
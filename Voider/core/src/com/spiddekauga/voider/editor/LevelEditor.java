@@ -11,7 +11,6 @@ import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.spiddekauga.utils.KeyHelper;
 import com.spiddekauga.utils.ShapeRendererEx.ShapeType;
 import com.spiddekauga.utils.commands.Command;
-import com.spiddekauga.utils.scene.ui.NotificationShower.NotificationTypes;
 import com.spiddekauga.utils.scene.ui.ProgressBar;
 import com.spiddekauga.utils.scene.ui.Scene;
 import com.spiddekauga.utils.scene.ui.SceneSwitcher;
@@ -75,7 +74,6 @@ import com.spiddekauga.voider.resources.IResource;
 import com.spiddekauga.voider.resources.IResourceBody;
 import com.spiddekauga.voider.resources.InternalDeps;
 import com.spiddekauga.voider.sound.Music;
-import com.spiddekauga.voider.utils.Messages;
 import com.spiddekauga.voider.utils.event.GameEvent;
 
 import java.util.ArrayList;
@@ -316,12 +314,11 @@ protected void saveToFile() {
 	mLevel.calculateStartEndPosition();
 
 	int oldRevision = mLevel.getRevision();
-	mResourceRepo.save((IResource) mLevel.getDef(), mLevel);
-	mNotification.show(NotificationTypes.SUCCESS, Messages.Info.SAVED);
-	showSyncMessage();
+	mResourceRepo.save(null, createSaveListener(2), (IResource) mLevel.getDef(), mLevel);
 
-	// Update latest resource if revision was changed by more than one
-	if (oldRevision != mLevel.getDef().getRevision() - 1) {
+	// Update latest resource if revision was changed by more than one. Saving again before the
+	// previous save has been written keeps the revision.
+	if (mLevel.getDef().getRevision() > oldRevision + 1) {
 		ResourceCacheFacade.setLatestResource(mLevel, oldRevision);
 		ResourceCacheFacade.setLatestResource(mLevel.getDef(), oldRevision);
 	}
@@ -8,7 +8,6 @@ import com.badlogic.gdx.physics.box2d.QueryCallback;
 import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
 import com.badlogic.gdx.physics.box2d.joints.MouseJointDef;
 import com.spiddekauga.utils.ShapeRendererEx.ShapeType;
-import com.spiddekauga.utils.scene.ui.NotificationShower.NotificationTypes;
 import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.config.ConfigIni;
 import com.spiddekauga.voider.config.IC_Editor.IC_Ship;
@@ -19,7 +18,6 @@ import com.spiddekauga.voider.network.resource.DefEntity;
 import com.spiddekauga.voider.repo.resource.ExternalTypes;
 import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.repo.resource.SkinNames;
-import com.spiddekauga.voider.utils.Messages;
 import com.spiddekauga.voider.utils.event.GameEvent;
 
 /**
@@ -151,9 +149,7 @@ protected void setActorDef(ActorDef def) {
 protected void saveToFile() {
 	int oldRevision = mDef.getRevision();
 
-	mResourceRepo.save(this, mDef);
-	mNotification.show(NotificationTypes.SUCCESS, Messages.Info.SAVED);
-	showSyncMessage();
+	mResourceRepo.save(this, createSaveListener(1), mDef);
 
 	// Saved first time? Then load it and use the loaded gameVersion
 	if (!ResourceCacheFacade.isLoaded(mDef.getId())) {
@@ -163,8 +159,8 @@ protected void saveToFile() {
 		setActorDef((PlayerActorDef) ResourceCacheFacade.get(mDef.getId()));
 	}
 
-	// Update latest loaded resource
-	if (oldRevision != mDef.getRevision() - 1) {
+	// Update latest loaded resource if revision was changed by more than one
+	if (mDef.getRevision() > oldRevision + 1) {
 		ResourceCacheFacade.setLatestResource(mDef, oldRevision);
 	}
 
@@ -1,13 +1,14 @@
 package com.spiddekauga.voider.editor.commands;
 
 import com.badlogic.gdx.math.Vector2;
+import com.spiddekauga.utils.commands.ICommandCompactable;
 import com.spiddekauga.voider.editor.IResourceChangeEditor;
 import com.spiddekauga.voider.resources.IResourceCorner;
 
 /**
  * Executes a move command on a terrain corner
  */
-public class CResourceCornerMove extends CResourceChange {
+public class CResourceCornerMove extends CResourceChange implements ICommandCompactable {
 /** Difference vector for moving the corner back and forth. */
 private Vector2 mDiffMovement = new Vector2();
 /** The actor which corner we want to move */
@@ -48,4 +49,16 @@ public boolean undo() {
 	sendOnChange();
 	return true;
 }
+
+@Override
+public boolean compact(ICommandCompactable nextCommand) {
+	if (nextCommand instanceof CResourceCornerMove) {
+		CResourceCornerMove nextMove = (CResourceCornerMove) nextCommand;
+		if (nextMove.mResourceCorner == mResourceCorner && nextMove.mIndex == mIndex) {
+			mDiffMovement.add(nextMove.mDiffMovement);
+			return true;
+		}
+	}
+	return false;
+}
 }
@@ -55,4 +55,9 @@ public boolean undo() {
 
 	return true;
 }
+
+@Override
+public int getSize() {
+	return SIZE_DEFAULT + mCorners.size() * SIZE_VECTOR;
+}
 }
@@ -50,4 +50,13 @@ public boolean undo() {
 
 	return true;
 }
+
+@Override
+public int getSize() {
+	if (mRemovedCorners != null) {
+		return SIZE_DEFAULT + mRemovedCorners.size() * SIZE_VECTOR;
+	} else {
+		return SIZE_DEFAULT;
+	}
+}
 }
@@ -1,13 +1,14 @@
 package com.spiddekauga.voider.editor.commands;
 
 import com.badlogic.gdx.math.Vector2;
+import com.spiddekauga.utils.commands.ICommandCompactable;
 import com.spiddekauga.voider.editor.IResourceChangeEditor;
 import com.spiddekauga.voider.resources.IResourcePosition;
 
 /**
  * Executes a move command on the resource.
  */
-public class CResourceMove extends CResourceChange {
+public class CResourceMove extends CResourceChange implements ICommandCompactable {
 /** The difference vector for moving the resource back and forth */
 private Vector2 mDiffMovement = new Vector2();
 
@@ -46,4 +47,16 @@ public boolean undo() {
 
 	return true;
 }
+
+@Override
+public boolean compact(ICommandCompactable nextCommand) {
+	if (nextCommand instanceof CResourceMove) {
+		CResourceMove nextMove = (CResourceMove) nextCommand;
+		if (nextMove.mResource == mResource) {
+			mDiffMovement.add(nextMove.mDiffMovement);
+			return true;
+		}
+	}
+	return false;
+}
 }
@@ -4,11 +4,14 @@ import com.spiddekauga.utils.commands.Command;
 import com.spiddekauga.voider.editor.IResourceChangeEditor;
 import com.spiddekauga.voider.resources.IResource;
 import com.spiddekauga.voider.resources.IResourceBody;
+import com.spiddekauga.voider.resources.IResourceCorner;
 
 /**
  * Removes an resource from the specified resource editor
  */
 public class CResourceRemove extends Command {
+/** Approximate size of a removed resource without its corners, in bytes */
+private static final int SIZE_RESOURCE = 1024;
 /** True if a body should be created on undo */
 private boolean mCreateBody = false;
 /** The resource to remove */
@@ -52,4 +55,13 @@ public boolean undo() {
 
 	return true;
 }
+
+@Override
+public int getSize() {
+	int size = SIZE_DEFAULT + SIZE_RESOURCE;
+	if (mResource instanceof IResourceCorner) {
+		size += ((IResourceCorner) mResource).getCornerCount() * SIZE_VECTOR;
+	}
+	return size;
+}
 }
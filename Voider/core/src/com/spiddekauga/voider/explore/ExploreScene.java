@@ -17,6 +17,7 @@ import com.spiddekauga.voider.repo.resource.ExternalTypes;
 import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.repo.resource.ResourceLocalRepo;
 import com.spiddekauga.voider.repo.resource.ResourceRepo;
+import com.spiddekauga.voider.repo.resource.ThumbnailRepo;
 import com.spiddekauga.voider.repo.user.User;
 import com.spiddekauga.voider.resources.Def;
 import com.spiddekauga.voider.resources.InternalDeps;
@@ -89,6 +90,21 @@ protected void update(float deltaTime) {
 	super.update(deltaTime);
 
 	handleWepResponses();
+	ThumbnailRepo.getInstance().update();
+}
+
+@Override
+protected void onCreate() {
+	super.onCreate();
+
+	ThumbnailRepo.getInstance().retainAtlas();
+}
+
+@Override
+protected void onDestroy() {
+	ThumbnailRepo.getInstance().releaseAtlas();
+
+	super.onDestroy();
 }
 
 @Override
@@ -173,11 +189,14 @@ public final void handleWebResponse(IMethodEntity method, IEntity response) {
 }
 
 /**
- * Create drawable for the def entity if it doesn't exist
+ * Create drawable for the def entity if it doesn't exist. Thumbnails of published defs are always
+ * fetched from {@link ThumbnailRepo} as cached defs can reference a disposed atlas.
  * @param defEntity the def to create a drawable for if it doesn't exist
  */
 protected void createDrawable(DefEntity defEntity) {
-	if (defEntity.drawable == null && defEntity.png != null) {
+	if (defEntity.pngHash != null) {
+		defEntity.drawable = ThumbnailRepo.getInstance().getDrawable(defEntity);
+	} else if (defEntity.drawable == null && defEntity.png != null) {
 		defEntity.drawable = Graphics.pngToDrawable(defEntity.png);
 	}
 }
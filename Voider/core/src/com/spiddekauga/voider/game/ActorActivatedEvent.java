@@ -0,0 +1,28 @@
+package com.spiddekauga.voider.game;
+
+import com.spiddekauga.voider.game.actors.Actor;
+import com.spiddekauga.voider.utils.event.EventTypes;
+import com.spiddekauga.voider.utils.event.GameEvent;
+
+/**
+ * An actor was activated
+ */
+public class ActorActivatedEvent extends GameEvent {
+/** Actor which was activated */
+public Actor actor;
+
+/**
+ * Default constructor for pools
+ */
+public ActorActivatedEvent() {
+	super(EventTypes.GAME_ACTOR_ACTIVATED);
+}
+
+/**
+ * @param actor the actor which was activated
+ */
+public ActorActivatedEvent(Actor actor) {
+	super(EventTypes.GAME_ACTOR_ACTIVATED);
+	this.actor = actor;
+}
+}
@@ -0,0 +1,218 @@
+package com.spiddekauga.voider.game;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.game.actors.Actor;
+import com.spiddekauga.voider.game.actors.EnemyActor;
+import com.spiddekauga.voider.game.actors.StaticTerrainActor;
+import com.spiddekauga.voider.resources.IResourceUpdate;
+import com.spiddekauga.voider.utils.event.EventDispatcher;
+import com.spiddekauga.voider.utils.event.EventTypes;
+import com.spiddekauga.voider.utils.event.GameEvent;
+import com.spiddekauga.voider.utils.event.IEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Updates the resources of a running level. Dormant enemies, i.e. inactive enemies without a body,
+ * aren't updated until they're activated or the screen reaches them. Terrain is updated every frame
+ * close to the screen and only every {@link Config.Actor.Terrain#FAR_UPDATE_INTERVAL} frame further
+ * away.
+ */
+public class ActorActivityManager implements IEventListener, Disposable {
+/** Width of the screen in world coordinates */
+private static final float SCREEN_WIDTH = Config.Graphics.WIDTH_DEFAULT * Config.Graphics.WORLD_SCALE;
+private static final EventDispatcher mEventDispatcher = EventDispatcher.getInstance();
+/** Resources that are updated every frame */
+private ArrayList<IResourceUpdate> mUpdates = new ArrayList<>();
+/** Dormant enemies */
+private Set<Actor> mDormant = Collections.newSetFromMap(new IdentityHashMap<Actor, Boolean>());
+/** Enemies that were woken since the last update */
+private ArrayList<Actor> mWoken = new ArrayList<>();
+/** Enemies that were dormant from the start, sorted by their left edge */
+private Actor[] mDormantByLeft;
+/** Index of the next enemy in {@link #mDormantByLeft} that the screen hasn't reached */
+private int mNextWakeIndex = 0;
+/** Terrain sorted by x-coordinate */
+private Actor[] mTerrain;
+/** X-coordinate of the terrain in {@link #mTerrain} */
+private float[] mTerrainXCoords;
+/** Largest bounding radius of the terrain */
+private float mTerrainRadiusMax = 0;
+/** Number of updates, used to spread out far terrain updates */
+private int mFrame = 0;
+
+/**
+ * @param resources all resources in the level that needs updating
+ */
+public ActorActivityManager(List<IResourceUpdate> resources) {
+	ArrayList<Actor> dormant = new ArrayList<>();
+	ArrayList<Actor> terrain = new ArrayList<>();
+	for (IResourceUpdate resource : resources) {
+		if (resource instanceof EnemyActor && ((Actor) resource).isDormant()) {
+			dormant.add((Actor) resource);
+			mDormant.add((Actor) resource);
+		} else if (resource instanceof StaticTerrainActor) {
+			terrain.add((Actor) resource);
+		} else {
+			mUpdates.add(resource);
+		}
+	}
+
+	mDormantByLeft = dormant.toArray(new Actor[dormant.size()]);
+	Arrays.sort(mDormantByLeft, new Comparator<Actor>() {
+		@Override
+		public int compare(Actor o1, Actor o2) {
+			return Float.compare(getLeftEdge(o1), getLeftEdge(o2));
+		}
+	});
+
+	mTerrain = terrain.toArray(new Actor[terrain.size()]);
+	Arrays.sort(mTerrain, new Comparator<Actor>() {
+		@Override
+		public int compare(Actor o1, Actor o2) {
+			return Float.compare(o1.getPosition().x, o2.getPosition().x);
+		}
+	});
+	mTerrainXCoords = new float[mTerrain.length];
+	for (int i = 0; i < mTerrain.length; ++i) {
+		mTerrainXCoords[i] = mTerrain[i].getPosition().x;
+		mTerrainRadiusMax = Math.max(mTerrainRadiusMax, mTerrain[i].getDef().getShape().getBoundingRadius());
+	}
+
+	mEventDispatcher.connect(EventTypes.GAME_ACTOR_ACTIVATED, this);
+}
+
+/**
+ * Update all resources that needs updating
+ * @param deltaTime elapsed seconds since last frame
+ * @param xCoord current x-coordinate of the level, i.e. the screen's right edge
+ */
+public void update(float deltaTime, float xCoord) {
+	float windowMin = xCoord - SCREEN_WIDTH - Config.Level.UPDATE_MARGIN;
+	float windowMax = xCoord + Config.Level.UPDATE_MARGIN;
+
+	wakeWithinWindow(windowMax);
+	updateResources(deltaTime);
+	updateTerrain(deltaTime, windowMin, windowMax);
+	mFrame++;
+}
+
+/**
+ * Wake dormant enemies that the screen has reached. The enemies are put to sleep again directly if
+ * they're still dormant.
+ * @param windowMax right edge of the update window
+ */
+private void wakeWithinWindow(float windowMax) {
+	while (mNextWakeIndex < mDormantByLeft.length && getLeftEdge(mDormantByLeft[mNextWakeIndex]) <= windowMax) {
+		Actor actor = mDormantByLeft[mNextWakeIndex];
+		if (mDormant.remove(actor)) {
+			mWoken.add(actor);
+		}
+		mNextWakeIndex++;
+	}
+}
+
+/**
+ * Update all awake resources and put enemies that have become dormant to sleep
+ * @param deltaTime elapsed seconds since last frame
+ */
+private void updateResources(float deltaTime) {
+	if (!mWoken.isEmpty()) {
+		mUpdates.addAll(mWoken);
+		mWoken.clear();
+	}
+
+	int keepCount = 0;
+	for (int i = 0; i < mUpdates.size(); ++i) {
+		IResourceUpdate resource = mUpdates.get(i);
+		resource.update(deltaTime);
+
+		if (resource instanceof EnemyActor && ((Actor) resource).isDormant()) {
+			mDormant.add((Actor) resource);
+		} else {
+			mUpdates.set(keepCount, resource);
+			keepCount++;
+		}
+	}
+
+	// Remove dormant enemies
+	for (int i = mUpdates.size() - 1; i >= keepCount; --i) {
+		mUpdates.remove(i);
+	}
+}
+
+/**
+ * Update terrain close to the screen every frame, and terrain further away every
+ * {@link Config.Actor.Terrain#FAR_UPDATE_INTERVAL} frame
+ * @param deltaTime elapsed seconds since last frame
+ * @param windowMin left edge of the update window
+ * @param windowMax right edge of the update window
+ */
+private void updateTerrain(float deltaTime, float windowMin, float windowMax) {
+	int nearFrom = getTerrainIndex(windowMin - mTerrainRadiusMax);
+	int nearTo = getTerrainIndex(windowMax + mTerrainRadiusMax);
+
+	for (int i = nearFrom; i < nearTo; ++i) {
+		mTerrain[i].update(deltaTime);
+	}
+
+	// Far terrain, only update a part of the terrain each frame
+	int interval = Config.Actor.Terrain.FAR_UPDATE_INTERVAL;
+	float farDeltaTime = deltaTime * interval;
+	for (int i = mFrame % interval; i < mTerrain.length; i += interval) {
+		if (i < nearFrom || i >= nearTo) {
+			mTerrain[i].update(farDeltaTime);
+		}
+	}
+}
+
+/**
+ * @param xCoord x-coordinate to search for
+ * @return index of the first terrain at or after xCoord
+ */
+private int getTerrainIndex(float xCoord) {
+	int index = Arrays.binarySearch(mTerrainXCoords, xCoord);
+	if (index < 0) {
+		return -index - 1;
+	}
+
+	// Several terrain at the same position, find the first
+	while (index > 0 && mTerrainXCoords[index - 1] == xCoord) {
+		index--;
+	}
+	return index;
+}
+
+/**
+ * @param actor the actor to get the left edge of
+ * @return left edge of the actor's bounding circle
+ */
+private static float getLeftEdge(Actor actor) {
+	return actor.getPosition().x - actor.getDef().getShape().getBoundingRadius();
+}
+
+@Override
+public void handleEvent(GameEvent event) {
+	if (event instanceof ActorActivatedEvent) {
+		Actor actor = ((ActorActivatedEvent) event).actor;
+		if (mDormant.remove(actor)) {
+			mWoken.add(actor);
+		}
+	}
+}
+
+@Override
+public void dispose() {
+	mEventDispatcher.disconnect(EventTypes.GAME_ACTOR_ACTIVATED, this);
+	mUpdates.clear();
+	mDormant.clear();
+	mWoken.clear();
+}
+}
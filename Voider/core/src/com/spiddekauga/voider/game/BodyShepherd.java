@@ -5,23 +5,63 @@ import com.spiddekauga.voider.game.actors.Actor;
 import com.spiddekauga.voider.game.actors.EnemyActor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Creates/Destroys bodies of the actors in the level. When an actor's body is destroyed the actor
- * will also be killed.
+ * will also be killed. Actors are indexed by their left edge when set so that each update only
+ * visits actors that enter the min-max window and actors that are currently within its x-span.
  */
 public class BodyShepherd {
-
-
-/** All the actors which bodies to create/destroy */
-private ArrayList<Actor> mActors;
+/** Sorts actors by the left edge of their bounding circle */
+private static final Comparator<Actor> LEFT_EDGE_COMPARATOR = new Comparator<Actor>() {
+	@Override
+	public int compare(Actor o1, Actor o2) {
+		return Float.compare(getLeftEdge(o1), getLeftEdge(o2));
+	}
+};
+/** All actors which bodies to create/destroy, sorted by their left edge */
+private Actor[] mActorsByLeft = new Actor[0];
+/** Left edge of the actors in {@link #mActorsByLeft} */
+private float[] mLeftEdges = new float[0];
+/** Index of the next actor in {@link #mActorsByLeft} that hasn't entered the window yet */
+private int mNextEnterIndex = 0;
+/** Actors that have entered the window but not yet left it on the left side */
+private ArrayList<Actor> mActiveActors = new ArrayList<>();
+/** Previous minimum position, used to detect when the window moves backwards */
+private Vector2 mLastMinPos = new Vector2();
+/** Previous maximum position, used to detect when the window moves backwards */
+private Vector2 mLastMaxPos = new Vector2();
+/** True if all actors needs to be checked the next update */
+private boolean mFullScan = true;
 
 /**
- * Sets the actors to create/destroy bodies of
+ * Sets the actors to create/destroy bodies of. Builds the sorted index, should only be called
+ * when the level is set.
  * @param actors all actors to create destroy the bodies of
  */
 public void setActors(ArrayList<Actor> actors) {
-	mActors = actors;
+	ArrayList<Actor> shepherdActors = new ArrayList<>(actors.size());
+	for (Actor actor : actors) {
+		// Skip enemies
+		if (!(actor instanceof EnemyActor)) {
+			shepherdActors.add(actor);
+		}
+	}
+
+	mActorsByLeft = shepherdActors.toArray(new Actor[shepherdActors.size()]);
+	Arrays.sort(mActorsByLeft, LEFT_EDGE_COMPARATOR);
+
+	mLeftEdges = new float[mActorsByLeft.length];
+	for (int i = 0; i < mActorsByLeft.length; ++i) {
+		mLeftEdges[i] = getLeftEdge(mActorsByLeft[i]);
+	}
+
+	mActiveActors.clear();
+	mActiveActors.ensureCapacity(mActorsByLeft.length);
+	mNextEnterIndex = 0;
+	mFullScan = true;
 }
 
 /**
@@ -31,28 +71,114 @@ public void setActors(ArrayList<Actor> actors) {
  * @param maxPos maximum position where actor's bodies shall be created/destroyed
  */
 public void update(Vector2 minPos, Vector2 maxPos) {
-	// Create bodies
-	for (Actor actor : mActors) {
-		// Skip enemies
-		if (actor instanceof EnemyActor) {
-			continue;
-		}
+	// Window moved backwards, the index only works when moving forward
+	if (minPos.x < mLastMinPos.x || maxPos.x < mLastMaxPos.x) {
+		mFullScan = true;
+	}
+	mLastMinPos.set(minPos);
+	mLastMaxPos.set(maxPos);
 
-		// Test to create body
-		if (actor.getBody() == null) {
-			if (isActorWithinMinMax(minPos, maxPos, actor)) {
-				actor.createBody();
-			}
-		}
-		// Test to destroy body
-		else {
-			if (!isActorWithinMinMax(minPos, maxPos, actor)) {
+	if (mFullScan) {
+		fullScan(minPos, maxPos);
+		mFullScan = false;
+		return;
+	}
+
+	// Add actors that entered the window on the right side
+	while (mNextEnterIndex < mActorsByLeft.length && mLeftEdges[mNextEnterIndex] <= maxPos.x) {
+		mActiveActors.add(mActorsByLeft[mNextEnterIndex]);
+		mNextEnterIndex++;
+	}
+
+	// Create/Destroy bodies of actors within the x-span
+	for (int i = mActiveActors.size() - 1; i >= 0; --i) {
+		Actor actor = mActiveActors.get(i);
+
+		// Left the window on the left side -> Never check again
+		if (getRightEdge(actor) < minPos.x) {
+			if (actor.getBody() != null) {
 				actor.destroyBody();
 			}
+			removeActiveActor(i);
+		} else {
+			updateBody(minPos, maxPos, actor);
+		}
+	}
+}
+
+/**
+ * Checks all actors and rebuilds the active list and enter index
+ * @param minPos minimum position where actor's bodies shall be created/destroyed
+ * @param maxPos maximum position where actor's bodies shall be created/destroyed
+ */
+private void fullScan(Vector2 minPos, Vector2 maxPos) {
+	mActiveActors.clear();
+	mNextEnterIndex = mActorsByLeft.length;
+
+	for (int i = 0; i < mActorsByLeft.length; ++i) {
+		Actor actor = mActorsByLeft[i];
+
+		if (mLeftEdges[i] > maxPos.x && mNextEnterIndex == mActorsByLeft.length) {
+			mNextEnterIndex = i;
+		}
+
+		if (i < mNextEnterIndex && getRightEdge(actor) >= minPos.x) {
+			mActiveActors.add(actor);
+		}
+
+		updateBody(minPos, maxPos, actor);
+	}
+}
+
+/**
+ * Create or destroy the body of the actor depending on if it's within min and max position
+ * @param minPos minimum position where actor's bodies shall be created/destroyed
+ * @param maxPos maximum position where actor's bodies shall be created/destroyed
+ * @param actor the actor to create/destroy the body of
+ */
+private void updateBody(Vector2 minPos, Vector2 maxPos, Actor actor) {
+	// Test to create body
+	if (actor.getBody() == null) {
+		if (isActorWithinMinMax(minPos, maxPos, actor)) {
+			actor.createBody();
+		}
+	}
+	// Test to destroy body
+	else {
+		if (!isActorWithinMinMax(minPos, maxPos, actor)) {
+			actor.destroyBody();
 		}
 	}
 }
 
+/**
+ * Removes an actor from the active list by swapping in the last actor
+ * @param index index of the actor to remove
+ */
+private void removeActiveActor(int index) {
+	int lastIndex = mActiveActors.size() - 1;
+	if (index != lastIndex) {
+		mActiveActors.set(index, mActiveActors.get(lastIndex));
+	}
+	mActiveActors.remove(lastIndex);
+}
+
+/**
+ * @param actor the actor to get the left edge of
+ * @return left edge of the actor's bounding circle
+ */
+private static float getLeftEdge(Actor actor) {
+	return actor.getPosition().x - actor.getDef().getShape().getBoundingRadius();
+}
+
+/**
+ * @param actor the actor to get the right edge of
+ * @return right edge of the actor's bounding circle
+ */
+private static float getRightEdge(Actor actor) {
+	return actor.getPosition().x + actor.getDef().getShape().getBoundingRadius();
+}
+
 /**
  * Tests if some part of the actor is within the min-max positions
  * @param minPos minimum position
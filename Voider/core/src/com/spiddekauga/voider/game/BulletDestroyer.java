@@ -1,131 +1,594 @@
 package com.spiddekauga.voider.game;
 
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
 import com.spiddekauga.utils.ShapeRendererEx;
+import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.Config.Graphics.RenderOrders;
+import com.spiddekauga.voider.game.actors.Actor;
+import com.spiddekauga.voider.game.actors.ActorShapeTypes;
 import com.spiddekauga.voider.game.actors.BulletActor;
-import com.spiddekauga.utils.scene.ui.SceneSwitcher;
+import com.spiddekauga.voider.game.actors.BulletActorDef;
+import com.spiddekauga.voider.game.actors.EnemyActor;
+import com.spiddekauga.voider.game.actors.PlayerActor;
+import com.spiddekauga.voider.game.actors.Shape;
+import com.spiddekauga.voider.game.actors.StaticTerrainActor;
+import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.utils.BoundingBox;
-import com.spiddekauga.voider.utils.Pools;
+import com.spiddekauga.voider.utils.Geometry;
+import com.spiddekauga.voider.utils.ScratchArena;
 import com.spiddekauga.voider.utils.TimeBullet;
+import com.spiddekauga.voider.utils.event.EventDispatcher;
+import com.spiddekauga.voider.utils.event.EventTypes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.UUID;
 
 /**
- * Handles alive bullets, and destroys these once they are outside the screen. To avoid checked each
- * bullet every frame, only some are checked each frame. All new bullets shall be added to this
- * BulletDestroyer.
+ * Handles all alive bullets. Bullets are not actors with bodies, instead their state is kept in
+ * parallel arrays that are moved, collided against the player/enemies/terrain, rendered by bullet
+ * definition and removed once they hit something or leave the screen. All new bullets shall be shot
+ * through this BulletDestroyer.
  */
 public class BulletDestroyer implements Disposable {
-/** All alive bullets */
+/** Initial capacity of the bullet arrays */
+private static final int INITIAL_CAPACITY = 64;
+/** Event dispatcher */
+private static EventDispatcher mEventDispatcher = EventDispatcher.getInstance();
+/** Number of alive bullets */
+@Tag(171)
+private int mCount = 0;
+/** X-position of the bullets */
+@Tag(162)
+private float[] mPositionsX = new float[INITIAL_CAPACITY];
+/** Y-position of the bullets */
+@Tag(163)
+private float[] mPositionsY = new float[INITIAL_CAPACITY];
+/** X-velocity of the bullets */
+@Tag(164)
+private float[] mVelocitiesX = new float[INITIAL_CAPACITY];
+/** Y-velocity of the bullets */
+@Tag(165)
+private float[] mVelocitiesY = new float[INITIAL_CAPACITY];
+/** Angle of the bullets in radians */
+@Tag(166)
+private float[] mAngles = new float[INITIAL_CAPACITY];
+/** X-position of the bullets before the last update, used for rendering between updates */
+private float[] mPreviousPositionsX = new float[INITIAL_CAPACITY];
+/** Y-position of the bullets before the last update, used for rendering between updates */
+private float[] mPreviousPositionsY = new float[INITIAL_CAPACITY];
+/** Angle of the bullets before the last update, used for rendering between updates */
+private float[] mPreviousAngles = new float[INITIAL_CAPACITY];
+/** How much damage the bullets will inflict on hit */
+@Tag(167)
+private float[] mDamages = new float[INITIAL_CAPACITY];
+/** Game time when the bullets were shot */
+@Tag(168)
+private float[] mSpawnTimes = new float[INITIAL_CAPACITY];
+/** Index of the bullet definition in {@link #mDefs} */
+@Tag(169)
+private int[] mDefIndices = new int[INITIAL_CAPACITY];
+/** True if the bullet was shot by the player, false if shot by an enemy */
+@Tag(170)
+private boolean[] mShotByPlayer = new boolean[INITIAL_CAPACITY];
+/** Id of all bullet definitions that have been shot, same order as {@link #mDefs} */
+@Tag(172)
+private ArrayList<UUID> mDefIds = new ArrayList<>();
+/** All bullet definitions that have been shot */
+private ArrayList<BulletActorDef> mDefs = new ArrayList<>();
+/** Index of the bullet definitions in {@link #mDefs} */
+private HashMap<UUID, Integer> mDefIndexLookup = new HashMap<>();
+/**
+ * Old saves stored a bullet actor for each bullet
+ * @deprecated only used when reading old saves, converted in {@link #reinitialize()}
+ */
+@Deprecated
 @Tag(85)
 private ArrayList<TimeBullet> mBullets = new ArrayList<TimeBullet>();
+/** Actors the bullets can collide with this frame */
+private ArrayList<Actor> mCollisionActors = new ArrayList<>();
+/** Same actors as {@link #mCollisionActors}, for checking if an actor already has been added */
+private Set<Actor> mCollisionActorSet = Collections.newSetFromMap(new IdentityHashMap<Actor, Boolean>());
+/** Bounding boxes of {@link #mCollisionActors}, stored as left, bottom, right, top */
+private float[] mCollisionBoxes = new float[16];
+/** Enlarged bounding box used when removing out of bounds bullets */
+private BoundingBox mEnlargedBox = new BoundingBox();
+/** Collects all actors the bullets can collide with */
+private QueryCallback mCollisionCallback = new QueryCallback() {
+	@Override
+	public boolean reportFixture(Fixture fixture) {
+		Object userData = fixture.getBody().getUserData();
+		if (userData instanceof PlayerActor || userData instanceof EnemyActor || userData instanceof StaticTerrainActor) {
+			Actor actor = (Actor) userData;
+			if (!actor.shallBodyBeDestroyed() && mCollisionActorSet.add(actor)) {
+				mCollisionActors.add(actor);
+			}
+		}
+		return true;
+	}
+};
+
+/**
+ * Shoots a new bullet. Automatically normalizes the direction vector to the speed.
+ * @param def the bullet definition to shoot
+ * @param position the original position of the bullet, i.e. where to shoot from
+ * @param direction the direction of the bullet
+ * @param speed of the bullet
+ * @param hitDamage how much life the bullet will inflict when it hits another actor
+ * @param relativeToLevelSpeed true if the bullet speed should be relative to the level speed
+ * @param shotByPlayer true if the player shot this bullet, false if the enemy shot this bullet
+ */
+public void shoot(BulletActorDef def, Vector2 position, Vector2 direction, float speed, float hitDamage, boolean relativeToLevelSpeed,
+		boolean shotByPlayer) {
+	// Velocity
+	Vector2 velocity = ScratchArena.vector2();
+	velocity.set(direction).nor().scl(speed);
+
+	// Add speed from the level
+	if (!Actor.isEditorActive() && relativeToLevelSpeed && speed != 0 && Actor.getLevel() != null) {
+		float ratio = Math.abs(velocity.x / speed);
+		float addSpeed = Actor.getLevel().getSpeed() * ratio;
+		velocity.x += addSpeed;
+	}
+
+	// Rotate the bullet to face the shooting direction
+	float angle = (float) Math.atan2(velocity.y, velocity.x) + def.getBodyDef().angle;
+
+	float spawnTime = SceneSwitcher.getGameTime().getTotalTimeElapsed();
+	add(getDefIndex(def), position.x, position.y, velocity.x, velocity.y, angle, hitDamage, shotByPlayer, spawnTime);
+}
+
+/**
+ * Adds a new bullet to the end of the arrays
+ * @param defIndex index of the bullet definition
+ * @param x x-position
+ * @param y y-position
+ * @param velocityX x-velocity
+ * @param velocityY y-velocity
+ * @param angle angle in radians
+ * @param hitDamage how much life the bullet will inflict when it hits another actor
+ * @param shotByPlayer true if the player shot this bullet
+ * @param spawnTime game time when the bullet was shot
+ */
+private void add(int defIndex, float x, float y, float velocityX, float velocityY, float angle, float hitDamage, boolean shotByPlayer,
+		float spawnTime) {
+	ensureCapacity(mCount + 1);
+
+	mPositionsX[mCount] = x;
+	mPositionsY[mCount] = y;
+	mVelocitiesX[mCount] = velocityX;
+	mVelocitiesY[mCount] = velocityY;
+	mAngles[mCount] = angle;
+	mPreviousPositionsX[mCount] = x;
+	mPreviousPositionsY[mCount] = y;
+	mPreviousAngles[mCount] = angle;
+	mDamages[mCount] = hitDamage;
+	mSpawnTimes[mCount] = spawnTime;
+	mDefIndices[mCount] = defIndex;
+	mShotByPlayer[mCount] = shotByPlayer;
+	mCount++;
+}
+
+/**
+ * Get or add the index of a bullet definition
+ * @param def the bullet definition
+ * @return index of the bullet definition in {@link #mDefs}
+ */
+private int getDefIndex(BulletActorDef def) {
+	Integer index = mDefIndexLookup.get(def.getId());
+
+	if (index == null) {
+		index = mDefs.size();
+		mDefs.add(def);
+		mDefIds.add(def.getId());
+		mDefIndexLookup.put(def.getId(), index);
+	}
+
+	return index;
+}
+
+/**
+ * Makes sure the bullet arrays can hold the specified number of bullets
+ * @param capacity minimum number of bullets
+ */
+private void ensureCapacity(int capacity) {
+	if (capacity > mPositionsX.length) {
+		int newCapacity = Math.max(capacity, mPositionsX.length * 2);
+		mPositionsX = Arrays.copyOf(mPositionsX, newCapacity);
+		mPositionsY = Arrays.copyOf(mPositionsY, newCapacity);
+		mVelocitiesX = Arrays.copyOf(mVelocitiesX, newCapacity);
+		mVelocitiesY = Arrays.copyOf(mVelocitiesY, newCapacity);
+		mAngles = Arrays.copyOf(mAngles, newCapacity);
+		mPreviousPositionsX = Arrays.copyOf(mPreviousPositionsX, newCapacity);
+		mPreviousPositionsY = Arrays.copyOf(mPreviousPositionsY, newCapacity);
+		mPreviousAngles = Arrays.copyOf(mPreviousAngles, newCapacity);
+		mDamages = Arrays.copyOf(mDamages, newCapacity);
+		mSpawnTimes = Arrays.copyOf(mSpawnTimes, newCapacity);
+		mDefIndices = Arrays.copyOf(mDefIndices, newCapacity);
+		mShotByPlayer = Arrays.copyOf(mShotByPlayer, newCapacity);
+	}
+}
 
 /**
- * Adds a new bullet.
- * @param bullet a newly created bullet
+ * Removes a bullet by moving the last bullet to its place
+ * @param index index of the bullet to remove
  */
-public void add(BulletActor bullet) {
-	TimeBullet timeBullet = Pools.timeBullet.obtain();
-	timeBullet.bulletActor = bullet;
-	timeBullet.time = SceneSwitcher.getGameTime().getTotalTimeElapsed();
+private void remove(int index) {
+	mCount--;
 
-	mBullets.add(timeBullet);
+	if (index != mCount) {
+		mPositionsX[index] = mPositionsX[mCount];
+		mPositionsY[index] = mPositionsY[mCount];
+		mVelocitiesX[index] = mVelocitiesX[mCount];
+		mVelocitiesY[index] = mVelocitiesY[mCount];
+		mAngles[index] = mAngles[mCount];
+		mPreviousPositionsX[index] = mPreviousPositionsX[mCount];
+		mPreviousPositionsY[index] = mPreviousPositionsY[mCount];
+		mPreviousAngles[index] = mPreviousAngles[mCount];
+		mDamages[index] = mDamages[mCount];
+		mSpawnTimes[index] = mSpawnTimes[mCount];
+		mDefIndices[index] = mDefIndices[mCount];
+		mShotByPlayer[index] = mShotByPlayer[mCount];
+	}
 }
 
 /**
- * Updates the bullets
+ * Updates the bullets, moves them and checks for collisions
  * @param deltaTime elapsed time since last frame
  */
 public void update(float deltaTime) {
-	for (TimeBullet timeBullet : mBullets) {
-		timeBullet.bulletActor.update(deltaTime);
+	if (mCount == 0) {
+		return;
+	}
+
+	// Same damping as a box2d body
+	float damping = 1.0f / (1.0f + deltaTime * Config.Actor.Bullet.FRICTION);
+
+	float minX = Float.MAX_VALUE;
+	float minY = Float.MAX_VALUE;
+	float maxX = -Float.MAX_VALUE;
+	float maxY = -Float.MAX_VALUE;
+
+	for (int i = 0; i < mCount; ++i) {
+		mPreviousPositionsX[i] = mPositionsX[i];
+		mPreviousPositionsY[i] = mPositionsY[i];
+		mPreviousAngles[i] = mAngles[i];
+
+		mVelocitiesX[i] *= damping;
+		mVelocitiesY[i] *= damping;
+		mPositionsX[i] += mVelocitiesX[i] * deltaTime;
+		mPositionsY[i] += mVelocitiesY[i] * deltaTime;
+
+		Shape shape = mDefs.get(mDefIndices[i]).getShape();
+
+		// Rotation, only rotates around the center offset like actors
+		float angularVelocity = mDefs.get(mDefIndices[i]).getBodyDef().angularVelocity;
+		if (angularVelocity != 0 && !shape.getCenterOffset().equals(Vector2.Zero)) {
+			float newAngle = mAngles[i] + angularVelocity * deltaTime;
+			if (newAngle >= MathUtils.PI2) {
+				newAngle -= MathUtils.PI2;
+			} else if (newAngle <= -MathUtils.PI2) {
+				newAngle += MathUtils.PI2;
+			}
+			mAngles[i] = newAngle;
+		}
+
+		// Area to check for collisions
+		float radius = shape.getBoundingRadius();
+		minX = Math.min(minX, mPositionsX[i] - radius);
+		minY = Math.min(minY, mPositionsY[i] - radius);
+		maxX = Math.max(maxX, mPositionsX[i] + radius);
+		maxY = Math.max(maxY, mPositionsY[i] + radius);
 	}
+
+	checkCollisions(minX, minY, maxX, maxY);
 }
 
 /**
- * Renders all the bullets
- * @param shapeRenderer shape renderer to be used for rendering
- * @param windowBox position of the window
+ * Checks collisions between the bullets and the player/enemies/terrain. Bullets that hit something
+ * will inflict damage and be removed.
+ * @param minX minimum x-position of all bullets
+ * @param minY minimum y-position of all bullets
+ * @param maxX maximum x-position of all bullets
+ * @param maxY maximum y-position of all bullets
  */
-public void render(ShapeRendererEx shapeRenderer, BoundingBox windowBox) {
-	for (TimeBullet timeBullet : mBullets) {
-		if (windowBox.overlaps(timeBullet.bulletActor.getBoundingBox())) {
-			timeBullet.bulletActor.renderShape(shapeRenderer);
+private void checkCollisions(float minX, float minY, float maxX, float maxY) {
+	World world = Actor.getWorld();
+	if (world == null) {
+		return;
+	}
+
+	mCollisionActors.clear();
+	mCollisionActorSet.clear();
+	world.QueryAABB(mCollisionCallback, minX, minY, maxX, maxY);
+
+	if (mCollisionActors.isEmpty()) {
+		return;
+	}
+
+	// Calculate bounding boxes once
+	if (mCollisionBoxes.length < mCollisionActors.size() * 4) {
+		mCollisionBoxes = new float[mCollisionActors.size() * 8];
+	}
+	for (int actorIndex = 0; actorIndex < mCollisionActors.size(); ++actorIndex) {
+		BoundingBox boundingBox = mCollisionActors.get(actorIndex).getBoundingBox();
+		int boxIndex = actorIndex * 4;
+		mCollisionBoxes[boxIndex] = boundingBox.getLeft();
+		mCollisionBoxes[boxIndex + 1] = boundingBox.getBottom();
+		mCollisionBoxes[boxIndex + 2] = boundingBox.getRight();
+		mCollisionBoxes[boxIndex + 3] = boundingBox.getTop();
+	}
+
+	for (int i = 0; i < mCount; ++i) {
+		float x = mPositionsX[i];
+		float y = mPositionsY[i];
+		float radius = mDefs.get(mDefIndices[i]).getShape().getBoundingRadius();
+
+		for (int actorIndex = 0; actorIndex < mCollisionActors.size(); ++actorIndex) {
+			Actor actor = mCollisionActors.get(actorIndex);
+
+			if (!canHit(mShotByPlayer[i], actor)) {
+				continue;
+			}
+
+			// Closest point on the bounding box
+			int boxIndex = actorIndex * 4;
+			float diffX = x - MathUtils.clamp(x, mCollisionBoxes[boxIndex], mCollisionBoxes[boxIndex + 2]);
+			float diffY = y - MathUtils.clamp(y, mCollisionBoxes[boxIndex + 1], mCollisionBoxes[boxIndex + 3]);
+			if (diffX * diffX + diffY * diffY > radius * radius) {
+				continue;
+			}
+
+			// Terrain bounding boxes are large, test the actual shape
+			if (actor instanceof StaticTerrainActor && !containsPoint(actor.getBody(), x, y)) {
+				continue;
+			}
+
+			hit(i, actor);
+			remove(i);
+			i--;
+			break;
 		}
 	}
 }
 
 /**
- * @return a copied list of all bullets
+ * Checks if a bullet can hit the specified actor. Uses the actor's current filter, so e.g. an
+ * invulnerable player or terrain isn't hit by enemy bullets.
+ * @param shotByPlayer true if the bullet was shot by the player
+ * @param actor the actor to check
+ * @return true if the bullet can hit the actor
  */
-public ArrayList<BulletActor> getBullets() {
-	ArrayList<BulletActor> bullets = new ArrayList<>();
+private static boolean canHit(boolean shotByPlayer, Actor actor) {
+	return actor.isFilterColliding(BulletActor.getFilterCategory(shotByPlayer), BulletActor.getFilterCollidingCategories(shotByPlayer));
+}
 
-	for (TimeBullet timeBullet : mBullets) {
-		bullets.add(timeBullet.bulletActor);
+/**
+ * Checks if any of the body's fixtures contains the point
+ * @param body the body to test
+ * @param x x-coordinate of the point
+ * @param y y-coordinate of the point
+ * @return true if the point is inside the body
+ */
+private static boolean containsPoint(Body body, float x, float y) {
+	if (body == null) {
+		return false;
+	}
+
+	Array<Fixture> fixtures = body.getFixtureList();
+	for (int i = 0; i < fixtures.size; ++i) {
+		if (fixtures.get(i).testPoint(x, y)) {
+			return true;
+		}
+	}
+	return false;
+}
+
+/**
+ * Inflict damage on the hit actor
+ * @param index index of the bullet that hit the actor
+ * @param actor the actor that was hit
+ */
+private void hit(int index, Actor actor) {
+	if (actor instanceof PlayerActor) {
+		mEventDispatcher.fire(EventTypes.GAME_PLAYER_HIT_BY_BULLET);
+	}
+
+	actor.decreaseHealth(mDamages[index]);
+}
+
+/**
+ * Renders all the bullets, bullets with the same definition are rendered together. Bullets are
+ * rendered between their previous and current position, see {@link Actor#setRenderInterpolation(float)}
+ * @param shapeRenderer shape renderer to be used for rendering
+ * @param windowBox position of the window
+ */
+public void render(ShapeRendererEx shapeRenderer, BoundingBox windowBox) {
+	if (mCount == 0) {
+		return;
+	}
+
+	RenderOrders.offsetZValue(shapeRenderer, RenderOrders.BULLET);
+
+	float interpolation = Actor.getRenderInterpolation();
+
+	for (int defIndex = 0; defIndex < mDefs.size(); ++defIndex) {
+		Shape shape = mDefs.get(defIndex).getShape();
+
+		// Skip if the bullet is rendered with sprites
+		if (shape.hasImage() || !shape.isComplete() || shape.getTriangleMesh() == null) {
+			continue;
+		}
+
+		float[] mesh = shape.getTriangleMesh();
+		float radius = shape.getBoundingRadius();
+
+		// Offset for circle
+		float offsetX = 0;
+		float offsetY = 0;
+		if (shape.getShapeType() == ActorShapeTypes.CUSTOM && shape.getCornerCount() >= 1 && shape.getCornerCount() <= 2) {
+			offsetX = shape.getCorners().get(0).x;
+			offsetY = shape.getCorners().get(0).y;
+		}
+
+		shapeRenderer.setColor(shape.getColor());
+
+		for (int i = 0; i < mCount; ++i) {
+			if (mDefIndices[i] != defIndex) {
+				continue;
+			}
+
+			float x = mPositionsX[i];
+			float y = mPositionsY[i];
+			float angle = mAngles[i];
+			if (interpolation < 1) {
+				x = mPreviousPositionsX[i] + (x - mPreviousPositionsX[i]) * interpolation;
+				y = mPreviousPositionsY[i] + (y - mPreviousPositionsY[i]) * interpolation;
+				angle = Geometry.interpolateAngle(mPreviousAngles[i], angle, interpolation);
+			}
+
+			// Outside window
+			if (x + radius < windowBox.getLeft() || x - radius > windowBox.getRight() || y + radius < windowBox.getBottom()
+					|| y - radius > windowBox.getTop()) {
+				continue;
+			}
+
+			shapeRenderer.triangles(mesh, x + offsetX, y + offsetY, angle);
+		}
 	}
 
-	return bullets;
+	RenderOrders.resetZValueOffset(shapeRenderer, RenderOrders.BULLET);
 }
 
 /**
- * Removes out of bounds/screen bullets. This function does not remove all bullets, as it only
- * checks a bullet every x seconds. Defined in Config.Actor.Bullet.CHECK_OUT_OF_BOUNDS_TIME.
+ * @return number of alive bullets
+ */
+public int getBulletCount() {
+	return mCount;
+}
+
+/**
+ * Removes out of bounds/screen bullets.
  * @param boundingBox everything inside this bounding box will be kept. Also read the note.
  * @note because some bullets might come on to the screen again bullets it will enlarge the minPos
  * and maxPos by 3 times. I.e. the screen size is the XX size. \code __________ |__|__|__|
  * |__|XX|__| |__|__|__| \endCode
  */
 public void removeOutOfBondsBullets(BoundingBox boundingBox) {
-	float elapsedTime = SceneSwitcher.getGameTime().getTotalTimeElapsed();
+	mEnlargedBox.set(boundingBox);
+	mEnlargedBox.scale(3);
 
-	BoundingBox enlargedBox = new BoundingBox(boundingBox);
-	enlargedBox.scale(3);
+	float left = mEnlargedBox.getLeft();
+	float right = mEnlargedBox.getRight();
+	float bottom = mEnlargedBox.getBottom();
+	float top = mEnlargedBox.getTop();
 
-	for (int i = 0; i < mBullets.size(); ++i) {
-		// Only check out of bounds it some time has elapsed since last check
-		if (!mBullets.get(i).bulletActor.isActive() || mBullets.get(i).time + Config.Actor.Bullet.CHECK_OUT_OF_BOUNDS_TIME <= elapsedTime) {
-			mBullets.get(i).time = elapsedTime;
+	for (int i = 0; i < mCount; ++i) {
+		float radius = mDefs.get(mDefIndices[i]).getShape().getBoundingRadius();
+		float x = mPositionsX[i];
+		float y = mPositionsY[i];
 
-			boolean outOfBounds = false;
-			BulletActor bulletActor = mBullets.get(i).bulletActor;
-			if (bulletActor.isActive()) {
+		if (x + radius < left || x - radius > right || y + radius < bottom || y - radius > top) {
+			remove(i);
+			i--;
+		}
+	}
+}
 
-				if (!enlargedBox.overlaps(bulletActor.getBoundingBox())) {
-					outOfBounds = true;
-				}
-			}
-			// Bullet has been destroyed, probably by hitting something
-			else {
-				outOfBounds = true;
-			}
+/**
+ * Reinitialize the bullets after a load. Resolves the bullet definitions and converts bullets from
+ * old saves.
+ */
+public void reinitialize() {
+	// Previous positions aren't saved, render loaded bullets at their current position
+	mPreviousPositionsX = mPositionsX.clone();
+	mPreviousPositionsY = mPositionsY.clone();
+	mPreviousAngles = mAngles.clone();
+
+	// Bullet definitions
+	ArrayList<BulletActorDef> defs = new ArrayList<>(mDefIds.size());
+	for (UUID defId : mDefIds) {
+		BulletActorDef def = ResourceCacheFacade.get(defId);
+		defs.add(def);
+	}
+	setDefs(defs);
 
-			if (outOfBounds) {
-				TimeBullet removeTimeBullet = mBullets.remove(i);
-				i--;
+	// Convert bullet actors from old saves
+	for (TimeBullet timeBullet : mBullets) {
+		BulletActor bulletActor = timeBullet.bulletActor;
+		bulletActor.createBody();
+		Body body = bulletActor.getBody();
+		BulletActorDef def = bulletActor.getDef(BulletActorDef.class);
 
-				freeBullet(removeTimeBullet);
-			}
+		if (body != null && bulletActor.isActive() && def != null) {
+			Vector2 position = body.getPosition();
+			Vector2 velocity = body.getLinearVelocity();
+			int defIndex = getDefIndex(def);
+			add(defIndex, position.x, position.y, velocity.x, velocity.y, body.getAngle(), bulletActor.getHitDamage(), bulletActor.isShotByPlayer(),
+					timeBullet.time);
 		}
+
+		bulletActor.destroyBody();
 	}
+	mBullets.clear();
 }
 
 /**
- * Destroys and frees a bullet
- * @param timeBullet the time bullet to free and destroy
+ * Set the bullet definitions after a load. Definitions that couldn't be found are removed together
+ * with their bullets, and the indices of the other definitions are updated.
+ * @param defs the loaded definition of each id in {@link #mDefIds}, null if it couldn't be found
  */
-private void freeBullet(TimeBullet timeBullet) {
-	timeBullet.bulletActor.destroyBody();
-	Pools.bullet.free(timeBullet.bulletActor);
-	Pools.timeBullet.free(timeBullet);
+void setDefs(ArrayList<BulletActorDef> defs) {
+	ArrayList<UUID> defIds = new ArrayList<>(mDefIds);
+	int[] newIndices = new int[defs.size()];
+
+	mDefs.clear();
+	mDefIds.clear();
+	mDefIndexLookup.clear();
+	for (int i = 0; i < defs.size(); ++i) {
+		BulletActorDef def = defs.get(i);
+		if (def != null) {
+			newIndices[i] = mDefs.size();
+			mDefIndexLookup.put(defIds.get(i), mDefs.size());
+			mDefs.add(def);
+			mDefIds.add(defIds.get(i));
+		} else {
+			newIndices[i] = -1;
+		}
+	}
+
+	// Remove bullets which definition couldn't be found
+	for (int i = 0; i < mCount; ++i) {
+		int defIndex = mDefIndices[i];
+		if (defIndex >= 0 && defIndex < newIndices.length && newIndices[defIndex] != -1) {
+			mDefIndices[i] = newIndices[defIndex];
+		} else {
+			remove(i);
+			i--;
+		}
+	}
 }
 
 @Override
 public void dispose() {
-	for (TimeBullet timeBullet : mBullets) {
-		freeBullet(timeBullet);
-	}
+	mCount = 0;
+	mDefs.clear();
+	mDefIds.clear();
+	mDefIndexLookup.clear();
+	mCollisionActors.clear();
+	mCollisionActorSet.clear();
 }
 }
@@ -6,92 +6,43 @@ import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
 import com.badlogic.gdx.physics.box2d.Manifold;
 import com.spiddekauga.voider.game.actors.Actor;
-import com.spiddekauga.voider.game.actors.BulletActor;
 import com.spiddekauga.voider.game.actors.EnemyActor;
 import com.spiddekauga.voider.game.actors.PlayerActor;
 import com.spiddekauga.voider.utils.event.EventDispatcher;
 import com.spiddekauga.voider.utils.event.EventTypes;
-import com.spiddekauga.voider.utils.event.GameEvent;
+
+import java.util.Arrays;
 
 /**
- * Resolves collisions between two objects, generally a player and something else.
+ * Resolves collisions between two objects, generally a player and something else. Contacts that
+ * happen during a world step are queued and resolved in {@link #resolveContacts()} which shall be
+ * called after each world step.
  * @note This does not change the physics of the objects.
  */
 public class CollisionResolver implements ContactListener {
-
+/** Initial capacity of the contact queue */
+private static final int INITIAL_CAPACITY = 32;
 private static EventDispatcher mEventDispatcher = EventDispatcher.getInstance();
+/** First actor of the queued contacts */
+private Actor[] mContactActorsA = new Actor[INITIAL_CAPACITY];
+/** Second actor of the queued contacts */
+private Actor[] mContactActorsB = new Actor[INITIAL_CAPACITY];
+/** True if the queued contact began, false if it ended */
+private boolean[] mContactBegins = new boolean[INITIAL_CAPACITY];
+/** Number of queued contacts */
+private int mContactCount = 0;
 
 @Override
 public void beginContact(Contact contact) {
 	Body bodyA = contact.getFixtureA().getBody();
 	Body bodyB = contact.getFixtureB().getBody();
 
-
-	// Add collision actors, so they take damage (if possible)
 	if (bodyA.getUserData() instanceof Actor && bodyB.getUserData() instanceof Actor) {
-		Actor actorA = (Actor) bodyA.getUserData();
-		Actor actorB = (Actor) bodyB.getUserData();
-
-
-		// Do nothing if body is being destroyed
-		if (actorA.shallBodyBeDestroyed() || actorB.shallBodyBeDestroyed()) {
-			return;
-		}
-
-		// If one shall be destroyed directly
-		Actor destroyActor = null;
-		Actor actor = null;
-		if (actorA.getDef().isDestroyedOnCollide()) {
-			destroyActor = actorA;
-			actor = actorB;
-		} else if (actorB.getDef().isDestroyedOnCollide()) {
-			destroyActor = actorB;
-			actor = actorA;
-		}
-
-		if (destroyActor != null) {
-			float damage = destroyActor.getDef().getCollisionDamage();
-
-			// Use hit damage from bullet instead
-			if (destroyActor instanceof BulletActor) {
-				damage = ((BulletActor) destroyActor).getHitDamage();
-				if (actor instanceof PlayerActor) {
-					mEventDispatcher.fire(new GameEvent(EventTypes.GAME_PLAYER_HIT_BY_BULLET));
-				}
-			} else if (destroyActor instanceof EnemyActor) {
-				mEventDispatcher.fire(new GameEvent(EventTypes.GAME_ENEMY_EXPLODED));
-			}
-
-			actor.decreaseHealth(damage);
-			destroyActor.destroyBodySafe();
-			return;
-		}
-
-
-		// Transfer collectible to player
-		// A collectible, B player
-		PlayerActor playerActor = null;
-		Actor collectibleActor = null;
-		if (actorA.getDef().getCollectible() != null && actorB instanceof PlayerActor) {
-			playerActor = (PlayerActor) actorB;
-			collectibleActor = actorA;
-		}
-		// A player, B collectible
-		else if (actorA instanceof PlayerActor && actorB.getDef().getCollectible() != null) {
-			playerActor = (PlayerActor) actorA;
-			collectibleActor = actorB;
-		}
-
-		// Transfer then destroy the collectible
-		if (playerActor != null && collectibleActor != null) {
-			playerActor.addCollectible(collectibleActor.getDef().getCollectible());
-			collectibleActor.dispose();
-			return;
+		if (bodyA.getWorld().isLocked()) {
+			queueContact((Actor) bodyA.getUserData(), (Actor) bodyB.getUserData(), true);
+		} else {
+			resolveBeginContact((Actor) bodyA.getUserData(), (Actor) bodyB.getUserData());
 		}
-
-		// Have not been handled yet
-		actorA.addCollidingActor(actorB);
-		actorB.addCollidingActor(actorA);
 	}
 }
 
@@ -105,25 +56,135 @@ public void endContact(Contact contact) {
 	Body bodyA = contact.getFixtureA().getBody();
 	Body bodyB = contact.getFixtureB().getBody();
 
-	// Remove collision from actors
 	if (bodyA.getUserData() instanceof Actor && bodyB.getUserData() instanceof Actor) {
-		Actor actorA = (Actor) bodyA.getUserData();
-		Actor actorB = (Actor) bodyB.getUserData();
+		// Contacts ended when destroying a body are resolved directly
+		if (bodyA.getWorld().isLocked()) {
+			queueContact((Actor) bodyA.getUserData(), (Actor) bodyB.getUserData(), false);
+		} else {
+			resolveEndContact((Actor) bodyA.getUserData(), (Actor) bodyB.getUserData());
+		}
+	}
+}
 
-		// If one shall be destroyed on collide...
-		if (actorA.getDef().isDestroyedOnCollide() || actorB.getDef().isDestroyedOnCollide()) {
-			return;
+/**
+ * Queue a contact to be resolved after the world step
+ * @param actorA first actor of the contact
+ * @param actorB second actor of the contact
+ * @param begin true if the contact began, false if it ended
+ */
+private void queueContact(Actor actorA, Actor actorB, boolean begin) {
+	if (mContactCount == mContactActorsA.length) {
+		int newCapacity = mContactActorsA.length * 2;
+		mContactActorsA = Arrays.copyOf(mContactActorsA, newCapacity);
+		mContactActorsB = Arrays.copyOf(mContactActorsB, newCapacity);
+		mContactBegins = Arrays.copyOf(mContactBegins, newCapacity);
+	}
+
+	mContactActorsA[mContactCount] = actorA;
+	mContactActorsB[mContactCount] = actorB;
+	mContactBegins[mContactCount] = begin;
+	mContactCount++;
+}
+
+/**
+ * Resolves all contacts that were queued during the last world step. Shall be called after each
+ * world step.
+ */
+public void resolveContacts() {
+	for (int i = 0; i < mContactCount; ++i) {
+		if (mContactBegins[i]) {
+			resolveBeginContact(mContactActorsA[i], mContactActorsB[i]);
+		} else {
+			resolveEndContact(mContactActorsA[i], mContactActorsB[i]);
 		}
 
-		// Collectible
-		if ((actorA instanceof PlayerActor && actorB.getDef().getCollectible() != null)
-				|| (actorB instanceof PlayerActor && actorA.getDef().getCollectible() != null)) {
-			return;
+		mContactActorsA[i] = null;
+		mContactActorsB[i] = null;
+	}
+	mContactCount = 0;
+}
+
+/**
+ * Resolves a contact that began
+ * @param actorA first actor of the contact
+ * @param actorB second actor of the contact
+ */
+private void resolveBeginContact(Actor actorA, Actor actorB) {
+	// Do nothing if body is being destroyed
+	if (actorA.shallBodyBeDestroyed() || actorB.shallBodyBeDestroyed()) {
+		return;
+	}
+
+	// If one shall be destroyed directly
+	Actor destroyActor = null;
+	Actor actor = null;
+	if (actorA.getDef().isDestroyedOnCollide()) {
+		destroyActor = actorA;
+		actor = actorB;
+	} else if (actorB.getDef().isDestroyedOnCollide()) {
+		destroyActor = actorB;
+		actor = actorA;
+	}
+
+	if (destroyActor != null) {
+		float damage = destroyActor.getDef().getCollisionDamage();
+
+		if (destroyActor instanceof EnemyActor) {
+			mEventDispatcher.fire(EventTypes.GAME_ENEMY_EXPLODED);
 		}
 
-		actorA.removeCollidingActor(actorB);
-		actorB.removeCollidingActor(actorA);
+		actor.decreaseHealth(damage);
+		destroyActor.destroyBodySafe();
+		return;
 	}
+
+
+	// Transfer collectible to player
+	// A collectible, B player
+	PlayerActor playerActor = null;
+	Actor collectibleActor = null;
+	if (actorA.getDef().getCollectible() != null && actorB instanceof PlayerActor) {
+		playerActor = (PlayerActor) actorB;
+		collectibleActor = actorA;
+	}
+	// A player, B collectible
+	else if (actorA instanceof PlayerActor && actorB.getDef().getCollectible() != null) {
+		playerActor = (PlayerActor) actorA;
+		collectibleActor = actorB;
+	}
+
+	// Transfer then destroy the collectible
+	if (playerActor != null && collectibleActor != null) {
+		playerActor.addCollectible(collectibleActor.getDef().getCollectible());
+		collectibleActor.dispose();
+		return;
+	}
+
+	// Have not been handled yet
+	actorA.addCollidingActor(actorB);
+	actorB.addCollidingActor(actorA);
+}
+
+/**
+ * Resolves a contact that ended
+ * @param actorA first actor of the contact
+ * @param actorB second actor of the contact
+ */
+private void resolveEndContact(Actor actorA, Actor actorB) {
+	// If one shall be destroyed on collide...
+	if (actorA.getDef().isDestroyedOnCollide() || actorB.getDef().isDestroyedOnCollide()) {
+		return;
+	}
+
+	// Collectible
+	if ((actorA instanceof PlayerActor && actorB.getDef().getCollectible() != null)
+			|| (actorB instanceof PlayerActor && actorA.getDef().getCollectible() != null)) {
+		return;
+	}
+
+	// Remove collision from actors
+	actorA.removeCollidingActor(actorB);
+	actorB.removeCollidingActor(actorA);
 }
 
 @Override
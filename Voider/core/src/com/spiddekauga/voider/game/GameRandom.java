@@ -0,0 +1,57 @@
+package com.spiddekauga.voider.game;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * Random numbers for the game logic. Game logic shall use this instead of Math.random() so that a
+ * level played with the same seed and the same input always plays out the same way.
+ */
+public class GameRandom {
+/** Random generator */
+private static RandomXS128 mRandom = new RandomXS128();
+/** Seed of the random generator */
+private static long mSeed = 0;
+
+static {
+	newSeed();
+}
+
+/**
+ * Private constructor to enforce static usage
+ */
+private GameRandom() {
+	// Does nothing
+}
+
+/**
+ * Seed the random generator with a new random seed, call when a new game is started
+ * @return the new seed
+ */
+public static long newSeed() {
+	setSeed(new RandomXS128().nextLong());
+	return mSeed;
+}
+
+/**
+ * Seed the random generator, used to play a recorded game again
+ * @param seed the seed to use
+ */
+public static void setSeed(long seed) {
+	mSeed = seed;
+	mRandom.setSeed(seed);
+}
+
+/**
+ * @return seed the random generator was last seeded with
+ */
+public static long getSeed() {
+	return mSeed;
+}
+
+/**
+ * @return random number between 0 (inclusive) and 1 (exclusive)
+ */
+public static float nextFloat() {
+	return mRandom.nextFloat();
+}
+}
@@ -7,7 +7,6 @@ import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
 import com.spiddekauga.utils.GameTime;
 import com.spiddekauga.voider.game.actors.Actor;
-import com.spiddekauga.voider.game.actors.BulletActor;
 import com.spiddekauga.voider.game.actors.PlayerActor;
 import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.resources.Def;
@@ -117,11 +116,8 @@ public GameTime getGameTime() {
  * Reinitialize the game save after a load. Creates bodies etc.
  */
 public void reinitialize() {
-	// Create bullet bodies
-	ArrayList<BulletActor> bullets = mBulletDestroyer.getBullets();
-	for (BulletActor bulletActor : bullets) {
-		bulletActor.createBody();
-	}
+	// Bullets
+	mBulletDestroyer.reinitialize();
 
 	// Create bodies for the rest
 	ArrayList<Actor> actors = mLevel.getResources(Actor.class);
@@ -19,6 +19,7 @@ import com.spiddekauga.utils.scene.ui.LoadingTextScene;
 import com.spiddekauga.utils.scene.ui.Scene;
 import com.spiddekauga.utils.scene.ui.WorldScene;
 import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.game.PlayerInputRecording.InputTypes;
 import com.spiddekauga.voider.game.actors.Actor;
 import com.spiddekauga.voider.game.actors.PlayerActor;
 import com.spiddekauga.voider.game.actors.PlayerActorDef;
@@ -64,6 +65,8 @@ private Matrix4 mProjectionMatrixDefault = new Matrix4();
 private LevelDef mLevelToLoad = null;
 private Level mLevelToRun = null;
 private Level mLevel = null;
+/** Level location before the last fixed step, for interpolating the camera */
+private float mLevelXCoordPrevious = 0;
 private boolean mRunningFromEditor = false;
 private boolean mInvulnerable = false;
 /** Resumed game save definition, will only be set if resumed a game */
@@ -85,6 +88,10 @@ private HighscoreScene mHighscoreScene = null;
 private Vector2 mCursorScreen = new Vector2();
 /** Temporary variables */
 private Vector2 mCursorWorld = new Vector2();
+/** Input of the played level, null when resuming a game */
+private PlayerInputRecording mInputRecording = null;
+/** Number of fixed steps since the level was started */
+private int mStep = 0;
 
 /**
  * Initializes the game scene.
@@ -204,28 +211,58 @@ protected void onResize(int width, int height) {
  * Updates the camera's position depending on where on the level location
  */
 private void updateCameraPosition() {
-	mCamera.position.x = mLevel.getXCoord() - mCamera.viewportWidth * 0.5f;
+	updateCameraPosition(1);
+}
+
+/**
+ * Updates the camera's position to somewhere between the previous and current level location
+ * @param interpolation 0 for the previous level location, 1 for the current
+ */
+private void updateCameraPosition(float interpolation) {
+	float xCoord = mLevelXCoordPrevious + (mLevel.getXCoord() - mLevelXCoordPrevious) * interpolation;
+	mCamera.position.x = xCoord - mCamera.viewportWidth * 0.5f;
 	mCamera.update();
 }
 
 @Override
 protected void update(float deltaTime) {
 	super.update(deltaTime);
+
+	// Render the camera between the last two steps, same as the actors
+	updateCameraPosition(getStepInterpolation());
+
+	// GUI
+	getGui().resetValues();
+}
+
+@Override
+protected void fixedUpdate(float stepTime) {
+	mStep++;
+	mLevelXCoordPrevious = mLevel.getXCoord();
+
+	super.fixedUpdate(stepTime);
+	mCollisionResolver.resolveContacts();
 	updateCameraPosition();
 	synchronizeBorder();
 
 	updateBodyShepherdPositions();
 	mBodyShepherd.update(mBodyShepherdMinPos, mBodyShepherdMaxPos);
 
-	mLevel.update(deltaTime);
+	mLevel.update(stepTime);
 
 	checkAndResetPlayerPosition();
-	checkPlayerLives();
-	checkCompletedLevel();
-	mPlayerStats.updateScore(mLevel.getXCoord());
 
-	// GUI
-	getGui().resetValues();
+	// Checked every step in the same order as LevelSimulator so recorded games play the same
+	if (getOutcome() == null) {
+		checkPlayerLives();
+		checkCompletedLevel();
+		mPlayerStats.updateScore(mLevel.getXCoord());
+	}
+}
+
+@Override
+protected boolean isInterpolated() {
+	return true;
 }
 
 @Override
@@ -401,11 +438,18 @@ private UUID getLevelId() {
  * @param level level to play
  */
 private void setLevel(Level level) {
+	// Record the input of new games so they can be simulated again
+	if (mGameSaveDef == null) {
+		mInputRecording = new PlayerInputRecording(GameRandom.newSeed(), getWorldWidth(), getWorldHeight());
+	}
+	mStep = 0;
+
 	mLevel = level;
 	mLevel.run();
 
 	mBodyShepherd.setActors(mLevel.getResources(Actor.class));
 
+	mLevelXCoordPrevious = mLevel.getXCoord();
 	updateCameraPosition();
 	createBorder();
 	Actor.setLevel(mLevel);
@@ -579,7 +623,7 @@ private void checkAndResetPlayerPosition() {
  * Check if the player has completed the level
  */
 private void checkCompletedLevel() {
-	if (mLevel.isCompletedLevel()) {
+	if (getOutcome() == null && mLevel.isCompletedLevel()) {
 		mPlayerStats.calculateEndScore();
 		setOutcome(Outcomes.LEVEL_COMPLETED);
 		mSoundPlayer.stopAll();
@@ -660,6 +704,7 @@ private void moveShipTo(int x, int y) {
 	mCursorScreen.set(x, y);
 	screenToWorldCoord(mCamera, mCursorScreen, mCursorWorld, true);
 	mPlayerActor.move(mCursorWorld);
+	recordInput(InputTypes.MOVE);
 }
 
 /**
@@ -668,6 +713,7 @@ private void moveShipTo(int x, int y) {
 private void stopMovingShip() {
 	mPlayerPointer = INVALID_POINTER;
 	mPlayerActor.stopMoving();
+	recordInput(InputTypes.STOP);
 }
 
 /**
@@ -680,6 +726,25 @@ private void startMovingShip(int x, int y, int pointer) {
 	mCursorScreen.set(x, y);
 	screenToWorldCoord(mCamera, mCursorScreen, mCursorWorld, true);
 	mPlayerActor.startMoving(mCursorWorld);
+	recordInput(InputTypes.START);
+}
+
+/**
+ * Record player input at the current cursor world position
+ * @param type type of input
+ */
+private void recordInput(InputTypes type) {
+	if (mInputRecording != null) {
+		mInputRecording.add(mStep, type, mCursorWorld);
+	}
+}
+
+/**
+ * @return recorded input and random seed of the played level, null if a saved game was resumed.
+ *         Can be simulated again with {@link LevelSimulator}.
+ */
+public PlayerInputRecording getInputRecording() {
+	return mInputRecording;
 }
 
 @Override
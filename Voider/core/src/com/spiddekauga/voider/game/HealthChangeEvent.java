@@ -12,6 +12,14 @@ public class HealthChangeEvent extends GameEvent {
 public float oldHealth;
 /** Actor which health was changed */
 public Actor actor;
+
+/**
+ * Default constructor for pools
+ */
+public HealthChangeEvent() {
+	super(EventTypes.GAME_ACTOR_HEALTH_CHANGED);
+}
+
 /**
  * @param actor the actor who's health was changed
  * @param oldHealth health before it was changed
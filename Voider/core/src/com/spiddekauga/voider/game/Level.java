@@ -12,6 +12,7 @@ import com.esotericsoftware.kryo.KryoSerializable;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
+import com.spiddekauga.utils.ShapeBatch;
 import com.spiddekauga.utils.ShapeRendererEx;
 import com.spiddekauga.utils.commands.Command;
 import com.spiddekauga.utils.commands.Invoker;
@@ -26,8 +27,11 @@ import com.spiddekauga.voider.game.actors.EnemyActorDef;
 import com.spiddekauga.voider.game.actors.EnemyGroup;
 import com.spiddekauga.voider.game.actors.MovementTypes;
 import com.spiddekauga.voider.game.actors.PlayerActor;
+import com.spiddekauga.voider.game.actors.StaticTerrainActor;
+import com.spiddekauga.voider.game.triggers.Trigger;
 import com.spiddekauga.voider.game.triggers.TriggerAction.Actions;
 import com.spiddekauga.voider.game.triggers.TriggerInfo;
+import com.spiddekauga.voider.game.triggers.TriggerScheduler;
 import com.spiddekauga.voider.repo.resource.ResourceCacheFacade;
 import com.spiddekauga.voider.resources.Def;
 import com.spiddekauga.voider.resources.IResource;
@@ -47,6 +51,8 @@ import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import com.spiddekauga.voider.utils.BoundingBox;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,12 +71,18 @@ private LevelBackground mBackground = null;
 /** Contains all the resources used in this level */
 @Tag(13)
 private ResourceContainer mResourceBinder = new ResourceContainer();
-/** All resources that needs updating */
-private ArrayList<IResourceUpdate> mResourceUpdates = null;
+/** Updates all resources that needs updating while running */
+private ActorActivityManager mActorActivity = null;
+/** Fires the triggers while running */
+private TriggerScheduler mTriggerScheduler = null;
 /** All shape resources that shall be rendered */
-private ArrayList<IResourceRenderShape> mRenderShapes = null;
+private List<IResourceRenderShape> mRenderShapes = null;
 /** All sprite resources that shall be rendered */
-private ArrayList<IResourceRenderSprite> mRenderSprites = null;
+private List<IResourceRenderSprite> mRenderSprites = null;
+/** Resources updated in the editor, copied each update as updating them can add or remove resources */
+private ArrayList<IResourceEditorUpdate> mEditorUpdates = null;
+/** Static terrain uploaded once to the GPU while running, sorted by position */
+private ArrayList<TerrainChunk> mTerrainChunks = null;
 /** Current x coordinate (of the screen's left edge) */
 @Tag(14)
 private float mXCoord = 0.0f;
@@ -86,6 +98,8 @@ private float mSpeed;
 private boolean mCompletedLevel;
 /** True if the level is running */
 private boolean mRunning = false;
+/** True if the level is simulated without graphics */
+private boolean mHeadless = false;
 private PlayerActor mPlayerActor = null;
 /** Read class gameVersion */
 private int mClassVersion = CLASS_REVISION;
@@ -123,8 +137,15 @@ public void set(Resource resource) {
 	mResourceBinder = level.mResourceBinder;
 	mRenderShapes = level.mRenderShapes;
 	mRenderSprites = level.mRenderSprites;
-	mResourceUpdates = level.mResourceUpdates;
+	// Terrain chunks own GPU buffers, recreate them from the resources instead of sharing them
+	if (mTerrainChunks != level.mTerrainChunks) {
+		disposeTerrainChunks();
+	}
+	mTerrainChunks = null;
+	mActorActivity = level.mActorActivity;
+	mTriggerScheduler = level.mTriggerScheduler;
 	mRunning = level.mRunning;
+	mHeadless = level.mHeadless;
 	mSpeed = level.mSpeed;
 	mXCoord = level.mXCoord;
 	mXCoordBody = level.mXCoordBody;
@@ -192,7 +213,7 @@ public boolean isCompletedLevel() {
 public void update(float deltaTime) {
 	// Make the map move forward
 	if (mRunning) {
-		if (mBackground == null) {
+		if (mBackground == null && !mHeadless) {
 			createBackground();
 		}
 
@@ -209,17 +230,25 @@ public void update(float deltaTime) {
 			mPlayerActor.update(deltaTime);
 		}
 
-		// Update resources
-		if (mResourceUpdates == null) {
-			mResourceUpdates = mResourceBinder.getResources(IResourceUpdate.class);
+		// Fire triggers
+		if (mTriggerScheduler == null) {
+			mTriggerScheduler = new TriggerScheduler(mResourceBinder.getResources(Trigger.class));
 		}
-		for (IResourceUpdate resourceUpdate : mResourceUpdates) {
-			resourceUpdate.update(deltaTime);
+		mTriggerScheduler.update(mXCoord);
+
+		// Update resources
+		if (mActorActivity == null) {
+			mActorActivity = new ActorActivityManager(mResourceBinder.getResources(IResourceUpdate.class));
 		}
+		mActorActivity.update(deltaTime, mXCoord);
 
 	} else {
-		ArrayList<IResourceEditorUpdate> resourceUpdates = mResourceBinder.getResources(IResourceEditorUpdate.class);
-		for (IResourceEditorUpdate resource : resourceUpdates) {
+		if (mEditorUpdates == null) {
+			mEditorUpdates = new ArrayList<>();
+		}
+		mEditorUpdates.clear();
+		mEditorUpdates.addAll(mResourceBinder.getResourceView(IResourceEditorUpdate.class));
+		for (IResourceEditorUpdate resource : mEditorUpdates) {
 			resource.updateEditor();
 		}
 	}
@@ -322,6 +351,15 @@ public void run() {
 	mRunning = true;
 }
 
+/**
+ * Makes the level run without creating any graphics, used when simulating the level without a
+ * GL context
+ */
+public void runHeadless() {
+	mHeadless = true;
+	run();
+}
+
 /**
  * Renders the background
  * @param spriteBatch used for rendering sprites.
@@ -354,11 +392,21 @@ public void render(ShapeRendererEx shapeRenderer, BoundingBox windowBox) {
 		if (mRenderShapes == null) {
 			mRenderShapes = mResourceBinder.getResources(IResourceRenderShape.class);
 		}
+		if (mTerrainChunks == null && Gdx.graphics != null) {
+			createTerrainChunks(shapeRenderer);
+		}
 	} else {
-		mRenderShapes = mResourceBinder.getResources(IResourceRenderShape.class);
+		mRenderShapes = mResourceBinder.getResourceView(IResourceRenderShape.class);
 	}
 
 	// Render
+	if (mTerrainChunks != null) {
+		for (TerrainChunk terrainChunk : mTerrainChunks) {
+			if (windowBox.overlaps(terrainChunk.boundingBox)) {
+				shapeRenderer.render(terrainChunk.shapes);
+			}
+		}
+	}
 	for (IResourceRenderShape shape : mRenderShapes) {
 		if (shouldRender(shape, windowBox)) {
 			shape.renderShape(shapeRenderer);
@@ -370,6 +418,68 @@ public void render(ShapeRendererEx shapeRenderer, BoundingBox windowBox) {
 	}
 }
 
+/**
+ * Upload all static terrain shapes to the GPU in chunks about one screen wide. The terrain is
+ * removed from the shapes to render each frame.
+ * @param shapeRenderer shape renderer used for rendering
+ */
+private void createTerrainChunks(ShapeRendererEx shapeRenderer) {
+	ArrayList<StaticTerrainActor> terrainActors = new ArrayList<>();
+	ArrayList<IResourceRenderShape> renderShapes = new ArrayList<>();
+	for (IResourceRenderShape renderShape : mRenderShapes) {
+		if (renderShape instanceof StaticTerrainActor && !((StaticTerrainActor) renderShape).getDef().getShape().hasImage()) {
+			terrainActors.add((StaticTerrainActor) renderShape);
+		} else {
+			renderShapes.add(renderShape);
+		}
+	}
+	mRenderShapes = renderShapes;
+
+	Collections.sort(terrainActors, new Comparator<StaticTerrainActor>() {
+		@Override
+		public int compare(StaticTerrainActor o1, StaticTerrainActor o2) {
+			return Float.compare(o1.getBoundingBox().getLeft(), o2.getBoundingBox().getLeft());
+		}
+	});
+
+	mTerrainChunks = new ArrayList<>();
+	float chunkWidth = Config.Graphics.WIDTH_DEFAULT * Config.Graphics.WORLD_SCALE;
+	int actorIndex = 0;
+	while (actorIndex < terrainActors.size()) {
+		TerrainChunk terrainChunk = new TerrainChunk();
+		terrainChunk.boundingBox.set(terrainActors.get(actorIndex).getBoundingBox());
+		float chunkEnd = terrainChunk.boundingBox.getLeft() + chunkWidth;
+
+		shapeRenderer.beginCache();
+		while (actorIndex < terrainActors.size() && terrainActors.get(actorIndex).getBoundingBox().getLeft() < chunkEnd) {
+			StaticTerrainActor terrainActor = terrainActors.get(actorIndex);
+			terrainActor.renderShape(shapeRenderer);
+
+			BoundingBox actorBox = terrainActor.getBoundingBox();
+			BoundingBox chunkBox = terrainChunk.boundingBox;
+			chunkBox.setLeft(Math.min(chunkBox.getLeft(), actorBox.getLeft()));
+			chunkBox.setRight(Math.max(chunkBox.getRight(), actorBox.getRight()));
+			chunkBox.setTop(Math.max(chunkBox.getTop(), actorBox.getTop()));
+			chunkBox.setBottom(Math.min(chunkBox.getBottom(), actorBox.getBottom()));
+			actorIndex++;
+		}
+		terrainChunk.shapes = shapeRenderer.endCache();
+		mTerrainChunks.add(terrainChunk);
+	}
+}
+
+/**
+ * Dispose the static terrain uploaded to the GPU
+ */
+private void disposeTerrainChunks() {
+	if (mTerrainChunks != null) {
+		for (TerrainChunk terrainChunk : mTerrainChunks) {
+			terrainChunk.shapes.dispose();
+		}
+		mTerrainChunks = null;
+	}
+}
+
 /**
  * Check if a resource is within the window box and we should render it
  * @param resource
@@ -396,7 +506,7 @@ public void render(SpriteBatch spriteBatch, BoundingBox windowBox) {
 			mRenderSprites = mResourceBinder.getResources(IResourceRenderSprite.class);
 		}
 	} else {
-		mRenderSprites = mResourceBinder.getResources(IResourceRenderSprite.class);
+		mRenderSprites = mResourceBinder.getResourceView(IResourceRenderSprite.class);
 	}
 
 	// Render
@@ -416,7 +526,7 @@ public void render(SpriteBatch spriteBatch, BoundingBox windowBox) {
  * @param shapeRenderer shape renderer used for rendering
  */
 public void renderEditor(ShapeRendererEx shapeRenderer) {
-	ArrayList<IResourceEditorRender> resourceRenders = mResourceBinder.getResources(IResourceEditorRender.class);
+	List<IResourceEditorRender> resourceRenders = mResourceBinder.getResourceView(IResourceEditorRender.class);
 	for (IResourceEditorRender resourceRender : resourceRenders) {
 		resourceRender.renderEditor(shapeRenderer);
 	}
@@ -427,7 +537,7 @@ public void renderEditor(ShapeRendererEx shapeRenderer) {
  * @param spriteBatch batch for rendering sprites
  */
 public void renderEditor(SpriteBatch spriteBatch) {
-	ArrayList<IResourceEditorRenderSprite> resourceSprites = mResourceBinder.getResources(IResourceEditorRenderSprite.class);
+	List<IResourceEditorRenderSprite> resourceSprites = mResourceBinder.getResourceView(IResourceEditorRenderSprite.class);
 	for (IResourceEditorRenderSprite resourceSprite : resourceSprites) {
 		resourceSprite.renderEditorSprite(spriteBatch);
 	}
@@ -486,8 +596,17 @@ public void removeResource(IResource resource) {
  * @param resources all resources to remove from the level
  */
 public void removeResources(Iterable<? extends IResource> resources) {
+	ArrayList<UUID> resourceIds = new ArrayList<>();
 	for (IResource resource : resources) {
-		removeResource(resource.getId());
+		resourceIds.add(resource.getId());
+	}
+
+	ArrayList<IResource> removedResources = mResourceBinder.removeResources(resourceIds, true);
+
+	for (IResource removedResource : removedResources) {
+		if (removedResource instanceof EnemyActor) {
+			removeEnemy((EnemyActor) removedResource);
+		}
 	}
 }
 
@@ -630,9 +749,15 @@ public void dispose() {
 	if (mRenderShapes != null) {
 		mRenderShapes = null;
 	}
-	if (mResourceUpdates != null) {
-		mResourceUpdates = null;
+	if (mActorActivity != null) {
+		mActorActivity.dispose();
+		mActorActivity = null;
+	}
+	if (mTriggerScheduler != null) {
+		mTriggerScheduler.dispose();
+		mTriggerScheduler = null;
 	}
+	disposeTerrainChunks();
 }
 
 /**
@@ -775,4 +900,14 @@ public void copy(Object fromOriginal) {
 		mSpeed = mLevelDef.getBaseSpeed();
 	}
 }
+
+/**
+ * Static terrain shapes that are rendered together
+ */
+private static class TerrainChunk {
+	/** Shapes of all terrain in the chunk */
+	ShapeBatch shapes = null;
+	/** Bounding box of all terrain in the chunk */
+	BoundingBox boundingBox = new BoundingBox();
+}
 }
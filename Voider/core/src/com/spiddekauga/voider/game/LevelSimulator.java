@@ -0,0 +1,375 @@
+package com.spiddekauga.voider.game;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.World;
+import com.spiddekauga.utils.GameTime;
+import com.spiddekauga.utils.Maths;
+import com.spiddekauga.utils.scene.ui.IHeadlessWorld;
+import com.spiddekauga.utils.scene.ui.SceneSwitcher;
+import com.spiddekauga.utils.scene.ui.WorldScene;
+import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.game.PlayerInputRecording.InputEvent;
+import com.spiddekauga.voider.game.actors.Actor;
+import com.spiddekauga.voider.game.actors.PlayerActor;
+import com.spiddekauga.voider.game.actors.PlayerActorDef;
+import com.spiddekauga.voider.utils.BoundingBox;
+import com.spiddekauga.voider.utils.Geometry;
+import com.spiddekauga.voider.utils.ScratchArena;
+
+import java.util.List;
+
+/**
+ * Plays a level without any scene or graphics, as fast as possible. Runs the same fixed steps as
+ * {@link GameScene} with the recorded input and random seed of a played game so that the result can
+ * be verified, or without input to analyze a level. Only one level can be simulated at a time as
+ * actors share the world and level statically. The level can't be used after it has been
+ * simulated, load it again.
+ */
+public class LevelSimulator implements IHeadlessWorld {
+/** Time of one fixed step */
+private static final float STEP_TIME = 1f / Config.Game.STEPS_PER_SECOND;
+private Level mLevel;
+private PlayerActorDef mShipDef;
+private float mWorldWidth;
+private float mWorldHeight;
+/** Center x-coordinate of the visible world */
+private float mCameraX = 0;
+private World mWorld = new World(new Vector2(), true);
+/** Border around the screen so the player ship can't escape */
+private Body mBorderBody = null;
+private GameTime mGameTime = new GameTime();
+private BulletDestroyer mBulletDestroyer = new BulletDestroyer();
+private CollisionResolver mCollisionResolver = new CollisionResolver();
+private BodyShepherd mBodyShepherd = new BodyShepherd();
+private BoundingBox mWindowBox = new BoundingBox();
+private PlayerActor mPlayerActor = null;
+private PlayerStats mPlayerStats = null;
+/** Number of simulated steps */
+private int mStep = 0;
+/** Set when the level has been completed or the player died */
+private Result mResult = null;
+private Vector2 mCursorWorld = new Vector2();
+
+/**
+ * Simulate a level with the default world size when no recording is used
+ * @param level the level to simulate, shall be newly loaded and not running
+ * @param shipDef the player ship to use
+ */
+public LevelSimulator(Level level, PlayerActorDef shipDef) {
+	this(level, shipDef, Config.Graphics.WIDTH_DEFAULT * Config.Graphics.WORLD_SCALE, Config.Graphics.HEIGHT_DEFAULT
+			* Config.Graphics.WORLD_SCALE);
+}
+
+/**
+ * Simulate a level
+ * @param level the level to simulate, shall be newly loaded and not running
+ * @param shipDef the player ship to use
+ * @param worldWidth width of the visible world when no recording is used, recordings use their own
+ *        world size
+ * @param worldHeight height of the visible world when no recording is used
+ */
+public LevelSimulator(Level level, PlayerActorDef shipDef, float worldWidth, float worldHeight) {
+	mLevel = level;
+	mShipDef = shipDef;
+	mWorldWidth = worldWidth;
+	mWorldHeight = worldHeight;
+}
+
+/**
+ * Simulate the level until it's completed, the player died or the maximum number of steps has been
+ * reached
+ * @param recording recorded input, seed and world size to play the level with. If null a new seed
+ *        is used and the player ship is never moved
+ * @param stepsMax maximum number of steps to simulate
+ * @return result of the simulation
+ */
+public Result run(PlayerInputRecording recording, int stepsMax) {
+	if (recording != null) {
+		GameRandom.setSeed(recording.getSeed());
+		mWorldWidth = recording.getWorldWidth();
+		mWorldHeight = recording.getWorldHeight();
+	} else {
+		GameRandom.newSeed();
+	}
+
+	SceneSwitcher.setHeadlessWorld(this);
+	try {
+		start();
+
+		int eventIndex = applyInput(recording, 0);
+		while (mResult == null && mStep < stepsMax) {
+			step();
+			checkPlayerLives();
+			checkCompletedLevel();
+			mPlayerStats.updateScore(mLevel.getXCoord());
+
+			// Input is applied between steps in GameScene
+			eventIndex = applyInput(recording, eventIndex);
+		}
+
+		if (mResult == null) {
+			mResult = new Result();
+		}
+		mResult.score = mPlayerStats.getScore();
+		mResult.steps = mStep;
+		mResult.seconds = mGameTime.getTotalTimeElapsed();
+		return mResult;
+	} finally {
+		stop();
+		SceneSwitcher.setHeadlessWorld(null);
+	}
+}
+
+/**
+ * Create the world, border and player and start the level
+ */
+private void start() {
+	mWorld.setContactListener(mCollisionResolver);
+	Actor.setWorld(mWorld);
+	Actor.setLevel(mLevel);
+
+	mLevel.setStartPosition(mLevel.getLevelDef().getStartXCoord());
+	mLevel.createDefaultTriggers();
+	mLevel.runHeadless();
+	mBodyShepherd.setActors(mLevel.getResources(Actor.class));
+	updateCameraPosition();
+	createBorder();
+
+	mPlayerActor = new PlayerActor(mShipDef);
+	Actor.setPlayerActor(mPlayerActor);
+	mPlayerActor.createBody();
+	resetPlayerPosition();
+	setPlayerVelocityToLevel();
+
+	LevelDef levelDef = mLevel.getLevelDef();
+	mPlayerStats = new PlayerStats(levelDef.getStartXCoord(), levelDef.getEndXCoord(), levelDef.getLengthInTime());
+	mLevel.addResource(mPlayerStats);
+	mLevel.setPlayer(mPlayerActor);
+}
+
+/**
+ * Dispose the world and clear all static state
+ */
+private void stop() {
+	if (mPlayerStats != null) {
+		mPlayerStats.dispose();
+	}
+	mBulletDestroyer.dispose();
+	Actor.setPlayerActor(null);
+	Actor.setLevel(null);
+	Actor.setWorld(null);
+	mWorld.dispose();
+}
+
+/**
+ * Simulate one fixed step, same as GameScene.fixedUpdate()
+ */
+private void step() {
+	ScratchArena.reset();
+	mStep++;
+	mGameTime.update(STEP_TIME);
+
+	mWorld.step(STEP_TIME, 6, 2);
+	mBulletDestroyer.update(STEP_TIME);
+	mCollisionResolver.resolveContacts();
+	updateCameraPosition();
+	synchronizeBorder();
+
+	Vector2 minPos = getWorldMinCoordinates();
+	Vector2 maxPos = getWorldMaxCoordinates();
+	minPos.sub(mWorldWidth, mWorldHeight);
+	maxPos.add(mWorldWidth, mWorldHeight);
+	mBodyShepherd.update(minPos, maxPos);
+
+	mLevel.update(STEP_TIME);
+
+	if (!Geometry.isPointWithinBox(mPlayerActor.getPosition(), getWorldMinCoordinates(), getWorldMaxCoordinates())) {
+		resetPlayerPosition();
+		mPlayerActor.kill();
+	}
+	if (!mPlayerActor.isMoving()) {
+		setPlayerVelocityToLevel();
+	}
+
+	updateBoundingBox();
+	mBulletDestroyer.removeOutOfBondsBullets(mWindowBox);
+}
+
+/**
+ * Apply all recorded input of the current step
+ * @param recording recorded input, may be null
+ * @param eventIndex index of the next event to apply
+ * @return index of the next event to apply
+ */
+private int applyInput(PlayerInputRecording recording, int eventIndex) {
+	if (recording == null) {
+		return eventIndex;
+	}
+
+	List<InputEvent> events = recording.getEvents();
+	while (eventIndex < events.size() && events.get(eventIndex).step <= mStep) {
+		InputEvent event = events.get(eventIndex);
+		mCursorWorld.set(event.x, event.y);
+
+		switch (event.type) {
+		case START:
+			mPlayerActor.startMoving(mCursorWorld);
+			break;
+
+		case MOVE:
+			mPlayerActor.move(mCursorWorld);
+			break;
+
+		case STOP:
+			if (mPlayerActor.isMoving()) {
+				mPlayerActor.stopMoving();
+			}
+			break;
+		}
+
+		eventIndex++;
+	}
+
+	return eventIndex;
+}
+
+/**
+ * Check if the player is dead, same as in GameScene without sound and music
+ */
+private void checkPlayerLives() {
+	if (mPlayerActor.getHealth() <= 0) {
+		if (mPlayerStats.getExtraLives() > 0) {
+			mPlayerActor.resetHealth();
+			mPlayerStats.decreaseExtraLives();
+		} else {
+			mPlayerStats.calculateEndScore();
+			mResult = new Result();
+			mResult.died = true;
+		}
+	}
+}
+
+/**
+ * Check if the player has completed the level
+ */
+private void checkCompletedLevel() {
+	if (mResult == null && mLevel.isCompletedLevel()) {
+		mPlayerStats.calculateEndScore();
+		mResult = new Result();
+		mResult.completed = true;
+	}
+}
+
+/**
+ * Creates the border around the screen so the player can't escape
+ */
+private void createBorder() {
+	BodyDef bodyDef = new BodyDef();
+	bodyDef.type = BodyType.KinematicBody;
+	mBorderBody = mWorld.createBody(bodyDef);
+
+	float halfWidth = mWorldWidth * 0.5f;
+	float halfHeight = mWorldHeight * 0.5f;
+	Vector2[][] boxes = WorldScene.createBorderBoxes(-halfWidth, halfWidth, -halfHeight, halfHeight);
+	for (Vector2[] box : boxes) {
+		FixtureDef fixtureDef = WorldScene.createBorderFixtureDef(box);
+		mBorderBody.createFixture(fixtureDef);
+		fixtureDef.shape.dispose();
+	}
+
+	synchronizeBorder();
+}
+
+/**
+ * Move the border with the level, same as GameScene
+ */
+private void synchronizeBorder() {
+	float borderDiffPosition = mBorderBody.getPosition().x - mCameraX;
+	if (!Maths.approxCompare(borderDiffPosition, Config.Game.BORDER_SYNC_THRESHOLD)) {
+		mBorderBody.setTransform(mCameraX, 0, 0);
+	}
+	mBorderBody.setLinearVelocity(mLevel.getSpeed(), 0);
+}
+
+/**
+ * Move the camera to the level location
+ */
+private void updateCameraPosition() {
+	mCameraX = mLevel.getXCoord() - mWorldWidth * 0.5f;
+}
+
+/**
+ * Resets the player position to the left side of the screen
+ */
+private void resetPlayerPosition() {
+	Vector2 playerPosition = new Vector2(mCameraX - mWorldWidth * 0.5f, 0);
+	playerPosition.x += mPlayerActor.getDef().getShape().getBoundingRadius() * 2;
+	mPlayerActor.getBody().setTransform(playerPosition, 0.0f);
+}
+
+/**
+ * Set player velocity to the level speed
+ */
+private void setPlayerVelocityToLevel() {
+	mPlayerActor.getBody().setLinearVelocity(new Vector2(mLevel.getSpeed(), 0));
+}
+
+/**
+ * Update the bounding box of the visible world
+ */
+private void updateBoundingBox() {
+	float halfWidth = mWorldWidth * 0.5f;
+	float halfHeight = mWorldHeight * 0.5f;
+	mWindowBox.set(mCameraX - halfWidth, halfHeight, mCameraX + halfWidth, -halfHeight);
+}
+
+@Override
+public GameTime getGameTime() {
+	return mGameTime;
+}
+
+@Override
+public BulletDestroyer getBulletDestroyer() {
+	return mBulletDestroyer;
+}
+
+@Override
+public float getWorldWidth() {
+	return mWorldWidth;
+}
+
+@Override
+public float getWorldHeight() {
+	return mWorldHeight;
+}
+
+@Override
+public Vector2 getWorldMinCoordinates() {
+	return new Vector2(mCameraX - mWorldWidth * 0.5f, -mWorldHeight * 0.5f);
+}
+
+@Override
+public Vector2 getWorldMaxCoordinates() {
+	return new Vector2(mCameraX + mWorldWidth * 0.5f, mWorldHeight * 0.5f);
+}
+
+/**
+ * Result of a simulated level
+ */
+public static class Result {
+	/** Score of the player */
+	public int score = 0;
+	/** True if the level was completed */
+	public boolean completed = false;
+	/** True if the player died */
+	public boolean died = false;
+	/** Number of simulated steps */
+	public int steps = 0;
+	/** Simulated game time in seconds */
+	public float seconds = 0;
+}
+}
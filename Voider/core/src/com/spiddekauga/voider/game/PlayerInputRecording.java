@@ -0,0 +1,104 @@
+package com.spiddekauga.voider.game;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded player input of a played level together with the random seed and world size. Input is
+ * recorded at the fixed step it was applied so that {@link LevelSimulator} can play the level again
+ * exactly.
+ */
+public class PlayerInputRecording {
+/** Random seed the level was played with */
+private long mSeed;
+/** Width of the visible world, depends on the screen ratio */
+private float mWorldWidth;
+/** Height of the visible world */
+private float mWorldHeight;
+/** All input in the order it was applied */
+private ArrayList<InputEvent> mEvents = new ArrayList<>();
+
+/**
+ * @param seed the random seed the level is played with, see {@link GameRandom}
+ * @param worldWidth width of the visible world the level is played with
+ * @param worldHeight height of the visible world the level is played with
+ */
+public PlayerInputRecording(long seed, float worldWidth, float worldHeight) {
+	mSeed = seed;
+	mWorldWidth = worldWidth;
+	mWorldHeight = worldHeight;
+}
+
+/**
+ * Record player input
+ * @param step the fixed step the input is applied after, 0 if before the first step
+ * @param type type of input
+ * @param worldPos position of the cursor in the world, ignored for {@link InputTypes#STOP}
+ */
+public void add(int step, InputTypes type, Vector2 worldPos) {
+	InputEvent event = new InputEvent();
+	event.step = step;
+	event.type = type;
+	if (worldPos != null) {
+		event.x = worldPos.x;
+		event.y = worldPos.y;
+	}
+	mEvents.add(event);
+}
+
+/**
+ * @return random seed the level was played with
+ */
+public long getSeed() {
+	return mSeed;
+}
+
+/**
+ * @return width of the visible world the level was played with
+ */
+public float getWorldWidth() {
+	return mWorldWidth;
+}
+
+/**
+ * @return height of the visible world the level was played with
+ */
+public float getWorldHeight() {
+	return mWorldHeight;
+}
+
+/**
+ * @return all recorded input in the order it was applied
+ */
+public List<InputEvent> getEvents() {
+	return mEvents;
+}
+
+/**
+ * Types of player input
+ */
+public enum InputTypes {
+	/** Started moving the ship */
+	START,
+	/** Moved the ship */
+	MOVE,
+	/** Stopped moving the ship */
+	STOP,
+}
+
+/**
+ * One recorded player input
+ */
+public static class InputEvent {
+	/** The fixed step the input is applied after, 0 if before the first step */
+	public int step;
+	/** Type of input */
+	public InputTypes type;
+	/** Cursor world x-coordinate */
+	public float x;
+	/** Cursor world y-coordinate */
+	public float y;
+}
+}
@@ -2,7 +2,7 @@ package com.spiddekauga.voider.game;
 
 import com.badlogic.gdx.utils.Disposable;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
-import com.spiddekauga.utils.GameTime;
+import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.config.ConfigIni;
 import com.spiddekauga.voider.resources.Resource;
@@ -47,7 +47,7 @@ private IEventListener mCollisionListener = new IEventListener() {
 		if (healthChangeEvent.actor.getHealth() < healthChangeEvent.oldHealth) {
 
 			// Check cooldown -> Decrease multiplier
-			float currentTime = GameTime.getTotalGlobalTimeElapsed();
+			float currentTime = SceneSwitcher.getGameTime().getTotalTimeElapsed();
 			float cooldownTime = ConfigIni.getInstance().game.getMultiplierCollisionCooldown();
 			if (currentTime >= mCollisionTime + cooldownTime) {
 				mCollisionTime = currentTime;
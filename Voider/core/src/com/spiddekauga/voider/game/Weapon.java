@@ -3,7 +3,6 @@ package com.spiddekauga.voider.game;
 import com.badlogic.gdx.math.Vector2;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
-import com.spiddekauga.voider.game.actors.BulletActor;
 import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import com.spiddekauga.voider.utils.Pools;
 
@@ -41,7 +40,7 @@ public void setWeaponDefResetCd(WeaponDef weaponDef) {
 private void calculateCooldown() {
 	// Random cooldown
 	if (getDef().getCooldownMin() != getDef().getCooldownMax()) {
-		mCooldown = (float) Math.random();
+		mCooldown = GameRandom.nextFloat();
 		mCooldown *= getDef().getCooldownMax() - getDef().getCooldownMin();
 		mCooldown += getDef().getCooldownMin();
 	}
@@ -113,12 +112,8 @@ public float getCooldownTime() {
  */
 public void shoot(Vector2 direction) {
 	if (getDef().getBulletActorDef() != null) {
-		BulletActor bullet = Pools.bullet.obtain();
-		bullet.setDef(getDef().getBulletActorDef());
-		bullet.shoot(mPosition, direction, getDef().getBulletSpeed(), getDef().getDamage(), getDef().isSpeedRelativeToLevelSpeed(), false);
-
-		// Add to bullet destroyer
-		SceneSwitcher.getBulletDestroyer().add(bullet);
+		SceneSwitcher.getBulletDestroyer().shoot(getDef().getBulletActorDef(), mPosition, direction, getDef().getBulletSpeed(),
+				getDef().getDamage(), getDef().isSpeedRelativeToLevelSpeed(), false);
 
 		calculateCooldown();
 	}
@@ -29,6 +29,7 @@ import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.Config.Graphics.RenderOrders;
 import com.spiddekauga.voider.editor.HitWrapper;
 import com.spiddekauga.voider.editor.LevelEditor;
+import com.spiddekauga.voider.game.ActorActivatedEvent;
 import com.spiddekauga.voider.game.HealthChangeEvent;
 import com.spiddekauga.voider.game.Level;
 import com.spiddekauga.voider.game.triggers.ITriggerListener;
@@ -53,9 +54,10 @@ import com.spiddekauga.voider.resources.Resource;
 import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import com.spiddekauga.voider.utils.BoundingBox;
 import com.spiddekauga.voider.utils.Geometry;
+import com.spiddekauga.voider.utils.Pools;
+import com.spiddekauga.voider.utils.ScratchArena;
 import com.spiddekauga.voider.utils.event.EventDispatcher;
 import com.spiddekauga.voider.utils.event.EventTypes;
-import com.spiddekauga.voider.utils.event.GameEvent;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -82,12 +84,22 @@ protected static boolean mEditorActive = false;
 protected static PlayerActor mPlayerActor = null;
 /** Current level */
 protected static Level mLevel = null;
+/** How far between the previous and current position actors are rendered, see {@link #setRenderInterpolation(float)} */
+private static float mRenderInterpolation = 1;
 /** Current life */
 @Tag(3)
 private float mLife = 0;
 /** Body position, remember even when we don't have a body */
 @Tag(4)
 private Vector2 mPosition = new Vector2();
+/** Body position before the last update, used for rendering between updates */
+private Vector2 mPositionPrevious = new Vector2();
+/** Body angle when {@link #mPosition} was set, used for rendering between updates */
+private float mAngle = 0;
+/** Body angle before the last update, used for rendering between updates */
+private float mAnglePrevious = 0;
+/** If {@link #mPositionPrevious} and {@link #mAnglePrevious} have been set */
+private boolean mPositionPreviousSet = false;
 /** Trigger informations */
 @Tag(5)
 private ArrayList<TriggerInfo> mTriggerInfos = new ArrayList<>();
@@ -156,6 +168,7 @@ public Actor() {
 }@Override
 public void setPosition(Vector2 position) {
 	mPosition.set(position);
+	mPositionPrevious.set(position);
 
 	// Change body if exist
 	if (mBody != null) {
@@ -175,6 +188,23 @@ public void setPosition(Vector2 position) {
 	sendChangeEvent(IResourceChangeListener.EventTypes.POSITION);
 }
 
+/**
+ * Set how far between the previous and current update actors should be rendered. Game scenes update
+ * actors in fixed steps and set this every frame so movement looks smooth whatever the frame rate.
+ * @param interpolation 0 renders actors at their previous position, 1 at their current position
+ */
+public static void setRenderInterpolation(float interpolation) {
+	mRenderInterpolation = interpolation;
+}
+
+/**
+ * @return how far between the previous and current update actors are rendered
+ * @see #setRenderInterpolation(float)
+ */
+public static float getRenderInterpolation() {
+	return mRenderInterpolation;
+}
+
 /**
  * @return current world
  */
@@ -224,6 +254,13 @@ public static void setLevel(Level level) {
 	mLevel = level;
 }
 
+/**
+ * @return current level
+ */
+public static Level getLevel() {
+	return mLevel;
+}
+
 /**
  * Updates the actor. This automatically calls #editorUpdate()
  * @param deltaTime seconds elapsed since last call
@@ -237,14 +274,16 @@ public void update(float deltaTime) {
 	}
 
 	if (mBody != null) {
+		mPositionPrevious.set(mPosition);
+		mAnglePrevious = mPositionPreviousSet ? mAngle : mBody.getAngle();
+		mPositionPreviousSet = true;
 		mPosition.set(mBody.getPosition());
+		mAngle = mBody.getAngle();
 	}
 
 	if (mActive) {
 		// Update position
 		if (mBody != null) {
-			calculateRotatedVertices();
-
 			// Rotation
 			if (!mSkipRotate && mDef.getBodyDef().angularVelocity != 0 && !mDef.getShape().getCenterOffset().equals(Vector2.Zero)) {
 				float newAngle = mBody.getAngle();
@@ -285,7 +324,7 @@ public void decreaseHealth(float amount) {
 		mLife -= amount;
 		sendChangeHealthEvent(oldLife);
 		if (this instanceof PlayerActor && mLife <= 0) {
-			mEventDispatcher.fire(new GameEvent(EventTypes.GAME_PLAYER_SHIP_LOST));
+			mEventDispatcher.fire(EventTypes.GAME_PLAYER_SHIP_LOST);
 		}
 	}
 }
@@ -328,7 +367,12 @@ protected void calculateRotatedVertices(boolean forceRecalculation) {
  */
 private void sendChangeHealthEvent(float oldLife) {
 	if (!MathUtils.isEqual(mLife, oldLife)) {
-		mEventDispatcher.fire(new HealthChangeEvent(this, oldLife));
+		HealthChangeEvent event = Pools.healthChangeEvent.obtain();
+		event.actor = this;
+		event.oldHealth = oldLife;
+		mEventDispatcher.fire(event);
+		event.actor = null;
+		Pools.healthChangeEvent.free(event);
 	}
 }/**
  * @return the definition of the actor
@@ -457,6 +501,7 @@ public void addTrigger(TriggerInfo triggerInfo) {
 	triggerInfo.listener = this;
 	triggerInfo.trigger.addListener(triggerInfo);
 	mTriggerInfos.add(triggerInfo);
+	onBoundResourcesChanged();
 }
 
 /**
@@ -467,6 +512,7 @@ public void addTrigger(TriggerInfo triggerInfo) {
 public void removeTrigger(TriggerInfo triggerInfo) {
 	triggerInfo.trigger.removeListener(getId());
 	mTriggerInfos.remove(triggerInfo);
+	onBoundResourcesChanged();
 }
 
 /**
@@ -481,6 +527,20 @@ public void activate() {
 	if (mBody == null) {
 		createBody();
 	}
+
+	ActorActivatedEvent event = Pools.actorActivatedEvent.obtain();
+	event.actor = this;
+	mEventDispatcher.fire(event);
+	event.actor = null;
+	Pools.actorActivatedEvent.free(event);
+}
+
+/**
+ * @return true if the actor doesn't need to be updated until it's activated, i.e. it's inactive
+ *         and has no body
+ */
+public boolean isDormant() {
+	return !mActive && mBody == null && !mDestroyBody;
 }
 
 /**
@@ -591,13 +651,18 @@ public void renderShape(ShapeRendererEx shapeRenderer) {
 
 	RenderOrders.offsetZValue(shapeRenderer, this);
 
-	Vector2 offsetPosition = getWorldOffset();
+	Vector2 offsetPosition = ScratchArena.vector2();
+	setWorldOffset(offsetPosition);
 
 	// Draw regular filled shape
 	if (!mDrawOnlyOutline && mDef.getShape().isComplete()) {
-		if (mRotatedVertices != null) {
+		float[] mesh = mDef.getShape().getTriangleMesh();
+		if (mesh != null) {
+			// Mesh already contains the center offset, it's rotated around it
+			float angle = getRenderAngle();
+			Vector2 centerOffset = mDef.getShape().getCenterOffset();
 			shapeRenderer.setColor(mDef.getShape().getColor());
-			shapeRenderer.triangles(mRotatedVertices, offsetPosition);
+			shapeRenderer.triangles(mesh, offsetPosition.x - centerOffset.x, offsetPosition.y - centerOffset.y, angle);
 		}
 	}
 	// Draw outline
@@ -641,7 +706,16 @@ public void renderShape(ShapeRendererEx shapeRenderer) {
  */
 public Vector2 getWorldOffset() {
 	Vector2 offsetPosition = new Vector2();
-	offsetPosition.set(mPosition);
+	setWorldOffset(offsetPosition);
+	return offsetPosition;
+}
+
+/**
+ * Set the actor offset, i.e. local to world coordinates
+ * @param offsetPosition the vector to set
+ */
+private void setWorldOffset(Vector2 offsetPosition) {
+	setRenderPosition(offsetPosition);
 
 	// Offset for circle
 	if (mDef.getShape().getShapeType() == ActorShapeTypes.CUSTOM && mDef.getShape().getCornerCount() >= 1
@@ -650,19 +724,45 @@ public Vector2 getWorldOffset() {
 	}
 
 	offsetPosition.add(mDef.getShape().getCenterOffset());
-
-	return offsetPosition;
 }
 
 @Override
 public void renderSprite(SpriteBatch spriteBatch) {
-	Sprite sprite = mDef.getShape().getImage(mPosition);
+	Vector2 renderPosition = ScratchArena.vector2();
+	setRenderPosition(renderPosition);
+	Sprite sprite = mDef.getShape().getImage(renderPosition);
 
 	if (sprite != null) {
 		sprite.draw(spriteBatch);
 	}
 }
 
+/**
+ * Set the position to render the actor at, i.e. interpolated between the previous and current
+ * position
+ * @param renderPosition the vector to set
+ */
+private void setRenderPosition(Vector2 renderPosition) {
+	renderPosition.set(mPosition);
+	if (mPositionPreviousSet && mRenderInterpolation < 1) {
+		renderPosition.sub(mPositionPrevious).scl(mRenderInterpolation).add(mPositionPrevious);
+	}
+}
+
+/**
+ * @return angle to render the actor at in radians, i.e. interpolated between the previous and
+ * current angle
+ */
+private float getRenderAngle() {
+	if (mBody == null) {
+		return mDef.getBodyDef().angle;
+	} else if (mPositionPreviousSet && mRenderInterpolation < 1) {
+		return Geometry.interpolateAngle(mAnglePrevious, mAngle, mRenderInterpolation);
+	} else {
+		return mBody.getAngle();
+	}
+}
+
 /**
  * Renders additional information when using an editor
  * @param shapeRenderer the current sprite batch for the scene
@@ -893,6 +993,17 @@ public void increaseHealth(float amount) {
  */
 protected abstract short getFilterCollidingCategories();
 
+/**
+ * Checks if something with the specified filter collides with the actor's current filter. Used for
+ * collisions that aren't handled by box2d, e.g. bullets.
+ * @param category filter category of the other object
+ * @param collidingCategories categories the other object can collide with
+ * @return true if the other object collides with this actor
+ */
+public boolean isFilterColliding(short category, short collidingCategories) {
+	return ActorFilterCategories.isColliding(getFilterCategory(), getFilterCollidingCategories(), category, collidingCategories);
+}
+
 /**
  * @return true if only the outline of the actor is drawn
  */
@@ -1047,11 +1158,13 @@ public void reset() {
 	mBody = null;
 	mDef = null;
 	mPosition.set(0, 0);
+	mPositionPreviousSet = false;
 	mCollidingActors.clear();
 	mDestroyBody = false;
 	mRotatedVertices = null;
 
 	mTriggerInfos.clear();
+	onBoundResourcesChanged();
 }
 
 /**
@@ -1195,9 +1308,11 @@ protected void clearFixturesDefs() {
 }
 
 /**
- * @return rotated vertices for this actor
+ * @return rotated vertices for this actor. Calculated when needed, rendering uses the shape's
+ *         triangle mesh instead.
  */
 protected List<Vector2> getRotatedVertices() {
+	calculateRotatedVertices();
 	return mRotatedVertices;
 }
 
@@ -1217,6 +1332,7 @@ public <ResourceType> ResourceType copyNewResource() {
 		copy.mTriggerInfos.add(copyTriggerInfo);
 		copyTriggerInfo.trigger.addListener(copyTriggerInfo);
 	}
+	copy.onBoundResourcesChanged();
 
 	return (ResourceType) copy;
 }
@@ -1234,12 +1350,14 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 					@Override
 					public boolean execute() {
 						mTriggerInfos.remove(triggerInfo);
+						onBoundResourcesChanged();
 						return true;
 					}
 
 					@Override
 					public boolean undo() {
 						mTriggerInfos.add(triggerInfo);
+						onBoundResourcesChanged();
 						return true;
 					}
 				};
@@ -1249,6 +1367,15 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 	}
 }
 
+@Override
+public void getBoundResources(List<IResource> boundResources) {
+	super.getBoundResources(boundResources);
+
+	for (TriggerInfo triggerInfo : mTriggerInfos) {
+		boundResources.add(triggerInfo.trigger);
+	}
+}
+
 @Override
 public void addCorners(Vector2[] corners) {
 	getDef().getShape().addCorners(corners);
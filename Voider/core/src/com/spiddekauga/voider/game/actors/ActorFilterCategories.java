@@ -16,4 +16,16 @@ static final public short PICKUP = 1 << 4;
 static final public short SCREEN_BORDER = 1 << 5;
 /** No collision at all */
 static final public short NONE = 1 << 6;
+
+/**
+ * Checks if two fixtures collide, uses the same rule as box2d
+ * @param categoryA filter category of the first fixture
+ * @param collidingCategoriesA categories the first fixture can collide with
+ * @param categoryB filter category of the second fixture
+ * @param collidingCategoriesB categories the second fixture can collide with
+ * @return true if the fixtures collide
+ */
+public static boolean isColliding(short categoryA, short collidingCategoriesA, short categoryB, short collidingCategoriesB) {
+	return (categoryA & collidingCategoriesB) != 0 && (categoryB & collidingCategoriesA) != 0;
+}
 }
@@ -4,7 +4,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
 import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.Config.Graphics.RenderOrders;
-import com.spiddekauga.voider.utils.Pools;
+import com.spiddekauga.voider.utils.ScratchArena;
 
 /**
  * Bullet actor, contains necessary information about the bullet. Not only the type of bullet, but
@@ -30,7 +30,7 @@ private float mDamage = 0;
  */
 public void shoot(Vector2 position, Vector2 direction, float speed, float hitDamage, boolean relativeToLevelSpeed, boolean shotByPlayer) {
 	// Velocity
-	Vector2 velocity = Pools.vector2.obtain();
+	Vector2 velocity = ScratchArena.vector2();
 	velocity.set(direction).nor().scl(speed);
 
 
@@ -43,7 +43,6 @@ public void shoot(Vector2 position, Vector2 direction, float speed, float hitDam
 
 
 	shoot(position, velocity, hitDamage, shotByPlayer);
-	Pools.vector2.free(velocity);
 }
 
 /**
@@ -80,18 +79,41 @@ public float getHitDamage() {
 	return mDamage;
 }
 
+/**
+ * @return true if bullet shot by player, false if shot by enemy
+ */
+public boolean isShotByPlayer() {
+	return mShotByPlayer;
+}
+
 @Override
 protected short getFilterCategory() {
-	if (mShotByPlayer) {
+	return getFilterCategory(mShotByPlayer);
+}
+
+@Override
+protected short getFilterCollidingCategories() {
+	return getFilterCollidingCategories(mShotByPlayer);
+}
+
+/**
+ * @param shotByPlayer true if the bullet was shot by the player
+ * @return filter category of a bullet
+ */
+public static short getFilterCategory(boolean shotByPlayer) {
+	if (shotByPlayer) {
 		return ActorFilterCategories.PLAYER;
 	} else {
 		return ActorFilterCategories.ENEMY;
 	}
 }
 
-@Override
-protected short getFilterCollidingCategories() {
-	if (mShotByPlayer) {
+/**
+ * @param shotByPlayer true if the bullet was shot by the player
+ * @return categories a bullet can collide with
+ */
+public static short getFilterCollidingCategories(boolean shotByPlayer) {
+	if (shotByPlayer) {
 		return (short) (ActorFilterCategories.STATIC_TERRAIN | ActorFilterCategories.ENEMY);
 	} else {
 		return (short) (ActorFilterCategories.STATIC_TERRAIN | ActorFilterCategories.PLAYER);
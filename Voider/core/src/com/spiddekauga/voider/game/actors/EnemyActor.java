@@ -16,6 +16,7 @@ import com.spiddekauga.utils.commands.Command;
 import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.Config.Graphics.RenderOrders;
 import com.spiddekauga.voider.editor.LevelEditor;
+import com.spiddekauga.voider.game.GameRandom;
 import com.spiddekauga.voider.game.Level;
 import com.spiddekauga.voider.game.Path;
 import com.spiddekauga.voider.game.Path.PathTypes;
@@ -32,7 +33,7 @@ import com.spiddekauga.voider.resources.IResourcePosition;
 import com.spiddekauga.utils.scene.ui.Scene;
 import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import com.spiddekauga.voider.utils.Geometry;
-import com.spiddekauga.voider.utils.Pools;
+import com.spiddekauga.voider.utils.ScratchArena;
 
 import java.util.List;
 
@@ -82,8 +83,8 @@ public EnemyActor() {
  */
 private void slowDown(float deltaTime) {
 	if (getBody() != null) {
-		Vector2 velocity = Pools.vector2.obtain().set(getBody().getLinearVelocity());
-		Vector2 dampVelocity = Pools.vector2.obtain().set(velocity);
+		Vector2 velocity = ScratchArena.vector2().set(getBody().getLinearVelocity());
+		Vector2 dampVelocity = ScratchArena.vector2().set(velocity);
 
 		float dampening = Config.Actor.Enemy.LINEAR_DAMPENING * deltaTime;
 		dampVelocity.scl(dampening);
@@ -91,7 +92,6 @@ private void slowDown(float deltaTime) {
 
 		getBody().setLinearVelocity(velocity);
 
-		Pools.vector2.freeAll(velocity, dampVelocity);
 	}
 }
 
@@ -195,6 +195,7 @@ public void setPath(Path path) {
 	if (path != null) {
 		mPath.addEnemy(this);
 	}
+	onBoundResourcesChanged();
 }
 
 /**
@@ -261,6 +262,7 @@ EnemyActor copyForGroup() {
 	enemyActor.setPosition(getPosition());
 	enemyActor.mGroup = mGroup;
 	enemyActor.mPath = mPath;
+	enemyActor.onBoundResourcesChanged();
 	return enemyActor;
 }
 
@@ -552,6 +554,7 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 			public boolean undo() {
 				mGroup = mOldEnemyGroup;
 				mGroupLeader = mOldGroupLeader;
+				onBoundResourcesChanged();
 				return true;
 			}
 
@@ -559,6 +562,7 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 			public boolean execute() {
 				mGroup = null;
 				mGroupLeader = false;
+				onBoundResourcesChanged();
 				return true;
 			}
 
@@ -568,6 +572,18 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 	}
 }
 
+@Override
+public void getBoundResources(List<IResource> boundResources) {
+	super.getBoundResources(boundResources);
+
+	if (mPath != null) {
+		boundResources.add(mPath);
+	}
+	if (mGroup != null) {
+		boundResources.add(mGroup);
+	}
+}
+
 /**
  * Resets the weapon
  */
@@ -607,6 +623,7 @@ void setEnemyGroup(EnemyGroup enemyGroup) {
 	if (mGroup == null) {
 		mGroupLeader = false;
 	}
+	onBoundResourcesChanged();
 }
 
 /**
@@ -646,11 +663,10 @@ private void updateWeapon(float deltaTime) {
 }
 
 /**
- * @return direction which we want to shoot in. Be sure to free this vector using
- * Pools.vector2.free(vector);.
+ * @return direction which we want to shoot in, valid until the end of the frame
  */
 private Vector2 getShootDirection() {
-	Vector2 shootDirection = new Vector2();
+	Vector2 shootDirection = ScratchArena.vector2();
 
 	switch (getDef(EnemyActorDef.class).getAimType()) {
 	case ON_PLAYER:
@@ -777,7 +793,7 @@ private void updatePathMovement(float deltaTime) {
  */
 private void updateAiMovement(float deltaTime) {
 	// Calculate distance to player
-	Vector2 targetDirection = Pools.vector2.obtain();
+	Vector2 targetDirection = ScratchArena.vector2();
 	targetDirection.set(mPlayerActor.getPosition()).sub(getPosition());
 	float targetDistanceSq = targetDirection.len2();
 
@@ -807,7 +823,6 @@ private void updateAiMovement(float deltaTime) {
 		}
 	}
 
-	Pools.vector2.free(targetDirection);
 }
 
 /**
@@ -825,14 +840,14 @@ private void calculateRandomMove(float deltaTime) {
 	boolean newMove = false;
 	if (mRandomMoveNext <= 0) {
 		float range = getDef(EnemyActorDef.class).getRandomTimeMax() - getDef(EnemyActorDef.class).getRandomTimeMin();
-		mRandomMoveNext = (float) Math.random() * range + getDef(EnemyActorDef.class).getRandomTimeMin();
+		mRandomMoveNext = GameRandom.nextFloat() * range + getDef(EnemyActorDef.class).getRandomTimeMin();
 		newMove = true;
 	} else {
 		mRandomMoveNext -= deltaTime;
 	}
 
 	if (newMove) {
-		float angle = (float) Math.random() * 360;
+		float angle = GameRandom.nextFloat() * 360;
 		mRandomMoveDirection.set(1, 0);
 		mRandomMoveDirection.setAngle(angle);
 		moveToTarget(mRandomMoveDirection, deltaTime);
@@ -861,7 +876,7 @@ private void moveToTarget(Vector2 targetDirection, float deltaTime) {
  * @param deltaTime time elapsed since last frame
  */
 private void moveToTargetRegular(Vector2 targetDirection, float deltaTime) {
-	Vector2 velocity = Pools.vector2.obtain();
+	Vector2 velocity = ScratchArena.vector2();
 	velocity.set(targetDirection);
 	velocity.nor().scl(getDef(EnemyActorDef.class).getSpeed());
 
@@ -873,7 +888,6 @@ private void moveToTargetRegular(Vector2 targetDirection, float deltaTime) {
 	}
 
 	getBody().setLinearVelocity(velocity);
-	Pools.vector2.free(velocity);
 }
 
 /**
@@ -882,7 +896,7 @@ private void moveToTargetRegular(Vector2 targetDirection, float deltaTime) {
  * @param deltaTime time elapsed since last frame
  */
 private void moveToTargetTurning(Vector2 targetDirection, float deltaTime) {
-	Vector2 velocity = Pools.vector2.obtain();
+	Vector2 velocity = ScratchArena.vector2();
 	velocity.set(getBody().getLinearVelocity());
 
 	float enemySpeed = getDef().getSpeed();
@@ -989,7 +1003,6 @@ private void moveToTargetTurning(Vector2 targetDirection, float deltaTime) {
 
 	getBody().setTransform(getPosition(), (float) Math.toRadians(getBody().getLinearVelocity().angle()));
 
-	Pools.vector2.free(velocity);
 }
 
 /**
@@ -1031,7 +1044,7 @@ private void calculateNextPathIndex() {
  * @return true if the enemy has passed the target.
  */
 private boolean hasPassedTarget() {
-	Vector2 diff = Pools.vector2.obtain();
+	Vector2 diff = ScratchArena.vector2();
 	diff.set(mPath.getCornerPosition(mPathIndexNext)).sub(getPosition());
 
 	boolean hasPassedTarget = false;
@@ -1046,7 +1059,6 @@ private boolean hasPassedTarget() {
 		}
 	}
 
-	Pools.vector2.free(diff);
 	return hasPassedTarget;
 }
 
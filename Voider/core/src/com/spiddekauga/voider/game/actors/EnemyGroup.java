@@ -44,6 +44,7 @@ public EnemyGroup() {
 public void setLeaderEnemy(EnemyActor enemyActor) {
 	if (mEnemies.size() == 0) {
 		mEnemies.add(enemyActor);
+		onBoundResourcesChanged();
 
 		enemyActor.setEnemyGroup(this);
 		enemyActor.setGroupLeader(true);
@@ -69,6 +70,7 @@ public void setEnemyCount(int cEnemies, ArrayList<EnemyActor> addedEnemies, Arra
 	// Remove
 	while (cEnemies < mEnemies.size()) {
 		EnemyActor removedEnemy = mEnemies.remove(cEnemies);
+		onBoundResourcesChanged();
 		removedEnemy.setEnemyGroup(null);
 
 		if (removedEnemies != null) {
@@ -82,6 +84,7 @@ public void setEnemyCount(int cEnemies, ArrayList<EnemyActor> addedEnemies, Arra
 		copyEnemy.destroyBody();
 
 		mEnemies.add(copyEnemy);
+		onBoundResourcesChanged();
 
 		if (addedEnemies != null) {
 			addedEnemies.add(copyEnemy);
@@ -112,6 +115,7 @@ public ArrayList<EnemyActor> clear() {
 	removedEnemies.remove(0);
 
 	mEnemies.clear();
+	onBoundResourcesChanged();
 
 	return removedEnemies;
 }
@@ -201,18 +205,27 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 	if (boundResource instanceof EnemyActor) {
 		final EnemyActor enemyActor = (EnemyActor) boundResource;
 
-		final int index = mEnemies.indexOf(enemyActor);
-		if (index != -1) {
+		if (mEnemies.contains(enemyActor)) {
 			Command command = new Command() {
+				/** Index is calculated when executed as other enemies might be removed before */
+				private int mIndex = -1;
+
 				@Override
 				public boolean execute() {
-					mEnemies.remove(index);
+					mIndex = mEnemies.indexOf(enemyActor);
+					if (mIndex != -1) {
+						mEnemies.remove(mIndex);
+						onBoundResourcesChanged();
+					}
 					return true;
 				}
 
 				@Override
 				public boolean undo() {
-					mEnemies.add(index, enemyActor);
+					if (mIndex != -1) {
+						mEnemies.add(mIndex, enemyActor);
+						onBoundResourcesChanged();
+					}
 					return true;
 				}
 			};
@@ -221,6 +234,12 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 	}
 }
 
+@Override
+public void getBoundResources(List<IResource> boundResources) {
+	super.getBoundResources(boundResources);
+	boundResources.addAll(mEnemies);
+}
+
 /**
  * @return all enemies in this group
  */
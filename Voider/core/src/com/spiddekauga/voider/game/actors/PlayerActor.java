@@ -10,7 +10,6 @@ import com.spiddekauga.voider.Config.Graphics.RenderOrders;
 import com.spiddekauga.voider.config.ConfigIni;
 import com.spiddekauga.voider.game.Collectibles;
 import com.spiddekauga.voider.utils.event.EventTypes;
-import com.spiddekauga.voider.utils.event.GameEvent;
 
 /**
  * The ship the player controls
@@ -81,7 +80,7 @@ private void makeVulnerable() {
 @Override
 public void addCollidingActor(Actor actor) {
 	if (getCollidingActors().isEmpty()) {
-		mEventDispatcher.fire(new GameEvent(EventTypes.GAME_PLAYER_COLLISION_BEGIN));
+		mEventDispatcher.fire(EventTypes.GAME_PLAYER_COLLISION_BEGIN);
 	}
 
 	super.addCollidingActor(actor);
@@ -92,7 +91,7 @@ public void removeCollidingActor(Actor actor) {
 	super.removeCollidingActor(actor);
 
 	if (getCollidingActors().isEmpty()) {
-		mEventDispatcher.fire(new GameEvent(EventTypes.GAME_PLAYER_COLLISION_END));
+		mEventDispatcher.fire(EventTypes.GAME_PLAYER_COLLISION_END);
 	}
 }
 
@@ -127,7 +126,15 @@ public boolean isInvulnerable() {
  */
 @Override
 protected short getFilterCollidingCategories() {
-	if (isInvulnerable()) {
+	return getFilterCollidingCategories(isInvulnerable());
+}
+
+/**
+ * @param invulnerable true if the player is invulnerable
+ * @return colliding categories, only the screen border when invulnerable
+ */
+static short getFilterCollidingCategories(boolean invulnerable) {
+	if (invulnerable) {
 		return ActorFilterCategories.SCREEN_BORDER;
 	} else {
 		return (short) (ActorFilterCategories.ENEMY | ActorFilterCategories.PICKUP | ActorFilterCategories.STATIC_TERRAIN | ActorFilterCategories.SCREEN_BORDER);
@@ -96,6 +96,14 @@ private List<Vector2> mPolygon = new ArrayList<>();
  * of vertices.
  */
 private List<Vector2> mVertices = new ArrayList<>();
+/**
+ * Triangle vertices packed as x,y pairs with the center offset added. Built once from
+ * {@link #mVertices} so that actors with this shape can be rendered by only translating and
+ * rotating the mesh.
+ */
+private float[] mMesh = null;
+/** The triangle vertices {@link #mMesh} was built from */
+private List<Vector2> mMeshVertices = null;
 /** True if shape is drawable/complete */
 private boolean mShapeComplete = true;
 /** Defines the mass, shape, etc. */
@@ -312,6 +320,7 @@ public void calculateBounds() {
  */
 private void fixtureChanged() {
 	mFixtureChangeTime = GameTime.getTotalGlobalTimeElapsed();
+	mMesh = null;
 }
 
 /**
@@ -328,6 +337,7 @@ public final List<FixtureDef> getFixtureDefs() {
 public void clearVertices() {
 	mVertices.clear();
 	mPolygon.clear();
+	mMesh = null;
 }
 
 /**
@@ -1050,6 +1060,29 @@ public List<Vector2> getTriangleVertices() {
 	return mVertices;
 }
 
+/**
+ * @return triangle vertices packed as x,y pairs with the center offset added. Rotate around (0,0)
+ *         and translate to render. Null if the shape has no triangle vertices.
+ */
+public float[] getTriangleMesh() {
+	if (mVertices == null || mVertices.isEmpty()) {
+		return null;
+	}
+
+	if (mMesh == null || mMeshVertices != mVertices || mMesh.length != mVertices.size() * 2) {
+		float[] mesh = new float[mVertices.size() * 2];
+		int meshIndex = 0;
+		for (Vector2 vertex : mVertices) {
+			mesh[meshIndex++] = vertex.x + mCenterOffset.x;
+			mesh[meshIndex++] = vertex.y + mCenterOffset.y;
+		}
+		mMesh = mesh;
+		mMeshVertices = mVertices;
+	}
+
+	return mMesh;
+}
+
 /**
  * @return polygon shape of the actor.
  */
@@ -1132,6 +1165,11 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 	// Does nothing
 }
 
+@Override
+public void getBoundResources(List<IResource> boundResources) {
+	// Does nothing
+}
+
 @Override
 public void addChangeListener(IResourceChangeListener listener) {
 	// Does nothing
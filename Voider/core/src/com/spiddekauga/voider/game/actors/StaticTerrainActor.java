@@ -7,6 +7,8 @@ import com.spiddekauga.voider.Config.Graphics.RenderOrders;
  * Static terrain actor. This terrain will not move, and cannot be destroyed.
  */
 public class StaticTerrainActor extends Actor {
+/** Terrain only collides with the player, i.e. not with bullets */
+static final short FILTER_COLLIDING_CATEGORIES = ActorFilterCategories.PLAYER;
 
 /**
  * Default constructor, creates a new definition for the actor
@@ -29,7 +31,7 @@ protected short getFilterCategory() {
  */
 @Override
 protected short getFilterCollidingCategories() {
-	return ActorFilterCategories.PLAYER;
+	return FILTER_COLLIDING_CATEGORIES;
 }
 
 @Override
@@ -43,6 +43,7 @@ private Body mBody = null;
 public TActorActivated(Actor actor) {
 	mActor = actor;
 	setActorListener();
+	onBoundResourcesChanged();
 }
 
 /**
@@ -54,6 +55,13 @@ private void setActorListener() {
 	}
 }
 
+/**
+ * @return actor that activates the trigger
+ */
+Actor getActor() {
+	return mActor;
+}
+
 /**
  * Constructor for Kryo
  */
@@ -170,12 +178,14 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 			@Override
 			public boolean execute() {
 				mActor = null;
+				onBoundResourcesChanged();
 				return true;
 			}
 
 			@Override
 			public boolean undo() {
 				mActor = oldActor;
+				onBoundResourcesChanged();
 				return true;
 			}
 		};
@@ -183,6 +193,15 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 	}
 }
 
+@Override
+public void getBoundResources(List<IResource> boundResources) {
+	super.getBoundResources(boundResources);
+
+	if (mActor != null) {
+		boundResources.add(mActor);
+	}
+}
+
 @Override
 public void prepareWrite() {
 	mActor.removeChangeListener(this);
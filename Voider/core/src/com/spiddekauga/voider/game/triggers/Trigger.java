@@ -6,9 +6,7 @@ import com.spiddekauga.utils.commands.Command;
 import com.spiddekauga.voider.resources.IResource;
 import com.spiddekauga.voider.resources.IResourceEditorRender;
 import com.spiddekauga.voider.resources.IResourceSelectable;
-import com.spiddekauga.voider.resources.IResourceUpdate;
 import com.spiddekauga.voider.resources.Resource;
-import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -18,7 +16,7 @@ import java.util.UUID;
 /**
  * Base class for all triggers
  */
-public abstract class Trigger extends Resource implements IResourceUpdate, IResourceEditorRender, IResourceSelectable {
+public abstract class Trigger extends Resource implements IResourceEditorRender, IResourceSelectable {
 /** Set as a hidden trigger (will not create a body and not be drawn) */
 private boolean mHidden = false;
 /** If the trigger is currently selected */
@@ -40,41 +38,44 @@ public Trigger() {
 	mUniqueId = UUID.randomUUID();
 }
 
-@Override
-public void update(float deltaTime) {
-	float totalTimeElapsed = SceneSwitcher.getGameTime().getTotalTimeElapsed();
-
-	if (!mTriggered) {
-		if (isTriggered()) {
-			mTriggered = true;
-			mTriggeredTime = totalTimeElapsed;
-			Gdx.app.debug("Trigger", getClass().getSimpleName() + " triggered at " + totalTimeElapsed);
-		}
-	}
-
-	if (mTriggered) {
-		float timeSinceTriggered = totalTimeElapsed - mTriggeredTime;
+/**
+ * Set the trigger as triggered
+ * @param time total game time when the trigger was triggered
+ */
+void setTriggered(float time) {
+	mTriggered = true;
+	mTriggeredTime = time;
+	Gdx.app.debug("Trigger", getClass().getSimpleName() + " triggered at " + time);
+}
 
-		// Trigger and remove all triggers which delays have run out
-		Iterator<TriggerInfo> iterator = mListeners.iterator();
-		while (iterator.hasNext()) {
-			TriggerInfo triggerListenerInfo = iterator.next();
+/**
+ * @return true if the trigger has been triggered
+ */
+boolean hasTriggered() {
+	return mTriggered;
+}
 
-			if (timeSinceTriggered >= triggerListenerInfo.delay) {
-				TriggerAction triggerAction = new TriggerAction();
-				triggerAction.action = triggerListenerInfo.action;
-				triggerAction.reason = getReason();
-				triggerAction.causeObject = getCauseObject();
-				triggerListenerInfo.listener.onTriggered(triggerAction);
+/**
+ * @return total game time when the trigger was triggered, -1 if it hasn't been triggered
+ */
+float getTriggeredTime() {
+	return mTriggeredTime;
+}
 
-				iterator.remove();
-			}
-		}
-	}
+/**
+ * Notify a listener that the trigger has been triggered. Does not remove the listener.
+ * @param triggerInfo the listener to notify
+ * @param triggerAction reused action which is filled with the listener's action
+ */
+void notifyListener(TriggerInfo triggerInfo, TriggerAction triggerAction) {
+	triggerAction.action = triggerInfo.action;
+	triggerAction.reason = getReason();
+	triggerAction.causeObject = getCauseObject();
+	triggerInfo.listener.onTriggered(triggerAction);
 }
 
 /**
- * Checks if the trigger is triggered
+ * Checks if the trigger is triggered. Called by {@link TriggerScheduler} until it's triggered
  * @return true if the trigger has triggered
  */
 public abstract boolean isTriggered();
@@ -103,6 +104,7 @@ public boolean hasAllTriggered() {
  */
 public void addListener(TriggerInfo triggerInfo) {
 	mListeners.add(triggerInfo);
+	onBoundResourcesChanged();
 }
 
 /**
@@ -124,6 +126,10 @@ public boolean removeListener(UUID listenerId) {
 		}
 	}
 
+	if (removed) {
+		onBoundResourcesChanged();
+	}
+
 	return removed;
 }
 
@@ -137,18 +143,31 @@ public void removeBoundResource(IResource boundResource, List<Command> commands)
 			@Override
 			public boolean execute() {
 				mListeners.remove(triggerInfo);
+				onBoundResourcesChanged();
 				return true;
 			}
 
 			@Override
 			public boolean undo() {
 				mListeners.add(triggerInfo);
+				onBoundResourcesChanged();
 				return true;
 			}
 		};
 		commands.add(command);
 	}
-}@Override
+}
+
+@Override
+public void getBoundResources(List<IResource> boundResources) {
+	super.getBoundResources(boundResources);
+
+	for (TriggerInfo triggerInfo : mListeners) {
+		boundResources.add(triggerInfo.listener);
+	}
+}
+
+@Override
 public void setSelected(boolean selected) {
 	mSelected = selected;
 }
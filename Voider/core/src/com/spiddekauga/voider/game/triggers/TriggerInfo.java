@@ -2,6 +2,7 @@ package com.spiddekauga.voider.game.triggers;
 
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
 import com.spiddekauga.voider.game.triggers.TriggerAction.Actions;
+import com.spiddekauga.voider.resources.Resource;
 
 /**
  * Information for a trigger listener. This contains all the information to bind the listener to a
@@ -79,6 +80,10 @@ public static TriggerInfo getTriggerInfoByAction(ITriggerListener listener, Acti
  */
 public void setTrigger(Trigger trigger) {
 	this.trigger = trigger;
+
+	if (listener instanceof Resource) {
+		((Resource) listener).onBoundResourcesChanged();
+	}
 }
 
 /**
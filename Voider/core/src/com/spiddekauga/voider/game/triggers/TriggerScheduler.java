@@ -0,0 +1,259 @@
+package com.spiddekauga.voider.game.triggers;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.spiddekauga.utils.scene.ui.SceneSwitcher;
+import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.game.ActorActivatedEvent;
+import com.spiddekauga.voider.game.actors.Actor;
+import com.spiddekauga.voider.utils.event.EventDispatcher;
+import com.spiddekauga.voider.utils.event.EventTypes;
+import com.spiddekauga.voider.utils.event.GameEvent;
+import com.spiddekauga.voider.utils.event.IEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Fires the triggers of a running level. Instead of checking every trigger each frame, screen
+ * triggers are sorted by their x-coordinate, actor triggers are fired when their actor is activated,
+ * and delayed listeners are kept in a timer wheel until their delay has run out.
+ */
+public class TriggerScheduler implements IEventListener, Disposable {
+/** Number of slots in the timer wheel */
+private static final int WHEEL_SLOTS = 64;
+/** Time of one timer wheel slot, in seconds */
+private static final float WHEEL_SLOT_TIME = 1f / Config.Game.STEPS_PER_SECOND;
+private static final EventDispatcher mEventDispatcher = EventDispatcher.getInstance();
+/** Screen triggers that haven't been triggered, ordered by x-coordinate */
+private PriorityQueue<TScreenAt> mScreenTriggers = new PriorityQueue<>(16, new Comparator<TScreenAt>() {
+	@Override
+	public int compare(TScreenAt left, TScreenAt right) {
+		return Float.compare(left.getPosition().x, right.getPosition().x);
+	}
+});
+/** Actor triggers that haven't been triggered, by actor */
+private IdentityHashMap<Actor, ArrayList<TActorActivated>> mActorTriggers = new IdentityHashMap<>();
+/** Other triggers, these are checked every update */
+private ArrayList<Trigger> mPolledTriggers = new ArrayList<>();
+/** Triggers that were triggered through an event since the last update */
+private ArrayList<Trigger> mEventTriggers = new ArrayList<>();
+/** Delayed listeners, each slot contains the listeners of every WHEEL_SLOTS tick */
+private ArrayList<ArrayList<DelayedListener>> mWheel = new ArrayList<>(WHEEL_SLOTS);
+/** Last tick of the timer wheel that has been processed */
+private long mWheelTick;
+/** Reused when notifying listeners */
+private TriggerAction mTriggerAction = new TriggerAction();
+
+/**
+ * Schedules all triggers. Listeners of triggers that already have been triggered, e.g. from a saved
+ * game, are scheduled after their remaining delay.
+ * @param triggers all triggers in the level
+ */
+public TriggerScheduler(List<Trigger> triggers) {
+	float time = SceneSwitcher.getGameTime().getTotalTimeElapsed();
+	mWheelTick = getTick(time) - 1;
+	for (int i = 0; i < WHEEL_SLOTS; ++i) {
+		mWheel.add(new ArrayList<DelayedListener>());
+	}
+
+	for (Trigger trigger : triggers) {
+		if (trigger.hasTriggered()) {
+			scheduleListeners(trigger, time);
+		} else if (trigger instanceof TScreenAt) {
+			mScreenTriggers.add((TScreenAt) trigger);
+		} else if (trigger instanceof TActorActivated) {
+			addActorTrigger((TActorActivated) trigger);
+		} else {
+			mPolledTriggers.add(trigger);
+		}
+	}
+
+	mEventDispatcher.connect(EventTypes.GAME_ACTOR_ACTIVATED, this);
+}
+
+/**
+ * Add an actor trigger. Triggers directly if the actor already is active.
+ * @param trigger the actor trigger
+ */
+private void addActorTrigger(TActorActivated trigger) {
+	Actor actor = trigger.getActor();
+	if (actor == null) {
+		return;
+	}
+
+	if (trigger.isTriggered()) {
+		mEventTriggers.add(trigger);
+	} else {
+		ArrayList<TActorActivated> actorTriggers = mActorTriggers.get(actor);
+		if (actorTriggers == null) {
+			actorTriggers = new ArrayList<>(1);
+			mActorTriggers.put(actor, actorTriggers);
+		}
+		actorTriggers.add(trigger);
+	}
+}
+
+/**
+ * Fire all triggers that have been triggered and notify all listeners which delays have run out
+ * @param xCoord current x-coordinate of the level
+ */
+public void update(float xCoord) {
+	float time = SceneSwitcher.getGameTime().getTotalTimeElapsed();
+
+	// Screen triggers
+	while (!mScreenTriggers.isEmpty() && mScreenTriggers.peek().getPosition().x <= xCoord) {
+		fire(mScreenTriggers.poll(), time);
+	}
+
+	// Other triggers
+	Iterator<Trigger> iterator = mPolledTriggers.iterator();
+	while (iterator.hasNext()) {
+		Trigger trigger = iterator.next();
+		if (trigger.isTriggered()) {
+			iterator.remove();
+			fire(trigger, time);
+		}
+	}
+
+	updateWheel(time);
+
+	// Triggers from events, listeners can activate actors and thus add more triggers
+	for (int i = 0; i < mEventTriggers.size(); ++i) {
+		fire(mEventTriggers.get(i), time);
+	}
+	mEventTriggers.clear();
+}
+
+/**
+ * Notify all delayed listeners which delays have run out
+ * @param time current game time
+ */
+private void updateWheel(float time) {
+	long currentTick = getTick(time);
+
+	// Passed a whole round, check all slots
+	if (currentTick - mWheelTick >= WHEEL_SLOTS) {
+		mWheelTick = currentTick;
+		for (ArrayList<DelayedListener> slot : mWheel) {
+			notifyDelayedListeners(slot, currentTick);
+		}
+	} else {
+		while (mWheelTick < currentTick) {
+			mWheelTick++;
+			notifyDelayedListeners(mWheel.get(getSlot(mWheelTick)), mWheelTick);
+		}
+	}
+}
+
+/**
+ * Notify all delayed listeners in a slot which tick has been reached
+ * @param slot the timer wheel slot
+ * @param tick current tick
+ */
+private void notifyDelayedListeners(ArrayList<DelayedListener> slot, long tick) {
+	Iterator<DelayedListener> iterator = slot.iterator();
+	while (iterator.hasNext()) {
+		DelayedListener delayedListener = iterator.next();
+		if (delayedListener.tick <= tick) {
+			iterator.remove();
+			delayedListener.trigger.notifyListener(delayedListener.triggerInfo, mTriggerAction);
+			delayedListener.trigger.getListeners().remove(delayedListener.triggerInfo);
+		}
+	}
+}
+
+/**
+ * Set a trigger as triggered and schedule its listeners
+ * @param trigger the trigger that was triggered
+ * @param time current game time
+ */
+private void fire(Trigger trigger, float time) {
+	trigger.setTriggered(time);
+	scheduleListeners(trigger, time);
+}
+
+/**
+ * Notify all listeners of a triggered trigger which delays have run out, the rest are added to the
+ * timer wheel
+ * @param trigger a triggered trigger
+ * @param time current game time
+ */
+private void scheduleListeners(Trigger trigger, float time) {
+	Iterator<TriggerInfo> iterator = trigger.getListeners().iterator();
+	while (iterator.hasNext()) {
+		TriggerInfo triggerInfo = iterator.next();
+		float notifyTime = trigger.getTriggeredTime() + triggerInfo.delay;
+
+		if (notifyTime <= time) {
+			trigger.notifyListener(triggerInfo, mTriggerAction);
+			iterator.remove();
+		} else {
+			// Round up so the listener never is notified before its delay has run out
+			long tick = Math.max((long) Math.ceil(notifyTime / WHEEL_SLOT_TIME), mWheelTick + 1);
+			mWheel.get(getSlot(tick)).add(new DelayedListener(trigger, triggerInfo, tick));
+		}
+	}
+}
+
+/**
+ * @param time game time
+ * @return timer wheel tick of the time
+ */
+private static long getTick(float time) {
+	return (long) (time / WHEEL_SLOT_TIME);
+}
+
+/**
+ * @param tick timer wheel tick
+ * @return slot of the tick
+ */
+private static int getSlot(long tick) {
+	return (int) (tick % WHEEL_SLOTS);
+}
+
+@Override
+public void handleEvent(GameEvent event) {
+	if (event instanceof ActorActivatedEvent) {
+		ArrayList<TActorActivated> actorTriggers = mActorTriggers.remove(((ActorActivatedEvent) event).actor);
+		if (actorTriggers != null) {
+			mEventTriggers.addAll(actorTriggers);
+		}
+	}
+}
+
+@Override
+public void dispose() {
+	mEventDispatcher.disconnect(EventTypes.GAME_ACTOR_ACTIVATED, this);
+	mScreenTriggers.clear();
+	mActorTriggers.clear();
+	mPolledTriggers.clear();
+	mEventTriggers.clear();
+	for (ArrayList<DelayedListener> slot : mWheel) {
+		slot.clear();
+	}
+}
+
+/**
+ * Listener that is notified when the timer wheel reaches its tick
+ */
+private static class DelayedListener {
+	private Trigger trigger;
+	private TriggerInfo triggerInfo;
+	private long tick;
+
+	/**
+	 * @param trigger the triggered trigger
+	 * @param triggerInfo the listener to notify
+	 * @param tick timer wheel tick to notify the listener at
+	 */
+	private DelayedListener(Trigger trigger, TriggerInfo triggerInfo, long tick) {
+		this.trigger = trigger;
+		this.triggerInfo = triggerInfo;
+		this.tick = tick;
+	}
+}
+}
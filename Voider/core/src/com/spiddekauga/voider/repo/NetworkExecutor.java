@@ -0,0 +1,128 @@
+package com.spiddekauga.voider.repo;
+
+import com.spiddekauga.voider.Config;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs all network requests on at most {@link Config.Network#CONNECTIONS_MAX} threads. Requests are
+ * run in priority order, requests with the same priority in the order they were sent. Blob
+ * downloads are run on their own threads as a request's response handler waits for its downloads.
+ * Idle threads are stopped.
+ */
+class NetworkExecutor {
+/** How long idle threads are kept alive, in seconds */
+private static final long THREAD_KEEP_ALIVE = 30;
+private static NetworkExecutor mInstance = new NetworkExecutor();
+/** Runs requests, ordered by priority */
+private final ThreadPoolExecutor mRequestExecutor = createExecutor("Network", new PriorityBlockingQueue<Runnable>());
+/** Runs blob downloads in order */
+private final ThreadPoolExecutor mDownloadExecutor = createExecutor("NetworkDownload", new LinkedBlockingQueue<Runnable>());
+/** Order of sent requests, keeps requests with the same priority in order */
+private final AtomicLong mSequence = new AtomicLong();
+
+/**
+ * Private constructor to enforce singleton usage
+ */
+private NetworkExecutor() {
+	// Does nothing
+}
+
+/**
+ * @return singleton instance of the network executor
+ */
+static NetworkExecutor getInstance() {
+	return mInstance;
+}
+
+/**
+ * Run a request on a network thread
+ * @param request the request to run
+ * @param priority priority of the request
+ * @param <ResultType> result of the request
+ * @return future result of the request
+ */
+<ResultType> Future<ResultType> submit(Callable<ResultType> request, Priorities priority) {
+	PriorityTask<ResultType> task = new PriorityTask<>(request, priority, mSequence.getAndIncrement());
+	mRequestExecutor.execute(task);
+	return task;
+}
+
+/**
+ * Run a blob download on a download thread
+ * @param download the download to run
+ * @return future result of the download
+ */
+Future<Boolean> submitDownload(Callable<Boolean> download) {
+	return mDownloadExecutor.submit(download);
+}
+
+/**
+ * Creates an executor that stops its threads when they're idle
+ * @param threadName name of the threads
+ * @param queue queue of tasks to run
+ * @return new executor
+ */
+private static ThreadPoolExecutor createExecutor(final String threadName, BlockingQueue<Runnable> queue) {
+	ThreadPoolExecutor executor = new ThreadPoolExecutor(Config.Network.CONNECTIONS_MAX, Config.Network.CONNECTIONS_MAX, THREAD_KEEP_ALIVE,
+			TimeUnit.SECONDS, queue, new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	executor.allowCoreThreadTimeOut(true);
+	return executor;
+}
+
+/**
+ * Request priorities
+ */
+enum Priorities {
+	/** The user is waiting for the response, e.g. login */
+	HIGH,
+	/** Regular requests */
+	NORMAL,
+	/** Background synchronization and analytics */
+	LOW,
+}
+
+/**
+ * Request that is ordered by priority and then by the order it was sent
+ * @param <ResultType> result of the request
+ */
+private static class PriorityTask<ResultType> extends FutureTask<ResultType> implements Comparable<PriorityTask<?>> {
+	private final Priorities mPriority;
+	private final long mSequence;
+
+	/**
+	 * @param request the request to run
+	 * @param priority priority of the request
+	 * @param sequence order the request was sent in
+	 */
+	private PriorityTask(Callable<ResultType> request, Priorities priority, long sequence) {
+		super(request);
+		mPriority = priority;
+		mSequence = sequence;
+	}
+
+	@Override
+	public int compareTo(PriorityTask<?> other) {
+		if (mPriority != other.mPriority) {
+			return mPriority.compareTo(other.mPriority);
+		}
+		return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+	}
+}
+}
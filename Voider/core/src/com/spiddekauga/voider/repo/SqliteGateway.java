@@ -16,13 +16,33 @@ import com.spiddekauga.voider.utils.event.IEventListener;
 
 import java.util.Date;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * SQLite gateway
  */
 public abstract class SqliteGateway implements Disposable, IEventListener {
+/**
+ * Maximum number of rows in one multi-row INSERT. SQLite limits the number of terms in a compound
+ * statement to 500
+ */
+private static final int INSERT_ROWS_MAX = 100;
+/**
+ * Guards the database connection. Held for the whole scope of a transaction so that statements from
+ * other threads aren't mixed into it
+ */
+private static final ReentrantLock mLock = new ReentrantLock();
 private static Database mDatabase = null;
+/** Number of nested transactions the lock holder has begun */
+private static int mTransactionDepth = 0;
+/** If BEGIN was executed for the outermost transaction */
+private static boolean mTransactionStarted = false;
+/** If the innermost transaction has been set as successful */
+private static boolean mTransactionSuccessful = false;
+/** If any nested transaction ended without being successful */
+private static boolean mTransactionFailed = false;
 private Queue<String> mFailQueue = new LinkedList<>();
 /** Queue exec SQL statements if they fail, and retry at a later point */
 private boolean mQueueIfFail = false;
@@ -43,7 +63,19 @@ protected SqliteGateway() {
 /**
  * Connects to the database
  */
-private synchronized void connect() {
+private void connect() {
+	mLock.lock();
+	try {
+		connectPrivate();
+	} finally {
+		mLock.unlock();
+	}
+}
+
+/**
+ * Connects to the database, {@link #mLock} has to be held
+ */
+private void connectPrivate() {
 	if (mDatabase == null) {
 		mDatabase = DatabaseFactory.getNewDatabase(getDatabaseLocation(), SqliteUpgrader.getDbVersion(), null, null);
 
@@ -83,12 +115,15 @@ private String getDatabaseLocation() {
  * @param sql the SQL query. The SQL string must not be ; terminated
  * @return {@link DatabaseCursor}
  */
-protected static synchronized DatabaseCursor rawQuery(String sql) {
+protected static DatabaseCursor rawQuery(String sql) {
+	mLock.lock();
 	try {
 		return mDatabase.rawQuery(sql);
 	} catch (SQLiteGdxException e) {
 		e.printStackTrace();
 		throw new GdxRuntimeException(e);
+	} finally {
+		mLock.unlock();
 	}
 }
 
@@ -101,12 +136,15 @@ protected static synchronized DatabaseCursor rawQuery(String sql) {
  * @param sql the SQL query. The SQL string must not be ; terminated
  * @return the passed {@link DatabaseCursor}.
  */
-protected static synchronized DatabaseCursor rawQuery(DatabaseCursor cursor, String sql) {
+protected static DatabaseCursor rawQuery(DatabaseCursor cursor, String sql) {
+	mLock.lock();
 	try {
 		return mDatabase.rawQuery(cursor, sql);
 	} catch (SQLiteGdxException e) {
 		e.printStackTrace();
 		throw new GdxRuntimeException(e);
+	} finally {
+		mLock.unlock();
 	}
 }
 
@@ -148,7 +186,7 @@ public void handleEvent(GameEvent event) {
 		break;
 
 	case USER_LOGGED_OUT:
-		dispose();
+		disconnect();
 		break;
 
 	default:
@@ -160,14 +198,27 @@ public void handleEvent(GameEvent event) {
  * Closes the database connection to SQLite
  */
 @Override
-public synchronized void dispose() {
-	if (mDatabase != null) {
-		try {
-			mDatabase.closeDatabase();
-		} catch (SQLiteGdxException e) {
-			e.printStackTrace();
+public void dispose() {
+	disconnect();
+}
+
+/**
+ * Closes the database connection to SQLite, it's connected again when a user logs in
+ */
+protected void disconnect() {
+	mLock.lock();
+	try {
+		if (mDatabase != null) {
+			try {
+				mDatabase.closeDatabase();
+			} catch (SQLiteGdxException e) {
+				e.printStackTrace();
+			}
+			mDatabase = null;
+			mTransactionStarted = false;
 		}
-		mDatabase = null;
+	} finally {
+		mLock.unlock();
 	}
 }
 
@@ -183,44 +234,55 @@ protected void setQueueFailedSqlStatements(boolean queue) {
  * Execute a single SQL statement that is NOT a SELECT or any other SQL statement that returns data.
  * If {@link #setQueueFailedSqlStatements(boolean)} has been called with true and if the database
  * isn't yet connect the SQL statement will be pushed onto a queue; when this method is called again
- * it will retry to execute the queue messages before the new SQL statement.
+ * it will retry to execute the queue messages before the new SQL statement. Statements are never
+ * queued inside a transaction; a failure there throws and rolls back the transaction instead of
+ * committing partial writes. Safe to call from any thread.
  * @param sql the SQL statement to be executed. Multiple statements separated by semicolons are not
  * supported.
  */
 protected void execSQL(String sql) {
-	// Try to execute failed SQL statements
-	if (mQueueIfFail) {
-		boolean failed = false;
-		while (!mFailQueue.isEmpty() && !failed) {
-			try {
-				execSQLPrivate(mFailQueue.peek());
-				mFailQueue.remove();
-			} catch (SQLiteGdxException e) {
-				failed = true;
+	mLock.lock();
+	try {
+		// Try to execute failed SQL statements
+		if (mQueueIfFail && mTransactionDepth == 0) {
+			boolean failed = false;
+			while (!mFailQueue.isEmpty() && !failed) {
+				try {
+					execSQLPrivate(mFailQueue.peek());
+					mFailQueue.remove();
+				} catch (SQLiteGdxException e) {
+					failed = true;
+				}
 			}
-		}
 
-		// Execute new SQL statement
-		if (!failed) {
-			try {
-				execSQLPrivate(sql);
-			} catch (SQLiteGdxException e) {
+			// Execute new SQL statement
+			if (!failed) {
+				try {
+					execSQLPrivate(sql);
+				} catch (SQLiteGdxException e) {
+					mFailQueue.add(sql);
+				}
+			}
+			// Add new SQL statement to the fail queue
+			else {
 				mFailQueue.add(sql);
 			}
 		}
-		// Add new SQL statement to the fail queue
+		// Regular execution
 		else {
-			mFailQueue.add(sql);
-		}
-	}
-	// Regular execution
-	else {
-		try {
-			execSQLPrivate(sql);
-		} catch (SQLiteGdxException e) {
-			e.printStackTrace();
-			throw new GdxRuntimeException(e);
+			try {
+				execSQLPrivate(sql);
+			} catch (SQLiteGdxException e) {
+				// Roll back even if the caller catches this and sets the transaction as successful
+				if (mTransactionDepth > 0) {
+					mTransactionFailed = true;
+				}
+				e.printStackTrace();
+				throw new GdxRuntimeException(e);
+			}
 		}
+	} finally {
+		mLock.unlock();
 	}
 }
 
@@ -233,11 +295,126 @@ protected void execSQL(String sql) {
  * supported.
  * @throws SQLiteGdxException
  */
-private static synchronized void execSQLPrivate(String sql) throws SQLiteGdxException {
-	if (mDatabase == null) {
-		throw new SQLiteGdxException("Database not connected!");
+private static void execSQLPrivate(String sql) throws SQLiteGdxException {
+	mLock.lock();
+	try {
+		if (mDatabase == null) {
+			throw new SQLiteGdxException("Database not connected!");
+		}
+
+		mDatabase.execSQL(sql);
+	} finally {
+		mLock.unlock();
+	}
+}
+
+/**
+ * Insert several rows with as few statements as possible. All rows are inserted in one transaction.
+ * @param insertSql the INSERT statement up to and including VALUES, e.g. "INSERT INTO table (a, b)
+ * VALUES"
+ * @param rows values of each row, e.g. "('a', 1)"
+ */
+protected void execInsertRows(String insertSql, List<String> rows) {
+	if (rows.isEmpty()) {
+		return;
+	}
+
+	beginTransaction();
+	try {
+		StringBuilder sql = new StringBuilder();
+		for (int start = 0; start < rows.size(); start += INSERT_ROWS_MAX) {
+			int end = Math.min(start + INSERT_ROWS_MAX, rows.size());
+
+			sql.setLength(0);
+			sql.append(insertSql);
+			for (int i = start; i < end; ++i) {
+				if (i != start) {
+					sql.append(',');
+				}
+				sql.append(' ').append(rows.get(i));
+			}
+			sql.append(';');
+
+			execSQL(sql.toString());
+		}
+		setTransactionSuccessful();
+	} finally {
+		endTransaction();
+	}
+}
+
+/**
+ * Begin a transaction. Every statement until {@link #endTransaction()} is written to disk at once
+ * instead of one statement at a time. Other threads wait until the transaction has ended.
+ * Transactions can be nested, only the outermost transaction is committed. Always call
+ * {@link #endTransaction()} in a finally block:
+ *
+ * <pre>
+ * SqliteGateway.beginTransaction();
+ * try {
+ * 	...
+ * 	SqliteGateway.setTransactionSuccessful();
+ * } finally {
+ * 	SqliteGateway.endTransaction();
+ * }
+ * </pre>
+ */
+public static void beginTransaction() {
+	mLock.lock();
+	if (mTransactionDepth == 0) {
+		mTransactionFailed = false;
+		mTransactionStarted = false;
+		if (mDatabase != null) {
+			try {
+				mDatabase.execSQL("BEGIN TRANSACTION;");
+				mTransactionStarted = true;
+			} catch (SQLiteGdxException e) {
+				mLock.unlock();
+				e.printStackTrace();
+				throw new GdxRuntimeException(e);
+			}
+		}
 	}
+	mTransactionDepth++;
+	mTransactionSuccessful = false;
+}
 
-	mDatabase.execSQL(sql);
+/**
+ * Mark the current transaction as successful. If a nested transaction ends without being set as
+ * successful the whole transaction is rolled back
+ */
+public static void setTransactionSuccessful() {
+	if (!mLock.isHeldByCurrentThread() || mTransactionDepth == 0) {
+		throw new IllegalStateException("No transaction has been started by this thread");
+	}
+	mTransactionSuccessful = true;
+}
+
+/**
+ * End the current transaction. The outermost transaction is committed if all nested transactions
+ * were set as successful, otherwise it's rolled back.
+ */
+public static void endTransaction() {
+	if (!mLock.isHeldByCurrentThread() || mTransactionDepth == 0) {
+		throw new IllegalStateException("No transaction has been started by this thread");
+	}
+
+	try {
+		if (!mTransactionSuccessful) {
+			mTransactionFailed = true;
+		}
+		mTransactionSuccessful = false;
+		mTransactionDepth--;
+
+		if (mTransactionDepth == 0 && mTransactionStarted && mDatabase != null) {
+			mTransactionStarted = false;
+			mDatabase.execSQL(mTransactionFailed ? "ROLLBACK;" : "COMMIT;");
+		}
+	} catch (SQLiteGdxException e) {
+		e.printStackTrace();
+		throw new GdxRuntimeException(e);
+	} finally {
+		mLock.unlock();
+	}
 }
 }
@@ -4,8 +4,10 @@ import com.badlogic.gdx.sql.Database;
 import com.badlogic.gdx.sql.DatabaseCursor;
 import com.badlogic.gdx.sql.SQLiteGdxException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,6 +31,8 @@ private boolean mUpgradedOrDeleted = false;
 private Set<String> mNotFoundTables = new HashSet<String>();
 /** Create table queries for all tables */
 private Map<String, String> mCreateTableQueries = new HashMap<String, String>();
+/** Create index queries, these are run every time as they don't exist in the gameVersion table */
+private List<String> mCreateIndexQueries = new ArrayList<String>();
 
 /**
  * @param database the database to do upgrading on
@@ -127,6 +131,15 @@ private void fillTables() {
 				+ "data TEXT,"
 				+ "type INTEGER);");
 
+
+		// Indexes
+		mCreateIndexQueries.add("CREATE INDEX IF NOT EXISTS resource_revision_uuid_revision ON resource_revision (uuid, revision);");
+		mCreateIndexQueries.add("CREATE INDEX IF NOT EXISTS resource_revision_uploaded ON resource_revision (uploaded);");
+		mCreateIndexQueries.add("CREATE INDEX IF NOT EXISTS resource_type ON resource (type);");
+		mCreateIndexQueries.add("CREATE INDEX IF NOT EXISTS level_tag_uuid ON level_tag (uuid);");
+		mCreateIndexQueries.add("CREATE INDEX IF NOT EXISTS analytics_scene_session_id ON analytics_scene (session_id);");
+		mCreateIndexQueries.add("CREATE INDEX IF NOT EXISTS analytics_event_scene_id ON analytics_event (scene_id);");
+
 		// @formatter:on
 }
 
@@ -147,6 +160,7 @@ void initAndUpgrade() throws SQLiteGdxException {
 		mDatabase.execSQL(TABLE_VERSION_CREATE);
 
 		createOrUpgradeTables();
+		createIndexes();
 
 		mUpgradedOrDeleted = true;
 	}
@@ -230,6 +244,16 @@ private void createTables() throws SQLiteGdxException {
 	}
 }
 
+/**
+ * Creates indexes that don't exist
+ * @throws SQLiteGdxException
+ */
+private void createIndexes() throws SQLiteGdxException {
+	for (String query : mCreateIndexQueries) {
+		mDatabase.execSQL(query);
+	}
+}
+
 /**
  * Clear all tables.
  * @throws SQLiteGdxException
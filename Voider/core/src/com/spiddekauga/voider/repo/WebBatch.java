@@ -0,0 +1,202 @@
+package com.spiddekauga.voider.repo;
+
+import com.spiddekauga.voider.network.entities.IEntity;
+import com.spiddekauga.voider.network.entities.IMethodEntity;
+import com.spiddekauga.voider.network.misc.SyncBatchMethod;
+import com.spiddekauga.voider.network.misc.SyncBatchResponse;
+import com.spiddekauga.voider.repo.WebRepo.ResponseTask;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Sends the synchronize methods of several web repositories in one request. All synchronize
+ * methods that are sent on the thread that began the batch are added to the batch until it's sent.
+ * The responses are handled one at a time in the same order as the methods, as if they had been sent
+ * one after another; the response handlers share state and aren't thread safe. Work that doesn't
+ * depend on other responses, e.g. downloading blobs, is started for all responses before the first
+ * one is handled.
+ */
+public class WebBatch {
+/** Batch that is being created on each thread */
+private static ThreadLocal<WebBatch> mCurrentBatch = new ThreadLocal<>();
+/** Handles the response of each batched method, in the same order as the methods */
+private ArrayList<ResponseTask> mResponseTasks = new ArrayList<>();
+/** Requests that couldn't be batched and were sent as regular requests */
+private ArrayList<Future<IEntity>> mSeparateRequests = new ArrayList<>();
+private boolean mSent = false;
+
+/**
+ * Private constructor, create batches through {@link #begin()}
+ */
+private WebBatch() {
+	// Does nothing
+}
+
+/**
+ * Begin a new batch on this thread. All synchronize methods sent on this thread are added to the
+ * batch until {@link #send()} is called.
+ * @return the new batch
+ */
+public static WebBatch begin() {
+	WebBatch batch = new WebBatch();
+	mCurrentBatch.set(batch);
+	return batch;
+}
+
+/**
+ * @return batch that is being created on this thread, null if none
+ */
+static WebBatch getCurrent() {
+	return mCurrentBatch.get();
+}
+
+/**
+ * Check if a method can be sent in a batch
+ * @param method the method to send
+ * @return true if the server can handle the method in a batch
+ */
+static boolean isBatchable(IMethodEntity method) {
+	switch (method.getMethodName()) {
+	case ANALYTICS:
+	case BUG_REPORT:
+	case DOWNLOAD_SYNC:
+	case HIGHSCORE_SYNC:
+	case STAT_SYNC:
+	case USER_RESOURCE_SYNC:
+		return true;
+
+	default:
+		return false;
+	}
+}
+
+/**
+ * Add a method to the batch
+ * @param webRepo the web repository that handles the response
+ * @param method the method to send
+ * @param responseListeners class that invoked the web repository
+ * @return future response, done when the response has been handled
+ */
+Future<IEntity> add(WebRepo webRepo, IMethodEntity method, IResponseListener[] responseListeners) {
+	ResponseTask responseTask = webRepo.createResponseTask(method, responseListeners);
+	mResponseTasks.add(responseTask);
+	return responseTask.getFuture();
+}
+
+/**
+ * Add a request that was sent while creating the batch but couldn't be batched, e.g. because it
+ * uploads files
+ * @param future future response of the request
+ */
+void addSeparateRequest(Future<IEntity> future) {
+	mSeparateRequests.add(future);
+}
+
+/**
+ * Stop adding methods to the batch and send it
+ */
+public void send() {
+	if (mCurrentBatch.get() == this) {
+		mCurrentBatch.remove();
+	}
+
+	if (!mSent) {
+		mSent = true;
+
+		if (!mResponseTasks.isEmpty()) {
+			SyncBatchMethod method = new SyncBatchMethod();
+			for (ResponseTask responseTask : mResponseTasks) {
+				method.methods.add(responseTask.getMethod());
+			}
+			NetworkExecutor.getInstance().submit(new BatchTask(method), WebRepo.getPriority(method));
+		}
+	}
+}
+
+/**
+ * Blocks until the responses of all methods in the batch have been handled. Sends the batch if it
+ * hasn't been sent.
+ */
+public void waitUntilHandled() {
+	send();
+
+	ArrayList<Future<IEntity>> futures = new ArrayList<>(mSeparateRequests);
+	for (ResponseTask responseTask : mResponseTasks) {
+		futures.add(responseTask.getFuture());
+	}
+	waitFor(futures);
+}
+
+/**
+ * Blocks until all futures are done
+ * @param futures the futures to wait for
+ */
+private static void waitFor(ArrayList<Future<IEntity>> futures) {
+	boolean interrupted = false;
+	for (Future<IEntity> future : futures) {
+		while (!future.isDone()) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	if (interrupted) {
+		Thread.currentThread().interrupt();
+	}
+}
+
+/**
+ * Sends the batch and handles the responses in order
+ */
+private class BatchTask implements Callable<IEntity> {
+	private SyncBatchMethod mMethod;
+
+	/**
+	 * @param method the batch to send
+	 */
+	private BatchTask(SyncBatchMethod method) {
+		mMethod = method;
+	}
+
+	@Override
+	public IEntity call() {
+		IEntity response = null;
+		try {
+			response = WebRepo.serializeAndSend(mMethod, null);
+		} finally {
+			// Handle all responses, methods without a response failed
+			ArrayList<IEntity> responses = null;
+			if (response instanceof SyncBatchResponse) {
+				responses = ((SyncBatchResponse) response).responses;
+			}
+
+			// Start e.g. blob downloads of all responses so they overlap with the handling below
+			if (responses != null) {
+				for (int i = 0; i < mResponseTasks.size() && i < responses.size(); ++i) {
+					try {
+						mResponseTasks.get(i).setResponse(responses.get(i));
+					} catch (RuntimeException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+
+			// Separate requests are handled first so that no responses are handled concurrently
+			waitFor(mSeparateRequests);
+			for (ResponseTask responseTask : mResponseTasks) {
+				responseTask.getFuture().run();
+			}
+		}
+
+		return response;
+	}
+}
+}
@@ -11,7 +11,10 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,18 +24,70 @@ import java.util.List;
 public class WebGateway {
 private static final String ENTITY_NAME = "entity";
 private static final String BLOB_KEY = "blob_key";
+/** Content type of entities sent as the request body */
+private static final String ENTITY_CONTENT_TYPE = "application/octet-stream";
 
 
 /**
- * Sends bytes over HTTP to the specified server
+ * Sends bytes over HTTP to the specified server. The entity is sent as the binary request body and
+ * the connection is kept alive so that the next request to the server can reuse it.
  * @param methodName the method name in the server
  * @param entity the entity to send (as bytes)
  * @return entity bytes response from the server. Length 0 if no response was found. null if an
  * error occurred.
  */
 public static byte[] sendRequest(String methodName, byte[] entity) {
-	return sendRequest(Config.Network.SERVER_HOST + methodName, entity, (List<FieldNameFileWrapper>) null,
-			(List<IOutstreamProgressListener>) null);
+	String url = Config.Network.SERVER_HOST + methodName;
+
+	try {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setUseCaches(false);
+		connection.setFixedLengthStreamingMode(entity.length);
+		connection.setRequestProperty("Content-Type", ENTITY_CONTENT_TYPE);
+
+		OutputStream outputStream = connection.getOutputStream();
+		outputStream.write(entity);
+		outputStream.close();
+
+		// Get response
+		if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+			return readFully(connection.getInputStream());
+		} else {
+			Gdx.app.error("WebGateway", "Response code: " + connection.getResponseCode() + " (" + url + ")");
+			// Read the error so the connection can be reused
+			InputStream errorStream = connection.getErrorStream();
+			if (errorStream != null) {
+				readFully(errorStream);
+			}
+		}
+	} catch (IOException e) {
+		Gdx.app.log("WebGateway", "Could not connect to server (" + url + ")");
+	}
+
+	return null;
+}
+
+/**
+ * Reads and closes a stream
+ * @param inputStream the stream to read
+ * @return all bytes of the stream
+ * @throws IOException if the stream couldn't be read
+ */
+private static byte[] readFully(InputStream inputStream) throws IOException {
+	BufferedInputStream bufferedStream = new BufferedInputStream(inputStream);
+	ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+	try {
+		int n = -1;
+		byte[] buffer = new byte[4096];
+		while ((n = bufferedStream.read(buffer)) != -1) {
+			byteArrayOutputStream.write(buffer, 0, n);
+		}
+	} finally {
+		bufferedStream.close();
+	}
+	return byteArrayOutputStream.toByteArray();
 }
 
 /**
@@ -58,27 +113,15 @@ public static byte[] sendRequest(String uploadUrl, byte[] entity, List<FieldName
 			}
 		}
 
-		// Add method entity as base64
+		// Add method entity as base64, the blobstore only forwards regular parameters
 		char[] base64 = Base64Coder.encode(entity);
 		postBuilder.addParameter(ENTITY_NAME, base64);
 
 
 		HttpURLConnection connection = postBuilder.build();
 
-		// Get response
-		BufferedInputStream bufferedResponse = new BufferedInputStream(connection.getInputStream());
-		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		int n = -1;
-		byte[] buffer = new byte[4096];
-		while ((n = bufferedResponse.read(buffer)) != -1) {
-			byteArrayOutputStream.write(buffer, 0, n);
-		}
-
-
-		connection.disconnect();
-
-		byte[] responseEntity = byteArrayOutputStream.toByteArray();
-		return responseEntity;
+		// Get response, the connection isn't disconnected so it can be reused
+		return readFully(connection.getInputStream());
 	} catch (IOException e) {
 		Gdx.app.log("WebGateway", "Could not connect to server (" + uploadUrl + ")");
 	}
@@ -170,12 +213,16 @@ public static boolean downloadRequest(String methodName, String blobKey, String
 				file.write(response, false);
 
 				response.close();
-				connection.disconnect();
 
 				success = true;
 			}
 			// Retry
 			else {
+				// Read the error so the connection can be reused
+				InputStream errorStream = connection.getErrorStream();
+				if (errorStream != null) {
+					readFully(errorStream);
+				}
 				cTries++;
 
 				if (cTries <= Config.Network.RETRIES_MAX) {
@@ -212,5 +259,11 @@ public static class FieldNameFileWrapper {
 		mFile = file;
 	}
 
+	/**
+	 * @return the file to upload
+	 */
+	File getFile() {
+		return mFile;
+	}
 }
 }
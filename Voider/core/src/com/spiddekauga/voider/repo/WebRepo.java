@@ -14,6 +14,7 @@ import com.spiddekauga.voider.network.misc.GetUploadUrlMethod;
 import com.spiddekauga.voider.network.misc.GetUploadUrlResponse;
 import com.spiddekauga.voider.network.resource.ResourceRevisionEntity;
 import com.spiddekauga.voider.network.resource.RevisionEntity;
+import com.spiddekauga.voider.repo.NetworkExecutor.Priorities;
 import com.spiddekauga.voider.repo.WebGateway.FieldNameFileWrapper;
 import com.spiddekauga.voider.repo.resource.ResourceLocalRepo;
 import com.spiddekauga.voider.repo.user.User;
@@ -23,13 +24,13 @@ import com.spiddekauga.utils.scene.ui.SceneSwitcher;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map.Entry;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
 
 /**
  * Common class for all Web Repositories
@@ -44,7 +45,9 @@ public abstract class WebRepo {
 protected static IEntity serializeAndSend(IMethodEntity methodEntity, IOutstreamProgressListener progressListener) {
 	byte[] entitySend = NetworkEntitySerializer.serializeEntity(methodEntity);
 	if (entitySend != null) {
+		long startTime = System.currentTimeMillis();
 		byte[] response = WebGateway.sendRequest(methodEntity.getMethodName().toString(), entitySend);
+		addStats(methodEntity, startTime, entitySend.length, response);
 		if (response != null) {
 			return NetworkEntitySerializer.deserializeEntity(response);
 		}
@@ -53,6 +56,19 @@ protected static IEntity serializeAndSend(IMethodEntity methodEntity, IOutstream
 	return null;
 }
 
+/**
+ * Add stats of a finished request
+ * @param method the sent method
+ * @param startTime when the request was sent
+ * @param bytesSent number of sent bytes
+ * @param response the response, null if the request failed
+ */
+private static void addStats(IMethodEntity method, long startTime, long bytesSent, byte[] response) {
+	long latency = System.currentTimeMillis() - startTime;
+	long bytesReceived = response != null ? response.length : 0;
+	WebStats.add(method.getMethodName().toString(), latency, bytesSent, bytesReceived, response != null);
+}
+
 /**
  * Send all methods that should upload files via this method
  * @param method the method that should "called" on the server when the upload is finished
@@ -83,7 +99,13 @@ protected static IEntity serializeAndSend(IMethodEntity method, IOutstreamProgre
 			}
 
 			byte[] methodBytes = NetworkEntitySerializer.serializeEntity(method);
+			long bytesSent = methodBytes.length;
+			for (FieldNameFileWrapper file : files) {
+				bytesSent += file.getFile().length();
+			}
+			long startTime = System.currentTimeMillis();
 			byte[] responseBytes = WebGateway.sendRequest(uploadUrl, methodBytes, files, progressListener);
+			addStats(method, startTime, bytesSent, responseBytes);
 			return NetworkEntitySerializer.deserializeEntity(responseBytes);
 		}
 	}
@@ -98,7 +120,12 @@ protected static IEntity serializeAndSend(IMethodEntity method, IOutstreamProgre
  * @return true if file was written successfully, false if an error occurred.
  */
 protected static boolean serializeAndDownload(BlobDownloadMethod method, String filePath) {
-	return WebGateway.downloadRequest(method.getMethodName().toString(), method.blobKey, filePath);
+	long startTime = System.currentTimeMillis();
+	boolean success = WebGateway.downloadRequest(method.getMethodName().toString(), method.blobKey, filePath);
+	long latency = System.currentTimeMillis() - startTime;
+	long bytesReceived = success ? Gdx.files.external(filePath).length() : 0;
+	WebStats.add(method.getMethodName().toString(), latency, 0, bytesReceived, success);
+	return success;
 }
 
 /**
@@ -113,11 +140,19 @@ protected static ArrayList<FieldNameFileWrapper> createFieldNameFiles(HashMap<UU
 		ResourceRevisionEntity entity = entry.getValue();
 		String resourceName = entity.resourceId.toString();
 
-		// Create files for all revisions
+		// Create files for all revisions, revisions stored as deltas are uploaded as deltas
 		for (RevisionEntity revisionEntity : entity.revisions) {
 			String filepath = Gdx.files.getExternalStoragePath();
 			filepath += ResourceLocalRepo.getRevisionFilepath(entity.resourceId, revisionEntity.revision);
 			File file = new File(filepath);
+			revisionEntity.deltaFrom = 0;
+
+			if (!file.exists()) {
+				filepath = Gdx.files.getExternalStoragePath();
+				filepath += ResourceLocalRepo.getRevisionDeltaFilepath(entity.resourceId, revisionEntity.revision);
+				file = new File(filepath);
+				revisionEntity.deltaFrom = revisionEntity.revision - 1;
+			}
 
 			if (file.exists()) {
 				files.add(new FieldNameFileWrapper(resourceName + "_" + revisionEntity.revision, file));
@@ -169,46 +204,110 @@ protected static void sendResponseToListeners(IMethodEntity methodEntity, IEntit
 }
 
 /**
- * Creates a new thread that will send and receive a HTTP request
+ * Sends and receives a HTTP request on a network thread
  * @param methodEntity the entity to send to the server
  * @param responseListeners class that invoked the WebRepo
+ * @return future response, null if something went wrong. The response has already been handled
+ *         when the future is done.
  */
-protected void sendInNewThread(IMethodEntity methodEntity, IResponseListener... responseListeners) {
-	sendInNewThread(methodEntity, null, null, responseListeners);
+protected Future<IEntity> sendInNewThread(IMethodEntity methodEntity, IResponseListener... responseListeners) {
+	return sendInNewThread(methodEntity, null, null, responseListeners);
 }
 
 /**
- * Creates a new thread that will send and receive a HTTP request
+ * Sends and receives a HTTP request on a network thread
  * @param methodEntity the entity to send to the server
- * @param files all the files to upload * @param progressListener send upload progress to this
- * listener
+ * @param files all the files to upload
  * @param progressListener send upload progress to this listener
  * @param responseListeners class that invoked the WebRepo
+ * @return future response, null if something went wrong. The response has already been handled
+ *         when the future is done.
+ */
+protected Future<IEntity> sendInNewThread(IMethodEntity methodEntity, ArrayList<FieldNameFileWrapper> files, IProgressListener progressListener,
+										  IResponseListener... responseListeners) {
+	// Add to the batch that is being created on this thread
+	WebBatch batch = WebBatch.getCurrent();
+	if (batch != null) {
+		if ((files == null || files.isEmpty()) && WebBatch.isBatchable(methodEntity)) {
+			return batch.add(this, methodEntity, responseListeners);
+		}
+	}
+
+	SendTask task = new SendTask(responseListeners, this, methodEntity, files, progressListener);
+	Future<IEntity> future = NetworkExecutor.getInstance().submit(task, getPriority(methodEntity));
+
+	if (batch != null) {
+		batch.addSeparateRequest(future);
+	}
+
+	return future;
+}
+
+/**
+ * Creates a task that handles a response that is received later, e.g. in a batch
+ * @param methodEntity the method that is sent
+ * @param responseListeners class that invoked the WebRepo
+ * @return task that handles the response, set the response through {@link
+ *         ResponseTask#setResponse(IEntity)} and then run its future
  */
-protected void sendInNewThread(IMethodEntity methodEntity, ArrayList<FieldNameFileWrapper> files, IProgressListener progressListener,
-							   IResponseListener... responseListeners) {
-	Thread thread = new ThreadSend(responseListeners, this, methodEntity, files, progressListener);
-	thread.start();
+ResponseTask createResponseTask(IMethodEntity methodEntity, IResponseListener[] responseListeners) {
+	SendTask sendTask = new SendTask(responseListeners, this, methodEntity, null, null);
+	sendTask.mSent = true;
+	return new ResponseTask(sendTask, new FutureTask<>(sendTask));
 }
 
 /**
- * Creates a new thread that will send and receive a HTTP request
+ * Get the priority of a method. Requests the user waits for are sent before regular requests and
+ * background synchronization is sent last.
+ * @param methodEntity the method to send
+ * @return priority of the method
+ */
+static Priorities getPriority(IMethodEntity methodEntity) {
+	switch (methodEntity.getMethodName()) {
+	case LOGIN:
+	case LOGOUT:
+	case REGISTER_USER:
+	case PASSWORD_RESET:
+	case PASSWORD_RESET_SEND_TOKEN:
+	case ACCOUNT_CHANGE:
+	case BUG_REPORT:
+		return Priorities.HIGH;
+
+	case ANALYTICS:
+	case BACKUP_NEW_BLOBS:
+	case DOWNLOAD_SYNC:
+	case HIGHSCORE_SYNC:
+	case STAT_SYNC:
+	case USER_RESOURCE_SYNC:
+		return Priorities.LOW;
+
+	default:
+		return Priorities.NORMAL;
+	}
+}
+
+/**
+ * Sends and receives a HTTP request on a network thread
  * @param methodEntity the entity to send to the server
  * @param progressListener send upload progress to this listener
  * @param responseListeners class that invoked the WebRepo
+ * @return future response, null if something went wrong. The response has already been handled
+ *         when the future is done.
  */
-protected void sendInNewThread(IMethodEntity methodEntity, IProgressListener progressListener, IResponseListener... responseListeners) {
-	sendInNewThread(methodEntity, null, progressListener, responseListeners);
+protected Future<IEntity> sendInNewThread(IMethodEntity methodEntity, IProgressListener progressListener, IResponseListener... responseListeners) {
+	return sendInNewThread(methodEntity, null, progressListener, responseListeners);
 }
 
 /**
- * Creates a new thread that will send and receive a HTTP request
+ * Sends and receives a HTTP request on a network thread
  * @param methodEntity the entity to send to the server
  * @param files all the files to upload
  * @param responseListeners class that invoked the WebRepo
+ * @return future response, null if something went wrong. The response has already been handled
+ *         when the future is done.
  */
-protected void sendInNewThread(IMethodEntity methodEntity, ArrayList<FieldNameFileWrapper> files, IResponseListener... responseListeners) {
-	sendInNewThread(methodEntity, files, null, responseListeners);
+protected Future<IEntity> sendInNewThread(IMethodEntity methodEntity, ArrayList<FieldNameFileWrapper> files, IResponseListener... responseListeners) {
+	return sendInNewThread(methodEntity, files, null, responseListeners);
 }
 
 /**
@@ -220,121 +319,123 @@ protected void sendInNewThread(IMethodEntity methodEntity, ArrayList<FieldNameFi
 protected abstract void handleResponse(IMethodEntity methodEntity, IEntity response, IResponseListener[] responseListeners);
 
 /**
- * Download blobs in new threads
+ * Start the parts of handling a response that don't depend on other responses, e.g. downloading
+ * blobs. Called for batched responses before any response in the batch is handled, so that this
+ * work overlaps with handling the other responses.
+ * {@link #handleResponse(IMethodEntity, IEntity, IResponseListener[])} is then called in order and
+ * shall wait for the started work.
+ * @param methodEntity the method that was called
+ * @param response the response from the server, null if the method failed
+ */
+protected void prepareResponse(IMethodEntity methodEntity, IEntity response) {
+	// Does nothing
+}
+
+/**
+ * Start downloading blobs on the download threads
  * @param blobs all blobs to download
- * @param progressListener download progress listener
+ * @return downloads to wait for with {@link #waitForDownloads(ArrayList, IDownloadProgressListener)}
  */
-protected void downloadInThreads(ArrayList<? extends DownloadBlobWrapper> blobs, IDownloadProgressListener progressListener) {
-	if (progressListener != null) {
-		progressListener.handleFileDownloaded(0, blobs.size());
+protected ArrayList<Future<Boolean>> startDownloads(ArrayList<? extends DownloadBlobWrapper> blobs) {
+	ArrayList<Future<Boolean>> downloads = new ArrayList<>();
+	for (final DownloadBlobWrapper blob : blobs) {
+		downloads.add(NetworkExecutor.getInstance().submitDownload(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				boolean success = false;
+				try {
+					success = serializeAndDownload(blob.mMethod, blob.mFilepath);
+				} finally {
+					blob.setDownloaded(success);
+				}
+				return success;
+			}
+		}));
 	}
 
-	LinkedList<DownloadBlobWrapper> blobsLeft = new LinkedList<>();
-	blobsLeft.addAll(blobs);
-	ThreadDownload.addBlobsToDownload(blobs);
-	ThreadDownload.createThreads();
+	return downloads;
+}
 
-	// Wait to return until all blobs have been downloaded or failed
-	while (!blobsLeft.isEmpty()) {
-		try {
-			Thread.sleep(20);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
+/**
+ * Blocks until all downloads have been downloaded or failed
+ * @param downloads downloads started by {@link #startDownloads(ArrayList)}
+ * @param progressListener download progress listener
+ */
+protected void waitForDownloads(ArrayList<Future<Boolean>> downloads, IDownloadProgressListener progressListener) {
+	if (progressListener != null) {
+		progressListener.handleFileDownloaded(0, downloads.size());
+	}
 
-		boolean removedSome = false;
-		Iterator<DownloadBlobWrapper> it = blobsLeft.iterator();
-		while (it.hasNext()) {
-			DownloadBlobWrapper entity = it.next();
-			if (!entity.isDownloading()) {
-				it.remove();
-				removedSome = true;
+	boolean interrupted = false;
+	for (int i = 0; i < downloads.size(); ++i) {
+		Future<Boolean> download = downloads.get(i);
+		while (!download.isDone()) {
+			try {
+				download.get();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				e.printStackTrace();
 			}
 		}
 
-		if (removedSome && progressListener != null) {
-			progressListener.handleFileDownloaded(blobs.size() - blobsLeft.size(), blobs.size());
+		if (progressListener != null) {
+			progressListener.handleFileDownloaded(i + 1, downloads.size());
 		}
 	}
+
+	if (interrupted) {
+		Thread.currentThread().interrupt();
+	}
 }
 
 /**
- * Wrapper thread for downloading blobs from the server
+ * Sends information to the server (including uploads) and handles the response
  */
-private static class ThreadDownload extends Thread {
-	static BlockingQueue<DownloadBlobWrapper> mToDownload = new LinkedBlockingQueue<DownloadBlobWrapper>();
-	static BlockingQueue<ThreadDownload> mThreads = new LinkedBlockingQueue<ThreadDownload>();
-
-	/**
-	 * Creates new threads if necessary
-	 */
-	static void createThreads() {
-		int threadsToCreate = mToDownload.size();
-
-		if (threadsToCreate > Config.Network.CONNECTIONS_MAX) {
-			threadsToCreate = Config.Network.CONNECTIONS_MAX;
-		}
-
-		threadsToCreate -= mThreads.size();
-
-
-		for (int i = 0; i < threadsToCreate; i++) {
-			new ThreadDownload().start();
-		}
-	}
+private static class SendTask implements Callable<IEntity> {
+	private IMethodEntity mMethodEntity;
+	private ArrayList<FieldNameFileWrapper> mFiles;
+	private WebRepo mWebRepo;
+	private IResponseListener[] mResponseListeners;
+	private IProgressListener mProgressListener;
+	/** True if the method has already been sent, only the response is handled */
+	private boolean mSent = false;
+	/** Response of an already sent method */
+	private IEntity mResponse = null;
 
 	/**
-	 * Add all blobs to download
-	 * @param blobs all blobs to download
+	 * Constructs a send task
+	 * @param responseListeners class that invoked the WebRepo
+	 * @param webRepo the web repository to send the response to
+	 * @param methodEntity the method to send
+	 * @param files all the files to send, set to null to not send any files
+	 * @param progressListener send upload progress to this listener
 	 */
-	public static void addBlobsToDownload(List<? extends DownloadBlobWrapper> blobs) {
-		for (DownloadBlobWrapper downloadBlobWrapper : blobs) {
-			try {
-				mToDownload.put(downloadBlobWrapper);
-			} catch (InterruptedException e) {
-				// Do nothing
-			}
-		}
+	SendTask(IResponseListener[] responseListeners, WebRepo webRepo, IMethodEntity methodEntity, ArrayList<FieldNameFileWrapper> files,
+			 IProgressListener progressListener) {
+		mMethodEntity = methodEntity;
+		mWebRepo = webRepo;
+		mResponseListeners = responseListeners;
+		mFiles = files;
+		mProgressListener = progressListener;
 	}
 
 	@Override
-	public void run() {
-		while (!mToDownload.isEmpty()) {
-			try {
-				DownloadBlobWrapper toDownload = mToDownload.take();
-
-				boolean success = serializeAndDownload(toDownload.mMethod, toDownload.mFilepath);
-				toDownload.setDownloaded(success);
-
-			} catch (IndexOutOfBoundsException | InterruptedException e) {
-				// Do nothing
-			}
-		}
-	}
-}
-
-/*
-*
- * Wrapper class for sending information to the server (including uploads)
- */
-private static class ThreadSend extends Thread {
-	IMethodEntity mMethodEntity;
-	ArrayList<FieldNameFileWrapper> mFiles;
-	WebRepo mWebRepo;
-	IResponseListener[] mResponseListeners;	@Override
-	public void run() {
+	public IEntity call() {
+		IEntity response = mResponse;
 		try {
-			IEntity response = null;
-
 			IOutstreamProgressListener progressListener = null;
 			if (mProgressListener instanceof IOutstreamProgressListener) {
 				progressListener = (IOutstreamProgressListener) mProgressListener;
 			}
 
-			if (mFiles == null || mFiles.isEmpty()) {
-				response = serializeAndSend(mMethodEntity, progressListener);
-			} else {
-				response = serializeAndSend(mMethodEntity, progressListener, mFiles);
+			// Send, already sent methods only handle the response
+			if (!mSent) {
+				if (mFiles == null || mFiles.isEmpty()) {
+					response = serializeAndSend(mMethodEntity, progressListener);
+				} else {
+					response = serializeAndSend(mMethodEntity, progressListener, mFiles);
+				}
 			}
 
 			mWebRepo.handleResponse(mMethodEntity, response, mResponseListeners);
@@ -342,31 +443,55 @@ private static class ThreadSend extends Thread {
 			if (!(mMethodEntity instanceof BugReportMethod) && User.getGlobalUser().isLoggedIn()) {
 				SceneSwitcher.handleException(e);
 			} else {
-				throw e;
+				// The executor would swallow the exception, report it as an uncaught exception
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
 			}
 		}
+		return response;
 	}
-	IProgressListener mProgressListener;
+}
+
+/**
+ * Handles the response of a method that has been sent in a batch
+ */
+static class ResponseTask {
+	private SendTask mSendTask;
+	private RunnableFuture<IEntity> mFuture;
+
 	/**
-	 * Constructs a web thread
-	 * @param responseListeners class that invoked the WebRepeo
-	 * @param webRepo the web repository to send the response to
-	 * @param methodEntity the method to send
-	 * @param files all the files to send, set to null to not send any files
-	 * @param progressListener send upload progress to this listener
+	 * @param sendTask task that handles the response
+	 * @param future runs the send task
 	 */
-	ThreadSend(IResponseListener[] responseListeners, WebRepo webRepo, IMethodEntity methodEntity, ArrayList<FieldNameFileWrapper> files,
-			   IProgressListener progressListener) {
-		mMethodEntity = methodEntity;
-		mWebRepo = webRepo;
-		mResponseListeners = responseListeners;
-		mFiles = files;
-		mProgressListener = progressListener;
+	private ResponseTask(SendTask sendTask, RunnableFuture<IEntity> future) {
+		mSendTask = sendTask;
+		mFuture = future;
 	}
 
+	/**
+	 * Set the response to handle and start the parts of handling it that don't depend on other
+	 * responses, see {@link WebRepo#prepareResponse(IMethodEntity, IEntity)}. Call before the task
+	 * is run
+	 * @param response response from the server, null if the method failed
+	 */
+	void setResponse(IEntity response) {
+		mSendTask.mResponse = response;
+		mSendTask.mWebRepo.prepareResponse(mSendTask.mMethodEntity, response);
+	}
 
+	/**
+	 * @return the method that was sent
+	 */
+	IMethodEntity getMethod() {
+		return mSendTask.mMethodEntity;
+	}
 
-
+	/**
+	 * @return future that is done when the response has been handled
+	 */
+	RunnableFuture<IEntity> getFuture() {
+		return mFuture;
+	}
 }
 
 /**
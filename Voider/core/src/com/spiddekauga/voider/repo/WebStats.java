@@ -0,0 +1,118 @@
+package com.spiddekauga.voider.repo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Latency and transferred bytes of each server endpoint since the game was started
+ */
+public class WebStats {
+private static HashMap<String, EndpointStats> mEndpoints = new HashMap<>();
+
+/**
+ * Private constructor to enforce static usage
+ */
+private WebStats() {
+	// Does nothing
+}
+
+/**
+ * Add a finished request
+ * @param endpoint name of the server method
+ * @param latency time from sending the request until the whole response was received, in
+ *        milliseconds
+ * @param bytesSent number of sent bytes, including uploaded files
+ * @param bytesReceived number of received bytes
+ * @param success false if the request failed
+ */
+static synchronized void add(String endpoint, long latency, long bytesSent, long bytesReceived, boolean success) {
+	EndpointStats stats = mEndpoints.get(endpoint);
+	if (stats == null) {
+		stats = new EndpointStats(endpoint);
+		mEndpoints.put(endpoint, stats);
+	}
+
+	stats.requestCount++;
+	if (!success) {
+		stats.failedCount++;
+	}
+	stats.latencyTotal += latency;
+	stats.latencyMax = Math.max(stats.latencyMax, latency);
+	stats.bytesSent += bytesSent;
+	stats.bytesReceived += bytesReceived;
+}
+
+/**
+ * @param endpoint name of the server method
+ * @return copy of the stats for the endpoint, null if no request has been sent to it
+ */
+public static synchronized EndpointStats get(String endpoint) {
+	EndpointStats stats = mEndpoints.get(endpoint);
+	return stats != null ? stats.copy() : null;
+}
+
+/**
+ * @return copy of the stats for all endpoints that requests have been sent to
+ */
+public static synchronized ArrayList<EndpointStats> getAll() {
+	ArrayList<EndpointStats> all = new ArrayList<>();
+	for (EndpointStats stats : mEndpoints.values()) {
+		all.add(stats.copy());
+	}
+	return all;
+}
+
+/**
+ * Stats of one endpoint
+ */
+public static class EndpointStats {
+	/** Name of the server method */
+	public final String endpoint;
+	/** Number of requests */
+	public int requestCount = 0;
+	/** Number of requests that failed */
+	public int failedCount = 0;
+	/** Total latency of all requests in milliseconds */
+	public long latencyTotal = 0;
+	/** Longest latency in milliseconds */
+	public long latencyMax = 0;
+	/** Total number of sent bytes */
+	public long bytesSent = 0;
+	/** Total number of received bytes */
+	public long bytesReceived = 0;
+
+	/**
+	 * @param endpoint name of the server method
+	 */
+	private EndpointStats(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * @return average latency in milliseconds
+	 */
+	public long getLatencyAverage() {
+		return requestCount > 0 ? latencyTotal / requestCount : 0;
+	}
+
+	/**
+	 * @return copy of these stats
+	 */
+	private EndpointStats copy() {
+		EndpointStats copy = new EndpointStats(endpoint);
+		copy.requestCount = requestCount;
+		copy.failedCount = failedCount;
+		copy.latencyTotal = latencyTotal;
+		copy.latencyMax = latencyMax;
+		copy.bytesSent = bytesSent;
+		copy.bytesReceived = bytesReceived;
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		return endpoint + ": " + requestCount + " requests (" + failedCount + " failed), " + getLatencyAverage() + " ms avg, " + latencyMax
+				+ " ms max, " + bytesSent + " B sent, " + bytesReceived + " B received";
+	}
+}
+}
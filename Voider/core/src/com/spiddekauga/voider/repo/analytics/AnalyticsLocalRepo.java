@@ -230,6 +230,7 @@ void endSession() {
 	}
 
 	if (mSessionId != null) {
+		mSqliteGateway.flushEvents();
 		mSqliteGateway.endSession(mSessionId, new Date(), getScreenSize());
 	}
 	mSessionIdPrev = mSessionId;
@@ -242,6 +243,7 @@ void endSession() {
 void endScene() {
 	if (mSceneId != null) {
 		mSqliteGateway.endScene(mSceneId, new Date());
+		mSqliteGateway.scheduleFlush();
 	} else {
 		Gdx.app.error("AnalyticsLocalRepo", "Scene id was null when trying to end it");
 	}
@@ -2,6 +2,7 @@ package com.spiddekauga.voider.repo.analytics;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.sql.DatabaseCursor;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.spiddekauga.voider.network.analytics.AnalyticsEventEntity;
 import com.spiddekauga.voider.network.analytics.AnalyticsEventTypes;
 import com.spiddekauga.voider.network.analytics.AnalyticsSceneEntity;
@@ -14,11 +15,39 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * SQLite gateway for analytics.
  */
 class AnalyticsSqliteGateway extends SqliteGateway {
+/** Number of pending events before they are written to the database */
+private static final int EVENT_FLUSH_COUNT = 25;
+/** Writes pending events in the background */
+private final ExecutorService mFlushExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "AnalyticsFlush");
+		thread.setDaemon(true);
+		return thread;
+	}
+});
+/** Writes pending events, see {@link #flushEvents()} */
+private final Runnable mFlushTask = new Runnable() {
+	@Override
+	public void run() {
+		flushEvents();
+	}
+};
+/** Held while pending events are written so readers don't miss events that are being written */
+private final Object mFlushLock = new Object();
+/** Events that haven't been written to the database yet, as row values */
+private ArrayList<String> mPendingEvents = new ArrayList<>();
+/** If a background flush has been scheduled */
+private boolean mFlushScheduled = false;
+
 /**
  * Default constructor
  */
@@ -90,7 +119,8 @@ void endScene(UUID sceneId, Date endTime) {
 }
 
 /**
- * Add a new event to the specified scene
+ * Add a new event to the specified scene. The event is queued and written together with other
+ * events in the background, call {@link #flushEvents()} to write it directly.
  * @param sceneId id of the scene to add this event to
  * @param time when this event was created
  * @param name name of the event
@@ -99,13 +129,70 @@ void endScene(UUID sceneId, Date endTime) {
  */
 void addEvent(UUID sceneId, Date time, String name, AnalyticsEventTypes type, String data) {
 	// @formatter:off
-		execSQL("INSERT INTO analytics_event VALUES ('" +
+		String row = "('" +
 				sceneId + "', " +
 				time.getTime() + ", '" +
 				name + "', '" +
 				data + "', " +
-				type.toId() +");");
+				type.toId() + ")";
 		// @formatter:on
+
+	synchronized (this) {
+		mPendingEvents.add(row);
+		if (mPendingEvents.size() >= EVENT_FLUSH_COUNT) {
+			scheduleFlush();
+		}
+	}
+}
+
+/**
+ * Write all pending events in the background
+ */
+synchronized void scheduleFlush() {
+	if (!mFlushScheduled && !mPendingEvents.isEmpty() && !mFlushExecutor.isShutdown()) {
+		mFlushScheduled = true;
+		mFlushExecutor.execute(mFlushTask);
+	}
+}
+
+/**
+ * Write all pending events to the database in one transaction. If the transaction fails the events
+ * are kept and written the next time. Can be called from any thread
+ */
+void flushEvents() {
+	synchronized (mFlushLock) {
+		ArrayList<String> events;
+		synchronized (this) {
+			mFlushScheduled = false;
+			if (mPendingEvents.isEmpty()) {
+				return;
+			}
+			events = mPendingEvents;
+			mPendingEvents = new ArrayList<>();
+		}
+
+		try {
+			execInsertRows("INSERT INTO analytics_event (scene_id, time, name, data, type) VALUES", events);
+		} catch (GdxRuntimeException e) {
+			Gdx.app.error("AnalyticsSqliteGateway", "Failed to write events, retrying later");
+			synchronized (this) {
+				events.addAll(mPendingEvents);
+				mPendingEvents = events;
+			}
+		}
+	}
+}
+
+@Override
+protected void disconnect() {
+	flushEvents();
+	super.disconnect();
+}
+
+@Override
+public void dispose() {
+	mFlushExecutor.shutdown();
+	super.dispose();
 }
 
 /**
@@ -113,17 +200,30 @@ void addEvent(UUID sceneId, Date time, String name, AnalyticsEventTypes type, St
  * @param sessions all session, scenes and events to remove
  */
 void removeAnalytics(ArrayList<AnalyticsSessionEntity> sessions) {
-	for (AnalyticsSessionEntity session : sessions) {
-		// Delete sessions
-		execSQL("DELETE FROM analytics_session WHERE session_id='" + session.sessionId + "';");
-
-		// Delete scenes
-		execSQL("DELETE FROM analytics_scene WHERE session_id='" + session.sessionId + "';");
-
-		// Delete events
-		for (AnalyticsSceneEntity scene : session.scenes) {
-			execSQL("DELETE FROM analytics_event WHERE scene_id='" + scene.sceneId + "';");
+	flushEvents();
+
+	// Everything is rolled back if a statement fails, the analytics are then synced again later
+	try {
+		beginTransaction();
+		try {
+			for (AnalyticsSessionEntity session : sessions) {
+				// Delete sessions
+				execSQL("DELETE FROM analytics_session WHERE session_id='" + session.sessionId + "';");
+
+				// Delete scenes
+				execSQL("DELETE FROM analytics_scene WHERE session_id='" + session.sessionId + "';");
+
+				// Delete events
+				for (AnalyticsSceneEntity scene : session.scenes) {
+					execSQL("DELETE FROM analytics_event WHERE scene_id='" + scene.sceneId + "';");
+				}
+			}
+			setTransactionSuccessful();
+		} finally {
+			endTransaction();
 		}
+	} catch (GdxRuntimeException e) {
+		Gdx.app.error("AnalyticsSqliteGateway", "Failed to remove synced analytics");
 	}
 }
 
@@ -146,6 +246,8 @@ boolean isAnalyticsExists(UUID skipSession) {
  * information should be added elsewhere.
  */
 ArrayList<AnalyticsSessionEntity> getAnalytics() {
+	flushEvents();
+
 	// Set sessions
 	ArrayList<AnalyticsSessionEntity> exportSessions = new ArrayList<>();
 	HashMap<UUID, AnalyticsSessionEntity> sessions = getSessions();
@@ -0,0 +1,183 @@
+package com.spiddekauga.voider.repo.resource;
+
+import com.spiddekauga.voider.resources.IResource;
+import com.spiddekauga.voider.resources.IResourceDependency;
+import com.spiddekauga.voider.resources.IResourceRevision;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * All external and internal dependencies of a resource, including the dependencies of its
+ * dependencies. Makes it possible to load all dependencies at once instead of waiting for each
+ * dependency to be loaded before its dependencies are known. Only used as a hint, the manifest can be
+ * incomplete if a dependency wasn't loaded and didn't have a manifest when it was created.
+ */
+class DependencyManifest {
+/** Format version of the serialized manifest */
+private static final int VERSION = 1;
+/** Revision of the resource the manifest was created for, -1 if it doesn't have revisions */
+private int mRevision;
+/** All external dependencies, in the order they were found */
+private Set<UUID> mExternalDependencies = new LinkedHashSet<>();
+/** All internal dependencies, in the order they were found */
+private Set<InternalNames> mInternalDependencies = new LinkedHashSet<>();
+
+/**
+ * @param revision revision of the resource the manifest is for, -1 if it doesn't have revisions
+ */
+private DependencyManifest(int revision) {
+	mRevision = revision;
+}
+
+/**
+ * Creates the manifest of a resource. Loaded dependencies are walked directly, other dependencies
+ * use their stored manifest.
+ * @param resource the resource to create the manifest for
+ * @return manifest of the resource
+ */
+static DependencyManifest create(IResourceDependency resource) {
+	int revision = -1;
+	if (resource instanceof IResourceRevision) {
+		revision = ((IResourceRevision) resource).getRevision();
+	}
+
+	DependencyManifest manifest = new DependencyManifest(revision);
+	manifest.addDependencies(resource);
+	return manifest;
+}
+
+/**
+ * Add all dependencies of a resource and their dependencies
+ * @param resource the resource to add the dependencies of
+ */
+private void addDependencies(IResourceDependency resource) {
+	mInternalDependencies.addAll(resource.getInternalDependencies());
+
+	for (UUID dependencyId : resource.getExternalDependencies().keySet()) {
+		// Already added, also stops cyclic dependencies
+		if (!mExternalDependencies.add(dependencyId)) {
+			continue;
+		}
+
+		IResource dependency = ResourceCacheFacade.get(dependencyId);
+		if (dependency instanceof IResourceDependency) {
+			addDependencies((IResourceDependency) dependency);
+		} else if (dependency == null) {
+			DependencyManifest dependencyManifest = ResourceLocalRepo.getDependencyManifest(dependencyId);
+			if (dependencyManifest != null) {
+				mExternalDependencies.addAll(dependencyManifest.mExternalDependencies);
+				mInternalDependencies.addAll(dependencyManifest.mInternalDependencies);
+			}
+		}
+	}
+}
+
+/**
+ * @param revision the revision to load, -1 for the latest revision
+ * @return true if the manifest can be used when loading the revision
+ */
+boolean isValidFor(int revision) {
+	return revision == -1 || revision == mRevision;
+}
+
+/**
+ * @return all external dependencies
+ */
+Set<UUID> getExternalDependencies() {
+	return mExternalDependencies;
+}
+
+/**
+ * @return all internal dependencies
+ */
+Set<InternalNames> getInternalDependencies() {
+	return mInternalDependencies;
+}
+
+/**
+ * @return serialized manifest
+ */
+byte[] toBytes() {
+	ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+	DataOutputStream output = new DataOutputStream(byteStream);
+	try {
+		output.writeInt(VERSION);
+		output.writeInt(mRevision);
+
+		output.writeInt(mExternalDependencies.size());
+		for (UUID dependencyId : mExternalDependencies) {
+			output.writeLong(dependencyId.getMostSignificantBits());
+			output.writeLong(dependencyId.getLeastSignificantBits());
+		}
+
+		// Stored by name so the manifest is still valid when internal names are added
+		output.writeInt(mInternalDependencies.size());
+		for (InternalNames dependency : mInternalDependencies) {
+			output.writeUTF(dependency.name());
+		}
+		output.close();
+	} catch (IOException e) {
+		// Can't happen when writing to a byte array
+		throw new IllegalStateException(e);
+	}
+
+	return byteStream.toByteArray();
+}
+
+/**
+ * @param bytes serialized manifest
+ * @return deserialized manifest, null if the bytes aren't a valid manifest
+ */
+static DependencyManifest fromBytes(byte[] bytes) {
+	DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+	try {
+		if (input.readInt() != VERSION) {
+			return null;
+		}
+
+		DependencyManifest manifest = new DependencyManifest(input.readInt());
+
+		int externalCount = input.readInt();
+		for (int i = 0; i < externalCount; ++i) {
+			manifest.mExternalDependencies.add(new UUID(input.readLong(), input.readLong()));
+		}
+
+		int internalCount = input.readInt();
+		for (int i = 0; i < internalCount; ++i) {
+			manifest.mInternalDependencies.add(InternalNames.valueOf(input.readUTF()));
+		}
+
+		return manifest;
+	} catch (IOException | IllegalArgumentException e) {
+		return null;
+	}
+}
+
+@Override
+public boolean equals(Object object) {
+	if (this == object) {
+		return true;
+	} else if (object == null || getClass() != object.getClass()) {
+		return false;
+	}
+
+	DependencyManifest other = (DependencyManifest) object;
+	return mRevision == other.mRevision && mExternalDependencies.equals(other.mExternalDependencies)
+			&& mInternalDependencies.equals(other.mInternalDependencies);
+}
+
+@Override
+public int hashCode() {
+	int result = mRevision;
+	result = 31 * result + mExternalDependencies.hashCode();
+	result = 31 * result + mInternalDependencies.hashCode();
+	return result;
+}
+}
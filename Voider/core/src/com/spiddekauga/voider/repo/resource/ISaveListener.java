@@ -0,0 +1,15 @@
+package com.spiddekauga.voider.repo.resource;
+
+import com.spiddekauga.voider.resources.IResource;
+
+/**
+ * Listens to when a saved resource has been written
+ */
+public interface ISaveListener {
+/**
+ * Called on the main thread when the resource has been written
+ * @param resource the saved resource
+ * @param success true if the resource was saved
+ */
+void onSaved(IResource resource, boolean success);
+}
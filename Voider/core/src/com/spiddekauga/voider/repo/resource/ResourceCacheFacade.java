@@ -60,6 +60,8 @@ private ResourceCacheFacade() {
  * these will also be loaded.
  */
 public static void loadAllOf(Scene scene, ExternalTypes type, boolean loadDependencies) {
+	ResourceLocalRepo.finishSaving();
+
 	// Get all resources of this type
 	ArrayList<UUID> resources = ResourceLocalRepo.getAll(type);
 
@@ -129,8 +131,11 @@ public static void load(Scene scene, UUID resourceId, UUID defId, int revision)
  * @param revision loads the specific revision of the resource
  */
 public static void load(Scene scene, UUID resourceId, boolean loadDependencies, int revision) {
+	// Saved resources have to be written before they can be loaded
+	ResourceLocalRepo.finishSaving();
+
 	if (loadDependencies) {
-		mDependencyLoader.load(scene, resourceId, revision);
+		mDependencyLoader.loadWithManifest(scene, resourceId, revision);
 	} else {
 		mExternalLoader.load(scene, resourceId, revision);
 	}
@@ -153,6 +158,7 @@ public static void load(Scene scene, UUID resourceId, boolean loadDependencies)
  * @param oldRevision old revision that the resource was loaded into
  */
 public static void setLatestResource(Resource resource, int oldRevision) {
+	ResourceLocalRepo.finishSaving();
 	mExternalLoader.setLatestResource(resource, oldRevision);
 }
 
@@ -190,6 +196,7 @@ public static void reload(InternalNames resource) {
  * @param resourceId id of the resource to reload
  */
 public static void reload(UUID resourceId) {
+	ResourceLocalRepo.finishSaving();
 	mExternalLoader.reload(resourceId);
 }
 
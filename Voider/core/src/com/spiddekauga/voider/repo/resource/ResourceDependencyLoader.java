@@ -11,13 +11,16 @@ import com.spiddekauga.voider.resources.ResourceException;
 import com.spiddekauga.voider.resources.ResourceItem;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Makes sure that all dependencies to the specified resource is loaded and unloaded.
+ * Makes sure that all dependencies to the specified resource is loaded and unloaded. Resources loaded
+ * through {@link #loadWithManifest(Scene, UUID, int)} load all dependencies in their dependency
+ * manifest directly instead of waiting for each definition to be loaded.
  */
 class ResourceDependencyLoader implements Disposable {
 /** The load queue which we're loading the resources */
@@ -26,6 +29,8 @@ private ArrayList<ResourceItem> mLoadingDefs = new ArrayList<ResourceItem>();
 private ResourceExternalLoader mExternalLoader;
 /** Loads all internal resources */
 private ResourceInternalLoader mInternalLoader;
+/** Stored manifest (can be null) of resources which manifest is updated when everything is loaded */
+private HashMap<UUID, DependencyManifest> mManifestResources = new HashMap<>();
 
 /**
  * Default constructor
@@ -47,6 +52,7 @@ ResourceExternalLoader getExternalLoader() {
 @Override
 public void dispose() {
 	mLoadingDefs.clear();
+	mManifestResources.clear();
 }
 
 /**
@@ -73,7 +79,7 @@ synchronized boolean update() {
 	// Skip update if we aren't waiting for any definitions to be done loading
 	// I.e. not loading anything
 	if (mLoadingDefs.size() == 0) {
-		return mLoadingDefs.size() == 0 && !mExternalLoader.isLoading();
+		return checkFinished();
 	}
 
 	// If any of the resources we're waiting for been loaded ->
@@ -114,7 +120,36 @@ synchronized boolean update() {
 		}
 	}
 
-	return mLoadingDefs.size() == 0 && !mExternalLoader.isLoading();
+	return checkFinished();
+}
+
+/**
+ * Checks if everything has been loaded, updates the dependency manifests when it has
+ * @return true if it has finished all the loading
+ */
+private boolean checkFinished() {
+	boolean finished = mLoadingDefs.size() == 0 && !mExternalLoader.isLoading();
+	if (finished && !mManifestResources.isEmpty()) {
+		updateManifests();
+	}
+	return finished;
+}
+
+/**
+ * Create the dependency manifests of all loaded resources again and store those that have changed
+ */
+private void updateManifests() {
+	for (Map.Entry<UUID, DependencyManifest> entry : mManifestResources.entrySet()) {
+		IResource resource = mExternalLoader.getResource(entry.getKey());
+
+		if (resource instanceof IResourceDependency) {
+			DependencyManifest manifest = DependencyManifest.create((IResourceDependency) resource);
+			if (!manifest.equals(entry.getValue())) {
+				ResourceLocalRepo.setDependencyManifest(entry.getKey(), manifest);
+			}
+		}
+	}
+	mManifestResources.clear();
 }
 
 /**
@@ -144,6 +179,37 @@ synchronized <ResourceType> void load(Scene scene, UUID resourceId, int revision
 	mLoadingDefs.add(new ResourceItem(scene, resourceId, revision));
 }
 
+/**
+ * Loads the definition including all its dependencies. All dependencies in the definition's
+ * dependency manifest are loaded directly. The dependencies of each definition are still checked
+ * when it has been loaded, so an outdated manifest never causes a dependency to be skipped.
+ * @param scene the scene to load this resource into
+ * @param resourceId the id of the resource which we want to load, including its dependencies
+ * @param revision the revision of the resource, -1 to use latest revision
+ */
+synchronized void loadWithManifest(Scene scene, UUID resourceId, int revision) {
+	load(scene, resourceId, revision);
+
+	DependencyManifest manifest = ResourceLocalRepo.getDependencyManifest(resourceId);
+	if (manifest != null && manifest.isValidFor(revision)) {
+		for (UUID dependencyId : manifest.getExternalDependencies()) {
+			// Dependency could have been removed since the manifest was created
+			if (ResourceLocalRepo.exists(dependencyId)) {
+				mExternalLoader.load(scene, dependencyId, UserResourceIdentifier.LATEST_REVISION);
+			}
+		}
+
+		for (InternalNames dependency : manifest.getInternalDependencies()) {
+			mInternalLoader.load(scene, dependency);
+		}
+	}
+
+	// Manifests are only stored for the latest revision
+	if (revision == UserResourceIdentifier.LATEST_REVISION) {
+		mManifestResources.put(resourceId, manifest);
+	}
+}
+
 /**
  * Internal logging
  * @param message
@@ -3,7 +3,6 @@ package com.spiddekauga.voider.repo.resource;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
-import com.badlogic.gdx.assets.loaders.resolvers.ExternalFileHandleResolver;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.spiddekauga.utils.Exceptions;
 import com.spiddekauga.utils.scene.ui.NotificationShower;
@@ -95,7 +94,7 @@ private IResponseListener mRedownloadListener = new IResponseListener() {
 ResourceExternalLoader(AssetManager assetManager) {
 	super(assetManager);
 
-	FileHandleResolver externalFileHandleResolver = new ExternalFileHandleResolver();
+	FileHandleResolver externalFileHandleResolver = new RevisionFileHandleResolver();
 	mAssetManager.setLoader(BulletActorDef.class, new KryoLoaderAsync<>(externalFileHandleResolver, BulletActorDef.class));
 	mAssetManager.setLoader(EnemyActorDef.class, new KryoLoaderAsync<>(externalFileHandleResolver, EnemyActorDef.class));
 	mAssetManager.setLoader(PickupActorDef.class, new KryoLoaderAsync<>(externalFileHandleResolver, PickupActorDef.class));
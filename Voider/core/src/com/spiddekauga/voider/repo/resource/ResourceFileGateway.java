@@ -5,14 +5,13 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Output;
+import com.spiddekauga.utils.BinaryDelta;
 import com.spiddekauga.utils.ObjectCrypter;
 import com.spiddekauga.utils.Strings;
 import com.spiddekauga.voider.Config;
 import com.spiddekauga.voider.resources.IResource;
-import com.spiddekauga.voider.resources.IResourceRevision;
 import com.spiddekauga.voider.utils.Pools;
 
-import java.io.ByteArrayOutputStream;
 import java.util.Locale;
 import java.util.UUID;
 
@@ -22,8 +21,18 @@ import java.util.UUID;
 class ResourceFileGateway {
 /** Revision postfix */
 private static final String REVISION_DIR_POSTFIX = "_revs/";
+/** Postfix of dependency manifests */
+private static final String MANIFEST_POSTFIX = ".deps";
+/** Postfix of revisions that are stored as a delta of the previous revision */
+private static final String REVISION_DELTA_POSTFIX = ".delta";
+/** Every n:th revision is stored in full, limits the number of deltas to apply when reading */
+private static final int REVISION_KEYFRAME_INTERVAL = 16;
+/** Initial size of the serialization buffer, grows when needed */
+private static final int SERIALIZE_BUFFER_SIZE = 4096;
 /** Crypter used for encrypting/decrypting files */
 private ObjectCrypter mCrypter = null;
+/** Last written revision */
+private WrittenRevision mWrittenRevision = null;
 
 /**
  * Default constructor
@@ -33,48 +42,211 @@ ResourceFileGateway() {
 }
 
 /**
- * Saves a resource at the specified location
- * @param resource the resource to save
- * @return true if the resource was saved successfully
+ * Serializes a resource. The serialized bytes are a snapshot of the resource that can be written
+ * later with {@link #write(UUID, int, byte[])}
+ * @param resource the resource to serialize
+ * @return serialized resource
  */
-boolean save(IResource resource) {
+byte[] serialize(IResource resource) {
 	Kryo kryo = Pools.kryo.obtain();
-	ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
-	Output output = new Output(byteOut);
+	Output output = new Output(SERIALIZE_BUFFER_SIZE, -1);
 	kryo.writeObject(output, resource);
 	output.close();
+	Pools.kryo.free(kryo);
+
+	return output.toBytes();
+}
 
-	boolean success = true;
-	String filePath = getFilepath(resource.getId());
+/**
+ * Encrypts and writes a serialized resource to its location, and to the revision directory if it
+ * has revisions
+ * @param resourceId id of the resource
+ * @param revision revision of the resource, -1 if the resource doesn't have revisions
+ * @param serializedResource the serialized resource
+ * @return true if the resource was saved successfully
+ */
+boolean write(UUID resourceId, int revision, byte[] serializedResource) {
+	String filePath = getFilepath(resourceId);
 
 	try {
-		byte[] encryptedDef = mCrypter.encrypt(byteOut.toByteArray());
+		byte[] encryptedDef = mCrypter.encrypt(serializedResource);
 
-		FileHandle saveFile = Gdx.files.external(filePath);
+		// Save the file
+		writeBytes(filePath, encryptedDef);
+		Gdx.app.debug("ResourceFileGateway", "Saved resource " + filePath);
 
-		// Create parent paths
-		FileHandle parentDir = saveFile.parent();
-		if (!parentDir.exists()) {
-			parentDir.mkdirs();
+		if (revision != -1) {
+			writeRevision(resourceId, revision, serializedResource, encryptedDef);
 		}
+	} catch (Exception e) {
+		e.printStackTrace();
+		Gdx.app.error("ResourceFileGateway", "Could not save the resource!\n" + Strings.exceptionToString(e));
+		return false;
+	}
 
-		// Save the file
-		saveFile.writeBytes(encryptedDef, false);
-		Gdx.app.debug("ResourceFileGateway", "Saved resource (" + resource.getClass().getSimpleName() + ") " + filePath);
+	return true;
+}
+
+/**
+ * Writes the dependency manifest of a resource. The manifest isn't encrypted as it only contains
+ * ids.
+ * @param resourceId id of the resource
+ * @param manifest dependency manifest of the resource
+ * @return true if the manifest was written
+ */
+boolean writeManifest(UUID resourceId, DependencyManifest manifest) {
+	try {
+		writeBytes(getManifestFilepath(resourceId), manifest.toBytes());
+	} catch (GdxRuntimeException e) {
+		Gdx.app.error("ResourceFileGateway", "Could not save the dependency manifest of " + resourceId + "\n" + Strings.exceptionToString(e));
+		return false;
+	}
+	return true;
+}
+
+/**
+ * Reads the dependency manifest of a resource
+ * @param resourceId id of the resource
+ * @return dependency manifest of the resource, null if it doesn't exist or is corrupt
+ */
+DependencyManifest readManifest(UUID resourceId) {
+	FileHandle file = Gdx.files.external(getManifestFilepath(resourceId));
+	if (!file.exists()) {
+		return null;
+	}
 
-		// Copy to revision dir
-		if (resource instanceof IResourceRevision) {
-			success = copyFromResourceToRevision(resource.getId(), ((IResourceRevision) resource).getRevision());
+	try {
+		return DependencyManifest.fromBytes(file.readBytes());
+	} catch (GdxRuntimeException e) {
+		return null;
+	}
+}
+
+/**
+ * Removes the dependency manifest of a resource, does nothing if it doesn't exist
+ * @param resourceId id of the resource
+ */
+void removeManifest(UUID resourceId) {
+	remove(getManifestFilepath(resourceId));
+}
+
+/**
+ * Writes a revision to the revision directory. Every {@link #REVISION_KEYFRAME_INTERVAL}th revision
+ * is written in full, the others as a delta of the previous revision as long as the delta is
+ * smaller.
+ * @param resourceId id of the resource
+ * @param revision revision to write
+ * @param serializedResource the serialized revision
+ * @param encryptedResource the encrypted revision, written if it's a keyframe
+ * @throws Exception if the delta couldn't be encrypted
+ */
+private void writeRevision(UUID resourceId, int revision, byte[] serializedResource, byte[] encryptedResource) throws Exception {
+	byte[] delta = null;
+	if (!isRevisionKeyframe(revision)) {
+		byte[] previousRevision = readWrittenRevision(resourceId, revision - 1);
+		if (previousRevision != null) {
+			delta = BinaryDelta.create(previousRevision, serializedResource);
+			if (delta.length >= serializedResource.length) {
+				delta = null;
+			}
 		}
+	}
 
+	String fullFilepath = getRevisionFilepath(resourceId, revision);
+	String deltaFilepath = getRevisionDeltaFilepath(resourceId, revision);
+	if (delta != null) {
+		writeBytes(deltaFilepath, mCrypter.encrypt(delta));
+		remove(fullFilepath);
+	} else {
+		writeBytes(fullFilepath, encryptedResource);
+		remove(deltaFilepath);
+	}
+
+	FileHandle written = Gdx.files.external(delta != null ? deltaFilepath : fullFilepath);
+	mWrittenRevision = new WrittenRevision(resourceId, revision, serializedResource, written);
+}
+
+/**
+ * Reads a revision, uses the last written revision if it's still on disk
+ * @param resourceId id of the resource
+ * @param revision the revision to read
+ * @return the serialized revision, null if it doesn't exist or is corrupt
+ */
+private byte[] readWrittenRevision(UUID resourceId, int revision) {
+	if (mWrittenRevision != null && mWrittenRevision.isStill(resourceId, revision)) {
+		return mWrittenRevision.serializedResource;
+	}
+	return readRevision(resourceId, revision);
+}
+
+/**
+ * Reads and decrypts a revision, recreates it from the closest full revision and the deltas after
+ * it if the revision is stored as a delta
+ * @param resourceId id of the resource
+ * @param revision the revision to read
+ * @return the serialized revision, null if it or any revision it depends on doesn't exist or is
+ *         corrupt
+ */
+byte[] readRevision(UUID resourceId, int revision) {
+	// Find the closest full revision
+	int fullRevision = revision;
+	while (fullRevision > 0 && !Gdx.files.external(getRevisionFilepath(resourceId, fullRevision)).exists()) {
+		if (!Gdx.files.external(getRevisionDeltaFilepath(resourceId, fullRevision)).exists()) {
+			return null;
+		}
+		fullRevision--;
+	}
+	if (fullRevision == 0) {
+		return null;
+	}
+
+	try {
+		byte[] serializedResource = decrypt(getRevisionFilepath(resourceId, fullRevision));
+		for (int deltaRevision = fullRevision + 1; deltaRevision <= revision; ++deltaRevision) {
+			byte[] delta = decrypt(getRevisionDeltaFilepath(resourceId, deltaRevision));
+			serializedResource = BinaryDelta.apply(serializedResource, delta);
+		}
+		return serializedResource;
 	} catch (Exception e) {
-		e.printStackTrace();
-		Gdx.app.error("ResourceFileGateway", "Could not save the resource!\n" + Strings.exceptionToString(e));
-		success = false;
+		Gdx.app.error("ResourceFileGateway", "Could not read revision " + revision + " of " + resourceId + "\n" + Strings.exceptionToString(e));
+		return null;
 	}
-	Pools.kryo.free(kryo);
+}
+
+/**
+ * Reads and decrypts a file
+ * @param filePath relative file path to read
+ * @return decrypted bytes of the file
+ * @throws Exception if the file couldn't be read or decrypted
+ */
+private byte[] decrypt(String filePath) throws Exception {
+	byte[] encrypted = Gdx.files.external(filePath).readBytes();
+	return mCrypter.decrypt(encrypted, byte[].class);
+}
 
-	return success;
+/**
+ * @param revision the revision to check
+ * @return true if the revision shall be stored in full
+ */
+private static boolean isRevisionKeyframe(int revision) {
+	return revision % REVISION_KEYFRAME_INTERVAL == 1;
+}
+
+/**
+ * Writes bytes to a file, creates the parent directories if they don't exist
+ * @param filePath relative file path to write to
+ * @param bytes the bytes to write
+ */
+private static void writeBytes(String filePath, byte[] bytes) {
+	FileHandle file = Gdx.files.external(filePath);
+
+	// Create parent paths
+	FileHandle parentDir = file.parent();
+	if (!parentDir.exists()) {
+		parentDir.mkdirs();
+	}
+
+	file.writeBytes(bytes, false);
 }
 
 /**
@@ -86,16 +258,11 @@ String getFilepath(UUID resourceId) {
 }
 
 /**
- * Creates a copy from the revision directory to a resource location
- * @param resourceId the resource to make a copy of (and overwrite)
- * @param revision which revision to make a copy of
- * @return true if copy was successful
+ * @param resourceId the resource to get the dependency manifest filepath from
+ * @return filepath of the resource's dependency manifest
  */
-private boolean copyFromResourceToRevision(UUID resourceId, int revision) {
-	String resourceFile = getFilepath(resourceId);
-	String revisionFile = getRevisionFilepath(resourceId, revision);
-
-	return copy(resourceFile, revisionFile);
+private String getManifestFilepath(UUID resourceId) {
+	return getFilepath(resourceId) + MANIFEST_POSTFIX;
 }
 
 /**
@@ -114,6 +281,36 @@ String getRevisionFilepath(UUID resourceId, int revision) {
 	return getRevisionDir(resourceId) + getRevisionFormat(revision);
 }
 
+/**
+ * @param resourceId id of the resource revision to get the filepath from
+ * @param revision the specific revision file to get
+ * @return filepath to the specific revision if it's stored as a delta of the previous revision
+ */
+String getRevisionDeltaFilepath(UUID resourceId, int revision) {
+	return getRevisionFilepath(resourceId, revision) + REVISION_DELTA_POSTFIX;
+}
+
+/**
+ * Get the resource and revision from a revision filepath
+ * @param filePath filepath to a revision
+ * @return resource id and revision of the filepath, null if it isn't a revision filepath
+ */
+UserResourceIdentifier getRevisionIdentifier(String filePath) {
+	String dir = getDir();
+	int revisionDirEnd = filePath.lastIndexOf(REVISION_DIR_POSTFIX);
+	if (!filePath.startsWith(dir) || revisionDirEnd == -1) {
+		return null;
+	}
+
+	try {
+		UUID resourceId = UUID.fromString(filePath.substring(dir.length(), revisionDirEnd));
+		int revision = Integer.parseInt(filePath.substring(revisionDirEnd + REVISION_DIR_POSTFIX.length()));
+		return new UserResourceIdentifier(resourceId, revision);
+	} catch (IllegalArgumentException e) {
+		return null;
+	}
+}
+
 /**
  * Creates a copy of the resource (usually used for creating a revision copy)
  * @param from relative file path where to copy from
@@ -157,7 +354,7 @@ private String getRevisionFormat(int revision) {
 }
 
 /**
- * Removes a resource file
+ * Removes a resource file and its dependency manifest
  * @param resourceId the resource to physically remove
  */
 void remove(UUID resourceId) {
@@ -166,6 +363,7 @@ void remove(UUID resourceId) {
 	if (file.exists()) {
 		file.delete();
 	}
+	removeManifest(resourceId);
 }
 
 /**
@@ -186,16 +384,18 @@ void removeRevisionDir(UUID resourceId) {
  * @param fromRevision remove all revisions from this one
  */
 void removeRevisions(UUID resourceId, int fromRevision) {
-
+	int revision = fromRevision;
 	while (true) {
-		String path = getRevisionFilepath(resourceId, fromRevision);
-		FileHandle file = Gdx.files.external(path);
+		FileHandle file = Gdx.files.external(getRevisionFilepath(resourceId, revision));
+		FileHandle deltaFile = Gdx.files.external(getRevisionDeltaFilepath(resourceId, revision));
 
-		if (!file.exists()) {
+		if (!file.exists() && !deltaFile.exists()) {
 			break;
 		}
 
 		file.delete();
+		deltaFile.delete();
+		revision++;
 	}
 }
 
@@ -230,6 +430,61 @@ boolean copyFromRevisionToResource(UUID resourceId, int revision) {
 	String resourceFile = getFilepath(resourceId);
 	String revisionFile = getRevisionFilepath(resourceId, revision);
 
-	return copy(revisionFile, resourceFile);
+	if (Gdx.files.external(revisionFile).exists()) {
+		return copy(revisionFile, resourceFile);
+	}
+
+	// Recreate from delta
+	byte[] serializedResource = readRevision(resourceId, revision);
+	if (serializedResource == null) {
+		return false;
+	}
+	try {
+		writeBytes(resourceFile, mCrypter.encrypt(serializedResource));
+	} catch (Exception e) {
+		e.printStackTrace();
+		return false;
+	}
+	return true;
+}
+
+/**
+ * Last revision written by this gateway, saves reading the previous revision when the next one is
+ * written as a delta
+ */
+private static class WrittenRevision {
+	private UUID resourceId;
+	private int revision;
+	private byte[] serializedResource;
+	/** The written file, used for checking that it hasn't been replaced since */
+	private FileHandle file;
+	private long lastModified;
+	private long length;
+
+	/**
+	 * @param resourceId id of the resource
+	 * @param revision the written revision
+	 * @param serializedResource the serialized revision
+	 * @param file the written file
+	 */
+	private WrittenRevision(UUID resourceId, int revision, byte[] serializedResource, FileHandle file) {
+		this.resourceId = resourceId;
+		this.revision = revision;
+		this.serializedResource = serializedResource;
+		this.file = file;
+		lastModified = file.lastModified();
+		length = file.length();
+	}
+
+	/**
+	 * @param resourceId id of the resource
+	 * @param revision the revision
+	 * @return true if this is the specified revision and it hasn't been changed or removed since it
+	 *         was written, e.g. by a sync
+	 */
+	private boolean isStill(UUID resourceId, int revision) {
+		return this.resourceId.equals(resourceId) && this.revision == revision && file.exists() && file.lastModified() == lastModified
+				&& file.length() == length;
+	}
 }
 }
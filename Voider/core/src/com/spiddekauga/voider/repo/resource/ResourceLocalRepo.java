@@ -3,6 +3,7 @@ package com.spiddekauga.voider.repo.resource;
 import com.spiddekauga.voider.game.actors.PlayerActorDef;
 import com.spiddekauga.voider.network.resource.ResourceRevisionEntity;
 import com.spiddekauga.voider.network.resource.RevisionEntity;
+import com.spiddekauga.voider.repo.SqliteGateway;
 import com.spiddekauga.voider.resources.Def;
 import com.spiddekauga.voider.resources.IResource;
 import com.spiddekauga.voider.resources.IResourceHasDef;
@@ -25,6 +26,8 @@ private static ResourceFileGateway mFileGateway = new ResourceFileGateway();
 private static ResourcePrefsGateway mPrefsGateway = new ResourcePrefsGateway();
 /** SQLite gateway */
 private static ResourceSqliteGateway mSqliteGateway = new ResourceSqliteGateway();
+/** Saves resources in the background */
+private static ResourceSaveService mSaveService = new ResourceSaveService();
 
 /**
  * Private constructor to enforce singleton usage
@@ -34,56 +37,37 @@ private ResourceLocalRepo() {
 }
 
 /**
- * Saves a resource
+ * Saves a resource in the background. The date and revision of the resource is updated directly and
+ * it can be changed as soon as this method returns.
  * @param resource the resource to save
- * @return true if the resource was saved
+ * @param listener called on the main thread when the resource has been saved, may be null
  */
-public static boolean save(IResource resource) {
-	// Save old values if save is unsuccessful
-	Date oldDate = null;
-	int oldRevision = -1;
-
-	// Update date
-	if (resource instanceof Def) {
-		oldDate = ((Def) resource).getDate();
-		((Def) resource).updateDate();
-	}
-
-	// Update revision
-	if (resource instanceof IResourceRevision) {
-		oldRevision = ((IResourceRevision) resource).getRevision();
-
-		int nextRevision = 1;
-		try {
-			RevisionEntity revisionInfo = getRevisionLatest(resource.getId());
-			nextRevision = revisionInfo.revision + 1;
-		} catch (ResourceNotFoundException e) {
-			// Do nothing
-		}
-		((IResourceRevision) resource).setRevision(nextRevision);
-	}
-
-
-	// File
-	boolean success = mFileGateway.save(resource);
-
+static void save(IResource resource, ISaveListener listener) {
+	mSaveService.save(resource, listener);
+}
 
-	// Add to the database
-	if (success) {
-		add(resource);
-	}
-	// Failed -> reset date and revision
-	else {
-		if (resource instanceof Def) {
-			((Def) resource).setDate(oldDate);
-		}
+/**
+ * Blocks until all resources that are being saved have been written
+ */
+public static void finishSaving() {
+	mSaveService.finish();
+}
 
-		if (resource instanceof IResourceRevision) {
-			((IResourceRevision) resource).setRevision(oldRevision);
-		}
-	}
+/**
+ * @param resourceId id of the resource
+ * @return dependency manifest of the latest revision of the resource, null if it doesn't exist
+ */
+static DependencyManifest getDependencyManifest(UUID resourceId) {
+	return mFileGateway.readManifest(resourceId);
+}
 
-	return success;
+/**
+ * Set the dependency manifest of the latest revision of a resource
+ * @param resourceId id of the resource
+ * @param manifest dependency manifest of the resource
+ */
+static void setDependencyManifest(UUID resourceId, DependencyManifest manifest) {
+	mFileGateway.writeManifest(resourceId, manifest);
 }
 
 /**
@@ -99,26 +83,35 @@ public static RevisionEntity getRevisionLatest(UUID uuid) {
 }
 
 /**
- * Add a resource
- * @param resource the resource to add
+ * Add a saved resource
+ * @param resourceId id of the resource
+ * @param type the resource type
+ * @param revision revision of the resource, -1 if it doesn't have revisions
+ * @param date date of the revision
  */
-private static void add(IResource resource) {
+static void add(UUID resourceId, ExternalTypes type, int revision, Date date) {
 	// Add if resource doesn't exist
-	if (!mSqliteGateway.exists(resource.getId())) {
-		mSqliteGateway.add(resource.getId(), ExternalTypes.fromType(resource.getClass()).getId());
+	if (!mSqliteGateway.exists(resourceId)) {
+		mSqliteGateway.add(resourceId, type.getId());
 	}
 
 	// Add revision
-	if (resource instanceof IResourceRevision) {
-		Date date = null;
-		if (resource instanceof Def) {
-			date = ((Def) resource).getDate();
-		} else if (resource instanceof IResourceHasDef) {
-			date = ((IResourceHasDef) resource).getDef().getDate();
-		}
+	if (revision != -1) {
+		mSqliteGateway.addRevision(resourceId, revision, date);
+	}
+}
 
-		mSqliteGateway.addRevision(resource.getId(), ((IResourceRevision) resource).getRevision(), date);
+/**
+ * @param resource the resource to get the revision date of
+ * @return date of the resource's revision, null if it doesn't have a date
+ */
+static Date getRevisionDate(IResource resource) {
+	if (resource instanceof Def) {
+		return ((Def) resource).getDate();
+	} else if (resource instanceof IResourceHasDef) {
+		return ((IResourceHasDef) resource).getDef().getDate();
 	}
+	return null;
 }
 
 /**
@@ -128,20 +121,52 @@ private static void add(IResource resource) {
  * @param revisions new revisions to add
  */
 static void addRevisions(UUID resourceId, ExternalTypes type, ArrayList<RevisionEntity> revisions) {
-	// Add resource if it doesn't exist
-	if (!exists(resourceId)) {
-		mSqliteGateway.add(resourceId, type.getId());
-	}
+	int latestRevision;
+	SqliteGateway.beginTransaction();
+	try {
+		// Add resource if it doesn't exist
+		if (!exists(resourceId)) {
+			mSqliteGateway.add(resourceId, type.getId());
+		}
+
+		// Add revisions
+		mSqliteGateway.addRevisions(resourceId, revisions, true);
 
-	// Add revisions
-	for (RevisionEntity revisionEntity : revisions) {
-		mSqliteGateway.addRevision(resourceId, revisionEntity.revision, revisionEntity.date);
-		mSqliteGateway.setSyncedUserResource(resourceId, revisionEntity.revision);
+		latestRevision = mSqliteGateway.getRevisionLatest(resourceId).revision;
+		SqliteGateway.setTransactionSuccessful();
+	} finally {
+		SqliteGateway.endTransaction();
 	}
 
 	// Update latest revision file location
-	int latestRevision = mSqliteGateway.getRevisionLatest(resourceId).revision;
 	mFileGateway.copyFromRevisionToResource(resourceId, latestRevision);
+
+	// Dependencies could have changed, the manifest is created again when the resource is loaded
+	mFileGateway.removeManifest(resourceId);
+}
+
+/**
+ * Begin a database transaction. Use when adding or updating many resources at once
+ * @see SqliteGateway#beginTransaction()
+ */
+static void beginTransaction() {
+	SqliteGateway.beginTransaction();
+}
+
+/**
+ * Mark the current database transaction as successful
+ * @see SqliteGateway#setTransactionSuccessful()
+ */
+static void setTransactionSuccessful() {
+	SqliteGateway.setTransactionSuccessful();
+}
+
+/**
+ * End the current database transaction
+ * @see SqliteGateway#endTransaction()
+ */
+static void endTransaction() {
+	SqliteGateway.endTransaction();
 }
 
 /**
@@ -163,6 +188,9 @@ static void addDownloaded(UUID resourceId, ExternalTypes type) {
 		mSqliteGateway.add(resourceId, type.getId());
 		mSqliteGateway.setPublished(resourceId, true);
 	}
+
+	// Created again when the resource is loaded
+	mFileGateway.removeManifest(resourceId);
 }
 
 /**
@@ -180,6 +208,8 @@ public static void remove(UUID resourceId) {
  * @param addToRemovedDb set to true to add this resources to the removed DB
  */
 public static void remove(UUID resourceId, boolean addToRemovedDb) {
+	finishSaving();
+
 	// Unload first
 	ResourceCacheFacade.unload(resourceId);
 
@@ -243,6 +273,8 @@ public static void removeAll(ExternalTypes externalType) {
  * @param addToRemovedDb set to true if the resources should be set as removed
  */
 public static void removeAll(ExternalTypes externalType, final boolean addToRemovedDb) {
+	finishSaving();
+
 	// File
 	ArrayList<UUID> resources = mSqliteGateway.getAll(externalType.getId());
 	for (UUID resource : resources) {
@@ -266,6 +298,7 @@ public static void removeAll(ExternalTypes externalType, final boolean addToRemo
 static void removeRevisions(UUID resourceId, int fromRevision) {
 	mSqliteGateway.removeRevisions(resourceId, fromRevision);
 	mFileGateway.removeRevisions(resourceId, fromRevision);
+	mFileGateway.removeManifest(resourceId);
 }
 
 /**
@@ -328,6 +361,15 @@ public static String getRevisionFilepath(UUID resourceId, int revision) {
 	return mFileGateway.getRevisionFilepath(resourceId, revision);
 }
 
+/**
+ * @param resourceId id of the resource revision to get the filepath from
+ * @param revision the specific revision file to get
+ * @return filepath to the specific revision if it's stored as a delta of the previous revision
+ */
+public static String getRevisionDeltaFilepath(UUID resourceId, int revision) {
+	return mFileGateway.getRevisionDeltaFilepath(resourceId, revision);
+}
+
 /**
  * @param resourceId the resource to get the type for
  * @return type of the resource id
@@ -134,27 +134,49 @@ public void save(IResource... resources) {
 }
 
 /**
- * Save the specified resources. If the resource contains revisions it will try to upload it to the
- * server if the user is currently online.
+ * Save the specified resources in the background. If the resource contains revisions it will try to
+ * upload it to the server if the user is currently online, once all resources have been saved.
  * @param responseListener listens to the sync web response, may be null
  * @param resources all the resource to save.
  */
 public void save(IResponseListener responseListener, IResource... resources) {
+	save(responseListener, null, resources);
+}
 
-	boolean upload = false;
+/**
+ * Save the specified resources in the background. If the resource contains revisions it will try to
+ * upload it to the server if the user is currently online, once all resources have been saved.
+ * @param responseListener listens to the sync web response, may be null
+ * @param savedListener called on the main thread when each resource has been written, may be null.
+ *        The date and revision of resources that couldn't be saved have been restored when called.
+ * @param resources all the resource to save.
+ */
+public void save(final IResponseListener responseListener, final ISaveListener savedListener, final IResource... resources) {
+	ISaveListener saveListener = new ISaveListener() {
+		/** Number of resources that haven't been saved yet */
+		private int mSaveCount = resources.length;
+		/** If any resource with revisions was saved */
+		private boolean mUpload = false;
+
+		@Override
+		public void onSaved(IResource resource, boolean success) {
+			if (savedListener != null) {
+				savedListener.onSaved(resource, success);
+			}
 
-	for (IResource resource : resources) {
-		boolean success = ResourceLocalRepo.save(resource);
+			if (success && resource instanceof IResourceRevision) {
+				mUpload = true;
+			}
 
-		if (success && resource instanceof IResourceRevision) {
-			upload = true;
+			mSaveCount--;
+			if (mSaveCount == 0 && mUpload && User.getGlobalUser().isOnline()) {
+				Synchronizer.getInstance().synchronize(SyncTypes.USER_RESOURCES, responseListener);
+			}
 		}
-	}
+	};
 
-	if (upload) {
-		if (User.getGlobalUser().isOnline()) {
-			Synchronizer.getInstance().synchronize(SyncTypes.USER_RESOURCES, responseListener);
-		}
+	for (IResource resource : resources) {
+		ResourceLocalRepo.save(resource, saveListener);
 	}
 }
 
@@ -241,6 +263,7 @@ public void publish(IResponseListener responseListener, IOutstreamProgressListen
  * @param resources all resources to publish
  */
 private void publish(IResponseListener responseListener, IOutstreamProgressListener progressListener, ArrayList<IResource> resources) {
+	ResourceLocalRepo.finishSaving();
 	mWebRepo.publish(resources, progressListener, this, responseListener);
 }
 
@@ -364,23 +387,31 @@ private void handleSyncUserResourcesResponse(UserResourceSyncMethod method, User
 	if (response.downloadStatus) {
 		ArrayList<RevisionEntity> revisions = new ArrayList<>();
 
-		for (Entry<UUID, ArrayList<ResourceRevisionBlobEntity>> entry : response.blobsToDownload.entrySet()) {
-			UUID resourceId = entry.getKey();
-			ExternalTypes type = ExternalTypes.fromUploadType(entry.getValue().get(0).uploadType);
-			revisions.clear();
-
-			for (ResourceRevisionBlobEntity blobEntity : entry.getValue()) {
-				ResourceRevisionBlobEntity revisionBlobEntity = blobEntity;
-				RevisionEntity revisionEntity = new RevisionEntity();
-				revisionEntity.date = revisionBlobEntity.created;
-				revisionEntity.revision = revisionBlobEntity.revision;
-				revisions.add(revisionEntity);
-			}
+		ResourceLocalRepo.beginTransaction();
+		try {
+			for (Entry<UUID, ArrayList<ResourceRevisionBlobEntity>> entry : response.blobsToDownload.entrySet()) {
+				UUID resourceId = entry.getKey();
+				ExternalTypes type = ExternalTypes.fromUploadType(entry.getValue().get(0).uploadType);
+				revisions.clear();
+
+				for (ResourceRevisionBlobEntity blobEntity : entry.getValue()) {
+					ResourceRevisionBlobEntity revisionBlobEntity = blobEntity;
+					RevisionEntity revisionEntity = new RevisionEntity();
+					revisionEntity.date = revisionBlobEntity.created;
+					revisionEntity.revision = revisionBlobEntity.revision;
+					revisions.add(revisionEntity);
+				}
 
-			ResourceLocalRepo.addRevisions(resourceId, type, revisions);
+				ResourceLocalRepo.addRevisions(resourceId, type, revisions);
+			}
+			ResourceLocalRepo.setTransactionSuccessful();
+		} finally {
+			ResourceLocalRepo.endTransaction();
+		}
 
 
-			// Reload resource if latest already has been loaded
+		// Reload resource if latest already has been loaded
+		for (UUID resourceId : response.blobsToDownload.keySet()) {
 			if (ResourceCacheFacade.isLoaded(resourceId)) {
 				ResourceCacheFacade.reload(resourceId);
 			}
@@ -398,8 +429,14 @@ private void handleSyncUserResourcesResponse(UserResourceSyncMethod method, User
  * @param resources all resources that could've been downloaded
  */
 private void addDownloaded(ArrayList<ResourceBlobEntity> resources) {
-	for (ResourceBlobEntity resourceInfo : resources) {
-		ResourceLocalRepo.addDownloaded(resourceInfo.resourceId, ExternalTypes.fromUploadType(resourceInfo.uploadType));
+	ResourceLocalRepo.beginTransaction();
+	try {
+		for (ResourceBlobEntity resourceInfo : resources) {
+			ResourceLocalRepo.addDownloaded(resourceInfo.resourceId, ExternalTypes.fromUploadType(resourceInfo.uploadType));
+		}
+		ResourceLocalRepo.setTransactionSuccessful();
+	} finally {
+		ResourceLocalRepo.endTransaction();
 	}
 }
 
@@ -409,35 +446,41 @@ private void addDownloaded(ArrayList<ResourceBlobEntity> resources) {
  * @param response
  */
 private void setSuccessfulAsSynced(UserResourceSyncMethod method, UserResourceSyncResponse response) {
-	// Set the successful revisions as uploaded/synced
-	for (ResourceRevisionEntity resource : method.resources) {
-		if (!resource.revisions.isEmpty()) {
-			int fromRevision = resource.revisions.get(0).revision;
-			int toRevision = resource.revisions.get(resource.revisions.size() - 1).revision;
-
-			// Same amount of revisions
-			assert (toRevision - fromRevision == resource.revisions.size() - 1);
-
-			// All revisions were uploaded correctly
-			boolean allUploaded = !response.conflicts.containsKey(resource.resourceId)
-					&& !response.failedUploads.containsKey(resource.resourceId);
-			if (allUploaded) {
-				ResourceLocalRepo.setSyncedUserResource(resource.resourceId, fromRevision, toRevision);
-			}
-			// Set sync for revisions that were successfully updated
-			else if (!response.conflicts.containsKey(resource.resourceId)) {
-				Set<Integer> failedRevisions = response.failedUploads.get(resource.resourceId);
-
-				// If failed revisions isn't set all failed
-				if (failedRevisions != null) {
-					for (int revision = fromRevision; revision <= toRevision; ++revision) {
-						if (!failedRevisions.contains(revision)) {
-							ResourceLocalRepo.setSyncedUserResource(resource.resourceId, revision);
+	ResourceLocalRepo.beginTransaction();
+	try {
+		// Set the successful revisions as uploaded/synced
+		for (ResourceRevisionEntity resource : method.resources) {
+			if (!resource.revisions.isEmpty()) {
+				int fromRevision = resource.revisions.get(0).revision;
+				int toRevision = resource.revisions.get(resource.revisions.size() - 1).revision;
+
+				// Same amount of revisions
+				assert (toRevision - fromRevision == resource.revisions.size() - 1);
+
+				// All revisions were uploaded correctly
+				boolean allUploaded = !response.conflicts.containsKey(resource.resourceId)
+						&& !response.failedUploads.containsKey(resource.resourceId);
+				if (allUploaded) {
+					ResourceLocalRepo.setSyncedUserResource(resource.resourceId, fromRevision, toRevision);
+				}
+				// Set sync for revisions that were successfully updated
+				else if (!response.conflicts.containsKey(resource.resourceId)) {
+					Set<Integer> failedRevisions = response.failedUploads.get(resource.resourceId);
+
+					// If failed revisions isn't set all failed
+					if (failedRevisions != null) {
+						for (int revision = fromRevision; revision <= toRevision; ++revision) {
+							if (!failedRevisions.contains(revision)) {
+								ResourceLocalRepo.setSyncedUserResource(resource.resourceId, revision);
+							}
 						}
 					}
 				}
 			}
 		}
+		ResourceLocalRepo.setTransactionSuccessful();
+	} finally {
+		ResourceLocalRepo.endTransaction();
 	}
 }
 
@@ -0,0 +1,262 @@
+package com.spiddekauga.voider.repo.resource;
+
+import com.badlogic.gdx.Gdx;
+import com.spiddekauga.voider.network.resource.RevisionEntity;
+import com.spiddekauga.voider.resources.Def;
+import com.spiddekauga.voider.resources.IResource;
+import com.spiddekauga.voider.resources.IResourceDependency;
+import com.spiddekauga.voider.resources.IResourceRevision;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Saves resources in the background. The resource is serialized on the calling thread, this is the
+ * snapshot that is saved so the resource can be changed directly after it has been saved.
+ * Encryption, file writes and database updates are done on one background thread in the order the
+ * resources were saved. A resource that is saved again before its previous save has started
+ * replaces the queued snapshot instead of being written twice. If the write fails the date and
+ * revision of the resource are restored on the main thread. The dependency manifest of the
+ * resource is created on the calling thread and written together with the resource.
+ */
+class ResourceSaveService {
+/** Writes saved resources in the background */
+private final ExecutorService mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "ResourceSave");
+		thread.setDaemon(true);
+		return thread;
+	}
+});
+/** Own file gateway as the crypter can't be shared between threads */
+private final ResourceFileGateway mFileGateway = new ResourceFileGateway();
+/** Saves that haven't been started yet */
+private HashMap<UUID, SaveTask> mQueuedSaves = new HashMap<>();
+/** Latest revision of resources that is queued or being written, i.e. not in the database yet */
+private HashMap<UUID, Integer> mUnsavedRevisions = new HashMap<>();
+/** Number of saves that are queued or being written */
+private int mUnfinishedCount = 0;
+
+/**
+ * Saves a resource in the background. Updates the date and revision of the resource directly.
+ * @param resource the resource to save
+ * @param listener called on the main thread when the resource has been saved, may be null
+ */
+synchronized void save(IResource resource, ISaveListener listener) {
+	UUID resourceId = resource.getId();
+	SaveTask queuedSave = mQueuedSaves.get(resourceId);
+
+	// Update date
+	Date oldDate = null;
+	if (resource instanceof Def) {
+		oldDate = ((Def) resource).getDate();
+		((Def) resource).updateDate();
+	}
+
+	// Update revision, reuse the revision of a queued save as it's replaced
+	int oldRevision = -1;
+	int revision = -1;
+	if (resource instanceof IResourceRevision) {
+		oldRevision = ((IResourceRevision) resource).getRevision();
+		if (queuedSave != null) {
+			revision = queuedSave.revision;
+		} else {
+			revision = getNextRevision(resourceId);
+		}
+		((IResourceRevision) resource).setRevision(revision);
+	}
+
+	byte[] serializedResource = mFileGateway.serialize(resource);
+	Date date = ResourceLocalRepo.getRevisionDate(resource);
+	DependencyManifest manifest = null;
+	if (resource instanceof IResourceDependency) {
+		manifest = DependencyManifest.create((IResourceDependency) resource);
+	}
+
+	if (queuedSave != null) {
+		queuedSave.resource = resource;
+		queuedSave.serializedResource = serializedResource;
+		queuedSave.date = date;
+		queuedSave.manifest = manifest;
+		queuedSave.addListener(listener);
+	} else {
+		SaveTask saveTask = new SaveTask(resource, revision, serializedResource, date, manifest);
+		saveTask.oldRevision = oldRevision;
+		saveTask.oldDate = oldDate;
+		saveTask.addListener(listener);
+		mQueuedSaves.put(resourceId, saveTask);
+		if (revision != -1) {
+			mUnsavedRevisions.put(resourceId, revision);
+		}
+		mUnfinishedCount++;
+		mExecutor.execute(saveTask);
+	}
+}
+
+/**
+ * Get the next revision of a resource, takes unsaved revisions into account
+ * @param resourceId id of the resource
+ * @return next revision of the resource
+ */
+private int getNextRevision(UUID resourceId) {
+	int latestRevision = 0;
+	try {
+		RevisionEntity revisionInfo = ResourceLocalRepo.getRevisionLatest(resourceId);
+		latestRevision = revisionInfo.revision;
+	} catch (ResourceNotFoundException e) {
+		// Do nothing
+	}
+
+	Integer unsavedRevision = mUnsavedRevisions.get(resourceId);
+	if (unsavedRevision != null && unsavedRevision > latestRevision) {
+		latestRevision = unsavedRevision;
+	}
+
+	return latestRevision + 1;
+}
+
+/**
+ * Blocks until all saved resources have been written. Call before reading or removing saved
+ * resource files.
+ */
+synchronized void finish() {
+	boolean interrupted = false;
+	while (mUnfinishedCount > 0) {
+		try {
+			wait();
+		} catch (InterruptedException e) {
+			interrupted = true;
+		}
+	}
+
+	if (interrupted) {
+		Thread.currentThread().interrupt();
+	}
+}
+
+/**
+ * Called when a saved resource has been written
+ * @param saveTask the finished save
+ * @param success true if the resource was written
+ */
+private synchronized void onWritten(SaveTask saveTask, boolean success) {
+	// Database contains the revision now, or it failed and the revision can be used again
+	Integer unsavedRevision = mUnsavedRevisions.get(saveTask.resource.getId());
+	if (unsavedRevision != null && unsavedRevision == saveTask.revision) {
+		mUnsavedRevisions.remove(saveTask.resource.getId());
+	}
+
+	mUnfinishedCount--;
+	notifyAll();
+}
+
+/**
+ * Writes one saved resource
+ */
+private class SaveTask implements Runnable {
+	/** The saved resource, only used for the id and type in the background */
+	private IResource resource;
+	/** Revision of the resource, -1 if it doesn't have revisions */
+	private final int revision;
+	/** Snapshot of the resource to write */
+	private byte[] serializedResource;
+	/** Date of the revision */
+	private Date date;
+	/** Dependency manifest of the snapshot, null if the resource doesn't have dependencies */
+	private DependencyManifest manifest;
+	/** Revision before the first save this task contains, restored if the write fails */
+	private int oldRevision = -1;
+	/** Date before the first save this task contains, restored if the write fails */
+	private Date oldDate = null;
+	/** Listeners of all saves this save has replaced */
+	private ArrayList<ISaveListener> listeners = new ArrayList<>();
+
+	/**
+	 * @param resource the saved resource
+	 * @param revision revision of the resource, -1 if it doesn't have revisions
+	 * @param serializedResource snapshot of the resource to write
+	 * @param date date of the revision
+	 * @param manifest dependency manifest of the snapshot, null if the resource doesn't have
+	 *        dependencies
+	 */
+	private SaveTask(IResource resource, int revision, byte[] serializedResource, Date date, DependencyManifest manifest) {
+		this.resource = resource;
+		this.revision = revision;
+		this.serializedResource = serializedResource;
+		this.date = date;
+		this.manifest = manifest;
+	}
+
+	/**
+	 * @param listener listener to add, may be null
+	 */
+	private void addListener(ISaveListener listener) {
+		if (listener != null) {
+			listeners.add(listener);
+		}
+	}
+
+	@Override
+	public void run() {
+		// Take the latest snapshot, later saves of the same resource are queued as a new task
+		synchronized (ResourceSaveService.this) {
+			mQueuedSaves.remove(resource.getId());
+		}
+
+		boolean success = false;
+		try {
+			success = mFileGateway.write(resource.getId(), revision, serializedResource);
+			if (success) {
+				ResourceLocalRepo.add(resource.getId(), ExternalTypes.fromType(resource.getClass()), revision, date);
+				if (manifest != null) {
+					mFileGateway.writeManifest(resource.getId(), manifest);
+				}
+			}
+		} catch (RuntimeException e) {
+			Gdx.app.error("ResourceSaveService", "Could not save the resource " + resource.getId());
+			e.printStackTrace();
+			success = false;
+		} finally {
+			onWritten(this, success);
+		}
+
+		final boolean saveSuccess = success;
+		if (!success || !listeners.isEmpty()) {
+			Gdx.app.postRunnable(new Runnable() {
+				@Override
+				public void run() {
+					if (!saveSuccess) {
+						restore();
+					}
+					for (ISaveListener listener : listeners) {
+						listener.onSaved(resource, saveSuccess);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Restores the date and revision of the resource, unless it has been saved again
+	 */
+	private void restore() {
+		if (resource instanceof IResourceRevision) {
+			IResourceRevision revisionResource = (IResourceRevision) resource;
+			if (revisionResource.getRevision() != revision) {
+				return;
+			}
+			revisionResource.setRevision(oldRevision);
+		}
+
+		if (resource instanceof Def) {
+			((Def) resource).setDate(oldDate);
+		}
+	}
+}
+}
@@ -10,7 +10,7 @@ import com.spiddekauga.voider.repo.SqliteGateway;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -55,6 +55,21 @@ void addRevision(UUID uuid, int revision, Date date) {
 	execSQL("INSERT INTO resource_revision (uuid, revision, date) VALUES ( '" + uuid + "', " + revision + ", " + dateToString(date) + ");");
 }
 
+/**
+ * Add several revisions to an existing resource in one transaction
+ * @param uuid the unique id of the resource
+ * @param revisions the revisions to add
+ * @param uploaded true if the revisions have been uploaded/synced to the server
+ */
+void addRevisions(UUID uuid, List<RevisionEntity> revisions, boolean uploaded) {
+	String uploadedString = uploaded ? "1" : "0";
+	ArrayList<String> rows = new ArrayList<>(revisions.size());
+	for (RevisionEntity revision : revisions) {
+		rows.add("('" + uuid + "', " + revision.revision + ", " + dateToString(revision.date) + ", " + uploadedString + ")");
+	}
+	execInsertRows("INSERT INTO resource_revision (uuid, revision, date, uploaded) VALUES", rows);
+}
+
 /**
  * Removes a resource from the database. Does not delete the resource's revisions!
  * @param uuid the unique id of the resource
@@ -112,22 +127,24 @@ void removeAll(int typeIdentifier) {
  * @param addToRemovedDb set to true if the resource should be added to the removed DB
  */
 void removeAll(int typeIdentifier, final boolean addToRemovedDb) {
-	// Delete revisions first
-	DatabaseCursor cursor = rawQuery("SELECT uuid FROM resource WHERE type=" + typeIdentifier + ";");
-	while (cursor.next()) {
-		String uuid = cursor.getString(0);
-		execSQL("DELETE FROM resource_revision WHERE uuid='" + uuid + "';");
+	String selectUuids = "SELECT uuid FROM resource WHERE type=" + typeIdentifier;
+
+	beginTransaction();
+	try {
+		// Delete revisions first
+		execSQL("DELETE FROM resource_revision WHERE uuid IN (" + selectUuids + ");");
 
 		// Add as removed
 		if (addToRemovedDb) {
-			execSQL("INSERT INTO resource_removed VALUES ( '" + uuid + "' );");
+			execSQL("INSERT OR IGNORE INTO resource_removed " + selectUuids + ";");
 		}
-	}
-
-	cursor.close();
 
-	// Delete all resources
-	execSQL("DELETE FROM resource WHERE type=" + typeIdentifier + ";");
+		// Delete all resources
+		execSQL("DELETE FROM resource WHERE type=" + typeIdentifier + ";");
+		setTransactionSuccessful();
+	} finally {
+		endTransaction();
+	}
 }
 
 /**
@@ -174,11 +191,13 @@ ArrayList<UUID> getAll(int typeIdentifier) {
 int getCount(int typeIdentifier) {
 	DatabaseCursor cursor = rawQuery("SELECT Count(*) FROM resource WHERE type=" + typeIdentifier + ";");
 
+	int count = 0;
 	if (cursor.next()) {
-		return cursor.getInt(0);
+		count = cursor.getInt(0);
 	}
+	cursor.close();
 
-	return 0;
+	return count;
 }
 
 /**
@@ -232,8 +251,11 @@ int getType(UUID uuid) {
 	DatabaseCursor cursor = rawQuery("SELECT type FROM resource WHERE uuid='" + uuid + "';");
 
 	if (cursor.next()) {
-		return cursor.getInt(0);
+		int type = cursor.getInt(0);
+		cursor.close();
+		return type;
 	} else {
+		cursor.close();
 		throw new ResourceNotFoundException(uuid);
 	}
 }
@@ -247,8 +269,11 @@ boolean isPublished(UUID uuid) {
 	DatabaseCursor cursor = rawQuery("SELECT published FROM resource WHERE uuid='" + uuid + "' LIMIT 1;");
 
 	if (cursor.next()) {
-		return cursor.getInt(0) == 1 ? true : false;
+		boolean published = cursor.getInt(0) == 1;
+		cursor.close();
+		return published;
 	} else {
+		cursor.close();
 		throw new ResourceNotFoundException(uuid);
 	}
 }
@@ -268,7 +293,9 @@ void setPublished(UUID uuid, boolean published) {
 HashMap<UUID, ResourceRevisionEntity> getUnsyncedUserResources() {
 	HashMap<UUID, ResourceRevisionEntity> resources = new HashMap<>();
 
-	DatabaseCursor cursor = rawQuery("SELECT uuid, revision, date FROM resource_revision WHERE uploaded=0 ORDER BY revision");
+	DatabaseCursor cursor = rawQuery("SELECT resource_revision.uuid, resource_revision.revision, resource_revision.date, resource.type "
+			+ "FROM resource_revision LEFT JOIN resource ON resource.uuid=resource_revision.uuid "
+			+ "WHERE resource_revision.uploaded=0 ORDER BY resource_revision.revision");
 
 	while (cursor.next()) {
 		String uuidString = cursor.getString(0);
@@ -283,6 +310,9 @@ HashMap<UUID, ResourceRevisionEntity> getUnsyncedUserResources() {
 		if (resource == null) {
 			resource = new ResourceRevisionEntity();
 			resource.resourceId = uuid;
+			if (cursor.getString(3) != null) {
+				resource.type = UploadTypes.fromId(cursor.getInt(3));
+			}
 			resources.put(uuid, resource);
 		}
 
@@ -291,15 +321,7 @@ HashMap<UUID, ResourceRevisionEntity> getUnsyncedUserResources() {
 		revisionEntity.date = new Date(cursor.getLong(2));
 		resource.revisions.add(revisionEntity);
 	}
-
-	for (Entry<UUID, ResourceRevisionEntity> entry : resources.entrySet()) {
-		cursor = rawQuery("SELECT type FROM resource WHERE uuid='" + entry.getValue().resourceId + "' LIMIT 1;");
-
-		if (cursor.next()) {
-			int typeId = cursor.getInt(0);
-			entry.getValue().type = UploadTypes.fromId(typeId);
-		}
-	}
+	cursor.close();
 
 	return resources;
 }
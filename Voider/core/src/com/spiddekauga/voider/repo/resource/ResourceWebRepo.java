@@ -2,11 +2,10 @@ package com.spiddekauga.voider.repo.resource;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
-import com.badlogic.gdx.utils.Disposable;
 import com.spiddekauga.net.IDownloadProgressListener;
 import com.spiddekauga.net.IOutstreamProgressListener;
 import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.network.entities.GeneralResponseStatuses;
 import com.spiddekauga.voider.network.entities.IEntity;
 import com.spiddekauga.voider.network.entities.IMethodEntity;
 import com.spiddekauga.voider.network.misc.BlobDownloadMethod;
@@ -35,6 +34,8 @@ import com.spiddekauga.voider.network.resource.ResourceDownloadMethod;
 import com.spiddekauga.voider.network.resource.ResourceDownloadResponse;
 import com.spiddekauga.voider.network.resource.ResourceRevisionBlobEntity;
 import com.spiddekauga.voider.network.resource.ResourceRevisionEntity;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchMethod;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchResponse;
 import com.spiddekauga.voider.network.resource.UserResourceSyncMethod;
 import com.spiddekauga.voider.network.resource.UserResourceSyncResponse;
 import com.spiddekauga.voider.network.stat.CommentEntity;
@@ -48,11 +49,14 @@ import com.spiddekauga.voider.resources.Def;
 import com.spiddekauga.voider.resources.IResource;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 /**
  * Web repository for resources
@@ -65,6 +69,9 @@ private Cache<String, BulletCache> mBulletCache = new Cache<>();
 private Cache<LevelFetchMethod, LevelCache> mLevelCache = new Cache<>();
 /** Last progress listener for sync download */
 private IDownloadProgressListener mSyncDownloadProgressListener = null;
+/** Downloads started before their response was handled, by the list of resources to download */
+private Map<ArrayList<? extends ResourceBlobEntity>, ArrayList<Future<Boolean>>> mStartedDownloads = Collections
+		.synchronizedMap(new IdentityHashMap<ArrayList<? extends ResourceBlobEntity>, ArrayList<Future<Boolean>>>());
 
 /**
  * Private constructor to enforce singleton usage
@@ -150,6 +157,17 @@ void publish(ArrayList<IResource> resources, IOutstreamProgressListener progress
 	sendInNewThread(method, files, progressListener, responseListeners);
 }
 
+/**
+ * Fetch the thumbnails of published resources
+ * @param resourceIds resources to fetch the thumbnails of
+ * @param responseListeners listens to the web response
+ */
+void fetchThumbnails(ArrayList<UUID> resourceIds, IResponseListener... responseListeners) {
+	ThumbnailFetchMethod method = new ThumbnailFetchMethod();
+	method.resourceIds = resourceIds;
+	sendInNewThread(method, responseListeners);
+}
+
 /**
  * Creates publish method from definitions
  * @param resources all resources (may include non definitions)
@@ -215,9 +233,23 @@ protected void handleResponse(IMethodEntity methodEntity, IEntity response, IRes
 		responseToSend = handleCommentFetchResponse((CommentFetchMethod) methodEntity, response);
 	}
 
+	// Fetch thumbnails
+	else if (methodEntity instanceof ThumbnailFetchMethod) {
+		responseToSend = handleThumbnailFetchResponse(response);
+	}
+
 	sendResponseToListeners(methodEntity, responseToSend, callerResponseListeners);
 }
 
+@Override
+protected void prepareResponse(IMethodEntity methodEntity, IEntity response) {
+	// Sync downloaded, the resources don't depend on other responses
+	if (methodEntity instanceof DownloadSyncMethod && response instanceof DownloadSyncResponse) {
+		ArrayList<? extends ResourceBlobEntity> resources = ((DownloadSyncResponse) response).resources;
+		mStartedDownloads.put(resources, startResourceDownloads(resources));
+	}
+}
+
 /**
  * Handle response from publishing a resource
  * @param response server response, null if not valid
@@ -379,6 +411,21 @@ private IEntity handleCommentFetchResponse(CommentFetchMethod method, IEntity re
 	}
 }
 
+/**
+ * Handle fetch thumbnails response
+ * @param response server response, null if not valid
+ * @return a correct response for fetching thumbnails
+ */
+private IEntity handleThumbnailFetchResponse(IEntity response) {
+	if (response instanceof ThumbnailFetchResponse) {
+		return response;
+	} else {
+		ThumbnailFetchResponse validResponse = new ThumbnailFetchResponse();
+		validResponse.status = GeneralResponseStatuses.FAILED_SERVER_CONNECTION;
+		return validResponse;
+	}
+}
+
 /**
  * Cache a level
  * @param method parameters to the server (or search parameters)
@@ -451,12 +498,35 @@ private void cacheBullets(String searchString, BulletFetchResponse response) {
 }
 
 /**
- * Download all specified resources
+ * Download all specified resources. Uses the downloads started in
+ * {@link #prepareResponse(IMethodEntity, IEntity)} if the resources have already started
+ * downloading.
  * @param resources all resources to download.
  * @param progressListener optional progress listener
  * @return true if all resources were downloaded.
  */
 boolean downloadResources(ArrayList<? extends ResourceBlobEntity> resources, IDownloadProgressListener progressListener) {
+	ArrayList<Future<Boolean>> downloads = mStartedDownloads.remove(resources);
+	if (downloads == null) {
+		downloads = startResourceDownloads(resources);
+	}
+	waitForDownloads(downloads, progressListener);
+
+	for (ResourceBlobEntity resourceInfo : resources) {
+		if (!resourceInfo.downloaded) {
+			return false;
+		}
+	}
+
+	return true;
+}
+
+/**
+ * Start downloading all specified resources
+ * @param resources all resources to download
+ * @return the started downloads
+ */
+private ArrayList<Future<Boolean>> startResourceDownloads(ArrayList<? extends ResourceBlobEntity> resources) {
 	// Add all resources to download
 	ArrayList<DownloadResourceWrapper> toDownload = new ArrayList<>();
 
@@ -464,8 +534,12 @@ boolean downloadResources(ArrayList<? extends ResourceBlobEntity> resources, IDo
 	for (ResourceBlobEntity resourceInfo : resources) {
 		String resourceFileName = null;
 		if (resourceInfo instanceof ResourceRevisionBlobEntity) {
-			resourceFileName = ResourceLocalRepo.getRevisionFilepath(resourceInfo.resourceId,
-					((ResourceRevisionBlobEntity) resourceInfo).revision);
+			ResourceRevisionBlobEntity revisionInfo = (ResourceRevisionBlobEntity) resourceInfo;
+			if (revisionInfo.deltaFrom > 0) {
+				resourceFileName = ResourceLocalRepo.getRevisionDeltaFilepath(revisionInfo.resourceId, revisionInfo.revision);
+			} else {
+				resourceFileName = ResourceLocalRepo.getRevisionFilepath(revisionInfo.resourceId, revisionInfo.revision);
+			}
 		} else {
 			resourceFileName = ResourceLocalRepo.getFilepath(resourceInfo.resourceId);
 		}
@@ -486,15 +560,7 @@ boolean downloadResources(ArrayList<? extends ResourceBlobEntity> resources, IDo
 		toDownload.add(new DownloadResourceWrapper(resourceFileName, resourceInfo));
 	}
 
-	downloadInThreads(toDownload, progressListener);
-
-	for (ResourceBlobEntity resourceInfo : resources) {
-		if (!resourceInfo.downloaded) {
-			return false;
-		}
-	}
-
-	return true;
+	return startDownloads(toDownload);
 }
 
 /**
@@ -726,30 +792,16 @@ private abstract class ServerCache<EntityType extends ServerCache<?>> extends Ca
 }
 
 /**
- * Common cache for actors
+ * Common cache for actors. Thumbnails are owned by {@link ThumbnailRepo}
  * @param <EntityType>
  */
-private abstract class ActorCache<EntityType extends ActorCache<?>> extends ServerCache<EntityType> implements Disposable {
+private abstract class ActorCache<EntityType extends ActorCache<?>> extends ServerCache<EntityType> {
 	/**
 	 * Create actor cache with default cache time
 	 */
 	protected ActorCache() {
 		super(Config.Cache.RESOURCE_BROWSE_TIME);
 	}
-
-	@Override
-	public void dispose() {
-		List<? extends DefEntity> actors = getActors();
-		if (actors != null) {
-			for (DefEntity actor : actors) {
-				if (actor.drawable instanceof TextureRegionDrawable) {
-					((TextureRegionDrawable) actor.drawable).getRegion().getTexture().dispose();
-				}
-			}
-		}
-	}
-
-	protected abstract List<? extends DefEntity> getActors();
 }
 
 /**
@@ -770,11 +822,6 @@ private class EnemyCache extends ActorCache<EnemyCache> {
 		super.copy(copy);
 		copy.enemies.addAll(enemies);
 	}
-
-	@Override
-	protected List<? extends DefEntity> getActors() {
-		return enemies;
-	}
 }
 
 /**
@@ -796,17 +843,12 @@ private class BulletCache extends ActorCache<BulletCache> {
 		copy.bullets.addAll(bullets);
 	}
 
-	@Override
-	protected List<? extends DefEntity> getActors() {
-		return bullets;
-	}
-
 }
 
 /**
- * Level cache when getting levels
+ * Level cache when getting levels. Thumbnails are owned by {@link ThumbnailRepo}
  */
-private class LevelCache extends ServerCache<LevelCache> implements Disposable {
+private class LevelCache extends ServerCache<LevelCache> {
 	ArrayList<LevelInfoEntity> levels = new ArrayList<>();
 
 	/**
@@ -838,19 +880,6 @@ private class LevelCache extends ServerCache<LevelCache> implements Disposable {
 		copy.levels.addAll(levels);
 	}
 
-	@Override
-	public void dispose() {
-		if (levels != null) {
-			// Dispose drawables
-			for (LevelInfoEntity levelInfoEntity : levels) {
-				if (levelInfoEntity.defEntity.drawable instanceof TextureRegionDrawable) {
-					((TextureRegionDrawable) levelInfoEntity.defEntity.drawable).getRegion().getTexture().dispose();
-				}
-				levelInfoEntity.defEntity.drawable = null;
-			}
-		}
-	}
-
 
 }
 
@@ -1,38 +1,85 @@
 package com.spiddekauga.voider.repo.resource;
 
+import com.badlogic.gdx.Files.FileType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.spiddekauga.utils.ObjectCrypter;
+import com.spiddekauga.voider.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
 
 /**
- * Class for getting a file handle for a resource that has revisions
+ * Class for getting a file handle for a resource that has revisions. Revisions that are stored as a
+ * delta of the previous revision are recreated when they're read.
  */
 public class RevisionFileHandleResolver implements FileHandleResolver {
+/** Reads revisions, synchronized as the crypter can't be shared between threads */
+private final ResourceFileGateway mFileGateway = new ResourceFileGateway();
+/** Encrypts recreated revisions so they can be read as regular resource files */
+private final ObjectCrypter mCrypter = new ObjectCrypter(Config.Crypto.getFileKey());
+
 @Override
 public FileHandle resolve(String fileName) {
 	FileHandle regularFile = Gdx.files.external(fileName);
 	if (regularFile.exists()) {
 		return regularFile;
 	}
-	// Check for revision
-	else {
-		// Get directory
-		// Find position of last slash (/)
-		//			int dirPosition = fileName.lastIndexOf('/');
-		//			FileHandle dir = Gdx.files.external(fileName.substring(0, dirPosition));
-		//			FileHandle[] files = dir.list();
-		FileHandle[] files = regularFile.parent().list();
-
-		FileHandle correctFile = null;
-		int i = 0;
-		while (correctFile != null && i < fileName.length()) {
-			if (files[i].nameWithoutExtension().equals(regularFile.nameWithoutExtension())) {
-				correctFile = files[i];
-			}
-			++i;
+
+	// Check for delta revision
+	UserResourceIdentifier identifier = mFileGateway.getRevisionIdentifier(fileName);
+	if (identifier != null) {
+		FileHandle deltaFile = Gdx.files.external(mFileGateway.getRevisionDeltaFilepath(identifier.resourceId, identifier.revision));
+		if (deltaFile.exists()) {
+			return new DeltaRevisionFileHandle(fileName, identifier);
 		}
+	}
+
+	return regularFile;
+}
+
+/**
+ * File handle of a revision that is stored as a delta. Recreates the encrypted revision when read.
+ */
+private class DeltaRevisionFileHandle extends FileHandle {
+	private UserResourceIdentifier mIdentifier;
 
-		return correctFile;
+	/**
+	 * @param fileName filepath of the full revision
+	 * @param identifier resource id and revision
+	 */
+	private DeltaRevisionFileHandle(String fileName, UserResourceIdentifier identifier) {
+		super(new File(fileName), FileType.External);
+		mIdentifier = identifier;
+	}
+
+	@Override
+	public boolean exists() {
+		return true;
+	}
+
+	@Override
+	public InputStream read() {
+		return new ByteArrayInputStream(readBytes());
+	}
+
+	@Override
+	public byte[] readBytes() {
+		synchronized (mFileGateway) {
+			byte[] serializedResource = mFileGateway.readRevision(mIdentifier.resourceId, mIdentifier.revision);
+			if (serializedResource == null) {
+				throw new GdxRuntimeException("Could not recreate revision " + mIdentifier.revision + " of " + mIdentifier.resourceId);
+			}
+
+			try {
+				return mCrypter.encrypt(serializedResource);
+			} catch (Exception e) {
+				throw new GdxRuntimeException(e);
+			}
+		}
 	}
 }
 }
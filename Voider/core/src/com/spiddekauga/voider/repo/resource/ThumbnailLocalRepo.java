@@ -0,0 +1,128 @@
+package com.spiddekauga.voider.repo.resource;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.spiddekauga.voider.Config;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+/**
+ * Disk cache of published thumbnails, stored by their PNG hash. The least recently used thumbnails
+ * are removed when the cache grows larger than {@link Config.Cache#THUMBNAIL_DISK_SIZE_MAX}.
+ */
+class ThumbnailLocalRepo {
+/** File extension of the thumbnails */
+private static final String FILE_EXTENSION = ".png";
+/** Cached files by PNG hash, least recently used first */
+private LinkedHashMap<String, FileHandle> mFiles = null;
+/** Total size of all cached files */
+private long mSize = 0;
+
+/**
+ * Get a cached thumbnail
+ * @param pngHash hash of the thumbnail
+ * @return PNG bytes of the thumbnail, null if it isn't cached
+ */
+synchronized byte[] get(String pngHash) {
+	loadIndex();
+
+	FileHandle file = mFiles.get(pngHash);
+	if (file != null) {
+		try {
+			byte[] png = file.readBytes();
+			file.file().setLastModified(System.currentTimeMillis());
+			return png;
+		} catch (GdxRuntimeException e) {
+			remove(pngHash);
+		}
+	}
+
+	return null;
+}
+
+/**
+ * Add a thumbnail to the cache
+ * @param pngHash hash of the thumbnail
+ * @param png PNG bytes of the thumbnail
+ */
+synchronized void put(String pngHash, byte[] png) {
+	loadIndex();
+
+	remove(pngHash);
+	FileHandle file = Gdx.files.external(Config.File.getThumbnailStorage() + pngHash + FILE_EXTENSION);
+	try {
+		file.writeBytes(png, false);
+		mFiles.put(pngHash, file);
+		mSize += png.length;
+		trim();
+	} catch (GdxRuntimeException e) {
+		e.printStackTrace();
+	}
+}
+
+/**
+ * Remove a thumbnail from the cache
+ * @param pngHash hash of the thumbnail
+ */
+synchronized void remove(String pngHash) {
+	loadIndex();
+
+	FileHandle file = mFiles.remove(pngHash);
+	if (file != null) {
+		mSize -= file.length();
+		file.delete();
+	}
+}
+
+/**
+ * Remove the least recently used thumbnails until the cache is within its maximum size
+ */
+private void trim() {
+	Iterator<Entry<String, FileHandle>> iterator = mFiles.entrySet().iterator();
+	while (mSize > Config.Cache.THUMBNAIL_DISK_SIZE_MAX && iterator.hasNext()) {
+		FileHandle file = iterator.next().getValue();
+		mSize -= file.length();
+		file.delete();
+		iterator.remove();
+	}
+}
+
+/**
+ * Load all cached files ordered by when they were last used, if they haven't been loaded
+ */
+private void loadIndex() {
+	if (mFiles != null) {
+		return;
+	}
+
+	mFiles = new LinkedHashMap<>(16, 0.75f, true);
+	mSize = 0;
+
+	FileHandle folder = Gdx.files.external(Config.File.getThumbnailStorage());
+	if (!folder.exists()) {
+		folder.mkdirs();
+		return;
+	}
+
+	FileHandle[] files = folder.list(FILE_EXTENSION);
+	Arrays.sort(files, new Comparator<FileHandle>() {
+		@Override
+		public int compare(FileHandle left, FileHandle right) {
+			long leftModified = left.lastModified();
+			long rightModified = right.lastModified();
+			return leftModified < rightModified ? -1 : (leftModified == rightModified ? 0 : 1);
+		}
+	});
+
+	for (FileHandle file : files) {
+		mFiles.put(file.nameWithoutExtension(), file);
+		mSize += file.length();
+	}
+	trim();
+}
+}
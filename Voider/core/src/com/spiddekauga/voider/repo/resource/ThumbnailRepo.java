@@ -0,0 +1,244 @@
+package com.spiddekauga.voider.repo.resource;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.spiddekauga.voider.Config;
+import com.spiddekauga.voider.network.entities.IEntity;
+import com.spiddekauga.voider.network.entities.IMethodEntity;
+import com.spiddekauga.voider.network.resource.DefEntity;
+import com.spiddekauga.voider.network.resource.LevelDefEntity;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchMethod;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchResponse;
+import com.spiddekauga.voider.repo.Repo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+/**
+ * Thumbnails of published resources. Thumbnails are cached on disk by their PNG hash and packed
+ * into a shared texture atlas. Thumbnails that aren't cached are fetched in one request per frame.
+ * All methods except the web response should be called from the main thread.
+ */
+public class ThumbnailRepo extends Repo {
+/** Name of the transparent region that is shown until the thumbnail has been loaded */
+private static final String PLACEHOLDER_NAME = "placeholder";
+private static ThumbnailRepo mInstance = null;
+private ThumbnailLocalRepo mLocalRepo = new ThumbnailLocalRepo();
+private ResourceWebRepo mWebRepo = ResourceWebRepo.getInstance();
+/** Drawables by PNG hash, shows the placeholder until the thumbnail has been packed */
+private HashMap<String, TextureRegionDrawable> mDrawables = new HashMap<>();
+/** Thumbnails that have been packed but not uploaded to the atlas yet */
+private ArrayList<String> mPacked = new ArrayList<>();
+/** PNG hash of thumbnails that should be fetched, by resource id */
+private HashMap<UUID, String> mMissing = new HashMap<>();
+/** PNG hash of thumbnails that are being fetched, by resource id */
+private HashMap<UUID, String> mFetching = new HashMap<>();
+private PixmapPacker mPacker = null;
+private TextureAtlas mAtlas = null;
+private TextureRegion mPlaceholder = null;
+/** Number of scenes that use the atlas */
+private int mAtlasUsers = 0;
+
+/**
+ * Private constructor to enforce singleton usage
+ */
+private ThumbnailRepo() {
+	// Does nothing
+}
+
+/**
+ * @return singleton instance of ThumbnailRepo
+ */
+public static ThumbnailRepo getInstance() {
+	if (mInstance == null) {
+		mInstance = new ThumbnailRepo();
+	}
+	return mInstance;
+}
+
+/**
+ * Get the thumbnail of a published resource. If the thumbnail isn't loaded the drawable shows a
+ * transparent placeholder until the thumbnail has been loaded.
+ * @param defEntity published resource to get the thumbnail of
+ * @return drawable of the thumbnail, null if the resource doesn't have a thumbnail
+ */
+public TextureRegionDrawable getDrawable(DefEntity defEntity) {
+	if (defEntity.pngHash == null) {
+		return null;
+	}
+
+	TextureRegionDrawable drawable = mDrawables.get(defEntity.pngHash);
+	if (drawable == null) {
+		createAtlas();
+
+		// Size of the placeholder should be the same as the thumbnail
+		drawable = new TextureRegionDrawable(mPlaceholder);
+		if (defEntity instanceof LevelDefEntity) {
+			drawable.setMinWidth(Config.Level.SAVE_TEXTURE_WIDTH);
+			drawable.setMinHeight(Config.Level.SAVE_TEXTURE_HEIGHT);
+		} else {
+			drawable.setMinWidth(Config.Actor.SAVE_TEXTURE_SIZE);
+			drawable.setMinHeight(Config.Actor.SAVE_TEXTURE_SIZE);
+		}
+		mDrawables.put(defEntity.pngHash, drawable);
+
+		byte[] png = mLocalRepo.get(defEntity.pngHash);
+		if (png == null || !pack(defEntity.pngHash, png)) {
+			mMissing.put(defEntity.resourceId, defEntity.pngHash);
+		}
+	}
+
+	return drawable;
+}
+
+/**
+ * Uploads all packed thumbnails to the atlas and fetches all missing thumbnails in one request.
+ * Call once per frame.
+ */
+public void update() {
+	if (!mPacked.isEmpty()) {
+		mPacker.updateTextureAtlas(mAtlas, TextureFilter.Linear, TextureFilter.Linear, false);
+		for (String pngHash : mPacked) {
+			TextureRegionDrawable drawable = mDrawables.get(pngHash);
+			TextureRegion region = mAtlas.findRegion(pngHash);
+			if (drawable != null && region != null) {
+				drawable.setRegion(region);
+			}
+		}
+		mPacked.clear();
+	}
+
+	if (!mMissing.isEmpty()) {
+		mFetching.putAll(mMissing);
+		mWebRepo.fetchThumbnails(new ArrayList<>(mMissing.keySet()), this);
+		mMissing.clear();
+	}
+}
+
+/**
+ * Call when a scene starts to use thumbnails
+ */
+public void retainAtlas() {
+	mAtlasUsers++;
+}
+
+/**
+ * Call when a scene stops using thumbnails. The atlas is disposed when no scene uses it
+ */
+public void releaseAtlas() {
+	mAtlasUsers--;
+	if (mAtlasUsers <= 0) {
+		mAtlasUsers = 0;
+		disposeAtlas();
+	}
+}
+
+/**
+ * Dispose the texture atlas and all thumbnail drawables. Thumbnails are still cached on disk.
+ */
+private void disposeAtlas() {
+	if (mAtlas != null) {
+		mAtlas.dispose();
+		mAtlas = null;
+	}
+	if (mPacker != null) {
+		mPacker.dispose();
+		mPacker = null;
+	}
+	mPlaceholder = null;
+	mDrawables.clear();
+	mPacked.clear();
+	mMissing.clear();
+	mFetching.clear();
+}
+
+/**
+ * Creates the packer, atlas, and placeholder region if they don't exist
+ */
+private void createAtlas() {
+	if (mAtlas == null) {
+		int pageSize = Config.Cache.THUMBNAIL_ATLAS_PAGE_SIZE;
+		mPacker = new PixmapPacker(pageSize, pageSize, Format.RGBA8888, 2, false);
+
+		Pixmap placeholder = new Pixmap(1, 1, Format.RGBA8888);
+		mPacker.pack(PLACEHOLDER_NAME, placeholder);
+		placeholder.dispose();
+
+		mAtlas = mPacker.generateTextureAtlas(TextureFilter.Linear, TextureFilter.Linear, false);
+		mPlaceholder = mAtlas.findRegion(PLACEHOLDER_NAME);
+	}
+}
+
+/**
+ * Pack a thumbnail. It's uploaded to the atlas in the next {@link #update()}
+ * @param pngHash hash of the thumbnail
+ * @param png PNG bytes of the thumbnail
+ * @return true if the thumbnail was packed, false if the PNG is invalid
+ */
+private boolean pack(String pngHash, byte[] png) {
+	if (mPacker.getRect(pngHash) == null) {
+		Pixmap pixmap;
+		try {
+			pixmap = new Pixmap(png, 0, png.length);
+		} catch (GdxRuntimeException e) {
+			mLocalRepo.remove(pngHash);
+			return false;
+		}
+		mPacker.pack(pngHash, pixmap);
+		pixmap.dispose();
+	}
+
+	mPacked.add(pngHash);
+	return true;
+}
+
+@Override
+public void handleWebResponse(IMethodEntity method, IEntity response) {
+	if (method instanceof ThumbnailFetchMethod && response instanceof ThumbnailFetchResponse) {
+		// Write to disk on the network thread
+		final ThumbnailFetchResponse thumbnailResponse = (ThumbnailFetchResponse) response;
+		for (Entry<String, byte[]> entry : thumbnailResponse.thumbnails.entrySet()) {
+			mLocalRepo.put(entry.getKey(), entry.getValue());
+		}
+
+		final ArrayList<UUID> resourceIds = ((ThumbnailFetchMethod) method).resourceIds;
+		Gdx.app.postRunnable(new Runnable() {
+			@Override
+			public void run() {
+				handleThumbnailFetchResponse(resourceIds, thumbnailResponse);
+			}
+		});
+	}
+}
+
+/**
+ * Packs the fetched thumbnails. Thumbnails that weren't fetched are fetched again the next time
+ * they're used.
+ * @param resourceIds resources that the thumbnails were fetched for
+ * @param response the fetched thumbnails
+ */
+private void handleThumbnailFetchResponse(ArrayList<UUID> resourceIds, ThumbnailFetchResponse response) {
+	for (UUID resourceId : resourceIds) {
+		String pngHash = mFetching.remove(resourceId);
+
+		// Atlas has been disposed
+		if (pngHash == null || !mDrawables.containsKey(pngHash)) {
+			continue;
+		}
+
+		byte[] png = response.thumbnails.get(pngHash);
+		if (png == null || !pack(pngHash, png)) {
+			mDrawables.remove(pngHash);
+		}
+	}
+}
+}
@@ -57,9 +57,7 @@ HighscoreSyncEntity getHighscore(UUID levelId) {
  * @param highscores all the highscore to set as synced
  */
 void setHighscoresFromServer(ArrayList<HighscoreSyncEntity> highscores) {
-	for (HighscoreSyncEntity highscore : highscores) {
-		setHighscoreAndSynced(highscore);
-	}
+	mSqliteGateway.set(highscores, true);
 }
 
 /**
@@ -75,9 +73,7 @@ void setHighscoreAndSynced(HighscoreSyncEntity highscore) {
  * @param highscores all highscores to set as synced
  */
 void setSynced(ArrayList<HighscoreSyncEntity> highscores) {
-	for (HighscoreSyncEntity highscore : highscores) {
-		setSynced(highscore.levelId);
-	}
+	mSqliteGateway.setSynced(highscores);
 }
 
 /**
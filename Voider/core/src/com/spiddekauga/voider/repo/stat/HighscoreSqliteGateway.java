@@ -6,6 +6,7 @@ import com.spiddekauga.voider.repo.SqliteGateway;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,6 +34,23 @@ void set(UUID levelId, int score, Date date, boolean synced) {
 	}
 }
 
+/**
+ * Set or create several highscores in one transaction
+ * @param highscores the highscores to set
+ * @param synced if the scores have been synced or not
+ */
+void set(List<HighscoreSyncEntity> highscores, boolean synced) {
+	beginTransaction();
+	try {
+		for (HighscoreSyncEntity highscore : highscores) {
+			set(highscore.levelId, highscore.score, highscore.created, synced);
+		}
+		setTransactionSuccessful();
+	} finally {
+		endTransaction();
+	}
+}
+
 /**
  * @param levelId test if a highscore exist for this level
  * @return true if a highscore exists for the specified level
@@ -117,4 +135,23 @@ boolean isNewHighscore(UUID levelId, int score) {
 void setSynced(UUID levelId) {
 	execSQL("UPDATE highscore SET synced=1 WHERE level_id='" + levelId + "';");
 }
+
+/**
+ * Set several highscores as synced
+ * @param highscores the highscores to set as synced
+ */
+void setSynced(List<HighscoreSyncEntity> highscores) {
+	if (highscores.isEmpty()) {
+		return;
+	}
+
+	StringBuilder levelIds = new StringBuilder();
+	for (HighscoreSyncEntity highscore : highscores) {
+		if (levelIds.length() > 0) {
+			levelIds.append(", ");
+		}
+		levelIds.append('\'').append(highscore.levelId).append('\'');
+	}
+	execSQL("UPDATE highscore SET synced=1 WHERE level_id IN (" + levelIds + ");");
+}
 }
@@ -152,16 +152,22 @@ private static Date getOldDate() {
  * Set all stats as synced
  */
 void setAsSynced() {
-	// Level stat
-	execSQL("UPDATE level_stat SET plays_to_sync=0, clears_to_sync=0, synced=1;");
-
-	// Level tag
-	// Prune old tags
-	Date deleteDate = getOldDate();
-	execSQL("DELETE FROM level_tag WHERE date<" + deleteDate.getTime());
-
-	// Set rest as synced
-	execSQL("UPDATE level_tag SET synced=1;");
+	beginTransaction();
+	try {
+		// Level stat
+		execSQL("UPDATE level_stat SET plays_to_sync=0, clears_to_sync=0, synced=1;");
+
+		// Level tag
+		// Prune old tags
+		Date deleteDate = getOldDate();
+		execSQL("DELETE FROM level_tag WHERE date<" + deleteDate.getTime());
+
+		// Set rest as synced
+		execSQL("UPDATE level_tag SET synced=1;");
+		setTransactionSuccessful();
+	} finally {
+		endTransaction();
+	}
 }
 
 /**
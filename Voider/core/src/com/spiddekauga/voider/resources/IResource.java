@@ -31,6 +31,13 @@ public interface IResource {
 	 */
 	void removeBoundResource(IResource boundResource, List<Command> commands);
 
+	/**
+	 * Adds all resources this resource is bound to, i.e. all resources that would add a
+	 * command in {@link #removeBoundResource(IResource, List)} when removed.
+	 * @param boundResources list to add the bound resources to
+	 */
+	void getBoundResources(List<IResource> boundResources);
+
 	/**
 	 * Adds an on changed listener to the resource. This listener will be called whenever
 	 * the resource will be changed.
@@ -54,6 +54,7 @@ public abstract class Resource implements IResource, KryoPostRead {
 		}
 		mUniqueId = resource.mUniqueId;
 		mListeners = resource.mListeners;
+		onBoundResourcesChanged();
 	}
 
 	/**
@@ -110,12 +111,14 @@ public abstract class Resource implements IResource, KryoPostRead {
 					@Override
 					public boolean undo() {
 						mListeners.add(changeListener);
+						onBoundResourcesChanged();
 						return true;
 					}
 
 					@Override
 					public boolean execute() {
 						mListeners.remove(changeListener);
+						onBoundResourcesChanged();
 						return true;
 					}
 				};
@@ -124,18 +127,73 @@ public abstract class Resource implements IResource, KryoPostRead {
 		}
 	}
 
+	@Override
+	public void getBoundResources(List<IResource> boundResources) {
+		if (mListeners != null) {
+			boundResources.addAll(mListeners);
+		}
+	}
+
+	/**
+	 * Should be called whenever the resources returned by
+	 * {@link #getBoundResources(List)} change, i.e. when this resource is bound to or
+	 * unbound from another resource. Updates the bound resource index of all
+	 * {@link ResourceContainer}s this resource is in.
+	 */
+	public void onBoundResourcesChanged() {
+		if (mContainers != null) {
+			for (ResourceContainer container : mContainers) {
+				container.updateBoundIndex(this);
+			}
+		}
+	}
+
+	/**
+	 * Notify the container when this resource is bound or unbound
+	 * @param container container that has indexed this resource's bound resources
+	 */
+	void addContainer(ResourceContainer container) {
+		if (mContainers == null) {
+			mContainers = new ArrayList<>();
+		}
+		// Containers are equal when they have the same resources, thus compare instances
+		for (ResourceContainer addedContainer : mContainers) {
+			if (addedContainer == container) {
+				return;
+			}
+		}
+		mContainers.add(container);
+	}
+
+	/**
+	 * Stop notifying the container when this resource is bound or unbound
+	 * @param container container that no longer indexes this resource
+	 */
+	void removeContainer(ResourceContainer container) {
+		if (mContainers != null) {
+			for (int i = 0; i < mContainers.size(); ++i) {
+				if (mContainers.get(i) == container) {
+					mContainers.remove(i);
+					return;
+				}
+			}
+		}
+	}
+
 	@Override
 	public void addChangeListener(IResourceChangeListener listener) {
 		if (mListeners == null) {
 			mListeners = new ArrayList<IResourceChangeListener>();
 		}
 		mListeners.add(listener);
+		onBoundResourcesChanged();
 	}
 
 	@Override
 	public void removeChangeListener(IResourceChangeListener listener) {
 		if (mListeners != null) {
 			mListeners.remove(listener);
+			onBoundResourcesChanged();
 		}
 	}
 
@@ -159,6 +217,8 @@ public abstract class Resource implements IResource, KryoPostRead {
 		return getClass().getSimpleName() + ": " + mUniqueId;
 	}
 
+	/** Containers that have indexed the bound resources of this resource, not copied */
+	private ArrayList<ResourceContainer> mContainers = null;
 	/** Unique id of the resource */
 	@Tag(1) protected UUID mUniqueId = null;
 	/** Listeners of the resource */
@@ -1,7 +1,10 @@
 package com.spiddekauga.voider.resources;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,7 +26,14 @@ public class ResourceContainer {
 	 * @param resource the resource
 	 */
 	public void addResource(IResource resource) {
-		mResources.put(resource.getId(), resource);
+		IResource replacedResource = mResources.put(resource.getId(), resource);
+
+		if (replacedResource != null) {
+			removeFromTypedResources(replacedResource);
+			removeFromBoundIndex(replacedResource);
+		}
+		addToTypedResources(resource);
+		addToBoundIndex(resource);
 	}
 
 	/**
@@ -36,36 +46,236 @@ public class ResourceContainer {
 	 * @return resource that was removed
 	 */
 	public IResource removeResource(UUID resourceId, boolean addRemoveBoundResourceToInvoker) {
-		IResource removedResource = mResources.remove(resourceId);
+		ArrayList<IResource> removedResources = removeResources(Collections.singletonList(resourceId), addRemoveBoundResourceToInvoker);
+
+		if (!removedResources.isEmpty()) {
+			return removedResources.get(0);
+		} else {
+			return null;
+		}
+	}
 
-		// Skip removing bound resource for level
-		if (!(removedResource instanceof Level)) {
+	/**
+	 * Removes all the specified resources. All resources that are bound to the removed
+	 * resources are unbound using one list of commands.
+	 * @param resourceIds all resources to remove
+	 * @param addRemoveBoundResourceToInvoker if the removed bound resources should be
+	 *        added to the invoker. If the removed resources should be undone via the
+	 *        undo() command this variable should be true, otherwise the resources won't
+	 *        be bound to the previously bound resources.
+	 * @return all resources that were removed, in the same order as resourceIds
+	 */
+	public ArrayList<IResource> removeResources(List<UUID> resourceIds, boolean addRemoveBoundResourceToInvoker) {
+		ArrayList<IResource> removedResources = new ArrayList<>();
+		Map<UUID, Integer> removedOrder = new HashMap<>();
+
+		for (UUID resourceId : resourceIds) {
+			IResource removedResource = mResources.remove(resourceId);
 
-			// Find all other resources that uses the removed resource
-			// Unbind/Remove the removed resource from those
 			if (removedResource != null) {
-				ArrayList<Command> commands = new ArrayList<>();
-				for (Map.Entry<UUID, IResource> entry : mResources.entrySet()) {
-					IResource resource = entry.getValue();
-					resource.removeBoundResource(removedResource, commands);
+				removeFromTypedResources(removedResource);
+				removedOrder.put(resourceId, removedResources.size());
+				removedResources.add(removedResource);
+			}
+		}
+
+		// Find all other resources that uses the removed resources
+		// Unbind/Remove the removed resource from those
+		ArrayList<Command> commands = new ArrayList<>();
+		for (int i = 0; i < removedResources.size(); ++i) {
+			IResource removedResource = removedResources.get(i);
+
+			// Skip removing bound resource for level
+			if (!(removedResource instanceof Level)) {
+				addUnbindCommands(removedResource, i, removedOrder, commands);
+			}
+		}
+
+		if (!commands.isEmpty()) {
+			// Unbind the resources
+			// Ability to undo the bind
+			if (addRemoveBoundResourceToInvoker) {
+				Invoker invoker = SceneSwitcher.getInvoker();
+				invoker.execute(commands, true, true);
+			}
+			// Just unbind the resource
+			else {
+				for (Command command : commands) {
+					command.execute();
 				}
+			}
+		}
+
+		for (IResource removedResource : removedResources) {
+			removeFromBoundIndex(removedResource);
+		}
 
-				// Unbind the resources
-				// Ability to undo the bind
-				if (addRemoveBoundResourceToInvoker) {
-					Invoker invoker = SceneSwitcher.getInvoker();
-					invoker.execute(commands, true, true);
+		return removedResources;
+	}
+
+	/**
+	 * Add commands for unbinding the removed resource from all resources bound to it.
+	 * Resources that are removed after this resource in the same batch are still unbound,
+	 * just as if they were removed one at a time.
+	 * @param removedResource the resource that was removed
+	 * @param removedIndex order the resource was removed in
+	 * @param removedOrder order of all removed resources in this batch
+	 * @param commands list to add the unbind commands to
+	 */
+	private void addUnbindCommands(IResource removedResource, int removedIndex, Map<UUID, Integer> removedOrder, List<Command> commands) {
+		ArrayList<IResource> boundResources = getBoundIndex().get(removedResource.getId());
+
+		if (boundResources != null) {
+			for (IResource resource : boundResources) {
+				boolean unbind = false;
+
+				// Still in the container
+				if (mResources.get(resource.getId()) == resource) {
+					unbind = true;
 				}
-				// Just unbind the resource
+				// Removed after this resource
 				else {
-					for (Command command : commands) {
-						command.execute();
-					}
+					Integer resourceRemovedIndex = removedOrder.get(resource.getId());
+					unbind = resourceRemovedIndex != null && resourceRemovedIndex > removedIndex;
 				}
+
+				if (unbind) {
+					resource.removeBoundResource(removedResource, commands);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the index of which resources are bound to which. The index is built the first
+	 * time it's used and then updated when resources are added, removed, bound or
+	 * unbound.
+	 * @return index with all resources (values) that are bound to a resource id (key)
+	 */
+	private Map<UUID, ArrayList<IResource>> getBoundIndex() {
+		if (mBoundIndex == null) {
+			mBoundIndex = new HashMap<>();
+			mIndexedBoundResources = new IdentityHashMap<>();
+
+			for (Map.Entry<UUID, IResource> entry : mResources.entrySet()) {
+				addToBoundIndex(entry.getValue());
 			}
 		}
 
-		return removedResource;
+		return mBoundIndex;
+	}
+
+	/**
+	 * Adds all resources the specified resource is bound to to the index. Does nothing if
+	 * the index hasn't been built yet.
+	 * @param resource the resource to add to the index
+	 */
+	private void addToBoundIndex(IResource resource) {
+		if (mBoundIndex == null) {
+			return;
+		}
+
+		if (resource instanceof Resource) {
+			((Resource) resource).addContainer(this);
+		}
+		addBoundIndexEdges(resource);
+	}
+
+	/**
+	 * Removes the specified resource from the index. Does nothing if the index hasn't been
+	 * built yet.
+	 * @param resource the resource to remove from the index
+	 */
+	private void removeFromBoundIndex(IResource resource) {
+		if (mBoundIndex == null) {
+			return;
+		}
+
+		if (resource instanceof Resource) {
+			((Resource) resource).removeContainer(this);
+		}
+		removeBoundIndexEdges(resource);
+	}
+
+	/**
+	 * Updates the index after the specified resource has been bound or unbound. Called by
+	 * {@link Resource#onBoundResourcesChanged()}.
+	 * @param resource the resource that was bound or unbound
+	 */
+	void updateBoundIndex(IResource resource) {
+		if (mBoundIndex != null && mIndexedBoundResources.containsKey(resource)) {
+			removeBoundIndexEdges(resource);
+			addBoundIndexEdges(resource);
+		}
+	}
+
+	/**
+	 * Adds the resource to the index of all resources it's currently bound to
+	 * @param resource the resource to add
+	 */
+	private void addBoundIndexEdges(IResource resource) {
+		ArrayList<IResource> boundResources = new ArrayList<>();
+		resource.getBoundResources(boundResources);
+		mIndexedBoundResources.put(resource, boundResources);
+
+		for (IResource boundResource : boundResources) {
+			if (boundResource == null || boundResource.getId() == null) {
+				continue;
+			}
+
+			ArrayList<IResource> boundToResources = mBoundIndex.get(boundResource.getId());
+			if (boundToResources == null) {
+				boundToResources = new ArrayList<>();
+				mBoundIndex.put(boundResource.getId(), boundToResources);
+			}
+
+			if (indexOfInstance(boundToResources, resource) == -1) {
+				boundToResources.add(resource);
+			}
+		}
+	}
+
+	/**
+	 * Removes the resource from the index of all resources it was bound to when it was last
+	 * added to the index
+	 * @param resource the resource to remove
+	 */
+	private void removeBoundIndexEdges(IResource resource) {
+		ArrayList<IResource> boundResources = mIndexedBoundResources.remove(resource);
+		if (boundResources == null) {
+			return;
+		}
+
+		for (IResource boundResource : boundResources) {
+			if (boundResource == null || boundResource.getId() == null) {
+				continue;
+			}
+
+			ArrayList<IResource> boundToResources = mBoundIndex.get(boundResource.getId());
+			if (boundToResources != null) {
+				int index = indexOfInstance(boundToResources, resource);
+				if (index != -1) {
+					boundToResources.remove(index);
+				}
+				if (boundToResources.isEmpty()) {
+					mBoundIndex.remove(boundResource.getId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param resources the list to search
+	 * @param resource the resource instance to find
+	 * @return index of the instance in the list, -1 if not found
+	 */
+	private static int indexOfInstance(List<IResource> resources, IResource resource) {
+		for (int i = 0; i < resources.size(); ++i) {
+			if (resources.get(i) == resource) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	@Override
@@ -102,25 +312,99 @@ public class ResourceContainer {
 	 * To easily get all the resources of a specific type after they have been read.
 	 * @param <ResourceType> type of resources to return
 	 * @param resourceType the resource type (including derived) to return
-	 * @return a list of resources that are instances of the specified type. Don't forget
-	 *         to free the ArrayList once it has been used using
-	 *         Pools.arraylist.free(resources);
+	 * @return a new list of resources that are instances of the specified type.
+	 * @see #getResourceView(Class) for a read-only view that doesn't allocate a new list
 	 */
 	@SuppressWarnings("unchecked")
 	public <ResourceType> ArrayList<ResourceType> getResources(Class<ResourceType> resourceType) {
-		ArrayList<ResourceType> resources = new ArrayList<>();
+		return new ArrayList<>((ArrayList<ResourceType>) (ArrayList<?>) getTypedResources(resourceType));
+	}
+
+	/**
+	 * Get a read-only live view of all resources of a specific type. The view is updated when
+	 * resources are added or removed, thus don't add or remove resources when iterating over it.
+	 * @param <ResourceType> type of resources to return
+	 * @param resourceType the resource type (including derived) to return
+	 * @return read-only list of resources that are instances of the specified type.
+	 */
+	@SuppressWarnings("unchecked")
+	public <ResourceType> List<ResourceType> getResourceView(Class<ResourceType> resourceType) {
+		if (mTypedViews == null) {
+			mTypedViews = new HashMap<>();
+		}
 
-		for (Map.Entry<UUID, IResource> entry : mResources.entrySet()) {
-			IResource resource = entry.getValue();
+		List<?> view = mTypedViews.get(resourceType);
+		if (view == null) {
+			view = Collections.unmodifiableList(getTypedResources(resourceType));
+			mTypedViews.put(resourceType, view);
+		}
 
-			if (resourceType.isInstance(resource)) {
-				resources.add((ResourceType) resource);
+		return (List<ResourceType>) view;
+	}
+
+	/**
+	 * Get or create the list of resources of the specified type. When created the list is filled
+	 * with the current resources and from then on updated when resources are added or removed.
+	 * @param resourceType the resource type (including derived)
+	 * @return list of resources that are instances of the specified type
+	 */
+	private ArrayList<IResource> getTypedResources(Class<?> resourceType) {
+		if (mTypedResources == null) {
+			mTypedResources = new HashMap<>();
+		}
+
+		ArrayList<IResource> typedResources = mTypedResources.get(resourceType);
+		if (typedResources == null) {
+			typedResources = new ArrayList<>();
+			for (Map.Entry<UUID, IResource> entry : mResources.entrySet()) {
+				IResource resource = entry.getValue();
+
+				if (resourceType.isInstance(resource)) {
+					typedResources.add(resource);
+				}
 			}
+			mTypedResources.put(resourceType, typedResources);
 		}
 
-		return resources;
+		return typedResources;
+	}
+
+	/**
+	 * Adds the resource to all typed resource lists it's an instance of
+	 * @param resource the resource to add
+	 */
+	private void addToTypedResources(IResource resource) {
+		if (mTypedResources != null) {
+			for (Map.Entry<Class<?>, ArrayList<IResource>> entry : mTypedResources.entrySet()) {
+				if (entry.getKey().isInstance(resource)) {
+					entry.getValue().add(resource);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the resource from all typed resource lists it's an instance of
+	 * @param resource the resource to remove
+	 */
+	private void removeFromTypedResources(IResource resource) {
+		if (mTypedResources != null) {
+			for (Map.Entry<Class<?>, ArrayList<IResource>> entry : mTypedResources.entrySet()) {
+				if (entry.getKey().isInstance(resource)) {
+					entry.getValue().remove(resource);
+				}
+			}
+		}
 	}
 
 	/** All the resources */
 	@Tag(102) private Map<UUID, IResource> mResources = new HashMap<UUID, IResource>();
+	/** Resources by type, created when first requested and then kept up to date */
+	private Map<Class<?>, ArrayList<IResource>> mTypedResources = new HashMap<>();
+	/** Read-only views of {@link #mTypedResources} */
+	private Map<Class<?>, List<?>> mTypedViews = new HashMap<>();
+	/** Which resources are bound to a resource, built when first needed */
+	private Map<UUID, ArrayList<IResource>> mBoundIndex = null;
+	/** Resources each resource was bound to when it was added to {@link #mBoundIndex} */
+	private Map<IResource, ArrayList<IResource>> mIndexedBoundResources = null;
 }
@@ -4,21 +4,39 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 import com.spiddekauga.utils.GameTime;
 import com.spiddekauga.voider.config.ConfigIni;
+import com.spiddekauga.voider.config.IC_Sound.IC_Effect;
 import com.spiddekauga.voider.settings.SettingRepo;
 import com.spiddekauga.voider.settings.SettingRepo.SettingSoundRepo;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 /**
- * Singleton class for playing sound effects
+ * Singleton class for playing sound effects. Sounds are played, faded and stopped in {@link
+ * #update()} which is called once per frame. The same sound played several times in one frame is
+ * played once with a higher volume, and the number of voices that play at the same time is limited.
  */
 public class SoundPlayer {
+private static final Sounds[] SOUNDS = Sounds.values();
+private static final float NOT_SET = -1;
 private static SoundPlayer mInstance = null;
 private SettingSoundRepo mSettingSoundRepo = SettingRepo.getInstance().sound();
+private IC_Effect mConfig = ConfigIni.getInstance().sound.effect;
+/** Number of times each sound has been played since the last update, by ordinal */
+private int[] mPlayCounts = new int[SOUNDS.length];
+/** When loopable sounds shall be stopped, by ordinal */
+private float[] mStopTimes = new float[SOUNDS.length];
+/** When loopable sounds started to fade out, by ordinal */
+private float[] mFadeStartTimes = new float[SOUNDS.length];
+/** Playing non-loopable voices, oldest first */
+private ArrayList<Voice> mVoices = new ArrayList<>();
 
 /**
  * Private constructor to enforce singleton pattern
  */
 private SoundPlayer() {
-	// Does nothing
+	Arrays.fill(mStopTimes, NOT_SET);
+	Arrays.fill(mFadeStartTimes, NOT_SET);
 }
 
 /**
@@ -33,14 +51,15 @@ public static SoundPlayer getInstance() {
 
 /**
  * Play a sound. If the sound is loopable it can be stopped by calling {@link #stop(Sounds)}. Does
- * nothing if it's a loopable sound and it's already playing.
+ * nothing if it's a loopable sound and it's already playing. Non-loopable sounds are played in the
+ * next {@link #update()}.
  * @param sound the sound to play.
  */
 public void play(Sounds sound) {
 	if (sound.isLoopable()) {
 		playLoop(sound);
 	} else {
-		playRegular(sound);
+		mPlayCounts[sound.ordinal()]++;
 	}
 }
 
@@ -57,8 +76,7 @@ private void playLoop(Sounds sound) {
 
 		// Automatically end the loop
 		if (!sound.isLoopingForever()) {
-			new StopTrackIn(sound, sound.getLoopTime()).start();
-			;
+			mStopTimes[sound.ordinal()] = GameTime.getTotalGlobalTimeElapsed() + sound.getLoopTime();
 		}
 
 	} else {
@@ -67,12 +85,140 @@ private void playLoop(Sounds sound) {
 }
 
 /**
- * Play a regular non-loopable sound
+ * Play all sounds since the last update, fade out and stop loopable sounds. Call once per frame.
+ */
+public void update() {
+	float time = GameTime.getTotalGlobalTimeElapsed();
+
+	removeFinishedVoices(time);
+
+	for (Sounds sound : SOUNDS) {
+		int ordinal = sound.ordinal();
+
+		// Play
+		if (mPlayCounts[ordinal] > 0) {
+			playRegular(sound, mPlayCounts[ordinal], time);
+			mPlayCounts[ordinal] = 0;
+		}
+
+		// Stop timed loop
+		if (mStopTimes[ordinal] != NOT_SET && time >= mStopTimes[ordinal]) {
+			mStopTimes[ordinal] = NOT_SET;
+			stop(sound);
+		}
+
+		// Fade out
+		if (mFadeStartTimes[ordinal] != NOT_SET) {
+			fadeOut(sound, time);
+		}
+	}
+}
+
+/**
+ * Play a regular non-loopable sound. Steals the oldest voice of the same sound, or the oldest voice
+ * with the lowest priority, if too many voices are playing. Does nothing if all voices have a
+ * higher priority.
  * @param sound the sound to play
+ * @param count number of times the sound was played this frame, increases the volume
+ * @param time current global time
+ */
+private void playRegular(Sounds sound, int count, float time) {
+	Sound track = sound.getTrack();
+	if (track == null) {
+		return;
+	}
+
+	// Find a voice to steal
+	int voiceCount = 0;
+	Voice sameVoiceOldest = null;
+	Voice lowestVoiceOldest = null;
+	for (Voice voice : mVoices) {
+		if (voice.sound == sound) {
+			voiceCount++;
+			if (sameVoiceOldest == null) {
+				sameVoiceOldest = voice;
+			}
+		}
+		if (lowestVoiceOldest == null || voice.sound.getPriority().ordinal() < lowestVoiceOldest.sound.getPriority().ordinal()) {
+			lowestVoiceOldest = voice;
+		}
+	}
+
+	if (voiceCount >= mConfig.getVoicesMax()) {
+		stopVoice(sameVoiceOldest);
+	} else if (mVoices.size() >= mConfig.getVoicesMaxTotal()) {
+		if (lowestVoiceOldest.sound.getPriority().ordinal() > sound.getPriority().ordinal()) {
+			return;
+		}
+		stopVoice(lowestVoiceOldest);
+	}
+
+	// Play louder when played several times
+	float volume = getVolume(sound) * (1 + (count - 1) * mConfig.getDuplicateVolumeIncrease());
+	long id = track.play(Math.min(volume, 1));
+	if (id != -1) {
+		mVoices.add(new Voice(sound, id, time + mConfig.getVoiceTime()));
+	}
+}
+
+/**
+ * Stop a voice and remove it
+ * @param voice the voice to stop
+ */
+private void stopVoice(Voice voice) {
+	Sound track = voice.sound.getTrack();
+	if (track != null) {
+		track.stop(voice.id);
+	}
+	mVoices.remove(voice);
+}
+
+/**
+ * Remove all voices that have finished playing
+ * @param time current global time
+ */
+private void removeFinishedVoices(float time) {
+	int keepCount = 0;
+	for (int i = 0; i < mVoices.size(); ++i) {
+		Voice voice = mVoices.get(i);
+		if (voice.endTime > time) {
+			mVoices.set(keepCount, voice);
+			keepCount++;
+		}
+	}
+	for (int i = mVoices.size() - 1; i >= keepCount; --i) {
+		mVoices.remove(i);
+	}
+}
+
+/**
+ * Fade out a loopable sound, stops it when it has faded out
+ * @param sound the sound to fade out
+ * @param time current global time
  */
-private void playRegular(Sounds sound) {
+private void fadeOut(Sounds sound, float time) {
+	int ordinal = sound.ordinal();
 	Sound track = sound.getTrack();
-	track.play(getVolume(sound));
+	if (!sound.isPlaying() || track == null) {
+		sound.setLoopId(Sounds.INVALID_ID);
+		mFadeStartTimes[ordinal] = NOT_SET;
+		return;
+	}
+
+	float timeDiff = time - mFadeStartTimes[ordinal];
+	float fadeTime = mConfig.getFadeTime();
+
+	// Fade
+	if (timeDiff < fadeTime) {
+		float scale = 1 - timeDiff / fadeTime;
+		track.setVolume(sound.getLoopId(), getVolume(sound) * scale);
+	}
+	// Stop
+	else {
+		track.stop(sound.getLoopId());
+		sound.setLoopId(Sounds.INVALID_ID);
+		mFadeStartTimes[ordinal] = NOT_SET;
+	}
 }
 
 /**
@@ -94,103 +240,41 @@ private float getVolume(Sounds sound) {
  * Stop all loopable sounds.
  */
 public void stopAll() {
-	for (Sounds sound : Sounds.values()) {
+	for (Sounds sound : SOUNDS) {
 		stop(sound);
 	}
 }
 
 /**
- * Stops a loopable sound. Does nothing if it's not playing
+ * Stops a loopable sound by fading it out. Does nothing if it's not playing
  * @param sound the sound to stop
  */
 public void stop(Sounds sound) {
-	if (sound.isPlaying()) {
-		new FadeOutThenStop(sound).start();
+	int ordinal = sound.ordinal();
+	if (sound.isPlaying() && mFadeStartTimes[ordinal] == NOT_SET) {
+		mFadeStartTimes[ordinal] = GameTime.getTotalGlobalTimeElapsed();
+		mStopTimes[ordinal] = NOT_SET;
 	}
 }
 
 /**
- * Stop playing a track after x seconds. Polls ever 10ms to check if the sound has been stopped
- * manually. If it has, the thread will die
+ * A playing non-loopable sound
  */
-private class StopTrackIn extends Thread {
-	private Sounds mSound;
-	private float mStopInSeconds;
+private static class Voice {
+	private Sounds sound;
+	private long id;
+	/** Global time when the voice is counted as finished */
+	private float endTime;
 
 	/**
-	 * @param sound the sound to stop after x seconds
-	 * @param seconds how many seconds until the sound effect is stopped
+	 * @param sound the playing sound
+	 * @param id id of the playing sound
+	 * @param endTime global time when the voice is counted as finished
 	 */
-	StopTrackIn(Sounds sound, float seconds) {
-		mSound = sound;
-		mStopInSeconds = seconds;
-	}
-
-	@Override
-	public void run() {
-		float startTime = GameTime.getTotalGlobalTimeElapsed();
-		float endTime = startTime + mStopInSeconds;
-		while (mSound.isPlaying()) {
-			try {
-				Thread.sleep(10);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-
-			float currentTime = GameTime.getTotalGlobalTimeElapsed();
-			// Stop sound
-			if (currentTime >= endTime) {
-				SoundPlayer.this.stop(mSound);
-			}
-		}
-	}
-}
-
-/**
- * Fade-out then stop track
- */
-private class FadeOutThenStop extends Thread {
-	private Sounds mSound;
-	private float mVolumeMax;
-	private float mFadeTime = ConfigIni.getInstance().sound.effect.getFadeTime();
-
-	/**
-	 * @param sound the sound to fade-out then stop
-	 */
-	FadeOutThenStop(Sounds sound) {
-		mSound = sound;
-		mVolumeMax = getVolume(sound);
-	}
-
-	@Override
-	public void run() {
-		float startTime = GameTime.getTotalGlobalTimeElapsed();
-		while (mSound.isPlaying()) {
-			float timeDiff = GameTime.getTotalGlobalTimeElapsed() - startTime;
-			Sound track = mSound.getTrack();
-			if (track == null) {
-				mSound.setLoopId(Sounds.INVALID_ID);
-				return;
-			}
-
-			// Fade
-			if (timeDiff < mFadeTime) {
-				float scale = 1 - timeDiff / mFadeTime;
-				float volume = mVolumeMax * scale;
-				track.setVolume(mSound.getLoopId(), volume);
-			}
-			// Stop
-			else {
-				track.stop(mSound.getLoopId());
-				mSound.setLoopId(Sounds.INVALID_ID);
-			}
-
-			try {
-				Thread.sleep(10);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
+	private Voice(Sounds sound, long id, float endTime) {
+		this.sound = sound;
+		this.id = id;
+		this.endTime = endTime;
 	}
 }
 }
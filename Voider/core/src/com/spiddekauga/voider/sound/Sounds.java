@@ -14,19 +14,19 @@ public enum Sounds {
 	/** When the player ship has low health */
 	SHIP_LOW_HEALTH(InternalNames.SOUND_SHIP_LOW_HEALTH, EffectCategory.GAME, ConfigIni.getInstance().sound.effect.getLowHealthTime()),
 	/** Bullet hits a player */
-	BULLET_HIT_PLAYER(InternalNames.SOUND_BULLET_HIT_PLAYER, EffectCategory.GAME),
+	BULLET_HIT_PLAYER(InternalNames.SOUND_BULLET_HIT_PLAYER, EffectCategory.GAME, Priorities.NORMAL),
 	/** Ship collision with terrain or enemy */
 	SHIP_COLLIDE(InternalNames.SOUND_SHIP_COLLIDE, EffectCategory.GAME, -1),
 	/** Enemy ship explodes on player */
-	ENEMY_EXPLODES(InternalNames.SOUND_ENEMY_EXLODES, EffectCategory.GAME),
+	ENEMY_EXPLODES(InternalNames.SOUND_ENEMY_EXLODES, EffectCategory.GAME, Priorities.LOW),
 	/** Player lost a ship/life */
-	SHIP_LOST(InternalNames.SOUND_SHIP_LOST, EffectCategory.GAME),
+	SHIP_LOST(InternalNames.SOUND_SHIP_LOST, EffectCategory.GAME, Priorities.HIGH),
 
 	// UI
 	/** Hover over button */
-	UI_BUTTON_HOVER(InternalNames.SOUND_UI_BUTTON_HOVER, EffectCategory.UI),
+	UI_BUTTON_HOVER(InternalNames.SOUND_UI_BUTTON_HOVER, EffectCategory.UI, Priorities.LOW),
 	/** Button click */
-	UI_BUTTON_CLICK(InternalNames.SOUND_UI_BUTTON_CLICK, EffectCategory.UI),;
+	UI_BUTTON_CLICK(InternalNames.SOUND_UI_BUTTON_CLICK, EffectCategory.UI, Priorities.NORMAL),;
 
 /** Invalid loop id */
 public static final long INVALID_ID = -1;
@@ -40,14 +40,18 @@ private boolean mLooping = false;
 /** Id for loopable tracks, -1 if it's not playing */
 private long mLoopId = INVALID_ID;
 private EffectCategory mEffectCategory;
+/** Priority when too many sounds are playing, only used for non-loopable sounds */
+private Priorities mPriority = Priorities.NORMAL;
 
 /**
  * Constructor for sounds. This usually only contains one sound, but can hold a chain of sounds
  * @param internalName sound file name
  * @param category the effect category for the sound
+ * @param priority priority when too many sounds are playing
  */
-private Sounds(InternalNames internalName, EffectCategory category) {
+private Sounds(InternalNames internalName, EffectCategory category, Priorities priority) {
 	this(internalName, category, 0);
+	mPriority = priority;
 }
 
 /**
@@ -73,6 +77,13 @@ EffectCategory getEffectCategory() {
 	return mEffectCategory;
 }
 
+/**
+ * @return priority when too many sounds are playing
+ */
+Priorities getPriority() {
+	return mPriority;
+}
+
 /**
  * @return loop time. If greater than 0 the time to loop, if less than 0 loops forever until stopped
  */
@@ -133,4 +144,17 @@ enum EffectCategory {
 	/** In-game sound effects */
 	GAME,
 }
+
+/**
+ * Sound priorities, a sound can stop playing sounds with the same or lower priority when too many
+ * sounds are playing
+ */
+enum Priorities {
+	/** Frequent sounds that can be skipped */
+	LOW,
+	/** Regular sounds */
+	NORMAL,
+	/** Important sounds */
+	HIGH,
+}
 }
@@ -858,6 +858,23 @@ public static Vector2 getDirection(Vector2 fromPoint, Vector2 toPoint) {
 	return direction;
 }
 
+/**
+ * Interpolates between two angles the shortest way around, e.g. from 350 to 10 degrees passes 0
+ * @param from start angle in radians
+ * @param to end angle in radians
+ * @param alpha 0 returns from, 1 returns to
+ * @return interpolated angle in radians
+ */
+public static float interpolateAngle(float from, float to, float alpha) {
+	float diff = (to - from) % MathUtils.PI2;
+	if (diff > MathUtils.PI) {
+		diff -= MathUtils.PI2;
+	} else if (diff < -MathUtils.PI) {
+		diff += MathUtils.PI2;
+	}
+	return from + diff * alpha;
+}
+
 /**
  * Checks whether the specified point is within the triangle. Uses Barycentric coordinates.
  * @param point the point to test whether it inside the triangle or not
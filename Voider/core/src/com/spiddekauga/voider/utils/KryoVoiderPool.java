@@ -181,7 +181,9 @@ private enum RegisterClasses {
 	MUSIC(Music.class),
 	SCORE_PART(ScorePart.class, SerializerType.TAGGED),
 	STACK(Stack.class),
-	DRAW_IMAGES(DrawImages.class),;
+	DRAW_IMAGES(DrawImages.class),
+	INT_ARRAY(int[].class),
+	BOOLEAN_ARRAY(boolean[].class),;
 
 	/** Offset for register id, as there exists some default registered types */
 	private static final int OFFSET = 50;
@@ -469,6 +469,8 @@ public class Messages {
 				+ "Please describe the last things you did. This helps enormously when debugging, thank you :)";
 		/** Name must contain X characters */
 		public final static String NAME_CHARACTERS_MIN = "must contain at least " + Config.Actor.NAME_LENGTH_MIN + " characters";
+		/** Resource couldn't be written */
+		public final static String SAVE_FAILED = "Could not save :'( Please try again";
 	}
 
 	/**
@@ -3,7 +3,9 @@ package com.spiddekauga.voider.utils;
 import com.badlogic.gdx.math.Vector2;
 import com.spiddekauga.utils.scene.ui.Cell;
 import com.spiddekauga.utils.scene.ui.Row;
-import com.spiddekauga.voider.game.actors.BulletActor;
+import com.spiddekauga.voider.game.ActorActivatedEvent;
+import com.spiddekauga.voider.game.HealthChangeEvent;
+import com.spiddekauga.voider.utils.event.GameEvent;
 
 /**
  * Common pools used in the program
@@ -15,10 +17,12 @@ public static Pool<Vector2> vector2 = new Pool<>(Vector2.class, 16, 500);
 public static Pool<Cell> cell = new Pool<>(Cell.class, 50, 250);
 /** Row for tables */
 public static Pool<Row> row = new Pool<>(Row.class, 10, 100);
-/** Bullets */
-public static Pool<BulletActor> bullet = new Pool<>(BulletActor.class, 100, 1000);
-/** Time bullets */
-public static Pool<TimeBullet> timeBullet = new Pool<>(TimeBullet.class, 100, 1000);
+/** Game events without extra information */
+public static Pool<GameEvent> gameEvent = new Pool<>(GameEvent.class, 4, 50);
+/** Health change events */
+public static Pool<HealthChangeEvent> healthChangeEvent = new Pool<>(HealthChangeEvent.class, 4, 50);
+/** Actor activated events */
+public static Pool<ActorActivatedEvent> actorActivatedEvent = new Pool<>(ActorActivatedEvent.class, 4, 50);
 /** Kryo */
 public static KryoVoiderPool kryo = new KryoVoiderPool(5, 20);
 }
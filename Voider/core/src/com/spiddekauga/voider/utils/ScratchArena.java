@@ -0,0 +1,206 @@
+package com.spiddekauga.voider.utils;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.spiddekauga.voider.Config;
+
+import java.util.ArrayList;
+
+/**
+ * Temporary objects that are valid until the arena is reset. Objects don't have to be freed and
+ * shall never be stored. Each thread has its own arena, the main thread's arena is reset once per
+ * frame by SceneSwitcher.update(), other threads have to call {@link #reset()} themselves. With
+ * {@link Config.Debug#DEBUG_TESTS} objects are never reused and are filled with NaN when reset, the
+ * next reset checks that they haven't been changed.
+ */
+public class ScratchArena {
+private static final ThreadLocal<ScratchArena> mArenas = new ThreadLocal<ScratchArena>() {
+	@Override
+	protected ScratchArena initialValue() {
+		return new ScratchArena();
+	}
+};
+private Slab<Vector2> mVector2s = new Slab<Vector2>() {
+	@Override
+	protected Vector2 create() {
+		return new Vector2();
+	}
+
+	@Override
+	protected void clear(Vector2 vector) {
+		vector.setZero();
+	}
+
+	@Override
+	protected void poison(Vector2 vector) {
+		vector.set(Float.NaN, Float.NaN);
+	}
+
+	@Override
+	protected boolean isPoisoned(Vector2 vector) {
+		return Float.isNaN(vector.x) && Float.isNaN(vector.y);
+	}
+};
+private Slab<Vector3> mVector3s = new Slab<Vector3>() {
+	@Override
+	protected Vector3 create() {
+		return new Vector3();
+	}
+
+	@Override
+	protected void clear(Vector3 vector) {
+		vector.setZero();
+	}
+
+	@Override
+	protected void poison(Vector3 vector) {
+		vector.set(Float.NaN, Float.NaN, Float.NaN);
+	}
+
+	@Override
+	protected boolean isPoisoned(Vector3 vector) {
+		return Float.isNaN(vector.x) && Float.isNaN(vector.y) && Float.isNaN(vector.z);
+	}
+};
+private Slab<Matrix4> mMatrix4s = new Slab<Matrix4>() {
+	@Override
+	protected Matrix4 create() {
+		return new Matrix4();
+	}
+
+	@Override
+	protected void clear(Matrix4 matrix) {
+		matrix.idt();
+	}
+
+	@Override
+	protected void poison(Matrix4 matrix) {
+		for (int i = 0; i < matrix.val.length; ++i) {
+			matrix.val[i] = Float.NaN;
+		}
+	}
+
+	@Override
+	protected boolean isPoisoned(Matrix4 matrix) {
+		for (float value : matrix.val) {
+			if (!Float.isNaN(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+};
+
+/**
+ * Private constructor, arenas are created per thread
+ */
+private ScratchArena() {
+	// Does nothing
+}
+
+/**
+ * @return zero vector that is valid until this thread's arena is reset
+ */
+public static Vector2 vector2() {
+	return mArenas.get().mVector2s.obtain();
+}
+
+/**
+ * @return zero vector that is valid until this thread's arena is reset
+ */
+public static Vector3 vector3() {
+	return mArenas.get().mVector3s.obtain();
+}
+
+/**
+ * @return identity matrix that is valid until this thread's arena is reset
+ */
+public static Matrix4 matrix4() {
+	return mArenas.get().mMatrix4s.obtain();
+}
+
+/**
+ * Reset this thread's arena, all objects obtained from it are invalid after this call
+ */
+public static void reset() {
+	ScratchArena arena = mArenas.get();
+	arena.mVector2s.reset();
+	arena.mVector3s.reset();
+	arena.mMatrix4s.reset();
+}
+
+/**
+ * Objects of one type
+ * @param <T> object type
+ */
+private static abstract class Slab<T> {
+	/** All objects, objects before mUsed have been obtained */
+	private ArrayList<T> mObjects = new ArrayList<>();
+	/** Number of obtained objects */
+	private int mUsed = 0;
+	/** Objects that were invalidated by the last reset, only used with debug tests */
+	private ArrayList<T> mInvalidated = new ArrayList<>();
+
+	/**
+	 * @return a cleared object
+	 */
+	T obtain() {
+		if (mUsed == mObjects.size()) {
+			mObjects.add(create());
+		}
+		T object = mObjects.get(mUsed);
+		mUsed++;
+		clear(object);
+		return object;
+	}
+
+	/**
+	 * Make all obtained objects available again
+	 */
+	void reset() {
+		if (Config.Debug.DEBUG_TESTS) {
+			for (T object : mInvalidated) {
+				if (!isPoisoned(object)) {
+					Config.Debug.assertException("Scratch " + object.getClass().getSimpleName() + " was used after the arena was reset");
+					break;
+				}
+			}
+			mInvalidated.clear();
+
+			// Poison obtained objects and never reuse them
+			for (int i = 0; i < mUsed; ++i) {
+				T object = mObjects.get(i);
+				poison(object);
+				mInvalidated.add(object);
+			}
+			mObjects.subList(0, mUsed).clear();
+		}
+
+		mUsed = 0;
+	}
+
+	/**
+	 * @return new object
+	 */
+	protected abstract T create();
+
+	/**
+	 * Clear the object before it's obtained
+	 * @param object the object to clear
+	 */
+	protected abstract void clear(T object);
+
+	/**
+	 * Fill the object with invalid values
+	 * @param object the object to invalidate
+	 */
+	protected abstract void poison(T object);
+
+	/**
+	 * @param object the object to check
+	 * @return true if the object only contains invalid values
+	 */
+	protected abstract boolean isPoisoned(T object);
+}
+}
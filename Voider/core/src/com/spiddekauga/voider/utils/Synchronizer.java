@@ -19,6 +19,7 @@ import com.spiddekauga.voider.network.resource.UserResourceSyncResponse;
 import com.spiddekauga.voider.network.stat.HighscoreSyncResponse;
 import com.spiddekauga.voider.network.stat.StatSyncResponse;
 import com.spiddekauga.voider.repo.IResponseListener;
+import com.spiddekauga.voider.repo.WebBatch;
 import com.spiddekauga.voider.repo.analytics.AnalyticsRepo;
 import com.spiddekauga.voider.repo.misc.BugReportWebRepo;
 import com.spiddekauga.voider.repo.resource.ExternalTypes;
@@ -97,6 +98,8 @@ private Thread mThread = new Thread() {
 	}
 };
 private HashMap<UUID, ResourceConflictEntity> mConflictsFound = null;
+/** True while synchronizing a batch, responses in a batch don't release the semaphore */
+private volatile boolean mBatching = false;
 
 /**
  * Initializes the synchronizer. Private constructor to enforce singleton usage
@@ -204,22 +207,28 @@ public boolean synchronize(SyncTypes type, IResponseListener responseListener) {
 	case WAIT_FOR_LOGIN_SCREEN_TO_DISAPPEAR:
 		Config.Debug.assertException("Cannoct call WAIT_FOR_LOGIN_SCREEN_TO_DISAPPEAR through synchronize() method");
 		break;
+
+	case BATCH:
+		Config.Debug.assertException("Cannot call BATCH through synchronize() method");
+		break;
 	}
 
 	return true;
 }
 
 /**
- * Synchronize everything
+ * Synchronize everything. Everything is sent to the server in one request.
  * @param responseListener the listener that also should get the web response, may be null
  */
 public void synchronizeAll(IResponseListener responseListener) {
-	mSyncQueue.add(new SyncDownload(SyncTypes.COMMUNITY_RESOURCES, responseListener, true));
-	mSyncQueue.add(new SyncDownload(SyncTypes.USER_RESOURCES, responseListener, true));
-	mSyncQueue.add(new SyncClass(SyncTypes.HIGHSCORES, responseListener));
-	mSyncQueue.add(new SyncClass(SyncTypes.STATS, responseListener));
-	mSyncQueue.add(new SyncClass(SyncTypes.BUG_REPORTS, responseListener));
-	mSyncQueue.add(new SyncClass(SyncTypes.ANALYTICS, responseListener));
+	SyncBatch syncBatch = new SyncBatch();
+	syncBatch.syncClasses.add(new SyncDownload(SyncTypes.COMMUNITY_RESOURCES, responseListener, true));
+	syncBatch.syncClasses.add(new SyncDownload(SyncTypes.USER_RESOURCES, responseListener, true));
+	syncBatch.syncClasses.add(new SyncClass(SyncTypes.HIGHSCORES, responseListener));
+	syncBatch.syncClasses.add(new SyncClass(SyncTypes.STATS, responseListener));
+	syncBatch.syncClasses.add(new SyncClass(SyncTypes.BUG_REPORTS, responseListener));
+	syncBatch.syncClasses.add(new SyncClass(SyncTypes.ANALYTICS, responseListener));
+	mSyncQueue.add(syncBatch);
 }
 
 /**
@@ -301,6 +310,12 @@ private void synchronize(SyncClass syncClass) {
 		mAnalyticsRepo.sync(responseListeners);
 		break;
 
+	case BATCH:
+		if (syncClass instanceof SyncBatch) {
+			synchronizeBatch((SyncBatch) syncClass);
+		}
+		break;
+
 	case WAIT_FOR_LOGIN_SCREEN_TO_DISAPPEAR:
 		if (syncClass instanceof WaitForLoginScreenToDisappear) {
 			WaitForLoginScreenToDisappear waitForLoginScreenToDisappear = (WaitForLoginScreenToDisappear) syncClass;
@@ -317,6 +332,25 @@ private void synchronize(SyncClass syncClass) {
 	}
 }
 
+/**
+ * Synchronize several types in one request. Blocks until all responses have been handled
+ * @param syncBatch all types to synchronize
+ */
+private void synchronizeBatch(SyncBatch syncBatch) {
+	mBatching = true;
+	WebBatch webBatch = WebBatch.begin();
+	try {
+		for (SyncClass syncClass : syncBatch.syncClasses) {
+			synchronize(syncClass);
+		}
+	} finally {
+		webBatch.send();
+		webBatch.waitUntilHandled();
+		mBatching = false;
+		mSemaphore.release();
+	}
+}
+
 /**
  * Add the this class to the front of the response listener
  * @param responseListener existing response listener
@@ -354,7 +388,7 @@ private void uploadBugReports(IResponseListener[] responseListeners) {
 	if (!bugsToSend.isEmpty()) {
 		webRepo.sendBugReport(bugsToSend, responseListeners);
 		ProgressBar.showSpinner("Uploading saved bug reports");
-	} else {
+	} else if (!mBatching) {
 		mSemaphore.release();
 	}
 }
@@ -375,7 +409,10 @@ public void handleWebResponse(IMethodEntity method, IEntity response) {
 		handleStatSyncResponse((StatSyncResponse) response);
 	}
 
-	mSemaphore.release();
+	// Batches release the semaphore when all responses have been handled
+	if (!mBatching) {
+		mSemaphore.release();
+	}
 }
 
 /**
@@ -529,6 +566,8 @@ public enum SyncTypes {
 	ANALYTICS,
 	/** Wait until Login Screen has ended and another screen is active */
 	WAIT_FOR_LOGIN_SCREEN_TO_DISAPPEAR,
+	/** Several types in one request */
+	BATCH,
 }
 
 /**
@@ -588,6 +627,20 @@ private class WaitForLoginScreenToDisappear extends SyncClass {
 	}
 }
 
+/**
+ * Synchronizes several types in one request
+ */
+private class SyncBatch extends SyncClass {
+	private ArrayList<SyncClass> syncClasses = new ArrayList<>();
+
+	/**
+	 * Sets the sync type
+	 */
+	private SyncBatch() {
+		super(SyncTypes.BATCH);
+	}
+}
+
 /**
  * Sync class for fixing conflicts
  */
@@ -1,22 +1,25 @@
 package com.spiddekauga.voider.utils.event;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.spiddekauga.voider.utils.Pools;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Dispatches events to all listeners
+ * Dispatches events to all listeners. Listeners are stored in copy-on-write arrays so that firing
+ * an event doesn't need to copy the listeners.
  */
 public class EventDispatcher {
+private static final IEventListener[] EMPTY_LISTENERS = new IEventListener[0];
 private static EventDispatcher mInstance = null;
-private List<List<IEventListener>> mListeners = new ArrayList<>();
+/** Listeners for each event type, arrays are never changed, only replaced */
+private AtomicReferenceArray<IEventListener[]> mListeners = new AtomicReferenceArray<>(EventTypes.values().length);
 
 /**
  * Private constructor to enforce singleton usage
  */
 private EventDispatcher() {
-	for (@SuppressWarnings("unused")
-			EventTypes eventType : EventTypes.values()) {
-		mListeners.add(new ArrayList<IEventListener>());
+	for (int i = 0; i < mListeners.length(); ++i) {
+		mListeners.set(i, EMPTY_LISTENERS);
 	}
 }
 
@@ -35,8 +38,12 @@ public static EventDispatcher getInstance() {
  * @param eventType the type of event to connect to
  * @param listener the listener to connect
  */
-public void connect(EventTypes eventType, IEventListener listener) {
-	mListeners.get(eventType.ordinal()).add(listener);
+public synchronized void connect(EventTypes eventType, IEventListener listener) {
+	IEventListener[] listeners = mListeners.get(eventType.ordinal());
+	IEventListener[] newListeners = new IEventListener[listeners.length + 1];
+	System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+	newListeners[listeners.length] = listener;
+	mListeners.set(eventType.ordinal(), newListeners);
 }
 
 /**
@@ -56,8 +63,18 @@ public void disconnect(IEventListener listener) {
  * @param eventType the type of event to disconnect from
  * @param listener the listener to disconnect
  */
-public void disconnect(EventTypes eventType, IEventListener listener) {
-	mListeners.get(eventType.ordinal()).remove(listener);
+public synchronized void disconnect(EventTypes eventType, IEventListener listener) {
+	IEventListener[] listeners = mListeners.get(eventType.ordinal());
+
+	for (int i = 0; i < listeners.length; ++i) {
+		if (listeners[i].equals(listener)) {
+			IEventListener[] newListeners = new IEventListener[listeners.length - 1];
+			System.arraycopy(listeners, 0, newListeners, 0, i);
+			System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+			mListeners.set(eventType.ordinal(), newListeners);
+			return;
+		}
+	}
 }
 
 /**
@@ -65,11 +82,22 @@ public void disconnect(EventTypes eventType, IEventListener listener) {
  * @param event the event to fire
  */
 public void fire(GameEvent event) {
-	ArrayList<IEventListener> copy = new ArrayList<>();
-	copy.addAll(mListeners.get(event.type.ordinal()));
+	IEventListener[] listeners = mListeners.get(event.type.ordinal());
 
-	for (IEventListener listeners : copy) {
-		listeners.handleEvent(event);
+	for (IEventListener listener : listeners) {
+		listener.handleEvent(event);
 	}
 }
+
+/**
+ * Fire an event without any extra information. Uses a pooled event, listeners shall therefore not
+ * keep a reference to the event.
+ * @param eventType the type of event to fire
+ */
+public void fire(EventTypes eventType) {
+	GameEvent event = Pools.gameEvent.obtain();
+	event.type = eventType;
+	fire(event);
+	Pools.gameEvent.free(event);
+}
 }
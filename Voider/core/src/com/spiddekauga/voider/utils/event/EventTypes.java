@@ -113,4 +113,6 @@ public enum EventTypes {
 	GAME_PLAYER_SHIP_LOST,
 	/** An actors health was changed */
 	GAME_ACTOR_HEALTH_CHANGED,
+	/** An actor was activated */
+	GAME_ACTOR_ACTIVATED,
 }
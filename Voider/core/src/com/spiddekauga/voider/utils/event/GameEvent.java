@@ -14,4 +14,11 @@ public EventTypes type;
 public GameEvent(EventTypes type) {
 	this.type = type;
 }
+
+/**
+ * Default constructor for pools
+ */
+public GameEvent() {
+	// Does nothing
+}
 }
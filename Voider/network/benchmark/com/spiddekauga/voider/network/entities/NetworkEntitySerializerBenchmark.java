@@ -0,0 +1,144 @@
+package com.spiddekauga.voider.network.entities;
+
+import com.spiddekauga.voider.network.resource.FetchStatuses;
+import com.spiddekauga.voider.network.resource.LevelFetchResponse;
+import com.spiddekauga.voider.network.stat.LevelInfoEntity;
+import com.spiddekauga.voider.network.stat.StatSyncEntity;
+import com.spiddekauga.voider.network.stat.StatSyncMethod;
+import com.spiddekauga.voider.network.stat.Tags;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded throughput of {@link NetworkEntitySerializer} for typical payloads. Run with
+ * {@code gradle :network:benchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(8)
+public class NetworkEntitySerializerBenchmark {
+/** Number of levels in a fetch response, same as a full explore page */
+private static final int LEVEL_COUNT = 30;
+/** Number of level stats to sync */
+private static final int LEVEL_STAT_COUNT = 50;
+private LevelFetchResponse mLevelFetchResponse;
+private byte[] mLevelFetchResponseBytes;
+private StatSyncMethod mStatSyncMethod;
+private byte[] mStatSyncMethodBytes;
+
+/**
+ * Create the payloads
+ */
+@Setup
+public void setup() {
+	mLevelFetchResponse = createLevelFetchResponse();
+	mLevelFetchResponseBytes = NetworkEntitySerializer.serializeEntity(mLevelFetchResponse);
+	mStatSyncMethod = createStatSyncMethod();
+	mStatSyncMethodBytes = NetworkEntitySerializer.serializeEntity(mStatSyncMethod);
+}
+
+/**
+ * @return level fetch response with a full page of levels
+ */
+private static LevelFetchResponse createLevelFetchResponse() {
+	LevelFetchResponse response = new LevelFetchResponse();
+	response.status = FetchStatuses.SUCCESS_MORE_EXISTS;
+	response.cursor = UUID.randomUUID().toString();
+
+	for (int i = 0; i < LEVEL_COUNT; ++i) {
+		LevelInfoEntity levelInfo = new LevelInfoEntity();
+		levelInfo.defEntity.name = "Level " + i;
+		levelInfo.defEntity.description = "A level used for benchmarking the network serializer";
+		levelInfo.defEntity.revisedBy = "benchmark";
+		levelInfo.defEntity.originalCreator = "benchmark";
+		levelInfo.defEntity.resourceId = UUID.randomUUID();
+		levelInfo.defEntity.levelId = UUID.randomUUID();
+		levelInfo.defEntity.date = new Date();
+		levelInfo.defEntity.png = new byte[2048];
+		levelInfo.defEntity.levelLength = 120;
+		levelInfo.defEntity.levelSpeed = 15;
+		levelInfo.stats.cPlayed = i * 10;
+		levelInfo.stats.cCleared = i * 5;
+		levelInfo.stats.ratingAverage = 3.5f;
+		levelInfo.tags.add(Tags.CHALLENGING);
+		levelInfo.tags.add(Tags.BULLET_STORM);
+		response.levels.add(levelInfo);
+	}
+
+	return response;
+}
+
+/**
+ * @return stat sync method with several levels to sync
+ */
+private static StatSyncMethod createStatSyncMethod() {
+	StatSyncMethod method = new StatSyncMethod();
+	method.syncEntity = new StatSyncEntity();
+	method.syncEntity.syncDate = new Date();
+
+	for (int i = 0; i < LEVEL_STAT_COUNT; ++i) {
+		StatSyncEntity.LevelStat levelStat = new StatSyncEntity.LevelStat();
+		levelStat.id = UUID.randomUUID();
+		levelStat.cPlayed = i;
+		levelStat.cPlaysToSync = 1;
+		levelStat.cDeaths = i * 2;
+		levelStat.rating = 4;
+		levelStat.comment = "Comment " + i;
+		levelStat.lastPlayed = new Date();
+		levelStat.tags.add(Tags.EASY);
+		method.syncEntity.levelStats.add(levelStat);
+	}
+
+	return method;
+}
+
+/**
+ * @return serialized level fetch response
+ */
+@Benchmark
+public byte[] serializeLevelFetchResponse() {
+	return NetworkEntitySerializer.serializeEntity(mLevelFetchResponse);
+}
+
+/**
+ * @return deserialized level fetch response
+ */
+@Benchmark
+public IEntity deserializeLevelFetchResponse() {
+	return NetworkEntitySerializer.deserializeEntity(mLevelFetchResponseBytes);
+}
+
+/**
+ * @return serialized stat sync method
+ */
+@Benchmark
+public byte[] serializeStatSyncMethod() {
+	return NetworkEntitySerializer.serializeEntity(mStatSyncMethod);
+}
+
+/**
+ * @return deserialized stat sync method
+ */
+@Benchmark
+public IEntity deserializeStatSyncMethod() {
+	return NetworkEntitySerializer.deserializeEntity(mStatSyncMethodBytes);
+}
+}
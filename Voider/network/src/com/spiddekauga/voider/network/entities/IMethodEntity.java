@@ -21,6 +21,8 @@ public enum MethodNames {
 	BUG_REPORT,
 	/** Get upload URL for a blob */
 	GET_UPLOAD_URL,
+	/** Send several synchronize methods in one request */
+	SYNC_BATCH,
 
 	// Backup
 	/** Get new blobs for backup */
@@ -49,6 +51,8 @@ public enum MethodNames {
 	USER_RESOURCE_SYNC,
 	/** Fix user resource conflicts */
 	USER_RESOURCE_FIX_CONFLICT,
+	/** Fetch thumbnails of published resources */
+	THUMBNAIL_FETCH,
 
 
 	// User
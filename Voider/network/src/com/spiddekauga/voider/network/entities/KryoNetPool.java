@@ -28,6 +28,8 @@ import com.spiddekauga.voider.network.misc.GetUploadUrlResponse;
 import com.spiddekauga.voider.network.misc.Motd;
 import com.spiddekauga.voider.network.misc.Motd.MotdTypes;
 import com.spiddekauga.voider.network.misc.ServerMessage;
+import com.spiddekauga.voider.network.misc.SyncBatchMethod;
+import com.spiddekauga.voider.network.misc.SyncBatchResponse;
 import com.spiddekauga.voider.network.resource.BulletDamageSearchRanges;
 import com.spiddekauga.voider.network.resource.BulletDefEntity;
 import com.spiddekauga.voider.network.resource.BulletFetchMethod;
@@ -62,6 +64,8 @@ import com.spiddekauga.voider.network.resource.ResourceDownloadResponse;
 import com.spiddekauga.voider.network.resource.ResourceRevisionBlobEntity;
 import com.spiddekauga.voider.network.resource.ResourceRevisionEntity;
 import com.spiddekauga.voider.network.resource.RevisionEntity;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchMethod;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchResponse;
 import com.spiddekauga.voider.network.resource.UploadTypes;
 import com.spiddekauga.voider.network.resource.UserResourceSyncMethod;
 import com.spiddekauga.voider.network.resource.UserResourceSyncResponse;
@@ -99,26 +103,24 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Pool for network Kryo instance. When creating a new instance Kryo registers all necessary classes
  * used in the Network.
  */
 public class KryoNetPool {
-private BlockingQueue<Kryo> mPool = new LinkedBlockingQueue<>();
+private Queue<Kryo> mPool = new ConcurrentLinkedQueue<>();
 
 /**
  * Obtain a kryo object
  * @return kryo object
  */
 public Kryo obtain() {
-	Kryo kryo = null;
-	if (!mPool.isEmpty()) {
-		kryo = mPool.remove();
-	} else {
+	Kryo kryo = mPool.poll();
+	if (kryo == null) {
 		kryo = new Kryo();
 		kryo.setRegistrationRequired(true);
 		RegisterClasses.registerAll(kryo);
@@ -253,6 +255,10 @@ private enum RegisterClasses {
 	VERSION(Version.class),
 	INT_ARRAY(int[].class),
 	BULLET_SPEED_SEARCH_RANGES(BulletSpeedSearchRanges.class),
+	SYNC_BATCH_METHOD(SyncBatchMethod.class),
+	SYNC_BATCH_RESPONSE(SyncBatchResponse.class),
+	THUMBNAIL_FETCH_METHOD(ThumbnailFetchMethod.class),
+	THUMBNAIL_FETCH_RESPONSE(ThumbnailFetchResponse.class),
 
 	// !!! ALWAYS APPEND, NEVER ADD IN THE MIDDLE !!!
 
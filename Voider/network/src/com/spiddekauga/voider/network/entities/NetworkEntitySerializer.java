@@ -8,24 +8,48 @@ import com.esotericsoftware.kryo.io.Output;
 import com.spiddekauga.utils.Strings;
 import com.spiddekauga.voider.network.misc.ServerMessage;
 
-import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.logging.Logger;
 
 import javax.xml.bind.DatatypeConverter;
 
 /**
- * Serializes the entity into a byte string or vice versa
+ * Serializes the entity into a byte string or vice versa. Thread-safe without locking, each thread
+ * reuses its own input and output buffers and Kryo instances are shared through a concurrent pool.
  */
 public class NetworkEntitySerializer {
+/** Smallest output buffer to create, 2^8 bytes */
+private static final int OUTPUT_BUFFER_SIZE_MIN_EXPONENT = 8;
+/** Create output buffers that fit this ratio of all serialized entities */
+private static final double OUTPUT_BUFFER_PERCENTILE = 0.9;
+/** Output buffers that grew this many times larger than the typical size are recreated */
+private static final int OUTPUT_BUFFER_SHRINK_FACTOR = 4;
+private static final byte[] EMPTY_BYTES = new byte[0];
 private static final KryoNetPool mKryoPool = new KryoNetPool();
 private static final Logger mLogger = Logger.getLogger(NetworkEntitySerializer.class.getSimpleName());
+/** Histogram of serialized sizes, bucket i contains sizes up to 2^i bytes */
+private static final AtomicLongArray mSizeHistogram = new AtomicLongArray(Integer.SIZE);
+/** Reusable output buffer for each thread */
+private static final ThreadLocal<Output> mOutputs = new ThreadLocal<Output>() {
+	@Override
+	protected Output initialValue() {
+		return new Output(getTypicalSize(), -1);
+	}
+};
+/** Reusable input for each thread, reads directly from the bytes */
+private static final ThreadLocal<Input> mInputs = new ThreadLocal<Input>() {
+	@Override
+	protected Input initialValue() {
+		return new Input();
+	}
+};
 
 /**
  * Serialize server message
  * @param message the server message
  * @return the server message as a base64 message
  */
-public synchronized static String serializeServerMessage(ServerMessage<?> message) {
+public static String serializeServerMessage(ServerMessage<?> message) {
 	byte[] byteMessage = serializeEntity(message);
 	return DatatypeConverter.printBase64Binary(byteMessage);
 }
@@ -35,22 +59,26 @@ public synchronized static String serializeServerMessage(ServerMessage<?> messag
  * @param entity the entity to serialize into a byte array
  * @return entity as byte array
  */
-public synchronized static byte[] serializeEntity(IEntity entity) {
+public static byte[] serializeEntity(IEntity entity) {
 	Kryo kryo = mKryoPool.obtain();
+	Output output = mOutputs.get();
 
 	try {
-		ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
-		Output output = new Output(byteOutputStream);
+		output.clear();
 		kryo.writeClassAndObject(output, entity);
-		output.close();
-		byte[] entityBytes = byteOutputStream.toByteArray();
-		return entityBytes;
-
+		addToHistogram(output.position());
+		return output.toBytes();
 	} catch (IllegalArgumentException | KryoException e) {
 		mLogger.severe("Failed to serialize entity\n" + Strings.exceptionToString(e));
-	}
+	} finally {
+		mKryoPool.free(kryo);
 
-	mKryoPool.free(kryo);
+		// Don't keep a large buffer around because of one large entity
+		int typicalSize = getTypicalSize();
+		if (output.getBuffer().length > typicalSize * OUTPUT_BUFFER_SHRINK_FACTOR) {
+			mOutputs.set(new Output(typicalSize, -1));
+		}
+	}
 
 	return null;
 }
@@ -60,7 +88,7 @@ public synchronized static byte[] serializeEntity(IEntity entity) {
  * @param message the server message in base64 format
  * @return the original server message
  */
-public synchronized static ServerMessage<?> deserializeServerMessage(String message) {
+public static ServerMessage<?> deserializeServerMessage(String message) {
 	byte[] byteMessage = DatatypeConverter.parseBase64Binary(message);
 	return (ServerMessage<?>) deserializeEntity(byteMessage);
 }
@@ -70,15 +98,16 @@ public synchronized static ServerMessage<?> deserializeServerMessage(String mess
  * @param bytes all bytes that represents an entity
  * @return entity, or null if it could not deserialize
  */
-public synchronized static IEntity deserializeEntity(byte[] bytes) {
-	Kryo kryo = mKryoPool.obtain();
-
+public static IEntity deserializeEntity(byte[] bytes) {
 	if (bytes == null || bytes.length == 0) {
 		return null;
 	}
 
+	Kryo kryo = mKryoPool.obtain();
+	Input input = mInputs.get();
+
 	try {
-		Input input = new Input(bytes);
+		input.setBuffer(bytes);
 		Object readObject = kryo.readClassAndObject(input);
 		if (readObject instanceof IEntity) {
 			return (IEntity) readObject;
@@ -88,10 +117,40 @@ public synchronized static IEntity deserializeEntity(byte[] bytes) {
 
 	} catch (IllegalArgumentException | KryoException e) {
 		mLogger.severe("Failed to deserialize entity\n" + Strings.exceptionToString(e));
+	} finally {
+		input.setBuffer(EMPTY_BYTES);
+		mKryoPool.free(kryo);
 	}
 
-	mKryoPool.free(kryo);
-
 	return null;
 }
+
+/**
+ * Add a serialized size to the histogram
+ * @param size number of bytes of the serialized entity
+ */
+private static void addToHistogram(int size) {
+	int bucket = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(size - 1, 0));
+	mSizeHistogram.incrementAndGet(Math.min(bucket, mSizeHistogram.length() - 1));
+}
+
+/**
+ * @return buffer size that fits most serialized entities
+ */
+private static int getTypicalSize() {
+	long total = 0;
+	for (int i = 0; i < mSizeHistogram.length(); ++i) {
+		total += mSizeHistogram.get(i);
+	}
+
+	long accumulated = 0;
+	for (int i = 0; i < mSizeHistogram.length() - 1; ++i) {
+		accumulated += mSizeHistogram.get(i);
+		if (accumulated >= total * OUTPUT_BUFFER_PERCENTILE) {
+			return 1 << Math.max(i, OUTPUT_BUFFER_SIZE_MIN_EXPONENT);
+		}
+	}
+
+	return 1 << (mSizeHistogram.length() - 2);
+}
 }
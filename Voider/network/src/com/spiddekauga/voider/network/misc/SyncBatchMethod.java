@@ -0,0 +1,18 @@
+package com.spiddekauga.voider.network.misc;
+
+import com.spiddekauga.voider.network.entities.IMethodEntity;
+
+import java.util.ArrayList;
+
+/**
+ * Sends several independent methods in one request. The server handles them concurrently.
+ */
+public class SyncBatchMethod implements IMethodEntity {
+/** All methods to call */
+public ArrayList<IMethodEntity> methods = new ArrayList<>();
+
+@Override
+public MethodNames getMethodName() {
+	return MethodNames.SYNC_BATCH;
+}
+}
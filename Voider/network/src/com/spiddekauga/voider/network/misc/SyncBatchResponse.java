@@ -0,0 +1,22 @@
+package com.spiddekauga.voider.network.misc;
+
+import com.spiddekauga.voider.network.entities.GeneralResponseStatuses;
+import com.spiddekauga.voider.network.entities.IEntity;
+import com.spiddekauga.voider.network.entities.ISuccessStatuses;
+
+import java.util.ArrayList;
+
+/**
+ * Responses of all methods in a batch
+ */
+public class SyncBatchResponse implements IEntity, ISuccessStatuses {
+/** Response of each method, in the same order as the methods. null if a method failed */
+public ArrayList<IEntity> responses = new ArrayList<>();
+/** Response status */
+public GeneralResponseStatuses status = GeneralResponseStatuses.FAILED_SERVER_CONNECTION;
+
+@Override
+public boolean isSuccessful() {
+	return status != null && status.isSuccessful();
+}
+}
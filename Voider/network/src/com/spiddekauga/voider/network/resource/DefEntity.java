@@ -24,8 +24,10 @@ public String originalCreatorKey = null;
 public String originalCreator = null;
 /** Description */
 public String description = null;
-/** PNG-bytes (optional) */
+/** PNG-bytes (optional), only sent to the server. Published defs only contain the PNG hash */
 public byte[] png = null;
+/** Content hash of the PNG, fetch the PNG through {@link ThumbnailFetchMethod} */
+public String pngHash = null;
 /** drawable texture, only used on client */
 public Object drawable = null;
 /** Copy parent id, if copied from another definition. Should be null otherwise */
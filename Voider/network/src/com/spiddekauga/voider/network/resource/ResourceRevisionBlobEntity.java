@@ -7,5 +7,7 @@ package com.spiddekauga.voider.network.resource;
 public class ResourceRevisionBlobEntity extends ResourceBlobEntity {
 /** Revision of the resource */
 public int revision;
+/** If the blob is a delta, the revision it's a delta of. 0 if it's a full revision */
+public int deltaFrom = 0;
 
 }
@@ -12,6 +12,8 @@ public class RevisionEntity implements IEntity, Comparable<RevisionEntity> {
 public int revision;
 /** Date the revision was created */
 public Date date = new Date();
+/** If the uploaded revision is a delta, the revision it's a delta of. 0 if it's a full revision */
+public int deltaFrom = 0;
 
 @Override
 public int compareTo(RevisionEntity o) {
@@ -0,0 +1,19 @@
+package com.spiddekauga.voider.network.resource;
+
+import com.spiddekauga.voider.network.entities.IMethodEntity;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Fetch thumbnails of published resources
+ */
+public class ThumbnailFetchMethod implements IMethodEntity {
+/** Published resources to fetch the thumbnails of */
+public ArrayList<UUID> resourceIds = new ArrayList<>();
+
+@Override
+public MethodNames getMethodName() {
+	return MethodNames.THUMBNAIL_FETCH;
+}
+}
@@ -0,0 +1,22 @@
+package com.spiddekauga.voider.network.resource;
+
+import com.spiddekauga.voider.network.entities.GeneralResponseStatuses;
+import com.spiddekauga.voider.network.entities.IEntity;
+import com.spiddekauga.voider.network.entities.ISuccessStatuses;
+
+import java.util.HashMap;
+
+/**
+ * Thumbnails of published resources
+ */
+public class ThumbnailFetchResponse implements IEntity, ISuccessStatuses {
+/** PNG of the thumbnails by their hash, see {@link DefEntity#pngHash} */
+public HashMap<String, byte[]> thumbnails = new HashMap<>();
+/** Response status */
+public GeneralResponseStatuses status = GeneralResponseStatuses.FAILED_SERVER_CONNECTION;
+
+@Override
+public boolean isSuccessful() {
+	return status != null && status.isSuccessful();
+}
+}
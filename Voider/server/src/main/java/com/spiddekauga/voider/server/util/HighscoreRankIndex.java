@@ -0,0 +1,757 @@
+package com.spiddekauga.voider.server.util;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.datastore.Transaction;
+import com.spiddekauga.appengine.DatastoreUtils;
+import com.spiddekauga.voider.network.stat.HighscoreEntity;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CHighscore;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CHighscoreRank;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CHighscoreRankBucket;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Logger;
+
+/**
+ * Rank index of all highscores in a level. The scores are kept sorted in buckets, each bucket holds
+ * a score range. A single rank entity stores the range and number of scores of each bucket. The
+ * place of a score, top scores and scores around a player can thus be found by reading the rank
+ * entity and then one batch get of the buckets instead of counting and scanning all highscores of
+ * the level. The rank entity and buckets are children of the level so they can be updated in the
+ * same transaction as the highscore.
+ */
+public class HighscoreRankIndex {
+/** Key name of the rank entity */
+private static final String RANK_NAME = "rank";
+/** Split a bucket when it contains more scores than this */
+static final int BUCKET_CAPACITY = 500;
+/** Number of scores in each bucket when building the index */
+private static final int BUCKET_BUILD_SIZE = BUCKET_CAPACITY / 2;
+/** Maximum number of entities to put at once */
+private static final int PUT_BATCH_SIZE = 500;
+/** Number of times to try building the index if another request builds it at the same time */
+private static final int BUILD_TRIES = 3;
+/** Logger */
+private static final Logger mLogger = Logger.getLogger(HighscoreRankIndex.class.getSimpleName());
+/** Datastore */
+private final DatastoreService mDatastore = DatastoreServiceFactory.getDatastoreService();
+/** Level key */
+private final Key mLevelKey;
+/** Rank entity key */
+private final Key mRankKey;
+/** Current transaction, null when not in a transaction */
+private Transaction mTransaction = null;
+/** Bucket ids, sorted by highest score first */
+private ArrayList<Long> mBucketIds = new ArrayList<>();
+/** Lowest score that belongs to each bucket */
+private ArrayList<Long> mBucketMins = new ArrayList<>();
+/** Number of scores in each bucket */
+private ArrayList<Long> mBucketCounts = new ArrayList<>();
+/** Next bucket id */
+private long mNextBucketId = 1;
+/** Loaded buckets by id */
+private Map<Long, Bucket> mBuckets = new HashMap<>();
+/** Keys of buckets to delete when saving */
+private ArrayList<Key> mDeletedBucketKeys = new ArrayList<>();
+/** True if the rank entity has been changed */
+private boolean mChanged = false;
+
+/**
+ * Creates a rank index for the specified level. Call {@link #load()} before using it
+ * @param levelKey key of the level
+ */
+public HighscoreRankIndex(Key levelKey) {
+	mLevelKey = levelKey;
+	mRankKey = KeyFactory.createKey(levelKey, DatastoreTables.HIGHSCORE_RANK, RANK_NAME);
+}
+
+/**
+ * Load the rank index. Builds the index from the level's highscores if it doesn't exist
+ */
+public void load() {
+	try {
+		setFromRankEntity(mDatastore.get(mRankKey));
+	} catch (EntityNotFoundException e) {
+		buildInTransaction();
+	}
+}
+
+/**
+ * Update the score of a player. Has to be called within the same transaction as the highscore
+ * entity is put
+ * @param transaction the transaction the highscore is updated in
+ * @param username the player
+ * @param oldScore previous score of the player, null if the player didn't have a score
+ * @param newScore new score of the player
+ */
+public void update(Transaction transaction, String username, Long oldScore, long newScore) {
+	mTransaction = transaction;
+	try {
+		loadOrBuild();
+		if (oldScore != null) {
+			remove(username, oldScore);
+		}
+		insert(username, newScore);
+		save();
+	} finally {
+		mTransaction = null;
+	}
+}
+
+/**
+ * @return total number of scores in the level
+ */
+public int getCount() {
+	long count = 0;
+	for (Long bucketCount : mBucketCounts) {
+		count += bucketCount;
+	}
+	return (int) count;
+}
+
+/**
+ * Get the place of a score
+ * @param score the score to get the place of
+ * @return place of the score, 1 is first place
+ */
+public int getPlace(long score) {
+	int bucketIndex = getBucketIndex(score);
+
+	long higherCount = 0;
+	for (int i = 0; i < bucketIndex; ++i) {
+		higherCount += mBucketCounts.get(i);
+	}
+
+	return (int) higherCount + getBucket(bucketIndex).getFirstIndex(score, false) + 1;
+}
+
+/**
+ * Get the top scores of the level
+ * @param count number of top scores to get
+ * @return top scores, highest score first
+ */
+public List<HighscoreEntity> getTopScores(int count) {
+	ArrayList<HighscoreEntity> topScores = new ArrayList<>(count);
+	Iterator<HighscoreEntity> scoreIt = new ScoreIterator(0, 0, false);
+	while (scoreIt.hasNext() && topScores.size() < count) {
+		topScores.add(scoreIt.next());
+	}
+	return topScores;
+}
+
+/**
+ * Get scores that are higher than the specified score
+ * @param score the score
+ * @return iterator for higher scores, starts with the score closest to the specified score
+ */
+public Iterator<HighscoreEntity> getHigherScores(long score) {
+	int bucketIndex = getBucketIndex(score);
+	int index = getBucket(bucketIndex).getFirstIndex(score, false) - 1;
+	return new ScoreIterator(bucketIndex, index, true);
+}
+
+/**
+ * Get scores that are lower than the specified score
+ * @param score the score
+ * @return iterator for lower scores, starts with the score closest to the specified score
+ */
+public Iterator<HighscoreEntity> getLowerScores(long score) {
+	int bucketIndex = getBucketIndex(score);
+	int index = getBucket(bucketIndex).getFirstIndex(score, true);
+	return new ScoreIterator(bucketIndex, index, false);
+}
+
+/**
+ * Fetch all buckets needed for the top scores and the scores around the specified score in one
+ * batch
+ * @param score score of the player
+ * @param aroundCount number of scores to fetch before and after the score
+ * @param topCount number of top scores to fetch
+ */
+public void prefetch(long score, int aroundCount, int topCount) {
+	LinkedHashSet<Integer> bucketIndices = new LinkedHashSet<>();
+
+	// Top
+	long count = 0;
+	for (int i = 0; i < mBucketIds.size() && count < topCount; ++i) {
+		bucketIndices.add(i);
+		count += mBucketCounts.get(i);
+	}
+
+	// Around
+	int scoreBucketIndex = getBucketIndex(score);
+	bucketIndices.add(scoreBucketIndex);
+	count = 0;
+	for (int i = scoreBucketIndex - 1; i >= 0 && count < aroundCount; --i) {
+		bucketIndices.add(i);
+		count += mBucketCounts.get(i);
+	}
+	count = 0;
+	for (int i = scoreBucketIndex + 1; i < mBucketIds.size() && count < aroundCount; ++i) {
+		bucketIndices.add(i);
+		count += mBucketCounts.get(i);
+	}
+
+	// Fetch all missing buckets
+	ArrayList<Key> keys = new ArrayList<>(bucketIndices.size());
+	for (Integer bucketIndex : bucketIndices) {
+		Long bucketId = mBucketIds.get(bucketIndex);
+		if (!mBuckets.containsKey(bucketId)) {
+			keys.add(createBucketKey(bucketId));
+		}
+	}
+
+	if (!keys.isEmpty()) {
+		Map<Key, Entity> entities = mDatastore.get(mTransaction, keys);
+		for (Entity entity : entities.values()) {
+			mBuckets.put(entity.getKey().getId(), new Bucket(entity));
+		}
+	}
+}
+
+/**
+ * Build the index in a new transaction
+ */
+private void buildInTransaction() {
+	for (int i = 0; i < BUILD_TRIES; ++i) {
+		mTransaction = mDatastore.beginTransaction();
+		try {
+			loadOrBuild();
+			save();
+			mTransaction.commit();
+			return;
+		} catch (ConcurrentModificationException e) {
+			mLogger.info("Highscore rank index was modified while building it, retrying. Level: " + mLevelKey);
+		} finally {
+			if (mTransaction.isActive()) {
+				mTransaction.rollback();
+			}
+			mTransaction = null;
+		}
+	}
+
+	// Use the latest built index even though it couldn't be saved
+	mLogger.warning("Failed to save highscore rank index for level: " + mLevelKey);
+}
+
+/**
+ * Load the rank entity in the current transaction or build the index if it doesn't exist
+ */
+private void loadOrBuild() {
+	try {
+		setFromRankEntity(mDatastore.get(mTransaction, mRankKey));
+	} catch (EntityNotFoundException e) {
+		build();
+	}
+}
+
+/**
+ * Build the index from all highscores in the level
+ */
+private void build() {
+	mBucketIds.clear();
+	mBucketMins.clear();
+	mBucketCounts.clear();
+	mBuckets.clear();
+	mDeletedBucketKeys.clear();
+	mNextBucketId = 1;
+	mChanged = true;
+
+	Query query = new Query(DatastoreTables.HIGHSCORE, mLevelKey);
+	query.addSort(CHighscore.SCORE, SortDirection.DESCENDING);
+	query.addSort(CHighscore.USERNAME, SortDirection.ASCENDING);
+	Iterable<Entity> entities = mDatastore.prepare(mTransaction, query).asIterable(FetchOptions.Builder.withChunkSize(PUT_BATCH_SIZE));
+
+	HashSet<String> addedUsernames = new HashSet<>();
+	Bucket bucket = null;
+	for (Entity entity : entities) {
+		String username = (String) entity.getProperty(CHighscore.USERNAME);
+
+		// Only keep the best score of each player
+		if (!addedUsernames.add(username)) {
+			continue;
+		}
+
+		long score = DatastoreUtils.getPropertyInt(entity, CHighscore.SCORE, 0);
+
+		// New bucket, never place equal scores in different buckets
+		if (bucket == null || (bucket.size() >= BUCKET_BUILD_SIZE && bucket.getScore(bucket.size() - 1) != score)) {
+			if (bucket != null) {
+				int lastIndex = mBucketIds.size() - 1;
+				mBucketMins.set(lastIndex, bucket.getScore(bucket.size() - 1));
+				mBucketCounts.set(lastIndex, (long) bucket.size());
+			}
+			bucket = addBucket(mBucketIds.size(), Long.MIN_VALUE);
+		}
+
+		bucket.add(bucket.size(), score, username);
+	}
+
+	if (bucket == null) {
+		addBucket(0, Long.MIN_VALUE);
+	} else {
+		mBucketCounts.set(mBucketIds.size() - 1, (long) bucket.size());
+	}
+}
+
+/**
+ * Create a new bucket and add it to the index
+ * @param bucketIndex where to add the bucket
+ * @param minScore lowest score that belongs to the bucket
+ * @return the created bucket
+ */
+private Bucket addBucket(int bucketIndex, long minScore) {
+	long bucketId = mNextBucketId++;
+	Bucket bucket = new Bucket(createBucketKey(bucketId));
+	mBuckets.put(bucketId, bucket);
+	mBucketIds.add(bucketIndex, bucketId);
+	mBucketMins.add(bucketIndex, minScore);
+	mBucketCounts.add(bucketIndex, 0L);
+	mChanged = true;
+	return bucket;
+}
+
+/**
+ * Set the index from the rank entity
+ * @param rankEntity the rank entity
+ */
+@SuppressWarnings("unchecked")
+private void setFromRankEntity(Entity rankEntity) {
+	mBucketIds = toArrayList((List<Long>) rankEntity.getProperty(CHighscoreRank.BUCKET_IDS));
+	mBucketMins = toArrayList((List<Long>) rankEntity.getProperty(CHighscoreRank.BUCKET_MINS));
+	mBucketCounts = toArrayList((List<Long>) rankEntity.getProperty(CHighscoreRank.BUCKET_COUNTS));
+	mNextBucketId = (Long) rankEntity.getProperty(CHighscoreRank.NEXT_BUCKET_ID);
+	mBuckets.clear();
+	mDeletedBucketKeys.clear();
+	mChanged = false;
+}
+
+/**
+ * Save all changed buckets and the rank entity
+ */
+private void save() {
+	ArrayList<Entity> entities = new ArrayList<>();
+	for (Bucket bucket : mBuckets.values()) {
+		if (bucket.isChanged()) {
+			entities.add(bucket.toEntity());
+		}
+	}
+
+	if (mChanged) {
+		Entity rankEntity = new Entity(mRankKey);
+		rankEntity.setUnindexedProperty(CHighscoreRank.BUCKET_IDS, mBucketIds);
+		rankEntity.setUnindexedProperty(CHighscoreRank.BUCKET_MINS, mBucketMins);
+		rankEntity.setUnindexedProperty(CHighscoreRank.BUCKET_COUNTS, mBucketCounts);
+		rankEntity.setUnindexedProperty(CHighscoreRank.NEXT_BUCKET_ID, mNextBucketId);
+		entities.add(rankEntity);
+	}
+
+	for (int i = 0; i < entities.size(); i += PUT_BATCH_SIZE) {
+		mDatastore.put(mTransaction, entities.subList(i, Math.min(i + PUT_BATCH_SIZE, entities.size())));
+	}
+
+	if (!mDeletedBucketKeys.isEmpty()) {
+		mDatastore.delete(mTransaction, mDeletedBucketKeys);
+		mDeletedBucketKeys.clear();
+	}
+
+	mChanged = false;
+}
+
+/**
+ * Insert a score into the index
+ * @param username the player
+ * @param score the player's score
+ */
+private void insert(String username, long score) {
+	int bucketIndex = getBucketIndex(score);
+	Bucket bucket = getBucket(bucketIndex);
+	bucket.add(bucket.getInsertIndex(score, username), score, username);
+	mBucketCounts.set(bucketIndex, (long) bucket.size());
+	mChanged = true;
+
+	if (bucket.size() > BUCKET_CAPACITY) {
+		splitBucket(bucketIndex, bucket);
+	}
+}
+
+/**
+ * Remove a score from the index
+ * @param username the player
+ * @param score the player's score
+ */
+private void remove(String username, long score) {
+	int bucketIndex = getBucketIndex(score);
+	Bucket bucket = getBucket(bucketIndex);
+	int index = bucket.indexOf(score, username);
+
+	if (index == -1) {
+		mLogger.warning("Score " + score + " for " + username + " not found in highscore rank index for level: " + mLevelKey);
+		return;
+	}
+
+	bucket.remove(index);
+	mBucketCounts.set(bucketIndex, (long) bucket.size());
+	mChanged = true;
+
+	// Remove empty buckets, the lowest bucket is always kept
+	if (bucket.size() == 0 && bucketIndex < mBucketIds.size() - 1) {
+		Long bucketId = mBucketIds.remove(bucketIndex);
+		mBucketMins.remove(bucketIndex);
+		mBucketCounts.remove(bucketIndex);
+		mBuckets.remove(bucketId);
+		mDeletedBucketKeys.add(createBucketKey(bucketId));
+	}
+}
+
+/**
+ * Split a bucket into two buckets
+ * @param bucketIndex index of the bucket to split
+ * @param bucket the bucket to split
+ */
+private void splitBucket(int bucketIndex, Bucket bucket) {
+	int splitIndex = bucket.getSplitIndex();
+
+	// All scores are equal, cannot split
+	if (splitIndex <= 0) {
+		return;
+	}
+
+	long minScore = bucket.getScore(splitIndex - 1);
+	Bucket higherBucket = addBucket(bucketIndex, minScore);
+	bucket.moveTo(splitIndex, higherBucket);
+	mBucketCounts.set(bucketIndex, (long) higherBucket.size());
+	mBucketCounts.set(bucketIndex + 1, (long) bucket.size());
+}
+
+/**
+ * Get the bucket the score belongs to
+ * @param score the score
+ * @return index of the bucket the score belongs to
+ */
+private int getBucketIndex(long score) {
+	int low = 0;
+	int high = mBucketMins.size() - 1;
+	while (low < high) {
+		int mid = (low + high) >>> 1;
+		if (mBucketMins.get(mid) <= score) {
+			high = mid;
+		} else {
+			low = mid + 1;
+		}
+	}
+	return low;
+}
+
+/**
+ * Get a bucket, fetches it if it hasn't been loaded
+ * @param bucketIndex index of the bucket
+ * @return the bucket
+ */
+private Bucket getBucket(int bucketIndex) {
+	Long bucketId = mBucketIds.get(bucketIndex);
+	Bucket bucket = mBuckets.get(bucketId);
+
+	if (bucket == null) {
+		Key bucketKey = createBucketKey(bucketId);
+		try {
+			bucket = new Bucket(mDatastore.get(mTransaction, bucketKey));
+		} catch (EntityNotFoundException e) {
+			mLogger.severe("Missing highscore rank bucket: " + bucketKey);
+			bucket = new Bucket(bucketKey);
+		}
+		mBuckets.put(bucketId, bucket);
+	}
+
+	return bucket;
+}
+
+/**
+ * Create a bucket key
+ * @param bucketId id of the bucket
+ * @return datastore key for the bucket
+ */
+private Key createBucketKey(long bucketId) {
+	return KeyFactory.createKey(mRankKey, DatastoreTables.HIGHSCORE_RANK_BUCKET, bucketId);
+}
+
+/**
+ * Convert a datastore list to an array list
+ * @param list the list from the datastore, null if empty
+ * @return array list with all elements of the list
+ */
+private static <T> ArrayList<T> toArrayList(List<T> list) {
+	if (list != null) {
+		return new ArrayList<>(list);
+	} else {
+		return new ArrayList<>();
+	}
+}
+
+/**
+ * Iterates over scores in the index, either towards higher or lower scores
+ */
+private class ScoreIterator implements Iterator<HighscoreEntity> {
+	/** Current bucket index */
+	private int mBucketIndex;
+	/** Current bucket */
+	private Bucket mBucket;
+	/** Index in the current bucket */
+	private int mIndex;
+	/** True if iterating towards higher scores */
+	private final boolean mHigher;
+
+	/**
+	 * @param bucketIndex index of the bucket to start in
+	 * @param index index of the first score in the bucket
+	 * @param higher true to iterate towards higher scores, false towards lower
+	 */
+	ScoreIterator(int bucketIndex, int index, boolean higher) {
+		mBucketIndex = bucketIndex;
+		mBucket = getBucket(bucketIndex);
+		mIndex = index;
+		mHigher = higher;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (mIndex < 0 || mIndex >= mBucket.size()) {
+			if (mHigher) {
+				if (mBucketIndex == 0) {
+					return false;
+				}
+				mBucketIndex--;
+				mBucket = getBucket(mBucketIndex);
+				mIndex = mBucket.size() - 1;
+			} else {
+				if (mBucketIndex == mBucketIds.size() - 1) {
+					return false;
+				}
+				mBucketIndex++;
+				mBucket = getBucket(mBucketIndex);
+				mIndex = 0;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public HighscoreEntity next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		HighscoreEntity highscoreEntity = new HighscoreEntity();
+		highscoreEntity.playerName = mBucket.getUsername(mIndex);
+		highscoreEntity.score = (int) mBucket.getScore(mIndex);
+		mIndex += mHigher ? -1 : 1;
+		return highscoreEntity;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
+
+/**
+ * Sorted scores within a score range. Highest score first, equal scores are sorted by username
+ */
+private static class Bucket {
+	/** Bucket key */
+	private final Key mKey;
+	/** Scores */
+	private final ArrayList<Long> mScores;
+	/** Usernames, same order as the scores */
+	private final ArrayList<String> mUsernames;
+	/** True if the bucket has been changed */
+	private boolean mChanged;
+
+	/**
+	 * Create a new empty bucket
+	 * @param key bucket key
+	 */
+	Bucket(Key key) {
+		mKey = key;
+		mScores = new ArrayList<>();
+		mUsernames = new ArrayList<>();
+		mChanged = true;
+	}
+
+	/**
+	 * Create the bucket from a datastore entity
+	 * @param entity the bucket entity
+	 */
+	@SuppressWarnings("unchecked")
+	Bucket(Entity entity) {
+		mKey = entity.getKey();
+		mScores = toArrayList((List<Long>) entity.getProperty(CHighscoreRankBucket.SCORES));
+		mUsernames = toArrayList((List<String>) entity.getProperty(CHighscoreRankBucket.USERNAMES));
+		mChanged = false;
+	}
+
+	/**
+	 * @return datastore entity of the bucket
+	 */
+	Entity toEntity() {
+		Entity entity = new Entity(mKey);
+		entity.setUnindexedProperty(CHighscoreRankBucket.SCORES, mScores);
+		entity.setUnindexedProperty(CHighscoreRankBucket.USERNAMES, mUsernames);
+		mChanged = false;
+		return entity;
+	}
+
+	/**
+	 * @return true if the bucket has been changed since it was loaded or saved
+	 */
+	boolean isChanged() {
+		return mChanged;
+	}
+
+	/**
+	 * @return number of scores in the bucket
+	 */
+	int size() {
+		return mScores.size();
+	}
+
+	/**
+	 * @param index index of the score
+	 * @return score at the index
+	 */
+	long getScore(int index) {
+		return mScores.get(index);
+	}
+
+	/**
+	 * @param index index of the score
+	 * @return username at the index
+	 */
+	String getUsername(int index) {
+		return mUsernames.get(index);
+	}
+
+	/**
+	 * Add a score
+	 * @param index where to add the score
+	 * @param score the score
+	 * @param username the player
+	 */
+	void add(int index, long score, String username) {
+		mScores.add(index, score);
+		mUsernames.add(index, username);
+		mChanged = true;
+	}
+
+	/**
+	 * Remove a score
+	 * @param index index of the score to remove
+	 */
+	void remove(int index) {
+		mScores.remove(index);
+		mUsernames.remove(index);
+		mChanged = true;
+	}
+
+	/**
+	 * Get the index of the first score that is lower than (or equal to) the specified score
+	 * @param score the score
+	 * @param lowerOnly true to skip scores equal to the specified score
+	 * @return index of the first lower (or equal) score, size() if there are none
+	 */
+	int getFirstIndex(long score, boolean lowerOnly) {
+		int low = 0;
+		int high = mScores.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			long midScore = mScores.get(mid);
+			if (midScore < score || (!lowerOnly && midScore == score)) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Get the index to insert a score at to keep the bucket sorted
+	 * @param score the score
+	 * @param username the player
+	 * @return index to insert the score at
+	 */
+	int getInsertIndex(long score, String username) {
+		int index = getFirstIndex(score, false);
+		while (index < mScores.size() && mScores.get(index) == score && mUsernames.get(index).compareTo(username) < 0) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Find a player's score
+	 * @param score the player's score
+	 * @param username the player
+	 * @return index of the score, -1 if not found
+	 */
+	int indexOf(long score, String username) {
+		for (int i = getFirstIndex(score, false); i < mScores.size() && mScores.get(i) == score; ++i) {
+			if (mUsernames.get(i).equals(username)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return index closest to the middle where the scores before and at the index differ, 0 if
+	 *         all scores are equal
+	 */
+	int getSplitIndex() {
+		int middle = mScores.size() / 2;
+		for (int offset = 0; offset <= middle; ++offset) {
+			int after = middle + offset;
+			if (after < mScores.size() && mScores.get(after - 1).longValue() != mScores.get(after).longValue()) {
+				return after;
+			}
+			int before = middle - offset;
+			if (before > 0 && mScores.get(before - 1).longValue() != mScores.get(before).longValue()) {
+				return before;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Move all scores before the index to the specified (empty) bucket
+	 * @param index move all scores before this index
+	 * @param bucket the bucket to move the scores to
+	 */
+	void moveTo(int index, Bucket bucket) {
+		List<Long> scores = mScores.subList(0, index);
+		List<String> usernames = mUsernames.subList(0, index);
+		bucket.mScores.addAll(scores);
+		bucket.mUsernames.addAll(usernames);
+		bucket.mChanged = true;
+		scores.clear();
+		usernames.clear();
+		mChanged = true;
+	}
+}
+}
@@ -0,0 +1,243 @@
+package com.spiddekauga.voider.server.util;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.Transaction;
+import com.google.appengine.api.datastore.TransactionOptions;
+import com.spiddekauga.appengine.DatastoreUtils;
+import com.spiddekauga.voider.network.stat.LevelStatsEntity;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CLevelStat;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CLevelStatShard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Sharded play, clear and death counters of levels. A level's stats entity is in the same entity
+ * group as all other resources of the creator. Incrementing the counters of a popular level there
+ * would hit the entity group write limit, instead the counts are added to a random root shard.
+ * Shards are summed on read and added to the level stats from time to time so that levels can
+ * still be sorted by play count.
+ */
+public class LevelStatCounter {
+/** Number of shards for each level */
+static final int SHARD_COUNT = 8;
+/** Random shard */
+private static final Random mRandom = new Random();
+/** Logger */
+private static final Logger mLogger = Logger.getLogger(LevelStatCounter.class.getSimpleName());
+
+/**
+ * Get the key of a random shard. Use {@link #newShard(Key, Key)} if the shard doesn't exist
+ * @param levelKey key of the level
+ * @return key of a random shard for the level
+ */
+public static Key getRandomShardKey(Key levelKey) {
+	return getShardKey(levelKey, mRandom.nextInt(SHARD_COUNT));
+}
+
+/**
+ * Create a new empty shard
+ * @param shardKey key of the shard
+ * @param levelKey key of the level
+ * @return new shard entity
+ */
+public static Entity newShard(Key shardKey, Key levelKey) {
+	Entity shardEntity = new Entity(shardKey);
+	shardEntity.setUnindexedProperty(CLevelStatShard.LEVEL_KEY, levelKey);
+	shardEntity.setUnindexedProperty(CLevelStatShard.PLAY_COUNT, 0L);
+	shardEntity.setUnindexedProperty(CLevelStatShard.CLEAR_COUNT, 0L);
+	shardEntity.setUnindexedProperty(CLevelStatShard.DEATH_COUNT, 0L);
+	shardEntity.setProperty(CLevelStatShard.PENDING, false);
+	return shardEntity;
+}
+
+/**
+ * Increment the counters of a shard
+ * @param shardEntity the shard to increment
+ * @param cPlays number of plays to add
+ * @param cClears number of clears to add
+ * @param cDeaths number of deaths to add
+ */
+public static void increment(Entity shardEntity, int cPlays, int cClears, int cDeaths) {
+	incrementProperty(shardEntity, CLevelStatShard.PLAY_COUNT, cPlays);
+	incrementProperty(shardEntity, CLevelStatShard.CLEAR_COUNT, cClears);
+	incrementProperty(shardEntity, CLevelStatShard.DEATH_COUNT, cDeaths);
+	shardEntity.setProperty(CLevelStatShard.PENDING, true);
+}
+
+/**
+ * Start getting all shards of the levels
+ * @param levelKeys keys of the levels
+ * @return pending batch get of all existing shards
+ */
+public static Future<Map<Key, Entity>> getShardsAsync(Collection<Key> levelKeys) {
+	ArrayList<Key> shardKeys = new ArrayList<>(levelKeys.size() * SHARD_COUNT);
+	for (Key levelKey : levelKeys) {
+		for (int i = 0; i < SHARD_COUNT; ++i) {
+			shardKeys.add(getShardKey(levelKey, i));
+		}
+	}
+	return DatastoreServiceFactory.getAsyncDatastoreService().get(shardKeys);
+}
+
+/**
+ * Get all shards of a level
+ * @param levelKey key of the level
+ * @return all existing shards of the level
+ */
+public static Map<Key, Entity> getShards(Key levelKey) {
+	ArrayList<Key> shardKeys = new ArrayList<>(SHARD_COUNT);
+	for (int i = 0; i < SHARD_COUNT; ++i) {
+		shardKeys.add(getShardKey(levelKey, i));
+	}
+	return DatastoreServiceFactory.getDatastoreService().get(shardKeys);
+}
+
+/**
+ * Add the counts of all shards that haven't been added to the level stats yet
+ * @param levelKey key of the level
+ * @param shards shards fetched with {@link #getShardsAsync(Collection)} or
+ *        {@link #getShards(Key)}
+ * @param levelStatsEntity the level stats to add the counts to
+ */
+public static void addShardCounts(Key levelKey, Map<Key, Entity> shards, LevelStatsEntity levelStatsEntity) {
+	for (int i = 0; i < SHARD_COUNT; ++i) {
+		Entity shardEntity = shards.get(getShardKey(levelKey, i));
+		if (shardEntity != null) {
+			levelStatsEntity.cPlayed += DatastoreUtils.getPropertyInt(shardEntity, CLevelStatShard.PLAY_COUNT, 0);
+			levelStatsEntity.cCleared += DatastoreUtils.getPropertyInt(shardEntity, CLevelStatShard.CLEAR_COUNT, 0);
+			levelStatsEntity.cDeaths += DatastoreUtils.getPropertyInt(shardEntity, CLevelStatShard.DEATH_COUNT, 0);
+		}
+	}
+}
+
+/**
+ * Add the counts of all pending shards to their level stats and reset the shards
+ * @return number of shards that were added
+ */
+public static int foldPendingShards() {
+	DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+
+	Query query = new Query(DatastoreTables.LEVEL_STAT_SHARD);
+	query.setFilter(new FilterPredicate(CLevelStatShard.PENDING, FilterOperator.EQUAL, true));
+	query.setKeysOnly();
+
+	int cFolded = 0;
+	for (Entity keyEntity : datastore.prepare(query).asIterable()) {
+		if (foldShard(datastore, keyEntity.getKey())) {
+			cFolded++;
+		}
+	}
+	return cFolded;
+}
+
+/**
+ * Add the counts of a shard to the level stats and reset the shard in one transaction
+ * @param datastore the datastore
+ * @param shardKey key of the shard to add
+ * @return true if the shard was added, false if it was modified or failed
+ */
+private static boolean foldShard(DatastoreService datastore, Key shardKey) {
+	Transaction transaction = datastore.beginTransaction(TransactionOptions.Builder.withXG(true));
+	try {
+		Entity shardEntity = datastore.get(transaction, shardKey);
+		Key levelKey = (Key) shardEntity.getProperty(CLevelStatShard.LEVEL_KEY);
+
+		Entity levelStatEntity = getLevelStatEntity(datastore, transaction, levelKey);
+		incrementProperty(levelStatEntity, CLevelStat.PLAY_COUNT, DatastoreUtils.getPropertyInt(shardEntity, CLevelStatShard.PLAY_COUNT, 0));
+		incrementProperty(levelStatEntity, CLevelStat.CLEAR_COUNT, DatastoreUtils.getPropertyInt(shardEntity, CLevelStatShard.CLEAR_COUNT, 0));
+		incrementProperty(levelStatEntity, CLevelStat.DEATH_COUNT, DatastoreUtils.getPropertyInt(shardEntity, CLevelStatShard.DEATH_COUNT, 0));
+
+		Entity resetShardEntity = newShard(shardKey, levelKey);
+
+		List<Entity> entities = new ArrayList<>();
+		entities.add(levelStatEntity);
+		entities.add(resetShardEntity);
+		datastore.put(transaction, entities);
+		transaction.commit();
+		return true;
+	} catch (EntityNotFoundException e) {
+		return false;
+	} catch (ConcurrentModificationException e) {
+		mLogger.info("Level stat shard modified while adding it, trying again next time: " + shardKey);
+		return false;
+	} finally {
+		if (transaction.isActive()) {
+			transaction.rollback();
+		}
+	}
+}
+
+/**
+ * Get the level stats entity, creates a new one if it doesn't exist
+ * @param datastore the datastore
+ * @param transaction current transaction
+ * @param levelKey key of the level
+ * @return level stats entity of the level
+ */
+public static Entity getLevelStatEntity(DatastoreService datastore, Transaction transaction, Key levelKey) {
+	Query query = new Query(DatastoreTables.LEVEL_STAT, levelKey);
+	Iterator<Entity> result = datastore.prepare(transaction, query).asIterator(FetchOptions.Builder.withLimit(1));
+
+	if (result.hasNext()) {
+		return result.next();
+	} else {
+		Entity levelStatEntity = new Entity(DatastoreTables.LEVEL_STAT, levelKey);
+		levelStatEntity.setProperty(CLevelStat.PLAY_COUNT, 0L);
+		levelStatEntity.setProperty(CLevelStat.BOOKMARS, 0L);
+		levelStatEntity.setProperty(CLevelStat.RATING_AVG, 0d);
+		levelStatEntity.setUnindexedProperty(CLevelStat.RATING_SUM, 0L);
+		levelStatEntity.setUnindexedProperty(CLevelStat.RATINGS, 0L);
+		levelStatEntity.setUnindexedProperty(CLevelStat.CLEAR_COUNT, 0L);
+		levelStatEntity.setUnindexedProperty(CLevelStat.DEATH_COUNT, 0L);
+		return levelStatEntity;
+	}
+}
+
+/**
+ * Get a shard key
+ * @param levelKey key of the level
+ * @param shardIndex index of the shard
+ * @return key of the shard
+ */
+private static Key getShardKey(Key levelKey, int shardIndex) {
+	return KeyFactory.createKey(DatastoreTables.LEVEL_STAT_SHARD, KeyFactory.keyToString(levelKey) + "_" + shardIndex);
+}
+
+/**
+ * Increment a value to an existing entity, keeps the property indexed or unindexed
+ * @param entity the entity to use
+ * @param propertyName name of the property to increment
+ * @param value the value to increment with (can be negative)
+ */
+private static void incrementProperty(Entity entity, String propertyName, long value) {
+	Long oldValue = (Long) entity.getProperty(propertyName);
+	if (oldValue == null) {
+		oldValue = 0L;
+	}
+	Long newValue = oldValue + value;
+
+	if (entity.isUnindexedProperty(propertyName)) {
+		entity.setUnindexedProperty(propertyName, newValue);
+	} else {
+		entity.setProperty(propertyName, newValue);
+	}
+}
+}
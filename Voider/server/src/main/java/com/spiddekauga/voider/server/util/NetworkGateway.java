@@ -29,6 +29,8 @@ public class NetworkGateway {
 private static final Logger mLogger = Logger.getLogger(NetworkGateway.class.getName());
 /** Entity post name */
 private static final String ENTITY_NAME = "entity";
+/** Content type of entities sent as binary */
+private static final String ENTITY_BINARY_CONTENT_TYPE = "application/octet-stream";
 /** Channel service for sending messages */
 private static ChannelService mChannelService = ChannelServiceFactory.getChannelService();
 
@@ -54,7 +56,7 @@ public static byte[] getEntity(HttpServletRequest request) {
 
 				if (item.getFieldName().equals(ENTITY_NAME)) {
 					// Binary
-					if (item.getContentType().equals("application/octet-stream")) {
+					if (item.getContentType().equals(ENTITY_BINARY_CONTENT_TYPE)) {
 						mLogger.finer("Found binary entity");
 						InputStream inputStream = item.openStream();
 						return IOUtils.toByteArray(inputStream);
@@ -76,6 +78,19 @@ public static byte[] getEntity(HttpServletRequest request) {
 		}
 	}
 
+	// Binary body
+	String contentType = request.getContentType();
+	if (!isMultipart && contentType != null && contentType.startsWith(ENTITY_BINARY_CONTENT_TYPE)) {
+		mLogger.finer("Found binary body entity");
+		try {
+			return IOUtils.toByteArray(request.getInputStream());
+		} catch (IOException e) {
+			String exceptionString = Strings.exceptionToString(e);
+			mLogger.severe(exceptionString);
+			return null;
+		}
+	}
+
 	// Check if there's a regular parameter :)
 	String base64Entity = request.getParameter(ENTITY_NAME);
 	if (base64Entity != null) {
@@ -0,0 +1,106 @@
+package com.spiddekauga.voider.server.util;
+
+import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CPublished;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Looks up datastore keys of published resources from their resource ids. A published resource
+ * never changes key so found keys are cached in memcache without expiration.
+ */
+public class PublishedKeyCache {
+/** Memcache namespace */
+private static final String NAMESPACE = "published_key";
+
+/**
+ * Get the published key of a resource
+ * @param resourceId id of the resource
+ * @return datastore key of the published resource, null if not found
+ */
+public static Key getKey(UUID resourceId) {
+	ArrayList<UUID> resourceIds = new ArrayList<>();
+	resourceIds.add(resourceId);
+	return getKeys(resourceIds).get(resourceId);
+}
+
+/**
+ * Get the published keys of several resources. Keys that aren't cached are queried in parallel.
+ * @param resourceIds ids of the resources
+ * @return datastore keys of all found published resources
+ */
+public static Map<UUID, Key> getKeys(Collection<UUID> resourceIds) {
+	MemcacheService memcache = MemcacheServiceFactory.getMemcacheService(NAMESPACE);
+
+	LinkedHashSet<String> ids = new LinkedHashSet<>();
+	for (UUID resourceId : resourceIds) {
+		ids.add(resourceId.toString());
+	}
+
+	HashMap<UUID, Key> keys = new HashMap<>();
+	Map<String, Object> cachedKeys = memcache.getAll(ids);
+	ArrayList<String> missingIds = new ArrayList<>();
+	for (String id : ids) {
+		Object key = cachedKeys.get(id);
+		if (key instanceof Key) {
+			keys.put(UUID.fromString(id), (Key) key);
+		} else {
+			missingIds.add(id);
+		}
+	}
+
+	if (!missingIds.isEmpty()) {
+		Map<String, Key> foundKeys = queryKeys(missingIds);
+		for (Map.Entry<String, Key> entry : foundKeys.entrySet()) {
+			keys.put(UUID.fromString(entry.getKey()), entry.getValue());
+		}
+		memcache.putAll(foundKeys);
+	}
+
+	return keys;
+}
+
+/**
+ * Query the published keys. All queries are started before any result is read
+ * @param ids resource ids to query
+ * @return found keys by resource id
+ */
+private static Map<String, Key> queryKeys(List<String> ids) {
+	AsyncDatastoreService datastore = DatastoreServiceFactory.getAsyncDatastoreService();
+	FetchOptions fetchOptions = FetchOptions.Builder.withLimit(1);
+
+	ArrayList<Iterator<Entity>> results = new ArrayList<>(ids.size());
+	for (String id : ids) {
+		Query query = new Query(DatastoreTables.PUBLISHED);
+		query.setFilter(new FilterPredicate(CPublished.RESOURCE_ID, FilterOperator.EQUAL, id));
+		query.setKeysOnly();
+		results.add(datastore.prepare(query).asIterator(fetchOptions));
+	}
+
+	HashMap<String, Key> foundKeys = new HashMap<>();
+	for (int i = 0; i < ids.size(); ++i) {
+		Iterator<Entity> result = results.get(i);
+		if (result.hasNext()) {
+			foundKeys.put(ids.get(i), result.next().getKey());
+		}
+	}
+	return foundKeys;
+}
+}
@@ -3,6 +3,7 @@ package com.spiddekauga.voider.server.util;
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.Key;
 import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.spiddekauga.appengine.DatastoreUtils;
@@ -17,6 +18,7 @@ import com.spiddekauga.voider.server.util.ServerConfig.FetchSizes;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -59,19 +61,37 @@ protected FetchStatuses searchAndSetFoundDefs(String searchTable, String nextCur
 		return FetchStatuses.SUCCESS_FETCHED_ALL;
 	}
 
-	// Convert all found documents to entities
+	// Get all datastore entities at once
+	ArrayList<Key> datastoreKeys = new ArrayList<>();
 	for (ScoredDocument document : documents) {
-		ReturnType networkEntity = newNetworkDef();
-
-		// Datastore
-		Key datastoreKey = KeyFactory.stringToKey(document.getId());
-		Entity datastoreEntity = DatastoreUtils.getEntity(datastoreKey);
-		datastoreToDefEntity(datastoreEntity, networkEntity);
+		datastoreKeys.add(KeyFactory.stringToKey(document.getId()));
+	}
+	Map<Key, Entity> datastoreEntities = DatastoreUtils.getEntities(datastoreKeys);
 
-		setAdditionalDefInformation(datastoreEntity, networkEntity);
-		defs.add(networkEntity);
+	// Convert all found documents to entities
+	ArrayList<Entity> foundEntities = new ArrayList<>();
+	ArrayList<ReturnType> networkEntities = new ArrayList<>();
+	ArrayList<ScoredDocument> foundDocuments = new ArrayList<>();
+	int i = 0;
+	for (ScoredDocument document : documents) {
+		Entity datastoreEntity = datastoreEntities.get(datastoreKeys.get(i));
+		i++;
+
+		if (datastoreEntity != null) {
+			ReturnType networkEntity = newNetworkDef();
+			datastoreToDefEntity(datastoreEntity, networkEntity);
+
+			foundEntities.add(datastoreEntity);
+			networkEntities.add(networkEntity);
+			foundDocuments.add(document);
+		} else {
+			mLogger.warning("Found search document without a datastore entity: " + document.getId());
+		}
 	}
 
+	setAdditionalDefInformation(foundEntities, networkEntities, foundDocuments);
+	defs.addAll(networkEntities);
+
 	// Did we fetch all
 	return getSuccessStatus(defs);
 }
@@ -109,6 +129,20 @@ protected ReturnType datastoreToDefEntity(Entity datastoreEntity, ReturnType net
  */
 protected abstract void setAdditionalDefInformation(Entity datastoreEntity, ReturnType networkEntity);
 
+/**
+ * Adds additional information to several defs. Calls {@link #setAdditionalDefInformation(Entity,
+ * Object)} for each def, override to fetch the information for all defs at once.
+ * @param datastoreEntities datastore entities of the defs
+ * @param networkEntities newly created defs that needs information to be set, same order as
+ * datastoreEntities
+ * @param documents search documents of the defs, same order as datastoreEntities
+ */
+protected void setAdditionalDefInformation(List<Entity> datastoreEntities, List<ReturnType> networkEntities, List<? extends Document> documents) {
+	for (int i = 0; i < datastoreEntities.size(); ++i) {
+		setAdditionalDefInformation(datastoreEntities.get(i), networkEntities.get(i));
+	}
+}
+
 /**
  * Checks if we fetched all and returns the correct success status
  * @param list the results from a query
@@ -130,7 +164,11 @@ protected <DefType extends DefEntity> DefType datastoreToDefEntity(Entity datast
 	networkEntity.description = (String) datastoreEntity.getProperty(CPublished.DESCRIPTION);
 	networkEntity.name = (String) datastoreEntity.getProperty(CPublished.NAME);
 	networkEntity.resourceId = DatastoreUtils.getPropertyUuid(datastoreEntity, CPublished.RESOURCE_ID);
-	networkEntity.png = DatastoreUtils.getPropertyByteArray(datastoreEntity, CPublished.PNG);
+	networkEntity.pngHash = (String) datastoreEntity.getProperty(CPublished.PNG_HASH);
+	// Resources published before the hash was stored
+	if (networkEntity.pngHash == null) {
+		networkEntity.pngHash = ResourceUtils.getPngHash(DatastoreUtils.getPropertyByteArray(datastoreEntity, CPublished.PNG));
+	}
 
 	// Set creators
 	Key creatorKey = datastoreEntity.getParent();
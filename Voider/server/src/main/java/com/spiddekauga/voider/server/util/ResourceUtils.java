@@ -6,10 +6,39 @@ import com.spiddekauga.appengine.DatastoreUtils;
 import com.spiddekauga.voider.network.resource.ResourceBlobEntity;
 import com.spiddekauga.voider.network.resource.UploadTypes;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 /**
  * Common methods for resources
  */
 public class ResourceUtils {
+/** Hex characters used when converting a hash to a string */
+private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+/**
+ * Calculate the content hash of a PNG. Used by the client to cache thumbnails
+ * @param png the PNG bytes
+ * @return hex string of the SHA-1 hash, null if png is null
+ */
+public static String getPngHash(byte[] png) {
+	if (png == null) {
+		return null;
+	}
+
+	try {
+		byte[] hash = MessageDigest.getInstance("SHA-1").digest(png);
+		char[] hex = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; ++i) {
+			hex[i * 2] = HEX_CHARS[(hash[i] >> 4) & 0x0F];
+			hex[i * 2 + 1] = HEX_CHARS[hash[i] & 0x0F];
+		}
+		return new String(hex);
+	} catch (NoSuchAlgorithmException e) {
+		throw new IllegalStateException(e);
+	}
+}
+
 /**
  * @param levelDef the level def to get information from
  * @return information about the actual level
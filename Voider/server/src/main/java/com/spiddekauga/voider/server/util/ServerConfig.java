@@ -162,6 +162,8 @@ public static class DatastoreTables {
 	public static final String DEPENDENCY = "dependency";
 	public static final String USER_LEVEL_STAT = "user_level_stat";
 	public static final String LEVEL_STAT = "level_stat";
+	/** Play, clear and death count shards that haven't been added to the level stats yet */
+	public static final String LEVEL_STAT_SHARD = "level_stat_shard";
 	public static final String LEVEL_TAG = "level_tag";
 	public static final String RESOURCE_COMMENT = "resource_comment";
 	public static final String ACTOR_STAT = "actor_stat";
@@ -169,6 +171,10 @@ public static class DatastoreTables {
 	public static final String USER_RESOURCES = "user_resources";
 	public static final String USER_RESOURCES_DELETED = "user_resources_deleted";
 	public static final String HIGHSCORE = "highscore";
+	/** Rank index of all highscores in a level */
+	public static final String HIGHSCORE_RANK = "highscore_rank";
+	/** Sorted highscores for a score range in the rank index */
+	public static final String HIGHSCORE_RANK_BUCKET = "highscore_rank_bucket";
 	public static final String MAINTENANCE = "maintenance";
 	public static final String CONNECTED_USER = "connected_user";
 	// Analytics
@@ -233,6 +239,8 @@ public static class DatastoreTables {
 		public static final String DATE = "date";
 		public static final String BLOB_KEY = "blob_key";
 		public static final String PNG = "png";
+		/** Content hash of the PNG */
+		public static final String PNG_HASH = "png_hash";
 		public static final String COPY_PARENT_ID = "copy_parent_id";
 		public static final String RESOURCE_ID = "resource_id";
 
@@ -241,6 +249,20 @@ public static class DatastoreTables {
 		public static final String LEVEL_ID = "level_id";
 	}
 
+	// Highscore rank index
+	public static class CHighscoreRank {
+		public static final String BUCKET_IDS = "bucket_ids";
+		public static final String BUCKET_MINS = "bucket_mins";
+		public static final String BUCKET_COUNTS = "bucket_counts";
+		public static final String NEXT_BUCKET_ID = "next_bucket_id";
+	}
+
+	// Highscore rank bucket
+	public static class CHighscoreRankBucket {
+		public static final String SCORES = "scores";
+		public static final String USERNAMES = "usernames";
+	}
+
 	// Dependency
 	public static class CDependency {
 		public static final String DEPENDENCY = "dependency";
@@ -271,6 +293,16 @@ public static class DatastoreTables {
 		public static final String DEATH_COUNT = "death_count";
 	}
 
+	// Level stat shard
+	public static class CLevelStatShard {
+		public static final String LEVEL_KEY = "level_key";
+		public static final String PLAY_COUNT = "play_count";
+		public static final String CLEAR_COUNT = "clear_count";
+		public static final String DEATH_COUNT = "death_count";
+		/** True if the shard has counts that should be added to the level stats */
+		public static final String PENDING = "pending";
+	}
+
 	// Level tag
 	public static class CLevelTag {
 		public static final String TAG = "tag";
@@ -298,6 +330,7 @@ public static class DatastoreTables {
 		public static final String CREATED = "created";
 		public static final String UPLOADED = "uploaded";
 		public static final String BLOB_KEY = "blob_key";
+		public static final String DELTA_FROM = "delta_from";
 	}
 
 	// User resources deleted
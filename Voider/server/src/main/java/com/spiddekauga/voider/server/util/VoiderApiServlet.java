@@ -47,6 +47,29 @@ protected void handleRequest() throws ServletException, IOException {
 	}
 }
 
+/**
+ * Handles a method that was sent in a batch to another servlet. The session and maintenance mode
+ * have already been checked by that servlet. Called concurrently with the other batched methods,
+ * see {@link #initFrom(VoiderServlet)} for which state is shared.
+ * @param batchServlet the servlet that received the batch
+ * @param method the method to handle
+ * @return response entity, null if the method is of the wrong type
+ * @throws IOException      if an input or output error is detected when handling the method
+ * @throws ServletException if the method could not be handled
+ */
+@SuppressWarnings("unchecked")
+public IEntity handleBatchedRequest(VoiderServlet batchServlet, IMethodEntity method) throws ServletException, IOException {
+	initFrom(batchServlet);
+
+	try {
+		onInit();
+		return onRequest((Method) method);
+	} catch (ClassCastException e) {
+		// Wrong type of method. Doesn't work
+		return null;
+	}
+}
+
 /**
  * Override this method if the subclass will handle request even during maintenance mode
  * @return true if the subclass will handle requests during maintenance mode
@@ -70,6 +70,20 @@ private void handleRequest(HttpServletRequest request, HttpServletResponse respo
 	saveSession();
 }
 
+/**
+ * Use the request and user of another servlet. Used for handling a batched request in another
+ * servlet without looking up the session again. Batched requests are handled concurrently so the
+ * session and response aren't shared; session variables can't be used and the user is read only.
+ * The servlet that received the request saves the session.
+ * @param servlet the servlet that received the request
+ */
+protected void initFrom(VoiderServlet servlet) {
+	mRequest = servlet.mRequest;
+	mResponse = null;
+	mSession = null;
+	mUser = servlet.mUser;
+}
+
 /**
  * Initializes the session and all it's variables
  * @param request server request
@@ -119,6 +133,7 @@ private void initUser() {
  * @param variable the variable to set in the session
  */
 protected void setSessionVariable(SessionVariableNames name, Object variable) {
+	checkSession();
 	mSession.setAttribute(name.name(), variable);
 }
 
@@ -128,9 +143,19 @@ protected void setSessionVariable(SessionVariableNames name, Object variable) {
  * @return the variable stored in this place, or null if not found
  */
 protected Object getSessionVariable(SessionVariableNames name) {
+	checkSession();
 	return mSession.getAttribute(name.name());
 }
 
+/**
+ * Throws an exception if this servlet doesn't have a session, i.e. when handling a batched request
+ */
+private void checkSession() {
+	if (mSession == null) {
+		throw new IllegalStateException("Session variables can't be used in a batched request");
+	}
+}
+
 /**
  * Send a message
  * @param receiver who we should send the message to
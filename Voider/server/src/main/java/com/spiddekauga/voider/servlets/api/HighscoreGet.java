@@ -1,14 +1,11 @@
 package com.spiddekauga.voider.servlets.api;
 
 import com.google.appengine.api.datastore.Entity;
-import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.Key;
 import com.google.appengine.api.datastore.PreparedQuery;
-import com.google.appengine.api.datastore.PropertyProjection;
 import com.google.appengine.api.datastore.Query;
 import com.google.appengine.api.datastore.Query.FilterOperator;
 import com.google.appengine.api.datastore.Query.FilterPredicate;
-import com.google.appengine.api.datastore.Query.SortDirection;
 import com.spiddekauga.appengine.DatastoreUtils;
 import com.spiddekauga.appengine.DatastoreUtils.FilterWrapper;
 import com.spiddekauga.voider.network.entities.IEntity;
@@ -16,6 +13,7 @@ import com.spiddekauga.voider.network.stat.HighscoreEntity;
 import com.spiddekauga.voider.network.stat.HighscoreGetMethod;
 import com.spiddekauga.voider.network.stat.HighscoreGetResponse;
 import com.spiddekauga.voider.network.stat.HighscoreGetResponse.Statuses;
+import com.spiddekauga.voider.server.util.HighscoreRankIndex;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CHighscore;
 import com.spiddekauga.voider.server.util.VoiderApiServlet;
@@ -24,6 +22,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 import javax.servlet.ServletException;
 
@@ -39,20 +38,13 @@ private static final int TOP_SCORES = 10;
 private static final int SCORES_BEFORE_AFTER_USER = 5;
 /** Level key */
 private Key mLevelKey = null;
+/** Rank index of the level's highscores */
+private HighscoreRankIndex mRankIndex = null;
 /** Parameters */
 private HighscoreGetMethod mParameters = null;
 /** Response */
 private HighscoreGetResponse mResponse = null;
 
-/**
- * Add score projection to query
- * @param query the query to add the score projection to
- */
-private static void addScoreProjection(Query query) {
-	query.addProjection(new PropertyProjection(CHighscore.USERNAME, String.class));
-	query.addProjection(new PropertyProjection(CHighscore.SCORE, Long.class));
-}
-
 /**
  * Convert datastore entity to a network entity
  * @param datastoreEntity entity from the datastore
@@ -69,6 +61,7 @@ private static HighscoreEntity datastoreToNetworkEntity(Entity datastoreEntity)
 protected void onInit() {
 	mResponse = new HighscoreGetResponse();
 	mResponse.status = Statuses.FAILED_INTERNAL;
+	mRankIndex = null;
 }
 
 @Override
@@ -86,6 +79,8 @@ protected IEntity onRequest(HighscoreGetMethod method) throws ServletException,
 		if (foundKey) {
 			switch (mParameters.fetch) {
 			case FIRST_PLACE:
+				fetchUserScore();
+				prefetchScores(0);
 				fetchFirstPlace();
 				fetchUserPos();
 				break;
@@ -95,8 +90,9 @@ protected IEntity onRequest(HighscoreGetMethod method) throws ServletException,
 				break;
 
 			case USER_SCORE:
-				fetchFirstPlace();
 				fetchUserScore();
+				prefetchScores(SCORES_BEFORE_AFTER_USER * 2);
+				fetchFirstPlace();
 				fetchUserPos();
 				fetchScoreBeforeAndAfterUser();
 			}
@@ -123,6 +119,27 @@ private void fetchUserScore() {
 	}
 }
 
+/**
+ * @return rank index of the level's highscores
+ */
+private HighscoreRankIndex getRankIndex() {
+	if (mRankIndex == null) {
+		mRankIndex = new HighscoreRankIndex(mLevelKey);
+		mRankIndex.load();
+	}
+	return mRankIndex;
+}
+
+/**
+ * Fetch all scores needed for the first place and the scores around the user in one batch
+ * @param aroundCount number of scores to fetch before and after the user
+ */
+private void prefetchScores(int aroundCount) {
+	if (mResponse.userScore != null) {
+		getRankIndex().prefetch(mResponse.userScore.score, aroundCount, 1);
+	}
+}
+
 /**
  * Fetch scores before and after the user
  */
@@ -135,19 +152,15 @@ private void fetchScoreBeforeAndAfterUser() {
 	mResponse.afterUser = new ArrayList<>();
 
 	// Before (higher score) - Initial
-	Iterator<Entity> higherIt = getScoreBeforeOrAfterUser(true);
+	Iterator<HighscoreEntity> higherIt = getRankIndex().getHigherScores(mResponse.userScore.score);
 	while (higherIt.hasNext() && mResponse.beforeUser.size() < SCORES_BEFORE_AFTER_USER) {
-		Entity entity = higherIt.next();
-		HighscoreEntity highscoreEntity = datastoreToNetworkEntity(entity);
-		mResponse.beforeUser.add(highscoreEntity);
+		mResponse.beforeUser.add(higherIt.next());
 	}
 
 	// After (lower score)
-	Iterator<Entity> lowerIt = getScoreBeforeOrAfterUser(false);
+	Iterator<HighscoreEntity> lowerIt = getRankIndex().getLowerScores(mResponse.userScore.score);
 	while (lowerIt.hasNext() && mResponse.afterUser.size() < SCORES_BEFORE_AFTER_USER) {
-		Entity entity = lowerIt.next();
-		HighscoreEntity highscoreEntity = datastoreToNetworkEntity(entity);
-		mResponse.afterUser.add(highscoreEntity);
+		mResponse.afterUser.add(lowerIt.next());
 	}
 
 
@@ -157,18 +170,14 @@ private void fetchScoreBeforeAndAfterUser() {
 	if (mResponse.beforeUser.size() < SCORES_BEFORE_AFTER_USER && mResponse.afterUser.size() >= SCORES_BEFORE_AFTER_USER) {
 		int maxCount = SCORES_BEFORE_AFTER_USER * 2;
 		while (higherIt.hasNext() && mResponse.beforeUser.size() + mResponse.afterUser.size() < maxCount) {
-			Entity entity = higherIt.next();
-			HighscoreEntity highscoreEntity = datastoreToNetworkEntity(entity);
-			mResponse.beforeUser.add(highscoreEntity);
+			mResponse.beforeUser.add(higherIt.next());
 		}
 	}
 	// Low number after/lower
 	else if (mResponse.afterUser.size() < SCORES_BEFORE_AFTER_USER && mResponse.beforeUser.size() >= SCORES_BEFORE_AFTER_USER) {
 		int maxCount = SCORES_BEFORE_AFTER_USER * 2;
 		while (lowerIt.hasNext() && mResponse.beforeUser.size() + mResponse.afterUser.size() < maxCount) {
-			Entity entity = lowerIt.next();
-			HighscoreEntity highscoreEntity = datastoreToNetworkEntity(entity);
-			mResponse.afterUser.add(highscoreEntity);
+			mResponse.afterUser.add(lowerIt.next());
 		}
 	}
 
@@ -177,25 +186,6 @@ private void fetchScoreBeforeAndAfterUser() {
 	Collections.reverse(mResponse.beforeUser);
 }
 
-/**
- * Get result for either higher or lower scores than the user
- * @param higher set to true to get results for higher score
- * @return iterator for score results
- */
-private Iterator<Entity> getScoreBeforeOrAfterUser(boolean higher) {
-	FilterOperator filterOperator = higher ? FilterOperator.GREATER_THAN : FilterOperator.LESS_THAN;
-	SortDirection sortDirection = higher ? SortDirection.ASCENDING : SortDirection.DESCENDING;
-
-	Query query = new Query(DatastoreTables.HIGHSCORE, mLevelKey);
-	addScoreProjection(query);
-	query.addSort(CHighscore.SCORE, sortDirection);
-	query.setFilter(new FilterPredicate(CHighscore.SCORE, filterOperator, mResponse.userScore.score));
-
-	FetchOptions fetchOptions = FetchOptions.Builder.withDefaults().prefetchSize(SCORES_BEFORE_AFTER_USER).chunkSize(SCORES_BEFORE_AFTER_USER);
-	PreparedQuery preparedQuery = DatastoreUtils.prepare(query);
-	return preparedQuery.asIterator(fetchOptions);
-}
-
 /**
  * Fetch user position
  */
@@ -204,10 +194,9 @@ private void fetchUserPos() {
 		fetchUserScore();
 	}
 
-	FilterWrapper scoreFilter = new FilterWrapper(CHighscore.SCORE, FilterOperator.GREATER_THAN, mResponse.userScore.score);
-	int cBeforeUser = DatastoreUtils.count(DatastoreTables.HIGHSCORE, mLevelKey, scoreFilter);
-
-	mResponse.userPlace = cBeforeUser + 1;
+	if (mResponse.userScore != null) {
+		mResponse.userPlace = getRankIndex().getPlace(mResponse.userScore.score);
+	}
 }
 
 /**
@@ -223,15 +212,10 @@ private boolean fetchLevelKey() {
  * Fetch top scores
  */
 private void fetchTopScores() {
-	Iterator<Entity> entityIt = fetchTopScores(TOP_SCORES);
+	List<HighscoreEntity> topScores = getRankIndex().getTopScores(TOP_SCORES);
 
-	if (entityIt.hasNext()) {
-		mResponse.topScores = new ArrayList<>();
-	}
-
-	while (entityIt.hasNext()) {
-		Entity entity = entityIt.next();
-		mResponse.topScores.add(datastoreToNetworkEntity(entity));
+	if (!topScores.isEmpty()) {
+		mResponse.topScores = new ArrayList<>(topScores);
 	}
 }
 
@@ -239,26 +223,10 @@ private void fetchTopScores() {
  * Fetch and set the first place for the level if one exists
  */
 private void fetchFirstPlace() {
-	Iterator<Entity> entityIt = fetchTopScores(1);
+	List<HighscoreEntity> topScores = getRankIndex().getTopScores(1);
 
-	if (entityIt.hasNext()) {
-		Entity entity = entityIt.next();
-		mResponse.firstPlace = datastoreToNetworkEntity(entity);
+	if (!topScores.isEmpty()) {
+		mResponse.firstPlace = topScores.get(0);
 	}
 }
-
-/**
- * Fetch the X top scores
- * @param limit the limit of top scores to fetch
- * @return iterator for the top scores
- */
-private Iterator<Entity> fetchTopScores(int limit) {
-	Query query = new Query(DatastoreTables.HIGHSCORE, mLevelKey);
-	addScoreProjection(query);
-	query.addSort(CHighscore.SCORE, SortDirection.DESCENDING);
-
-	PreparedQuery preparedQuery = DatastoreUtils.prepare(query);
-	FetchOptions fetchOptions = FetchOptions.Builder.withDefaults().limit(limit);
-	return preparedQuery.asIterator(fetchOptions);
-}
 }
@@ -1,8 +1,13 @@
 package com.spiddekauga.voider.servlets.api;
 
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
 import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.Transaction;
 import com.spiddekauga.appengine.DatastoreUtils;
 import com.spiddekauga.appengine.DatastoreUtils.FilterWrapper;
 import com.spiddekauga.voider.network.entities.GeneralResponseStatuses;
@@ -12,9 +17,13 @@ import com.spiddekauga.voider.network.misc.ServerMessage.MessageTypes;
 import com.spiddekauga.voider.network.stat.HighscoreSyncEntity;
 import com.spiddekauga.voider.network.stat.HighscoreSyncMethod;
 import com.spiddekauga.voider.network.stat.HighscoreSyncResponse;
+import com.spiddekauga.voider.server.util.HighscoreRankIndex;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CHighscore;
 import com.spiddekauga.voider.server.util.VoiderApiServlet;
 
 import java.io.IOException;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -28,6 +37,8 @@ import javax.servlet.ServletException;
  */
 @SuppressWarnings("serial")
 public class HighscoreSync extends VoiderApiServlet<HighscoreSyncMethod> {
+/** Number of times to try to update a highscore if the level is modified at the same time */
+private static final int UPDATE_TRIES = 5;
 
 /** Highscores to sync to the client */
 private HashMap<UUID, HighscoreSyncEntity> mHighscoresToClient = new HashMap<>();
@@ -124,25 +135,88 @@ private void syncNewToClient() {
  * @param methodEntity parameters sent to the server
  */
 private void syncNewToServer(HighscoreSyncMethod methodEntity) {
-	// Check if we should update existing entity?
 	for (HighscoreSyncEntity networkEntity : methodEntity.highscores) {
+		Key levelKey = getLevelKey(networkEntity.levelId);
 
-		FilterWrapper levelFilter = new FilterWrapper("level_id", networkEntity.levelId);
-		FilterWrapper usernameFilter = new FilterWrapper("username", mUser.getUsername());
+		if (levelKey == null) {
+			mLogger.warning("Level not found for highscore: " + networkEntity.levelId);
+			continue;
+		}
+
+		boolean updated = false;
+		for (int i = 0; i < UPDATE_TRIES && !updated; ++i) {
+			updated = updateHighscore(levelKey, networkEntity);
+		}
 
-		Entity entity = DatastoreUtils.getSingleEntity("highscore", mUser.getKey(), levelFilter, usernameFilter);
+		if (!updated) {
+			mLogger.severe("Failed to update highscore for level: " + networkEntity.levelId);
+		}
+	}
+}
+
+/**
+ * Update the highscore and the level's rank index in one transaction
+ * @param levelKey key of the level
+ * @param networkEntity the highscore from the client
+ * @return true if the highscore was updated, false if the level was modified at the same time
+ */
+private boolean updateHighscore(Key levelKey, HighscoreSyncEntity networkEntity) {
+	DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+	Transaction transaction = datastore.beginTransaction();
+
+	try {
+		// Check if we should update existing entity?
+		Entity entity = getHighscoreEntity(datastore, transaction, levelKey);
+		Long oldScore = null;
 
 		if (entity == null) {
-			entity = new Entity("highscore", getLevelKey(networkEntity.levelId));
-			DatastoreUtils.setProperty(entity, "level_id", networkEntity.levelId);
-			entity.setProperty("username", mUser.getUsername());
+			entity = new Entity(DatastoreTables.HIGHSCORE, levelKey);
+			DatastoreUtils.setProperty(entity, CHighscore.LEVEL_ID, networkEntity.levelId);
+			entity.setProperty(CHighscore.USERNAME, mUser.getUsername());
+		} else {
+			oldScore = (long) DatastoreUtils.getPropertyInt(entity, CHighscore.SCORE, 0);
 		}
 
-		entity.setProperty("score", networkEntity.score);
-		entity.setProperty("created", networkEntity.created);
-		entity.setProperty("uploaded", mResponse.syncTime);
-		DatastoreUtils.put(entity);
+		entity.setProperty(CHighscore.SCORE, networkEntity.score);
+		entity.setProperty(CHighscore.CREATED, networkEntity.created);
+		entity.setProperty(CHighscore.UPLOADED, mResponse.syncTime);
+		datastore.put(transaction, entity);
+
+		new HighscoreRankIndex(levelKey).update(transaction, mUser.getUsername(), oldScore, networkEntity.score);
+
+		transaction.commit();
+		return true;
+	} catch (ConcurrentModificationException e) {
+		return false;
+	} finally {
+		if (transaction.isActive()) {
+			transaction.rollback();
+		}
+	}
+}
+
+/**
+ * Get the user's current highscore entity of a level
+ * @param datastore the datastore
+ * @param transaction the current transaction
+ * @param levelKey key of the level
+ * @return the user's highscore entity with the best score, null if the user doesn't have a score
+ */
+private Entity getHighscoreEntity(DatastoreService datastore, Transaction transaction, Key levelKey) {
+	Query query = new Query(DatastoreTables.HIGHSCORE, levelKey);
+	query.setFilter(new FilterPredicate(CHighscore.USERNAME, FilterOperator.EQUAL, mUser.getUsername()));
+
+	Entity bestEntity = null;
+	long bestScore = 0;
+	for (Entity entity : datastore.prepare(transaction, query).asIterable()) {
+		long score = DatastoreUtils.getPropertyInt(entity, CHighscore.SCORE, 0);
+		if (bestEntity == null || score > bestScore) {
+			bestEntity = entity;
+			bestScore = score;
+		}
 	}
+
+	return bestEntity;
 }
 
 /**
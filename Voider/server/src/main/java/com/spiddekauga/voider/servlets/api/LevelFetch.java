@@ -1,6 +1,8 @@
 package com.spiddekauga.voider.servlets.api;
 
+import com.google.appengine.api.datastore.AsyncDatastoreService;
 import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.Key;
@@ -13,9 +15,15 @@ import com.google.appengine.api.datastore.Query.FilterPredicate;
 import com.google.appengine.api.datastore.Query.SortDirection;
 import com.google.appengine.api.datastore.QueryResultList;
 import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.GetRequest;
+import com.google.appengine.api.search.GetResponse;
+import com.google.appengine.api.search.Index;
+import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.SearchServiceFactory;
 import com.spiddekauga.appengine.DatastoreUtils;
 import com.spiddekauga.appengine.SearchUtils;
 import com.spiddekauga.appengine.SearchUtils.Builder.CombineOperators;
+import com.spiddekauga.utils.Strings;
 import com.spiddekauga.voider.network.entities.IEntity;
 import com.spiddekauga.voider.network.resource.DefEntity;
 import com.spiddekauga.voider.network.resource.FetchStatuses;
@@ -28,6 +36,7 @@ import com.spiddekauga.voider.network.resource.UploadTypes;
 import com.spiddekauga.voider.network.stat.LevelInfoEntity;
 import com.spiddekauga.voider.network.stat.LevelStatsEntity;
 import com.spiddekauga.voider.network.stat.Tags;
+import com.spiddekauga.voider.server.util.LevelStatCounter;
 import com.spiddekauga.voider.server.util.ResourceFetch;
 import com.spiddekauga.voider.server.util.ServerConfig;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
@@ -39,7 +48,12 @@ import com.spiddekauga.voider.server.util.ServerConfig.SearchTables.SLevel;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.servlet.ServletException;
 
@@ -48,6 +62,8 @@ import javax.servlet.ServletException;
  */
 @SuppressWarnings("serial")
 public class LevelFetch extends ResourceFetch<LevelFetchMethod, LevelInfoEntity> {
+/** Maximum number of levels to get in one pass when filtering by tags */
+private static final int TAG_FILTER_FETCH_MAX = FetchSizes.LEVELS * 10;
 /** Method parameters */
 private LevelFetchMethod mParameters = null;
 /** Method response */
@@ -157,28 +173,63 @@ private ArrayList<LevelInfoEntity> getLevels(int limit) {
 	QueryResultList<Entity> queryResult = preparedQuery.asQueryResultList(fetchOptions);
 
 
-	ArrayList<LevelInfoEntity> levels = new ArrayList<>();
+	// Start fetching the missing published/stats entities and the search documents for all levels
+	// before waiting for any of them.
+	ArrayList<Key> levelKeys = new ArrayList<>(queryResult.size());
+	Map<Key, Entity> publishedEntities = null;
+	Map<Key, Entity> statsEntities = null;
+	Future<Map<Key, Entity>> publishedFuture = null;
+	List<Iterator<Entity>> statsResults = null;
 
-	// Convert datastore entities to network entities.
 	if (DatastoreTables.LEVEL_STAT.equals(table)) {
+		statsEntities = new HashMap<>();
 		for (Entity statsEntity : queryResult) {
-			// Get the actual published information
 			Key levelKey = statsEntity.getParent();
-			Entity publishedEntity = DatastoreUtils.getEntity(levelKey);
-
-			LevelInfoEntity infoEntity = new LevelInfoEntity();
-			datastoreToDefEntity(publishedEntity, infoEntity.defEntity);
-			datastoreToLevelStatsEntity(statsEntity, infoEntity.stats);
-			searchToNetworkEntity(levelKey, infoEntity);
-			levels.add(infoEntity);
+			levelKeys.add(levelKey);
+			statsEntities.put(levelKey, statsEntity);
 		}
+		publishedFuture = DatastoreServiceFactory.getAsyncDatastoreService().get(levelKeys);
 	} else if (DatastoreTables.PUBLISHED.equals(table)) {
+		publishedEntities = new HashMap<>();
 		for (Entity publishedEntity : queryResult) {
+			levelKeys.add(publishedEntity.getKey());
+			publishedEntities.put(publishedEntity.getKey(), publishedEntity);
+		}
+		statsResults = queryLevelStatsEntities(levelKeys);
+	}
+
+	Future<Map<Key, Entity>> shardsFuture = LevelStatCounter.getShardsAsync(levelKeys);
+	List<Future<GetResponse<Document>>> documentResults = getSearchDocumentsAsync(levelKeys);
+
+	if (publishedFuture != null) {
+		publishedEntities = getBatchResult(publishedFuture);
+	}
+	if (statsResults != null) {
+		statsEntities = getLevelStatsEntities(levelKeys, statsResults);
+	}
+	Map<Key, Entity> shards = getBatchResult(shardsFuture);
+	Map<Key, Document> documents = getSearchDocuments(levelKeys, documentResults);
+
+
+	// Convert datastore entities to network entities.
+	ArrayList<LevelInfoEntity> levels = new ArrayList<>();
+	for (Key levelKey : levelKeys) {
+		Entity publishedEntity = publishedEntities.get(levelKey);
+
+		if (publishedEntity != null) {
 			LevelInfoEntity infoEntity = new LevelInfoEntity();
 			datastoreToDefEntity(publishedEntity, infoEntity.defEntity);
-			getLevelStatsEntity(publishedEntity.getKey(), infoEntity.stats);
-			searchToNetworkEntity(publishedEntity.getKey(), infoEntity);
+
+			Entity statsEntity = statsEntities.get(levelKey);
+			if (statsEntity != null) {
+				datastoreToLevelStatsEntity(statsEntity, infoEntity.stats);
+			}
+			LevelStatCounter.addShardCounts(levelKey, shards, infoEntity.stats);
+
+			searchToNetworkEntity(documents.get(levelKey), infoEntity);
 			levels.add(infoEntity);
+		} else {
+			mLogger.warning("Could not find published level: " + levelKey);
 		}
 	}
 
@@ -188,22 +239,118 @@ private ArrayList<LevelInfoEntity> getLevels(int limit) {
 
 
 	// Did we fetch all?
-	if (levels.size() < limit) {
+	if (queryResult.size() < limit) {
 		mResponse.status = FetchStatuses.SUCCESS_FETCHED_ALL;
 	}
 
 	return levels;
 }
 
+/**
+ * Wait for a batch get
+ * @param future the pending batch get
+ * @return all found entities, empty if the get failed
+ */
+private Map<Key, Entity> getBatchResult(Future<Map<Key, Entity>> future) {
+	try {
+		return future.get();
+	} catch (InterruptedException | ExecutionException e) {
+		mLogger.severe("Failed to get entities\n" + Strings.exceptionToString(e));
+		return new HashMap<>();
+	}
+}
+
+/**
+ * Start querying the level stats for all levels. All queries run in parallel, results are read
+ * with {@link #getLevelStatsEntities(List, List)}
+ * @param levelKeys keys of the levels to get the stats for
+ * @return results of the queries, same order as levelKeys
+ */
+private static List<Iterator<Entity>> queryLevelStatsEntities(List<Key> levelKeys) {
+	AsyncDatastoreService datastore = DatastoreServiceFactory.getAsyncDatastoreService();
+	FetchOptions fetchOptions = FetchOptions.Builder.withLimit(1);
+
+	ArrayList<Iterator<Entity>> results = new ArrayList<>(levelKeys.size());
+	for (Key levelKey : levelKeys) {
+		Query query = new Query(DatastoreTables.LEVEL_STAT, levelKey);
+		results.add(datastore.prepare(query).asIterator(fetchOptions));
+	}
+	return results;
+}
+
+/**
+ * Wait for the level stats queries
+ * @param levelKeys keys of the levels
+ * @param statsResults results from {@link #queryLevelStatsEntities(List)}
+ * @return level stats entities for the levels that have stats
+ */
+private static Map<Key, Entity> getLevelStatsEntities(List<Key> levelKeys, List<Iterator<Entity>> statsResults) {
+	HashMap<Key, Entity> statsEntities = new HashMap<>();
+	for (int i = 0; i < levelKeys.size(); ++i) {
+		Iterator<Entity> statsResult = statsResults.get(i);
+		if (statsResult.hasNext()) {
+			statsEntities.put(levelKeys.get(i), statsResult.next());
+		}
+	}
+	return statsEntities;
+}
+
+/**
+ * Start getting the search documents for all levels. The search service doesn't support getting
+ * several documents by id, instead a range get for each document is started in parallel.
+ * @param levelKeys keys of the levels, the same as the document ids
+ * @return pending responses, same order as levelKeys
+ */
+private static List<Future<GetResponse<Document>>> getSearchDocumentsAsync(List<Key> levelKeys) {
+	Index index = SearchServiceFactory.getSearchService().getIndex(IndexSpec.newBuilder().setName(SearchTables.LEVEL));
+
+	ArrayList<Future<GetResponse<Document>>> responses = new ArrayList<>(levelKeys.size());
+	for (Key levelKey : levelKeys) {
+		GetRequest request = GetRequest.newBuilder().setStartId(KeyFactory.keyToString(levelKey)).setIncludeStart(true).setLimit(1).build();
+		responses.add(index.getRangeAsync(request));
+	}
+	return responses;
+}
+
+/**
+ * Wait for the search documents
+ * @param levelKeys keys of the levels
+ * @param documentResults pending responses from {@link #getSearchDocumentsAsync(List)}
+ * @return found search documents for the levels
+ */
+private Map<Key, Document> getSearchDocuments(List<Key> levelKeys, List<Future<GetResponse<Document>>> documentResults) {
+	HashMap<Key, Document> documents = new HashMap<>();
+
+	for (int i = 0; i < levelKeys.size(); ++i) {
+		String documentId = KeyFactory.keyToString(levelKeys.get(i));
+		try {
+			for (Document document : documentResults.get(i).get()) {
+				if (document.getId().equals(documentId)) {
+					documents.put(levelKeys.get(i), document);
+				}
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			mLogger.warning("Failed to get search document " + documentId + "\n" + Strings.exceptionToString(e));
+		}
+	}
+
+	return documents;
+}
+
 /**
  * Filter by tags
  */
 private void filterByTags() {
 	ArrayList<LevelInfoEntity> foundLevelsWithTags = mResponse.levels;
 
+	// The first pass guesses that fewer levels match the more tags there are, later passes use the
+	// ratio of matching levels so far
+	int fetchLimit = (mParameters.tags.size() + 1) * FetchSizes.LEVELS;
+	int fetchedCount = 0;
+
 	while (foundLevelsWithTags.size() < FetchSizes.LEVELS && mResponse.status != FetchStatuses.SUCCESS_FETCHED_ALL) {
-		int fetchLimit = (mParameters.tags.size() + 1) * FetchSizes.LEVELS;
 		ArrayList<LevelInfoEntity> levels = getLevels(fetchLimit);
+		fetchedCount += levels.size();
 
 		// Add OK tags
 		for (LevelInfoEntity level : levels) {
@@ -211,6 +358,8 @@ private void filterByTags() {
 				foundLevelsWithTags.add(level);
 			}
 		}
+
+		fetchLimit = getTagFilterFetchLimit(fetchedCount, foundLevelsWithTags.size(), fetchLimit);
 	}
 
 	if (mResponse.status != FetchStatuses.SUCCESS_FETCHED_ALL) {
@@ -218,6 +367,24 @@ private void filterByTags() {
 	}
 }
 
+/**
+ * Estimate how many levels to get in the next pass to fill the page when filtering by tags
+ * @param fetchedCount number of levels that have been fetched
+ * @param matchCount number of fetched levels that had all the tags
+ * @param fetchLimit limit of the previous pass
+ * @return limit of the next pass
+ */
+private static int getTagFilterFetchLimit(int fetchedCount, int matchCount, int fetchLimit) {
+	int nextLimit;
+	if (matchCount == 0) {
+		nextLimit = fetchLimit * 2;
+	} else {
+		int missingCount = FetchSizes.LEVELS - matchCount;
+		nextLimit = (int) Math.ceil((double) missingCount * fetchedCount / matchCount);
+	}
+	return Math.max(FetchSizes.LEVELS, Math.min(nextLimit, TAG_FILTER_FETCH_MAX));
+}
+
 /**
  * Checks if the level has all the required tags
  * @param level the level to check if it has all the required tags
@@ -272,6 +439,29 @@ protected void setAdditionalDefInformation(Entity datastoreEntity, LevelInfoEnti
 	searchToNetworkEntity(key, networkEntity);
 }
 
+@Override
+protected void setAdditionalDefInformation(List<Entity> datastoreEntities, List<LevelInfoEntity> networkEntities, List<? extends Document> documents) {
+	ArrayList<Key> levelKeys = new ArrayList<>(datastoreEntities.size());
+	for (Entity datastoreEntity : datastoreEntities) {
+		levelKeys.add(datastoreEntity.getKey());
+	}
+
+	Future<Map<Key, Entity>> shardsFuture = LevelStatCounter.getShardsAsync(levelKeys);
+	Map<Key, Entity> statsEntities = getLevelStatsEntities(levelKeys, queryLevelStatsEntities(levelKeys));
+	Map<Key, Entity> shards = getBatchResult(shardsFuture);
+
+	for (int i = 0; i < levelKeys.size(); ++i) {
+		Entity statsEntity = statsEntities.get(levelKeys.get(i));
+		if (statsEntity != null) {
+			datastoreToLevelStatsEntity(statsEntity, networkEntities.get(i).stats);
+		}
+		LevelStatCounter.addShardCounts(levelKeys.get(i), shards, networkEntities.get(i).stats);
+
+		// Already have the search document
+		searchToNetworkEntity(documents.get(i), networkEntities.get(i));
+	}
+}
+
 /**
  * Get level stats for the specified level
  * @param levelKey key of the level to get the stats from
@@ -283,6 +473,7 @@ private static void getLevelStatsEntity(Key levelKey, LevelStatsEntity levelStat
 	if (entity != null) {
 		datastoreToLevelStatsEntity(entity, levelStatsEntity);
 	}
+	LevelStatCounter.addShardCounts(levelKey, LevelStatCounter.getShards(levelKey), levelStatsEntity);
 }
 
 /**
@@ -293,7 +484,15 @@ private static void getLevelStatsEntity(Key levelKey, LevelStatsEntity levelStat
 private void searchToNetworkEntity(Key key, LevelInfoEntity levelInfoEntity) {
 	String documentId = KeyFactory.keyToString(key);
 	Document document = SearchUtils.getDocument(SearchTables.LEVEL, documentId);
+	searchToNetworkEntity(document, levelInfoEntity);
+}
 
+/**
+ * Sets information from the search document
+ * @param document the level's search document, may be null
+ * @param levelInfoEntity sets the information in this instance
+ */
+private static void searchToNetworkEntity(Document document, LevelInfoEntity levelInfoEntity) {
 	if (document != null) {
 		// Length
 		levelInfoEntity.defEntity.levelLength = SearchUtils.getFloat(document, SLevel.LEVEL_LENGTH);
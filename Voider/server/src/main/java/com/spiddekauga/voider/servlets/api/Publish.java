@@ -29,6 +29,7 @@ import com.spiddekauga.voider.network.resource.PublishMethod;
 import com.spiddekauga.voider.network.resource.PublishResponse;
 import com.spiddekauga.voider.network.resource.PublishResponse.Statuses;
 import com.spiddekauga.voider.network.resource.UploadTypes;
+import com.spiddekauga.voider.server.util.ResourceUtils;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CDependency;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CLevelStat;
@@ -726,6 +727,7 @@ private boolean appendDefEntity(Entity datastoreEntity, DefEntity defEntity) {
 	DatastoreUtils.setUnindexedProperty(datastoreEntity, CPublished.NAME, defEntity.name);
 	DatastoreUtils.setUnindexedProperty(datastoreEntity, CPublished.DESCRIPTION, defEntity.description);
 	DatastoreUtils.setUnindexedProperty(datastoreEntity, CPublished.PNG, defEntity.png);
+	DatastoreUtils.setUnindexedProperty(datastoreEntity, CPublished.PNG_HASH, ResourceUtils.getPngHash(defEntity.png));
 
 	return true;
 }
@@ -144,6 +144,7 @@ private ResourceBlobEntity getDownloadBlob() {
 			foundBlob.resourceId = mParameters.resourceId;
 			foundBlob.uploadType = DatastoreUtils.getPropertyIdStore(entity, CUserResources.TYPE, UploadTypes.class);
 			((ResourceRevisionBlobEntity) foundBlob).revision = mParameters.revision;
+			((ResourceRevisionBlobEntity) foundBlob).deltaFrom = DatastoreUtils.getPropertyInt(entity, CUserResources.DELTA_FROM, 0);
 		}
 	}
 
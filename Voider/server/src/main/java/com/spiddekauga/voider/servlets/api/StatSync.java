@@ -1,13 +1,17 @@
 package com.spiddekauga.voider.servlets.api;
 
+import com.google.appengine.api.datastore.AsyncDatastoreService;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.FetchOptions;
 import com.google.appengine.api.datastore.Key;
 import com.google.appengine.api.datastore.KeyFactory;
-import com.google.appengine.api.datastore.PreparedQuery;
 import com.google.appengine.api.datastore.Query;
 import com.google.appengine.api.datastore.Query.FilterOperator;
-import com.google.appengine.api.datastore.Query.SortDirection;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.Transaction;
+import com.google.appengine.api.datastore.TransactionOptions;
 import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Document.Builder;
 import com.google.appengine.api.search.Field;
@@ -24,11 +28,12 @@ import com.spiddekauga.voider.network.stat.StatSyncEntity.LevelStat;
 import com.spiddekauga.voider.network.stat.StatSyncMethod;
 import com.spiddekauga.voider.network.stat.StatSyncResponse;
 import com.spiddekauga.voider.network.stat.Tags;
+import com.spiddekauga.voider.server.util.LevelStatCounter;
+import com.spiddekauga.voider.server.util.PublishedKeyCache;
 import com.spiddekauga.voider.server.util.ServerConfig;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CLevelStat;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CLevelTag;
-import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CPublished;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CResourceComment;
 import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CUserLevelStat;
 import com.spiddekauga.voider.server.util.ServerConfig.SearchTables;
@@ -38,9 +43,14 @@ import com.spiddekauga.voider.server.util.VoiderApiServlet;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.servlet.ServletException;
@@ -51,13 +61,24 @@ import javax.servlet.ServletException;
 @SuppressWarnings("serial")
 public class StatSync extends VoiderApiServlet<StatSyncMethod> {
 // Tables
-private static final String T_PUBLISHED = DatastoreTables.PUBLISHED;
 private static final String T_USER_STAT = DatastoreTables.USER_LEVEL_STAT;
-private static final String T_LEVEL_STAT = DatastoreTables.LEVEL_STAT;
 private static final String T_COMMENT = DatastoreTables.RESOURCE_COMMENT;
 private static final String T_TAG = DatastoreTables.LEVEL_TAG;
+/** Number of levels to update in each transaction, keeps the number of entity groups low */
+private static final int LEVELS_PER_TRANSACTION = 8;
+/** Number of times to try to update the stats if they are modified at the same time */
+private static final int UPDATE_TRIES = 3;
+/** Sorts level tags by count, highest count first */
+private static final Comparator<Entity> TAG_COUNT_COMPARATOR = new Comparator<Entity>() {
+	@Override
+	public int compare(Entity o1, Entity o2) {
+		return Integer.compare(DatastoreUtils.getPropertyInt(o2, CLevelTag.COUNT, 0), DatastoreUtils.getPropertyInt(o1, CLevelTag.COUNT, 0));
+	}
+};
 /** User level stats to sync to the client */
 private HashMap<UUID, LevelStat> mUserStatsToClient = new HashMap<>();
+/** All comments of the user by level key */
+private Map<Key, Entity> mUserComments = null;
 private StatSyncEntity mParameters = null;
 private StatSyncResponse mResponse = new StatSyncResponse();
 
@@ -66,6 +87,7 @@ protected void onInit() {
 	mResponse = new StatSyncResponse();
 	mResponse.status = GeneralResponseStatuses.FAILED_SERVER_ERROR;
 	mResponse.syncEntity.syncDate = new Date();
+	mUserComments = null;
 }
 
 @Override
@@ -93,12 +115,32 @@ private void syncToClient() {
 
 	Iterable<Entity> entities = DatastoreUtils.getEntities(T_USER_STAT, mUser.getKey(), filterLastSync);
 
+	ArrayList<Entity> serverEntities = new ArrayList<>();
+	ArrayList<Key> levelKeys = new ArrayList<>();
 	for (Entity serverEntity : entities) {
-		LevelStat userLevelStats = serverToNetworkEntity(serverEntity);
+		serverEntities.add(serverEntity);
+		levelKeys.add((Key) serverEntity.getProperty(CUserLevelStat.LEVEL_KEY));
+	}
+
+	if (serverEntities.isEmpty()) {
+		return;
+	}
+
+	Map<Key, Entity> levelEntities = DatastoreServiceFactory.getDatastoreService().get(levelKeys);
+	Map<Key, Entity> comments = getUserComments();
+
+	for (Entity serverEntity : serverEntities) {
 		Key levelKey = (Key) serverEntity.getProperty(CUserLevelStat.LEVEL_KEY);
-		getComments(userLevelStats, levelKey);
-		mUserStatsToClient.put(userLevelStats.id, userLevelStats);
-		mResponse.syncEntity.levelStats.add(userLevelStats);
+		LevelStat userLevelStats = serverToNetworkEntity(serverEntity, levelEntities.get(levelKey));
+
+		if (userLevelStats != null) {
+			Entity commentEntity = comments.get(levelKey);
+			if (commentEntity != null) {
+				userLevelStats.comment = (String) commentEntity.getProperty(CResourceComment.COMMENT);
+			}
+			mUserStatsToClient.put(userLevelStats.id, userLevelStats);
+			mResponse.syncEntity.levelStats.add(userLevelStats);
+		}
 	}
 }
 
@@ -124,34 +166,134 @@ private void checkAndResolveConflicts() {
  * Sync to server
  */
 private void syncToServer() {
+	ArrayList<UUID> levelIds = new ArrayList<>(mParameters.levelStats.size());
 	for (LevelStat levelStat : mParameters.levelStats) {
-		Key levelKey = getLevelKey(levelStat.id);
+		levelIds.add(levelStat.id);
+	}
+	Map<UUID, Key> levelKeys = PublishedKeyCache.getKeys(levelIds);
 
-		if (levelKey != null) {
-			LevelStat oldStat = updateUserLevelStats(levelKey, levelStat);
-			updateGlobalLevelStats(levelKey, levelStat, oldStat);
-			updateGlobalLevelTags(levelKey, levelStat.tags);
-			updatedLevelComment(levelKey, levelStat.comment);
+	// Only update levels that exist
+	ArrayList<LevelStat> levelStats = new ArrayList<>(mParameters.levelStats.size());
+	for (LevelStat levelStat : mParameters.levelStats) {
+		if (levelKeys.containsKey(levelStat.id)) {
+			levelStats.add(levelStat);
 		}
 	}
 
+	// Update user and global stats, a few levels in each transaction
+	for (int i = 0; i < levelStats.size(); i += LEVELS_PER_TRANSACTION) {
+		List<LevelStat> transactionStats = levelStats.subList(i, Math.min(i + LEVELS_PER_TRANSACTION, levelStats.size()));
+
+		boolean updated = false;
+		for (int tries = 0; tries < UPDATE_TRIES && !updated; ++tries) {
+			updated = updateLevelStats(transactionStats, levelKeys);
+		}
+
+		if (!updated) {
+			mLogger.severe("Failed to update level stats for " + transactionStats.size() + " levels");
+		}
+	}
+
+	updateGlobalLevelTags(levelStats, levelKeys);
+	updateLevelComments(levelStats, levelKeys);
+
 	// Send sync response
 	if (!mParameters.levelStats.isEmpty()) {
 		sendMessage(ServerMessageReceivers.SELF_OTHERS, new ServerMessage<>(MessageTypes.SYNC_STATS, mUser.getClientId()));
 	}
 }
 
+/**
+ * Update user level stats and global level stats in one transaction
+ * @param levelStats stats from the client
+ * @param levelKeys keys of all levels
+ * @return true if the stats were updated, false if some of the entities were modified at the same
+ *         time
+ */
+private boolean updateLevelStats(List<LevelStat> levelStats, Map<UUID, Key> levelKeys) {
+	DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+	Transaction transaction = datastore.beginTransaction(TransactionOptions.Builder.withXG(true));
+
+	try {
+		ArrayList<Key> transactionLevelKeys = new ArrayList<>(levelStats.size());
+		ArrayList<Key> shardKeys = new ArrayList<>(levelStats.size());
+		for (LevelStat levelStat : levelStats) {
+			Key levelKey = levelKeys.get(levelStat.id);
+			transactionLevelKeys.add(levelKey);
+			shardKeys.add(LevelStatCounter.getRandomShardKey(levelKey));
+		}
+
+		Map<Key, Entity> userEntities = getUserLevelStatEntities(datastore, transaction, transactionLevelKeys);
+		Map<Key, Entity> shardEntities = new HashMap<>(datastore.get(transaction, shardKeys));
+
+		ArrayList<Entity> putEntities = new ArrayList<>();
+		for (int i = 0; i < levelStats.size(); ++i) {
+			LevelStat levelStat = levelStats.get(i);
+			Key levelKey = transactionLevelKeys.get(i);
+
+			LevelStat oldStat = updateUserLevelStats(levelKey, userEntities.get(levelKey), levelStat, putEntities);
+			updateLevelCounters(levelKey, shardKeys.get(i), shardEntities, levelStat, putEntities);
+			updateGlobalLevelStats(datastore, transaction, levelKey, levelStat, oldStat, putEntities);
+		}
+
+		datastore.put(transaction, putEntities);
+		transaction.commit();
+		return true;
+	} catch (ConcurrentModificationException e) {
+		return false;
+	} finally {
+		if (transaction.isActive()) {
+			transaction.rollback();
+		}
+	}
+}
+
+/**
+ * Get the user level stats for the specified levels
+ * @param datastore the datastore
+ * @param transaction current transaction
+ * @param levelKeys keys of the levels
+ * @return user level stat entities by level key
+ */
+private Map<Key, Entity> getUserLevelStatEntities(DatastoreService datastore, Transaction transaction, List<Key> levelKeys) {
+	Query query = new Query(T_USER_STAT, mUser.getKey());
+	query.setFilter(new FilterPredicate(CUserLevelStat.LEVEL_KEY, FilterOperator.IN, levelKeys));
+
+	HashMap<Key, Entity> userEntities = new HashMap<>();
+	for (Entity entity : datastore.prepare(transaction, query).asIterable()) {
+		userEntities.put((Key) entity.getProperty(CUserLevelStat.LEVEL_KEY), entity);
+	}
+	return userEntities;
+}
+
+/**
+ * Get all comments of the user
+ * @return comment entities by level key
+ */
+private Map<Key, Entity> getUserComments() {
+	if (mUserComments == null) {
+		mUserComments = new HashMap<>();
+
+		FilterWrapper userFilter = new FilterWrapper(CResourceComment.USERNAME, mUser.getUsername());
+		for (Entity entity : DatastoreUtils.getEntities(T_COMMENT, userFilter)) {
+			mUserComments.put(entity.getParent(), entity);
+		}
+	}
+
+	return mUserComments;
+}
+
 /**
  * Convert a server entity to a network entity
  * @param serverEntity entity from datastore
- * @return entity that can be sent over the network
+ * @param levelEntity the published level entity, may be null
+ * @return entity that can be sent over the network, null if the level doesn't exist
  */
 @SuppressWarnings("unchecked")
-private static LevelStat serverToNetworkEntity(Entity serverEntity) {
+private static LevelStat serverToNetworkEntity(Entity serverEntity, Entity levelEntity) {
 	LevelStat levelStats = new LevelStat();
 
 	// Set correct level/campaign id
-	Entity levelEntity = DatastoreUtils.getEntity((Key) serverEntity.getProperty(CUserLevelStat.LEVEL_KEY));
 	if (levelEntity != null) {
 		levelStats.id = DatastoreUtils.getPropertyUuid(levelEntity, "resource_id");
 	} else {
@@ -171,21 +313,6 @@ private static LevelStat serverToNetworkEntity(Entity serverEntity) {
 	return levelStats;
 }
 
-/**
- * Get user comments
- * @param userLevelStats
- * @param levelKey key for the level
- */
-private void getComments(LevelStat userLevelStats, Key levelKey) {
-	FilterWrapper userFilter = new FilterWrapper(CResourceComment.USERNAME, mUser.getUsername());
-
-	Entity entity = DatastoreUtils.getSingleEntity(T_COMMENT, levelKey, userFilter);
-
-	if (entity != null) {
-		userLevelStats.comment = (String) entity.getProperty(CResourceComment.COMMENT);
-	}
-}
-
 /**
  * Set correct play and clear count for a conflict
  * @param clientStats stats from the client
@@ -228,26 +355,15 @@ private void fixMiscUserLevelStatConflict(LevelStat clientStats, LevelStat serve
 	}
 }
 
-/**
- * Get level key for the specified level_id
- * @param levelId id for the level
- * @return level key from the level
- */
-private static Key getLevelKey(UUID levelId) {
-	return DatastoreUtils.getSingleKey(T_PUBLISHED, new FilterWrapper(CPublished.RESOURCE_ID, levelId));
-}
-
 /**
  * Update user level stats
  * @param levelKey key of the level
+ * @param userEntity current user level stats, null if the user hasn't got any stats for the level
  * @param levelStat stats to set
+ * @param putEntities adds the updated entity to this list
  * @return old statistics
  */
-private LevelStat updateUserLevelStats(Key levelKey, LevelStat levelStat) {
-	FilterWrapper levelFilter = new FilterWrapper(CUserLevelStat.LEVEL_KEY, levelKey);
-	Entity userEntity = DatastoreUtils.getSingleEntity(T_USER_STAT, mUser.getKey(), levelFilter);
-
-
+private LevelStat updateUserLevelStats(Key levelKey, Entity userEntity, LevelStat levelStat, List<Entity> putEntities) {
 	ArrayList<Integer> tagIds = new ArrayList<>();
 	LevelStat oldStat = new LevelStat();
 
@@ -298,37 +414,54 @@ private LevelStat updateUserLevelStats(Key levelKey, LevelStat levelStat) {
 		userEntity.setUnindexedProperty(CUserLevelStat.TAGS, tagIds);
 	}
 
-	DatastoreUtils.put(userEntity);
+	putEntities.add(userEntity);
 
 	return oldStat;
 }
 
 /**
- * Update global level stats
+ * Add play, clear and death count to a shard of the level
  * @param levelKey key of the level
+ * @param shardKey key of the shard to add the counts to
+ * @param shardEntities all fetched shards
  * @param clientStat new user statistics
- * @param serverStat old user statistics
+ * @param putEntities adds the updated shard to this list
  */
-private void updateGlobalLevelStats(Key levelKey, LevelStat clientStat, LevelStat serverStat) {
-	Entity levelEntity = DatastoreUtils.getSingleEntity(T_LEVEL_STAT, levelKey);
-
-	// No entity for this
-	if (levelEntity == null) {
-		levelEntity = new Entity(T_LEVEL_STAT, levelKey);
-		levelEntity.setProperty(CLevelStat.RATING_AVG, 0d);
-		levelEntity.setProperty(CLevelStat.BOOKMARS, 0);
+private static void updateLevelCounters(Key levelKey, Key shardKey, Map<Key, Entity> shardEntities, LevelStat clientStat, List<Entity> putEntities) {
+	if (clientStat.cPlaysToSync == 0 && clientStat.cClearsToSync == 0 && clientStat.cDeathsToSync == 0) {
+		return;
 	}
 
+	Entity shardEntity = shardEntities.get(shardKey);
+	if (shardEntity == null) {
+		shardEntity = LevelStatCounter.newShard(shardKey, levelKey);
+		shardEntities.put(shardKey, shardEntity);
+		putEntities.add(shardEntity);
+	} else if (!putEntities.contains(shardEntity)) {
+		putEntities.add(shardEntity);
+	}
 
-	// Update stats
-	// Play count
-	incrementProperty(levelEntity, CLevelStat.PLAY_COUNT, clientStat.cPlaysToSync);
+	LevelStatCounter.increment(shardEntity, clientStat.cPlaysToSync, clientStat.cClearsToSync, clientStat.cDeathsToSync);
+}
 
-	// Clear count
-	incrementProperty(levelEntity, CLevelStat.CLEAR_COUNT, clientStat.cClearsToSync);
+/**
+ * Update global level bookmarks and rating. Play, clear and death count are updated in
+ * {@link #updateLevelCounters(Key, Key, Map, LevelStat, List)}
+ * @param datastore the datastore
+ * @param transaction current transaction
+ * @param levelKey key of the level
+ * @param clientStat new user statistics
+ * @param serverStat old user statistics
+ * @param putEntities adds the updated level stats to this list
+ */
+private static void updateGlobalLevelStats(DatastoreService datastore, Transaction transaction, Key levelKey, LevelStat clientStat,
+		LevelStat serverStat, List<Entity> putEntities) {
+	// Only fetch the level stats when something changed
+	if (serverStat.bookmark == clientStat.bookmark && serverStat.rating == clientStat.rating) {
+		return;
+	}
 
-	// Death count
-	incrementProperty(levelEntity, CLevelStat.DEATH_COUNT, clientStat.cDeathsToSync);
+	Entity levelEntity = LevelStatCounter.getLevelStatEntity(datastore, transaction, levelKey);
 
 
 	// Removed bookmark
@@ -365,38 +498,85 @@ private void updateGlobalLevelStats(Key levelKey, LevelStat clientStat, LevelSta
 		levelEntity.setProperty(CLevelStat.RATING_AVG, average);
 	}
 
-	DatastoreUtils.put(levelEntity);
+	putEntities.add(levelEntity);
 }
 
 /**
- * Update global level tags
- * @param levelKey level to update
- * @param tags new level tags to add to the level
+ * Update global level tags. The tags of all levels are fetched in parallel and saved in one batch
+ * @param levelStats stats from the client
+ * @param levelKeys keys of all levels
  */
-private void updateGlobalLevelTags(Key levelKey, ArrayList<Tags> tags) {
-	for (Tags tag : tags) {
-		FilterWrapper tagFilter = new FilterWrapper(CLevelTag.TAG, tag.getId());
-		Entity entity = DatastoreUtils.getSingleEntity(T_TAG, levelKey, tagFilter);
+private void updateGlobalLevelTags(List<LevelStat> levelStats, Map<UUID, Key> levelKeys) {
+	AsyncDatastoreService datastore = DatastoreServiceFactory.getAsyncDatastoreService();
+
+	// Start fetching the tags of all levels with new tags
+	ArrayList<LevelStat> tagStats = new ArrayList<>();
+	ArrayList<Iterator<Entity>> results = new ArrayList<>();
+	for (LevelStat levelStat : levelStats) {
+		if (!levelStat.tags.isEmpty()) {
+			tagStats.add(levelStat);
+			Query query = new Query(T_TAG, levelKeys.get(levelStat.id));
+			results.add(datastore.prepare(query).asIterator(FetchOptions.Builder.withDefaults()));
+		}
+	}
 
-		if (entity == null) {
-			entity = new Entity(T_TAG, levelKey);
-			entity.setProperty(CLevelTag.TAG, tag.getId());
+	ArrayList<Entity> putEntities = new ArrayList<>();
+	for (int i = 0; i < tagStats.size(); ++i) {
+		LevelStat levelStat = tagStats.get(i);
+		Key levelKey = levelKeys.get(levelStat.id);
+
+		// Existing tags
+		HashMap<Integer, Entity> tagEntities = new HashMap<>();
+		Iterator<Entity> result = results.get(i);
+		while (result.hasNext()) {
+			Entity entity = result.next();
+			try {
+				tagEntities.put(DatastoreUtils.getPropertyInt(entity, CLevelTag.TAG), entity);
+			} catch (PropertyNotFoundException e) {
+				mLogger.severe("Can't find TAG field for level tags");
+			}
 		}
 
-		incrementProperty(entity, CLevelTag.COUNT, 1);
+		// Add new tags
+		for (Tags tag : levelStat.tags) {
+			Entity entity = tagEntities.get(tag.getId());
+
+			if (entity == null) {
+				entity = new Entity(T_TAG, levelKey);
+				entity.setProperty(CLevelTag.TAG, tag.getId());
+				tagEntities.put(tag.getId(), entity);
+			}
 
-		DatastoreUtils.put(entity);
+			incrementProperty(entity, CLevelTag.COUNT, 1);
+
+			if (!putEntities.contains(entity)) {
+				putEntities.add(entity);
+			}
+		}
+
+		updateSearchTags(levelKey, tagEntities.values());
 	}
 
+	if (!putEntities.isEmpty()) {
+		DatastoreUtils.put(putEntities);
+	}
+}
 
-	// Update search with the 5 most popular tags
-	Query query = new Query(T_TAG, levelKey);
-	query.addSort(CLevelTag.COUNT, SortDirection.DESCENDING);
-	PreparedQuery preparedQuery = DatastoreUtils.prepare(query);
-	FetchOptions fetchOptions = FetchOptions.Builder.withLimit(ServerConfig.FetchSizes.TAGS);
+/**
+ * Update search with the most popular tags of the level
+ * @param levelKey key of the level
+ * @param tagEntities all tags of the level
+ */
+private void updateSearchTags(Key levelKey, Collection<Entity> tagEntities) {
+	ArrayList<Entity> sortedTagEntities = new ArrayList<>(tagEntities);
+	Collections.sort(sortedTagEntities, TAG_COUNT_COMPARATOR);
 
 	ArrayList<Tags> datastoreTags = new ArrayList<>();
-	for (Entity entity : preparedQuery.asIterable(fetchOptions)) {
+	for (Entity entity : sortedTagEntities) {
+		if (datastoreTags.size() == ServerConfig.FetchSizes.TAGS) {
+			break;
+		}
+
 		try {
 			int tagId = DatastoreUtils.getPropertyInt(entity, CLevelTag.TAG);
 			datastoreTags.add(Tags.fromId(tagId));
@@ -416,35 +596,51 @@ private void updateGlobalLevelTags(Key levelKey, ArrayList<Tags> tags) {
 
 /**
  * Update level comments
- * @param levelKey key of the level
- * @param comment possibly a new comment
+ * @param levelStats stats from the client, possibly with new comments
+ * @param levelKeys keys of all levels
  */
-private void updatedLevelComment(Key levelKey, String comment) {
-	// Get old comment
-	FilterWrapper userFliter = new FilterWrapper(CResourceComment.USERNAME, mUser.getUsername());
-	Entity oldEntity = DatastoreUtils.getSingleEntity(T_COMMENT, levelKey, userFliter);
-
-	// Maybe update or remove old comment
-	if (oldEntity != null) {
-		String oldComment = (String) oldEntity.getProperty(CResourceComment.COMMENT);
-
-		// Remove comment
-		if (comment.isEmpty()) {
-			DatastoreUtils.delete(oldEntity.getKey());
+private void updateLevelComments(List<LevelStat> levelStats, Map<UUID, Key> levelKeys) {
+	Map<Key, Entity> comments = getUserComments();
+	ArrayList<Entity> putEntities = new ArrayList<>();
+	ArrayList<Key> deleteKeys = new ArrayList<>();
+
+	for (LevelStat levelStat : levelStats) {
+		Key levelKey = levelKeys.get(levelStat.id);
+		String comment = levelStat.comment;
+		Entity oldEntity = comments.get(levelKey);
+
+		// Maybe update or remove old comment
+		if (oldEntity != null) {
+			String oldComment = (String) oldEntity.getProperty(CResourceComment.COMMENT);
+
+			// Remove comment
+			if (comment.isEmpty()) {
+				deleteKeys.add(oldEntity.getKey());
+				comments.remove(levelKey);
+			}
+			// Update comment
+			else if (!oldComment.equals(comment)) {
+				oldEntity.setUnindexedProperty(CResourceComment.COMMENT, comment);
+				oldEntity.setProperty(CResourceComment.DATE, mResponse.syncEntity.syncDate);
+				putEntities.add(oldEntity);
+			}
 		}
-		// Update comment
-		else if (!oldComment.equals(comment)) {
-			oldEntity.setUnindexedProperty(CResourceComment.COMMENT, comment);
-			oldEntity.setProperty(CResourceComment.DATE, mResponse.syncEntity.syncDate);
+		// Create new comment
+		else if (!comment.isEmpty()) {
+			Entity newEntity = new Entity(T_COMMENT, levelKey);
+			newEntity.setProperty(CResourceComment.USERNAME, mUser.getUsername());
+			newEntity.setUnindexedProperty(CResourceComment.COMMENT, comment);
+			newEntity.setProperty(CResourceComment.DATE, mResponse.syncEntity.syncDate);
+			putEntities.add(newEntity);
+			comments.put(levelKey, newEntity);
 		}
 	}
-	// Create new comment
-	else if (!comment.isEmpty()) {
-		Entity newEntity = new Entity(T_COMMENT, levelKey);
-		newEntity.setProperty(CResourceComment.USERNAME, mUser.getUsername());
-		newEntity.setUnindexedProperty(CResourceComment.COMMENT, comment);
-		newEntity.setProperty(CResourceComment.DATE, mResponse.syncEntity.syncDate);
-		DatastoreUtils.put(newEntity);
+
+	if (!putEntities.isEmpty()) {
+		DatastoreUtils.put(putEntities);
+	}
+	if (!deleteKeys.isEmpty()) {
+		DatastoreUtils.delete(deleteKeys);
 	}
 }
 
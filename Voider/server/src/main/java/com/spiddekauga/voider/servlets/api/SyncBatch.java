@@ -0,0 +1,112 @@
+package com.spiddekauga.voider.servlets.api;
+
+import com.google.appengine.api.ThreadManager;
+import com.spiddekauga.utils.Strings;
+import com.spiddekauga.voider.network.entities.GeneralResponseStatuses;
+import com.spiddekauga.voider.network.entities.IEntity;
+import com.spiddekauga.voider.network.entities.IMethodEntity;
+import com.spiddekauga.voider.network.entities.IMethodEntity.MethodNames;
+import com.spiddekauga.voider.network.misc.SyncBatchMethod;
+import com.spiddekauga.voider.network.misc.SyncBatchResponse;
+import com.spiddekauga.voider.server.util.VoiderApiServlet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.servlet.ServletException;
+
+/**
+ * Handles several synchronize methods in one request. The session is only looked up once and all
+ * methods are handled concurrently by their regular servlets.
+ */
+@SuppressWarnings("serial")
+public class SyncBatch extends VoiderApiServlet<SyncBatchMethod> {
+/** Servlets that can handle batched methods */
+private static final EnumMap<MethodNames, Class<? extends VoiderApiServlet<?>>> BATCH_SERVLETS = new EnumMap<>(MethodNames.class);
+
+static {
+	BATCH_SERVLETS.put(MethodNames.DOWNLOAD_SYNC, DownloadSync.class);
+	BATCH_SERVLETS.put(MethodNames.USER_RESOURCE_SYNC, UserResourceSync.class);
+	BATCH_SERVLETS.put(MethodNames.HIGHSCORE_SYNC, HighscoreSync.class);
+	BATCH_SERVLETS.put(MethodNames.STAT_SYNC, StatSync.class);
+	BATCH_SERVLETS.put(MethodNames.BUG_REPORT, BugReport.class);
+	BATCH_SERVLETS.put(MethodNames.ANALYTICS, Analytics.class);
+}
+
+private SyncBatchResponse mResponse = null;
+
+@Override
+protected void onInit() {
+	mResponse = new SyncBatchResponse();
+	mResponse.status = GeneralResponseStatuses.FAILED_SERVER_ERROR;
+}
+
+@Override
+protected IEntity onRequest(SyncBatchMethod method) throws ServletException, IOException {
+	ExecutorService executor = Executors.newCachedThreadPool(ThreadManager.currentRequestThreadFactory());
+
+	try {
+		// Start all methods
+		ArrayList<Future<IEntity>> responses = new ArrayList<>();
+		for (IMethodEntity batchedMethod : method.methods) {
+			responses.add(executor.submit(new BatchedRequest(batchedMethod)));
+		}
+
+		// Wait for the responses in order
+		mResponse.status = GeneralResponseStatuses.SUCCESS;
+		for (Future<IEntity> future : responses) {
+			IEntity response = null;
+			try {
+				response = future.get();
+			} catch (InterruptedException | ExecutionException e) {
+				mLogger.severe(Strings.exceptionToString(e));
+			}
+
+			if (response == null) {
+				mResponse.status = GeneralResponseStatuses.SUCCESS_PARTIAL;
+			}
+			mResponse.responses.add(response);
+		}
+	} finally {
+		executor.shutdown();
+	}
+
+	return mResponse;
+}
+
+/**
+ * Handles one batched method in its regular servlet
+ */
+private class BatchedRequest implements Callable<IEntity> {
+	private IMethodEntity mMethod;
+
+	/**
+	 * @param method the batched method
+	 */
+	private BatchedRequest(IMethodEntity method) {
+		mMethod = method;
+	}
+
+	@Override
+	public IEntity call() throws Exception {
+		if (mMethod == null) {
+			return null;
+		}
+
+		Class<? extends VoiderApiServlet<?>> servletType = BATCH_SERVLETS.get(mMethod.getMethodName());
+		if (servletType == null) {
+			mLogger.warning("Method can't be batched: " + mMethod.getMethodName());
+			return null;
+		}
+
+		VoiderApiServlet<?> servlet = servletType.newInstance();
+		return servlet.handleBatchedRequest(SyncBatch.this, mMethod);
+	}
+}
+}
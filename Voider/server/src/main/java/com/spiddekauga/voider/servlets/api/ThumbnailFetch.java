@@ -0,0 +1,63 @@
+package com.spiddekauga.voider.servlets.api;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.spiddekauga.appengine.DatastoreUtils;
+import com.spiddekauga.voider.network.entities.GeneralResponseStatuses;
+import com.spiddekauga.voider.network.entities.IEntity;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchMethod;
+import com.spiddekauga.voider.network.resource.ThumbnailFetchResponse;
+import com.spiddekauga.voider.server.util.PublishedKeyCache;
+import com.spiddekauga.voider.server.util.ResourceUtils;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CPublished;
+import com.spiddekauga.voider.server.util.VoiderApiServlet;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.servlet.ServletException;
+
+/**
+ * Fetches the thumbnails of several published resources in one request
+ */
+@SuppressWarnings("serial")
+public class ThumbnailFetch extends VoiderApiServlet<ThumbnailFetchMethod> {
+private ThumbnailFetchResponse mResponse = null;
+
+@Override
+protected void onInit() {
+	mResponse = new ThumbnailFetchResponse();
+	mResponse.status = GeneralResponseStatuses.FAILED_SERVER_ERROR;
+}
+
+@Override
+protected IEntity onRequest(ThumbnailFetchMethod method) throws ServletException, IOException {
+	if (mUser.isLoggedIn()) {
+		Map<UUID, Key> keys = PublishedKeyCache.getKeys(method.resourceIds);
+		Map<Key, Entity> entities = DatastoreServiceFactory.getDatastoreService().get(keys.values());
+
+		for (Entity entity : entities.values()) {
+			byte[] png = DatastoreUtils.getPropertyByteArray(entity, CPublished.PNG);
+			if (png != null) {
+				String pngHash = (String) entity.getProperty(CPublished.PNG_HASH);
+				if (pngHash == null) {
+					pngHash = ResourceUtils.getPngHash(png);
+				}
+				mResponse.thumbnails.put(pngHash, png);
+			}
+		}
+
+		if (entities.size() == method.resourceIds.size()) {
+			mResponse.status = GeneralResponseStatuses.SUCCESS;
+		} else {
+			mResponse.status = GeneralResponseStatuses.SUCCESS_PARTIAL;
+		}
+	} else {
+		mResponse.status = GeneralResponseStatuses.FAILED_USER_NOT_LOGGED_IN;
+	}
+
+	return mResponse;
+}
+}
@@ -252,6 +252,7 @@ private void fixConflictsKeepServer(UserResourceSyncMethod method) {
 				ResourceRevisionBlobEntity blobEntity = new ResourceRevisionBlobEntity();
 				blobEntity.resourceId = DatastoreUtils.getPropertyUuid(entity, CUserResources.RESOURCE_ID);
 				blobEntity.revision = DatastoreUtils.getPropertyInt(entity, CUserResources.REVISION, 0);
+				blobEntity.deltaFrom = DatastoreUtils.getPropertyInt(entity, CUserResources.DELTA_FROM, 0);
 				blobEntity.uploadType = DatastoreUtils.getPropertyIdStore(entity, CUserResources.TYPE, UploadTypes.class);
 				blobEntity.blobKey = ((BlobKey) entity.getProperty(CUserResources.BLOB_KEY)).getKeyString();
 				blobEntity.created = (Date) entity.getProperty(CUserResources.CREATED);
@@ -290,6 +291,7 @@ private void syncNewToClient(UserResourceSyncMethod methodEntity) {
 			ResourceRevisionBlobEntity blobEntity = new ResourceRevisionBlobEntity();
 			blobEntity.resourceId = resourceId;
 			blobEntity.revision = DatastoreUtils.getPropertyInt(entity, CUserResources.REVISION, 0);
+			blobEntity.deltaFrom = DatastoreUtils.getPropertyInt(entity, CUserResources.DELTA_FROM, 0);
 			blobEntity.uploadType = DatastoreUtils.getPropertyIdStore(entity, CUserResources.TYPE, UploadTypes.class);
 			blobEntity.blobKey = ((BlobKey) entity.getProperty(CUserResources.BLOB_KEY)).getKeyString();
 			blobEntity.created = (Date) entity.getProperty(CUserResources.CREATED);
@@ -411,6 +413,9 @@ private Key insertUserResourceRevision(ResourceRevisionEntity resourceRevisionEn
 		entity.setProperty(CUserResources.CREATED, revisionEntity.date);
 		entity.setProperty(CUserResources.UPLOADED, mSyncDate);
 		entity.setUnindexedProperty(CUserResources.BLOB_KEY, blobKeys.get(revisionEntity.revision));
+		if (revisionEntity.deltaFrom > 0) {
+			entity.setUnindexedProperty(CUserResources.DELTA_FROM, revisionEntity.deltaFrom);
+		}
 
 		return DatastoreUtils.put(entity);
 	} else {
@@ -0,0 +1,22 @@
+package com.spiddekauga.voider.servlets.cron;
+
+import com.spiddekauga.voider.server.util.LevelStatCounter;
+import com.spiddekauga.voider.server.util.VoiderServlet;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+/**
+ * Adds the sharded play, clear and death counts to the level stats so that levels can be sorted by
+ * play count
+ */
+@SuppressWarnings("serial")
+public class LevelStatFold extends VoiderServlet {
+
+@Override
+protected void handleRequest() throws ServletException, IOException {
+	int cFolded = LevelStatCounter.foldPendingShards();
+	mLogger.info("Added " + cFolded + " level stat shards");
+}
+}
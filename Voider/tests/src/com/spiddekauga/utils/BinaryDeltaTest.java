@@ -0,0 +1,150 @@
+package com.spiddekauga.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that deltas recreate the target and that invalid deltas are rejected
+ */
+public class BinaryDeltaTest {
+	@Test
+	public void insertion() {
+		byte[] base = randomBytes(1000);
+		byte[] target = concat(Arrays.copyOfRange(base, 0, 400), randomBytes(50), Arrays.copyOfRange(base, 400, 1000));
+		assertRoundTrip(base, target);
+	}
+
+	@Test
+	public void deletion() {
+		byte[] base = randomBytes(1000);
+		byte[] target = concat(Arrays.copyOfRange(base, 0, 300), Arrays.copyOfRange(base, 500, 1000));
+		assertRoundTrip(base, target);
+	}
+
+	@Test
+	public void insertionsAndDeletions() {
+		byte[] base = randomBytes(5000);
+		byte[] target = concat(randomBytes(10), Arrays.copyOfRange(base, 100, 2000), randomBytes(3), Arrays.copyOfRange(base, 2500, 4990),
+				randomBytes(7));
+		assertRoundTrip(base, target);
+	}
+
+	@Test
+	public void emptyBase() {
+		assertRoundTrip(new byte[0], randomBytes(100));
+		assertRoundTrip(new byte[0], new byte[0]);
+	}
+
+	@Test
+	public void emptyTarget() {
+		assertRoundTrip(randomBytes(100), new byte[0]);
+	}
+
+	@Test
+	public void identical() {
+		byte[] base = randomBytes(4000);
+		byte[] delta = assertRoundTrip(base, base.clone());
+		Assert.assertTrue("delta size " + delta.length, delta.length < 32);
+	}
+
+	@Test
+	public void shorterThanBlock() {
+		assertRoundTrip(randomBytes(5), randomBytes(7));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void truncated() {
+		byte[] base = randomBytes(1000);
+		byte[] target = concat(Arrays.copyOfRange(base, 0, 400), randomBytes(50));
+		byte[] delta = BinaryDelta.create(base, target);
+		BinaryDelta.apply(base, Arrays.copyOf(delta, delta.length - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void truncatedHeader() {
+		byte[] base = randomBytes(100);
+		byte[] delta = BinaryDelta.create(base, randomBytes(100));
+		BinaryDelta.apply(base, Arrays.copyOf(delta, 3));
+	}
+
+	@Test
+	public void corrupt() {
+		byte[] base = randomBytes(1000);
+		byte[] target = concat(Arrays.copyOfRange(base, 0, 400), randomBytes(50), Arrays.copyOfRange(base, 600, 1000));
+		byte[] delta = BinaryDelta.create(base, target);
+
+		// Corrupting any single byte must never create wrong bytes
+		for (int i = 0; i < delta.length; ++i) {
+			byte[] corruptDelta = delta.clone();
+			corruptDelta[i] ^= 0x01;
+			try {
+				byte[] result = BinaryDelta.apply(base, corruptDelta);
+				Assert.fail("Corrupt byte " + i + " wasn't rejected, created " + result.length + " bytes");
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongBase() {
+		byte[] base = randomBytes(1000);
+		byte[] delta = BinaryDelta.create(base, concat(base, randomBytes(10)));
+		byte[] otherBase = base.clone();
+		otherBase[500]++;
+		BinaryDelta.apply(otherBase, delta);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongBaseLength() {
+		byte[] base = randomBytes(1000);
+		byte[] delta = BinaryDelta.create(base, randomBytes(10));
+		BinaryDelta.apply(Arrays.copyOf(base, 999), delta);
+	}
+
+	/**
+	 * Creates and applies a delta and checks that the target was recreated
+	 * @param base the old version
+	 * @param target the new version
+	 * @return the created delta
+	 */
+	private static byte[] assertRoundTrip(byte[] base, byte[] target) {
+		byte[] delta = BinaryDelta.create(base, target);
+		Assert.assertArrayEquals(target, BinaryDelta.apply(base, delta));
+		return delta;
+	}
+
+	/**
+	 * @param length number of bytes
+	 * @return random bytes, different for each call
+	 */
+	private byte[] randomBytes(int length) {
+		byte[] bytes = new byte[length];
+		mRandom.nextBytes(bytes);
+		return bytes;
+	}
+
+	/**
+	 * @param arrays the arrays to concatenate
+	 * @return all arrays after each other
+	 */
+	private static byte[] concat(byte[]... arrays) {
+		int length = 0;
+		for (byte[] array : arrays) {
+			length += array.length;
+		}
+		byte[] bytes = new byte[length];
+		int offset = 0;
+		for (byte[] array : arrays) {
+			System.arraycopy(array, 0, bytes, offset, array.length);
+			offset += array.length;
+		}
+		return bytes;
+	}
+
+	/** Seeded so failures can be reproduced */
+	private Random mRandom = new Random(1234);
+}
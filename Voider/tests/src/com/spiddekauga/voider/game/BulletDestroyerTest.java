@@ -0,0 +1,100 @@
+package com.spiddekauga.voider.game;
+
+import java.util.ArrayList;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.spiddekauga.utils.GameTime;
+import com.spiddekauga.utils.scene.ui.IHeadlessWorld;
+import com.spiddekauga.utils.scene.ui.SceneSwitcher;
+import com.spiddekauga.voider.game.actors.BulletActorDef;
+
+/**
+ * Tests that bullets still work after reloading with bullet definitions that couldn't be found
+ */
+public class BulletDestroyerTest {
+	@BeforeClass
+	public static void beforeClass() {
+		Box2D.init();
+		SceneSwitcher.setHeadlessWorld(new IHeadlessWorld() {
+			@Override
+			public GameTime getGameTime() {
+				return mGameTime;
+			}
+
+			@Override
+			public BulletDestroyer getBulletDestroyer() {
+				return null;
+			}
+
+			@Override
+			public float getWorldWidth() {
+				return 0;
+			}
+
+			@Override
+			public float getWorldHeight() {
+				return 0;
+			}
+
+			@Override
+			public Vector2 getWorldMinCoordinates() {
+				return new Vector2();
+			}
+
+			@Override
+			public Vector2 getWorldMaxCoordinates() {
+				return new Vector2();
+			}
+		});
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		SceneSwitcher.setHeadlessWorld(null);
+	}
+
+	@Test
+	public void reloadWithMissingDef() {
+		BulletDestroyer bulletDestroyer = new BulletDestroyer();
+		BulletActorDef missingDef = new BulletActorDef();
+		BulletActorDef foundDef = new BulletActorDef();
+
+		shoot(bulletDestroyer, missingDef);
+		shoot(bulletDestroyer, foundDef);
+		shoot(bulletDestroyer, missingDef);
+		shoot(bulletDestroyer, foundDef);
+
+		// Reload where the first definition couldn't be found
+		ArrayList<BulletActorDef> defs = new ArrayList<>();
+		defs.add(null);
+		defs.add(foundDef);
+		bulletDestroyer.setDefs(defs);
+		Assert.assertEquals(2, bulletDestroyer.getBulletCount());
+		bulletDestroyer.update(UPDATE_TIME);
+
+		// Shoot with the definition again once it's available
+		shoot(bulletDestroyer, missingDef);
+		shoot(bulletDestroyer, foundDef);
+		Assert.assertEquals(4, bulletDestroyer.getBulletCount());
+		bulletDestroyer.update(UPDATE_TIME);
+		Assert.assertEquals(4, bulletDestroyer.getBulletCount());
+	}
+
+	/**
+	 * Shoot a bullet
+	 * @param bulletDestroyer where to shoot the bullet
+	 * @param def the bullet definition to shoot
+	 */
+	private static void shoot(BulletDestroyer bulletDestroyer, BulletActorDef def) {
+		bulletDestroyer.shoot(def, new Vector2(), new Vector2(1, 0), 1, 1, false, false);
+	}
+
+	private static final float UPDATE_TIME = 1f / 60f;
+	private static GameTime mGameTime = new GameTime();
+}
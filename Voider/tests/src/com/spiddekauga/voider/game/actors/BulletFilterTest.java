@@ -0,0 +1,58 @@
+package com.spiddekauga.voider.game.actors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests which actors bullets can hit through the actors' filters
+ */
+public class BulletFilterTest {
+	@Test
+	public void playerHitByEnemyBullet() {
+		Assert.assertTrue("vulnerable player", isPlayerHit(false, false));
+		Assert.assertFalse("invulnerable player", isPlayerHit(false, true));
+		Assert.assertFalse("player bullet, vulnerable player", isPlayerHit(true, false));
+		Assert.assertFalse("player bullet, invulnerable player", isPlayerHit(true, true));
+	}
+
+	@Test
+	public void terrainHitByBullet() {
+		Assert.assertTrue("player bullet", isTerrainHit(true));
+		Assert.assertFalse("enemy bullet", isTerrainHit(false));
+	}
+
+	@Test
+	public void enemyHitByBullet() {
+		short enemyColliding = ActorFilterCategories.PLAYER;
+		Assert.assertTrue("player bullet", isHit(true, ActorFilterCategories.ENEMY, enemyColliding));
+		Assert.assertFalse("enemy bullet", isHit(false, ActorFilterCategories.ENEMY, enemyColliding));
+	}
+
+	/**
+	 * @param shotByPlayer true if the bullet was shot by the player
+	 * @param invulnerable true if the player is invulnerable
+	 * @return true if the bullet hits the player
+	 */
+	private static boolean isPlayerHit(boolean shotByPlayer, boolean invulnerable) {
+		return isHit(shotByPlayer, ActorFilterCategories.PLAYER, PlayerActor.getFilterCollidingCategories(invulnerable));
+	}
+
+	/**
+	 * @param shotByPlayer true if the bullet was shot by the player
+	 * @return true if the bullet hits terrain
+	 */
+	private static boolean isTerrainHit(boolean shotByPlayer) {
+		return isHit(shotByPlayer, ActorFilterCategories.STATIC_TERRAIN, StaticTerrainActor.FILTER_COLLIDING_CATEGORIES);
+	}
+
+	/**
+	 * @param shotByPlayer true if the bullet was shot by the player
+	 * @param category filter category of the actor
+	 * @param collidingCategories colliding categories of the actor
+	 * @return true if the bullet hits the actor
+	 */
+	private static boolean isHit(boolean shotByPlayer, short category, short collidingCategories) {
+		return ActorFilterCategories.isColliding(category, collidingCategories, BulletActor.getFilterCategory(shotByPlayer),
+				BulletActor.getFilterCollidingCategories(shotByPlayer));
+	}
+}
@@ -0,0 +1,202 @@
+package com.spiddekauga.voider.server.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.Transaction;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.spiddekauga.voider.network.stat.HighscoreEntity;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables;
+import com.spiddekauga.voider.server.util.ServerConfig.DatastoreTables.CHighscore;
+
+/**
+ * Benchmarks the highscore rank index against counting highscores in the local datastore. Seeded
+ * with 100k scores in one level.
+ */
+public class HighscoreRankIndexBenchmark {
+	@BeforeClass
+	public static void beforeClass() {
+		mHelper.setUp();
+		mDatastore = DatastoreServiceFactory.getDatastoreService();
+		mLevelKey = KeyFactory.createKey(DatastoreTables.PUBLISHED, 1);
+
+		Random random = new Random(SEED);
+		ArrayList<Entity> entities = new ArrayList<>();
+		for (int i = 0; i < SCORE_COUNT; ++i) {
+			Entity entity = new Entity(DatastoreTables.HIGHSCORE, mLevelKey);
+			entity.setProperty(CHighscore.USERNAME, "player" + i);
+			entity.setProperty(CHighscore.SCORE, (long) random.nextInt(MAX_SCORE));
+			entities.add(entity);
+
+			if (entities.size() == 500) {
+				mDatastore.put(entities);
+				entities.clear();
+			}
+		}
+		mDatastore.put(entities);
+
+		long startTime = System.nanoTime();
+		new HighscoreRankIndex(mLevelKey).load();
+		printTime("Build index", startTime, 1);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		mHelper.tearDown();
+	}
+
+	@Test
+	public void place() {
+		Random random = new Random(SEED + 1);
+		long[] scores = new long[LOOKUPS];
+		for (int i = 0; i < scores.length; ++i) {
+			scores[i] = random.nextInt(MAX_SCORE);
+		}
+
+		// Count
+		int[] countPlaces = new int[scores.length];
+		long startTime = System.nanoTime();
+		for (int i = 0; i < scores.length; ++i) {
+			Query query = new Query(DatastoreTables.HIGHSCORE, mLevelKey);
+			query.setFilter(new FilterPredicate(CHighscore.SCORE, FilterOperator.GREATER_THAN, scores[i]));
+			query.setKeysOnly();
+			countPlaces[i] = mDatastore.prepare(query).countEntities(FetchOptions.Builder.withDefaults()) + 1;
+		}
+		printTime("Place (count)", startTime, scores.length);
+
+		// Index
+		int[] indexPlaces = new int[scores.length];
+		startTime = System.nanoTime();
+		for (int i = 0; i < scores.length; ++i) {
+			HighscoreRankIndex index = new HighscoreRankIndex(mLevelKey);
+			index.load();
+			indexPlaces[i] = index.getPlace(scores[i]);
+		}
+		printTime("Place (index)", startTime, scores.length);
+
+		Assert.assertArrayEquals(countPlaces, indexPlaces);
+	}
+
+	@Test
+	public void aroundUser() {
+		Random random = new Random(SEED + 2);
+		long startTime = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; ++i) {
+			long score = random.nextInt(MAX_SCORE);
+			HighscoreRankIndex index = new HighscoreRankIndex(mLevelKey);
+			index.load();
+			index.prefetch(score, 10, 1);
+
+			List<HighscoreEntity> topScores = index.getTopScores(1);
+			Assert.assertEquals(1, topScores.size());
+
+			long lastScore = Long.MAX_VALUE;
+			Iterator<HighscoreEntity> higherIt = index.getHigherScores(score);
+			for (int j = 0; j < 10 && higherIt.hasNext(); ++j) {
+				long higherScore = higherIt.next().score;
+				Assert.assertTrue(higherScore > score);
+				lastScore = higherScore;
+			}
+			Assert.assertTrue(lastScore <= topScores.get(0).score);
+
+			Iterator<HighscoreEntity> lowerIt = index.getLowerScores(score);
+			for (int j = 0; j < 10 && lowerIt.hasNext(); ++j) {
+				Assert.assertTrue(lowerIt.next().score < score);
+			}
+		}
+		printTime("Around user (index)", startTime, LOOKUPS);
+	}
+
+	@Test
+	public void update() {
+		Random random = new Random(SEED + 3);
+		String[] usernames = new String[LOOKUPS];
+		long[] oldScores = new long[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; ++i) {
+			usernames[i] = "new_player" + i;
+			oldScores[i] = random.nextInt(MAX_SCORE);
+		}
+
+		// New scores
+		long startTime = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; ++i) {
+			Transaction transaction = mDatastore.beginTransaction();
+			new HighscoreRankIndex(mLevelKey).update(transaction, usernames[i], null, oldScores[i]);
+			transaction.commit();
+		}
+		printTime("Insert (index)", startTime, LOOKUPS);
+
+		// Improved scores, removes the old score
+		startTime = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; ++i) {
+			Transaction transaction = mDatastore.beginTransaction();
+			new HighscoreRankIndex(mLevelKey).update(transaction, usernames[i], oldScores[i], oldScores[i] + 1);
+			transaction.commit();
+		}
+		printTime("Update (index)", startTime, LOOKUPS);
+
+		HighscoreRankIndex index = new HighscoreRankIndex(mLevelKey);
+		index.load();
+		Assert.assertEquals(SCORE_COUNT + LOOKUPS, index.getCount());
+		for (int i = 0; i < LOOKUPS; ++i) {
+			Assert.assertFalse("old score of " + usernames[i], containsScore(index, usernames[i], oldScores[i]));
+			Assert.assertTrue("new score of " + usernames[i], containsScore(index, usernames[i], oldScores[i] + 1));
+		}
+	}
+
+	/**
+	 * Check if the index contains a score of a player
+	 * @param index the loaded index
+	 * @param username the player
+	 * @param score the score
+	 * @return true if the index contains the player's score
+	 */
+	private static boolean containsScore(HighscoreRankIndex index, String username, long score) {
+		Iterator<HighscoreEntity> scoreIt = index.getLowerScores(score + 1);
+		while (scoreIt.hasNext()) {
+			HighscoreEntity entity = scoreIt.next();
+			if (entity.score != score) {
+				return false;
+			} else if (username.equals(entity.playerName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Print the average time of an operation
+	 * @param name name of the operation
+	 * @param startTime when the operations started
+	 * @param count number of operations
+	 */
+	private static void printTime(String name, long startTime, int count) {
+		double milliseconds = (System.nanoTime() - startTime) / 1000000.0;
+		System.out.println(String.format("%s: %.3f ms/op", name, milliseconds / count));
+	}
+
+	private static final int SCORE_COUNT = 100000;
+	private static final int MAX_SCORE = 1000000;
+	private static final int LOOKUPS = 50;
+	private static final long SEED = 42;
+	private static final LocalServiceTestHelper mHelper = new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+	private static DatastoreService mDatastore;
+	private static Key mLevelKey;
+}
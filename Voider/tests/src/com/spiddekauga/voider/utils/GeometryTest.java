@@ -9,6 +9,7 @@ import java.util.ArrayList;
 
 import org.junit.Test;
 
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 
 /**
@@ -285,4 +286,22 @@ public class GeometryTest {
 		//		assertEquals(new Vector2(4, 5), polygon.get(1));
 		//		assertEquals(new Vector2(2, 7), polygon.get(2));
 	}
+
+	/**
+	 * Tests interpolation between angles, the shortest way around
+	 */
+	@Test
+	public void interpolateAngle() {
+		float delta = 0.0001f;
+		assertEquals(0.5f, Geometry.interpolateAngle(0, 1, 0.5f), delta);
+		assertEquals(1, Geometry.interpolateAngle(0, 1, 1), delta);
+
+		// Wraps around 0
+		float from = MathUtils.PI2 - 0.2f;
+		assertEquals(MathUtils.PI2, Geometry.interpolateAngle(from, 0.2f, 0.5f), delta);
+		assertEquals(-0.1f, Geometry.interpolateAngle(0.1f, MathUtils.PI2 - 0.3f, 0.5f), delta);
+
+		// Angles are wrapped at a full turn when actors rotate
+		assertEquals(-MathUtils.PI2 + 0.2f, Geometry.interpolateAngle(-MathUtils.PI2 + 0.1f, 0.3f, 0.5f), delta);
+	}
 }